@@ -0,0 +1,96 @@
+package com.northernchile.api.availability;
+
+import com.northernchile.api.benchmark.SyntheticDataset;
+import com.northernchile.api.model.Tour;
+import com.northernchile.api.model.TourSchedule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Availability hot paths: per-schedule validation (validator and ledger), batch status resolution
+ * for the whole 90-day window, and the monthly calendar.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AvailabilityBenchmark {
+
+    @Param({"10", "50"})
+    int tours;
+
+    @Param({"3", "8"})
+    int bookingsPerSchedule;
+
+    private SyntheticDataset dataset;
+    private AvailabilityValidator availabilityValidator;
+    private SeatLedger seatLedger;
+    private AvailabilityService availabilityService;
+    private List<TourSchedule> schedules;
+    private UUID monthTourId;
+    private LocalDate month;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataset = new SyntheticDataset(tours, bookingsPerSchedule);
+        availabilityValidator = dataset.availabilityValidator();
+        seatLedger = dataset.seatLedger();
+        availabilityService = dataset.availabilityService(seatLedger);
+        schedules = dataset.schedules;
+        // Wind-sensitive astronomical tour: exercises both the lunar and the weather checks
+        Tour tour = dataset.tours.get(0);
+        monthTourId = tour.getId();
+        month = dataset.startDate.plusMonths(1);
+    }
+
+    private TourSchedule nextSchedule() {
+        cursor = (cursor + 1) % schedules.size();
+        return schedules.get(cursor);
+    }
+
+    @Benchmark
+    public AvailabilityValidator.AvailabilityResult validatorValidateSingle() {
+        return availabilityValidator.validateAvailability(nextSchedule(), 2);
+    }
+
+    @Benchmark
+    public AvailabilityValidator.AvailabilityResult ledgerValidateSingle() {
+        return seatLedger.validateAvailability(nextSchedule(), 2, null);
+    }
+
+    @Benchmark
+    public Map<UUID, AvailabilityValidator.AvailabilityStatus> validatorStatusesAllSchedules() {
+        return availabilityValidator.getAvailabilityStatuses(schedules);
+    }
+
+    @Benchmark
+    public Map<UUID, AvailabilityValidator.AvailabilityStatus> ledgerStatusesAllSchedules() {
+        return seatLedger.getAvailabilityStatuses(schedules);
+    }
+
+    @Benchmark
+    public void availabilityForMonth(Blackhole blackhole) {
+        blackhole.consume(availabilityService.getAvailabilityForMonth(
+                monthTourId, month.getYear(), month.getMonthValue()));
+    }
+}
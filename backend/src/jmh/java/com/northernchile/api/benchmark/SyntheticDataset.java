@@ -0,0 +1,232 @@
+package com.northernchile.api.benchmark;
+
+import com.northernchile.api.availability.AvailabilityService;
+import com.northernchile.api.availability.AvailabilityValidator;
+import com.northernchile.api.availability.SeatLedger;
+import com.northernchile.api.availability.event.SeatEventPublisher;
+import com.northernchile.api.booking.BookingRepository;
+import com.northernchile.api.cart.CartRepository;
+import com.northernchile.api.config.properties.AppProperties;
+import com.northernchile.api.config.properties.WeatherProperties;
+import com.northernchile.api.external.LunarService;
+import com.northernchile.api.external.WeatherForecast;
+import com.northernchile.api.external.WeatherService;
+import com.northernchile.api.model.Tour;
+import com.northernchile.api.model.TourSchedule;
+import com.northernchile.api.model.TourScheduleStatus;
+import com.northernchile.api.model.TourStatus;
+import com.northernchile.api.payment.repository.PaymentSessionRepository;
+import com.northernchile.api.pricing.PricingService;
+import com.northernchile.api.tour.TourRepository;
+import com.northernchile.api.tour.TourScheduleRepository;
+import com.northernchile.api.util.DateTimeUtils;
+import com.northernchile.api.weather.WeatherRiskService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.when;
+
+/**
+ * In-memory dataset for benchmarks: N published tours with one schedule per day for 90 days,
+ * M confirmed bookings per schedule and a sprinkling of cart holds.
+ *
+ * Repositories are Mockito stubs (stubOnly, so invocations are not recorded) answering from the
+ * generated data; the services under test are the real implementations. The seed is fixed so
+ * every run and every commit measures the same data.
+ */
+public class SyntheticDataset {
+
+    public static final int DAYS = 90;
+    public static final int MAX_PARTICIPANTS = 12;
+
+    private static final String[] RECURRENCE_RULES = {
+            "0 20 * * *",       // daily
+            "0 21 * * 1,3,5",   // Mon/Wed/Fri
+            "0 19 * * 6,0",     // weekends
+            "0 20 1-15 * *",    // first half of the month
+    };
+
+    public final LocalDate startDate;
+    public final List<Tour> tours = new ArrayList<>();
+    public final List<TourSchedule> schedules = new ArrayList<>();
+    public final Map<UUID, List<TourSchedule>> schedulesByTour = new HashMap<>();
+    public final Map<UUID, Integer> confirmedBySchedule = new HashMap<>();
+    public final Map<UUID, Integer> inCartsBySchedule = new HashMap<>();
+    private final List<Object[]> cartHolds = new ArrayList<>();
+
+    public final BookingRepository bookingRepository = stub(BookingRepository.class);
+    public final CartRepository cartRepository = stub(CartRepository.class);
+    public final PaymentSessionRepository paymentSessionRepository = stub(PaymentSessionRepository.class);
+    public final TourScheduleRepository tourScheduleRepository = stub(TourScheduleRepository.class);
+    public final TourRepository tourRepository = stub(TourRepository.class);
+    public final SeatEventPublisher seatEventPublisher = stub(SeatEventPublisher.class);
+
+    public final LunarService lunarService = new LunarService(new AppProperties());
+    public final WeatherService weatherService;
+    public final WeatherRiskService weatherRiskService;
+    public final PricingService pricingService;
+
+    public SyntheticDataset(int tourCount, int bookingsPerSchedule) {
+        Random random = new Random(42);
+        startDate = LocalDate.now(DateTimeUtils.CHILE_ZONE);
+        Instant now = Instant.now();
+
+        for (int t = 0; t < tourCount; t++) {
+            Tour tour = new Tour();
+            tour.setId(UUID.randomUUID());
+            tour.setNameTranslations(Map.of("es", "Tour " + t));
+            tour.setCategory(t % 3 == 0 ? "ASTRONOMICAL" : "REGULAR");
+            tour.setWindSensitive(t % 2 == 0);
+            tour.setRecurring(true);
+            tour.setRecurrenceRule(RECURRENCE_RULES[t % RECURRENCE_RULES.length]);
+            tour.setStatus(TourStatus.PUBLISHED);
+            tour.setDurationHours(3);
+            tour.setDefaultStartTime(LocalTime.of(20, 0));
+            tours.add(tour);
+
+            List<TourSchedule> tourSchedules = new ArrayList<>(DAYS);
+            for (int d = 0; d < DAYS; d++) {
+                TourSchedule schedule = new TourSchedule();
+                schedule.setId(UUID.randomUUID());
+                schedule.setTour(tour);
+                schedule.setStartDatetime(startDate.plusDays(d).atTime(20, 0).atZone(DateTimeUtils.CHILE_ZONE).toInstant());
+                schedule.setMaxParticipants(MAX_PARTICIPANTS);
+                schedule.setStatus(TourScheduleStatus.OPEN);
+                tourSchedules.add(schedule);
+
+                int confirmed = 0;
+                for (int b = 0; b < bookingsPerSchedule && confirmed < MAX_PARTICIPANTS; b++) {
+                    confirmed += Math.min(1 + random.nextInt(3), MAX_PARTICIPANTS - confirmed);
+                }
+                confirmedBySchedule.put(schedule.getId(), confirmed);
+
+                if (random.nextInt(10) == 0 && confirmed < MAX_PARTICIPANTS) {
+                    int held = Math.min(1 + random.nextInt(2), MAX_PARTICIPANTS - confirmed);
+                    inCartsBySchedule.put(schedule.getId(), held);
+                    cartHolds.add(new Object[]{UUID.randomUUID(), schedule.getId(), (long) held, now.plusSeconds(3600)});
+                }
+            }
+            schedules.addAll(tourSchedules);
+            schedulesByTour.put(tour.getId(), tourSchedules);
+        }
+
+        stubRepositories();
+
+        WeatherProperties weatherProperties = new WeatherProperties();
+        weatherProperties.getApi().setKey("synthetic");
+        weatherService = new WeatherService((lat, lon) -> null, weatherProperties, event -> { }, new SimpleMeterRegistry());
+        WeatherService forecastStub = stub(WeatherService.class);
+        when(forecastStub.fetchForecast(anyDouble(), anyDouble())).thenReturn(syntheticForecast(random));
+        ReflectionTestUtils.setField(weatherService, "self", forecastStub);
+        weatherRiskService = new WeatherRiskService(tourScheduleRepository, weatherService, lunarService);
+
+        AppProperties appProperties = new AppProperties();
+        appProperties.setTaxRate(0.19);
+        pricingService = new PricingService(appProperties);
+    }
+
+    public AvailabilityValidator availabilityValidator() {
+        return new AvailabilityValidator(bookingRepository, cartRepository, paymentSessionRepository, tourScheduleRepository);
+    }
+
+    /**
+     * A ledger warmed up the way it is at startup (confirmed counts and cart holds loaded).
+     */
+    public SeatLedger seatLedger() {
+        SeatLedger ledger = new SeatLedger(bookingRepository, cartRepository, paymentSessionRepository,
+                tourScheduleRepository, seatEventPublisher);
+        ledger.rebuild();
+        return ledger;
+    }
+
+    public AvailabilityService availabilityService(SeatLedger ledger) {
+        return new AvailabilityService(tourScheduleRepository, ledger, weatherRiskService);
+    }
+
+    private void stubRepositories() {
+        when(bookingRepository.countConfirmedParticipantsByScheduleId(any()))
+                .thenAnswer(inv -> confirmedBySchedule.getOrDefault(inv.<UUID>getArgument(0), 0));
+        when(bookingRepository.countConfirmedParticipantsByScheduleIds(anyCollection()))
+                .thenAnswer(inv -> {
+                    List<Object[]> rows = new ArrayList<>();
+                    for (UUID id : inv.<Collection<UUID>>getArgument(0)) {
+                        Integer confirmed = confirmedBySchedule.get(id);
+                        if (confirmed != null && confirmed > 0) {
+                            rows.add(new Object[]{id, confirmed.longValue()});
+                        }
+                    }
+                    return rows;
+                });
+
+        when(cartRepository.countParticipantsByScheduleId(any()))
+                .thenAnswer(inv -> inCartsBySchedule.getOrDefault(inv.<UUID>getArgument(0), 0));
+        when(cartRepository.countParticipantsByScheduleIdExcludingCart(any(), any()))
+                .thenAnswer(inv -> inCartsBySchedule.getOrDefault(inv.<UUID>getArgument(0), 0));
+        when(cartRepository.findActiveHolds(any())).thenReturn(cartHolds);
+
+        when(paymentSessionRepository.countReservedSlotsByScheduleId(any(), any())).thenReturn(0);
+        when(paymentSessionRepository.findActivePendingSessions(any())).thenReturn(List.of());
+
+        when(tourScheduleRepository.findIdsByStartDatetimeFrom(any()))
+                .thenAnswer(inv -> schedules.stream().map(TourSchedule::getId).toList());
+        when(tourScheduleRepository.countReservationsByScheduleIds(anyCollection(), any()))
+                .thenAnswer(inv -> {
+                    List<Object[]> rows = new ArrayList<>();
+                    for (UUID id : inv.<Collection<UUID>>getArgument(0)) {
+                        rows.add(new Object[]{id,
+                                confirmedBySchedule.getOrDefault(id, 0).longValue(),
+                                inCartsBySchedule.getOrDefault(id, 0).longValue(),
+                                0L});
+                    }
+                    return rows;
+                });
+        when(tourScheduleRepository.findByTourIdAndStartDatetimeBetweenOrderByStartDatetimeDesc(any(), any(), any()))
+                .thenAnswer(inv -> {
+                    Instant start = inv.getArgument(1);
+                    Instant end = inv.getArgument(2);
+                    return schedulesByTour.getOrDefault(inv.<UUID>getArgument(0), List.of()).stream()
+                            .filter(s -> !s.getStartDatetime().isBefore(start) && !s.getStartDatetime().isAfter(end))
+                            .sorted(Comparator.comparing(TourSchedule::getStartDatetime).reversed())
+                            .toList();
+                });
+    }
+
+    /**
+     * Eight forecast days starting today, as WeatherService.getForecast() returns them.
+     */
+    private WeatherForecast syntheticForecast(Random random) {
+        List<WeatherForecast.Day> days = new ArrayList<>();
+        for (int d = 0; d < 8; d++) {
+            LocalDate date = startDate.plusDays(d);
+            days.add(new WeatherForecast.Day(
+                    date,
+                    date.atTime(12, 0).atZone(DateTimeUtils.CHILE_ZONE).toEpochSecond(),
+                    2.0 + random.nextDouble() * 12,
+                    4.0 + random.nextDouble() * 14,
+                    random.nextInt(100),
+                    random.nextDouble(),
+                    Map.of()));
+        }
+        return WeatherForecast.of(days);
+    }
+
+    private static <T> T stub(Class<T> type) {
+        return Mockito.mock(type, Mockito.withSettings().stubOnly());
+    }
+}
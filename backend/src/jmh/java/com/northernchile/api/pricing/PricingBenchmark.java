@@ -0,0 +1,56 @@
+package com.northernchile.api.pricing;
+
+import com.northernchile.api.benchmark.SyntheticDataset;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cart/checkout totals: PricingService.calculateMultipleItems over carts of typical and large size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PricingBenchmark {
+
+    @Param({"1", "5", "50"})
+    int items;
+
+    private PricingService pricingService;
+    private List<PricingService.LineItem> lineItems;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pricingService = new SyntheticDataset(1, 0).pricingService;
+        Random random = new Random(42);
+        lineItems = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            // CLP prices, tax-inclusive, in steps of 500
+            lineItems.add(new PricingService.LineItem(
+                    BigDecimal.valueOf(15_000 + 500L * random.nextInt(100)), 1 + random.nextInt(6)));
+        }
+    }
+
+    @Benchmark
+    public PricingService.PricingResult calculateMultipleItems() {
+        return pricingService.calculateMultipleItems(lineItems);
+    }
+}
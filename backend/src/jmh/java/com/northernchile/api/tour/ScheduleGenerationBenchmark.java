@@ -0,0 +1,60 @@
+package com.northernchile.api.tour;
+
+import com.northernchile.api.benchmark.SyntheticDataset;
+import com.northernchile.api.model.Tour;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recurrence matching as done by the nightly generation run: every tour's rule expanded over the
+ * 90-day window. Parsed rules are cached in the service across runs, as in production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScheduleGenerationBenchmark {
+
+    @Param({"10", "50"})
+    int tours;
+
+    private TourScheduleGeneratorService generatorService;
+    private List<Tour> recurringTours;
+    private LocalDate today;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticDataset dataset = new SyntheticDataset(tours, 0);
+        generatorService = new TourScheduleGeneratorService(
+                dataset.tourRepository, new TourScheduleBulkWriter(null), dataset.weatherRiskService,
+                null, null, new SimpleMeterRegistry());
+        recurringTours = dataset.tours;
+        today = dataset.startDate;
+    }
+
+    @Benchmark
+    public int expandRecurrenceWindow() {
+        int matches = 0;
+        for (Tour tour : recurringTours) {
+            matches += generatorService.expandRecurrence(tour, today, SyntheticDataset.DAYS).cardinality();
+        }
+        return matches;
+    }
+}
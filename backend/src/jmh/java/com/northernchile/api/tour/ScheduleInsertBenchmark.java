@@ -0,0 +1,128 @@
+package com.northernchile.api.tour;
+
+import com.northernchile.api.util.DateTimeUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generated schedules written per second against a real PostgreSQL (round trips can't be measured on the
+ * in-memory dataset): one INSERT per row in one transaction, as the old save() loop issued them, vs
+ * TourScheduleBulkWriter batches. Scores are rows/second.
+ *
+ * Needs a migrated database with at least one tour, from the same variables the application uses:
+ *   SPRING_DATASOURCE_URL=jdbc:postgresql://localhost:5432/northernchile \
+ *   SPRING_DATASOURCE_USERNAME=... SPRING_DATASOURCE_PASSWORD=... \
+ *   ./mvnw -Pbenchmarks verify -Djmh.include=ScheduleInsert
+ * Rows are written from year 2100 on and deleted after every invocation. Against a database on
+ * localhost a round trip is cheap and the two paths score close; the gap batching targets shows up
+ * with network latency between the application and PostgreSQL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(ScheduleInsertBenchmark.ROWS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScheduleInsertBenchmark {
+
+    static final int ROWS = 1000;
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2100, 1, 1);
+
+    private static final String PER_ROW_INSERT = """
+        INSERT INTO tour_schedules (id, tour_id, start_datetime, max_participants, status, created_at)
+        VALUES (?, ?, ?, ?, ?, ?)
+        """;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private TourScheduleBulkWriter bulkWriter;
+    private List<TourScheduleBulkWriter.NewSchedule> schedules;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String url = System.getenv("SPRING_DATASOURCE_URL");
+        if (url == null || url.isBlank()) {
+            throw new IllegalStateException(
+                    "ScheduleInsertBenchmark needs SPRING_DATASOURCE_URL/_USERNAME/_PASSWORD for a migrated PostgreSQL database");
+        }
+        dataSource = new SingleConnectionDataSource(url,
+                System.getenv("SPRING_DATASOURCE_USERNAME"), System.getenv("SPRING_DATASOURCE_PASSWORD"), true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        bulkWriter = new TourScheduleBulkWriter(jdbcTemplate);
+
+        UUID tourId = jdbcTemplate.queryForObject("SELECT id FROM tours ORDER BY created_at LIMIT 1", UUID.class);
+        schedules = new ArrayList<>(ROWS);
+        for (int d = 0; d < ROWS; d++) {
+            LocalDate date = FIRST_DAY.plusDays(d);
+            schedules.add(new TourScheduleBulkWriter.NewSchedule(
+                    tourId,
+                    date.atTime(LocalTime.of(20, 0)).atZone(DateTimeUtils.CHILE_ZONE).toInstant(),
+                    12,
+                    date.atStartOfDay(DateTimeUtils.CHILE_ZONE).toInstant(),
+                    date.plusDays(1).atStartOfDay(DateTimeUtils.CHILE_ZONE).toInstant()));
+        }
+        deleteRows();
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteRows() {
+        jdbcTemplate.update("DELETE FROM tour_schedules WHERE start_datetime >= ?",
+                FIRST_DAY.atStartOfDay().atOffset(ZoneOffset.UTC));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public int perRowInsert() {
+        OffsetDateTime createdAt = OffsetDateTime.now(ZoneOffset.UTC);
+        return transactionTemplate.execute(status -> {
+            int inserted = 0;
+            for (TourScheduleBulkWriter.NewSchedule schedule : schedules) {
+                inserted += jdbcTemplate.update(PER_ROW_INSERT,
+                        UUID.randomUUID(),
+                        schedule.tourId(),
+                        schedule.startDatetime().atOffset(ZoneOffset.UTC),
+                        schedule.maxParticipants(),
+                        "OPEN",
+                        createdAt);
+            }
+            return inserted;
+        });
+    }
+
+    @Benchmark
+    public int bulkInsert() {
+        return transactionTemplate.execute(status -> bulkWriter.insertMissing(schedules));
+    }
+}
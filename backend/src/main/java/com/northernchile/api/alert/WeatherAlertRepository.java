@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -30,6 +31,15 @@ public interface WeatherAlertRepository extends JpaRepository<WeatherAlert, UUID
      */
     List<WeatherAlert> findByTourSchedule_IdAndStatus(UUID scheduleId, WeatherAlertStatus status);
 
+    /**
+     * IDs de los schedules (entre los dados) que tienen alguna alerta con el status indicado.
+     * Una sola consulta para todo el lote del job de alertas.
+     */
+    @Query("SELECT DISTINCT a.tourSchedule.id FROM WeatherAlert a " +
+           "WHERE a.status = :status AND a.tourSchedule.id IN :scheduleIds")
+    List<UUID> findScheduleIdsWithStatus(@Param("scheduleIds") Collection<UUID> scheduleIds,
+                                         @Param("status") WeatherAlertStatus status);
+
     /**
      * Cuenta alertas pendientes
      */
@@ -3,16 +3,14 @@ package com.northernchile.api.alert;
 import com.northernchile.api.booking.ScheduleCancellationService;
 import com.northernchile.api.booking.dto.CancellationReason;
 import com.northernchile.api.booking.dto.ScheduleCancellationResult;
-import com.northernchile.api.external.LunarService;
-import com.northernchile.api.external.WeatherService;
-import com.northernchile.api.external.dto.DailyForecast;
-import com.northernchile.api.model.Tour;
 import com.northernchile.api.model.TourSchedule;
 import com.northernchile.api.model.TourScheduleStatus;
 import com.northernchile.api.model.User;
 import com.northernchile.api.model.WeatherAlert;
 import com.northernchile.api.model.WeatherAlertStatus;
 import com.northernchile.api.tour.TourScheduleRepository;
+import com.northernchile.api.weather.WeatherRisk;
+import com.northernchile.api.weather.WeatherRiskService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -23,8 +21,13 @@ import com.northernchile.api.util.DateTimeUtils;
 
 import java.time.Instant;
 import java.time.LocalDate;
-import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 /**
  * Servicio de alertas climáticas
@@ -44,32 +47,30 @@ public class WeatherAlertService {
 
     private static final Logger logger = LoggerFactory.getLogger(WeatherAlertService.class);
     private static final int DAYS_TO_CHECK = 8; // Límite de OpenWeatherMap
-    private static final double WIND_THRESHOLD_KNOTS = 25.0;
-    private static final double WIND_THRESHOLD_MS = WIND_THRESHOLD_KNOTS * 0.514444; // Convertir a m/s
-    private static final int CLOUD_THRESHOLD = 80; // %
 
     private final TourScheduleRepository scheduleRepository;
     private final WeatherAlertRepository alertRepository;
-    private final WeatherService weatherService;
-    private final LunarService lunarService;
+    private final WeatherRiskService weatherRiskService;
     private final ScheduleCancellationService scheduleCancellationService;
 
     public WeatherAlertService(
             TourScheduleRepository scheduleRepository,
             WeatherAlertRepository alertRepository,
-            WeatherService weatherService,
-            LunarService lunarService,
+            WeatherRiskService weatherRiskService,
             ScheduleCancellationService scheduleCancellationService) {
         this.scheduleRepository = scheduleRepository;
         this.alertRepository = alertRepository;
-        this.weatherService = weatherService;
-        this.lunarService = lunarService;
+        this.weatherRiskService = weatherRiskService;
         this.scheduleCancellationService = scheduleCancellationService;
     }
 
     /**
      * Se ejecuta diariamente a las 3 AM (después del generador de schedules)
      * Busca schedules en los próximos 8 días y verifica si el pronóstico empeoró
+     *
+     * Etapa por lotes: una consulta de schedules con su tour (JOIN FETCH), una consulta
+     * con los IDs de schedules que ya tienen alerta pendiente, una evaluación de riesgo
+     * por tour y fecha, y un único saveAll con las alertas nuevas.
      */
     @Scheduled(cron = "0 0 3 * * *", zone = "America/Santiago")
     @Transactional
@@ -79,119 +80,110 @@ public class WeatherAlertService {
         LocalDate today = LocalDate.now(DateTimeUtils.CHILE_ZONE);
         LocalDate endDate = today.plusDays(DAYS_TO_CHECK);
 
-        // Buscar schedules en los próximos 8 días que no estén cancelados
-        ZonedDateTime startDateTime = today.atStartOfDay(DateTimeUtils.CHILE_ZONE);
-        ZonedDateTime endDateTime = endDate.atStartOfDay(DateTimeUtils.CHILE_ZONE);
-
-        // Convertir a Instant para el repositorio
-        Instant startInstant = startDateTime.toInstant();
-        Instant endInstant = endDateTime.toInstant();
+        Instant startInstant = today.atStartOfDay(DateTimeUtils.CHILE_ZONE).toInstant();
+        Instant endInstant = endDate.atStartOfDay(DateTimeUtils.CHILE_ZONE).toInstant();
 
+        // Schedules de los próximos 8 días con su tour cargado, sin los cancelados
         List<TourSchedule> upcomingSchedules = scheduleRepository
-                .findByStartDatetimeBetween(startInstant, endInstant)
+                .findByStartDatetimeBetweenWithTour(startInstant, endInstant)
                 .stream()
                 .filter(schedule -> schedule.getStatus() != TourScheduleStatus.CANCELLED)
                 .toList();
 
         logger.info("Encontrados {} schedules en los próximos {} días", upcomingSchedules.size(), DAYS_TO_CHECK);
 
-        int alertsCreated = 0;
+        if (upcomingSchedules.isEmpty()) {
+            logger.info("Verificación completada. Alertas creadas: 0");
+            return;
+        }
+
+        // Schedules que ya tienen una alerta pendiente: no se crea otra
+        Set<UUID> withPendingAlert = new HashSet<>(alertRepository.findScheduleIdsWithStatus(
+                upcomingSchedules.stream().map(TourSchedule::getId).toList(),
+                WeatherAlertStatus.PENDING));
+
+        // El riesgo depende solo del tour (ubicación y sensibilidades) y de la fecha
+        Map<TourDay, WeatherRisk> risks = new HashMap<>();
+        List<WeatherAlert> newAlerts = new ArrayList<>();
 
         for (TourSchedule schedule : upcomingSchedules) {
+            if (withPendingAlert.contains(schedule.getId())) {
+                continue;
+            }
             try {
                 LocalDate scheduleDate = schedule.getStartDatetime().atZone(DateTimeUtils.CHILE_ZONE).toLocalDate();
-                Tour tour = schedule.getTour();
-
-                // Verificar si ya existe una alerta pendiente para este schedule
-                boolean hasPendingAlert = !alertRepository
-                        .findByTourSchedule_IdAndStatus(schedule.getId(), WeatherAlertStatus.PENDING)
-                        .isEmpty();
-
-                if (hasPendingAlert) {
-                    continue; // Ya hay una alerta pendiente, no crear otra
-                }
-
-                // Verificar condiciones problemáticas
-                WeatherAlert alert = checkConditions(schedule, scheduleDate, tour);
+                WeatherRisk risk = risks.computeIfAbsent(
+                        new TourDay(schedule.getTour().getId(), scheduleDate),
+                        key -> weatherRiskService.riskFor(schedule));
 
+                WeatherAlert alert = buildAlert(schedule, risk);
                 if (alert != null) {
-                    alertRepository.save(alert);
-                    alertsCreated++;
+                    newAlerts.add(alert);
                     logger.info("Alerta creada para schedule {} (Tour: {}, Fecha: {}): {}",
-                            schedule.getId(), tour.getId(), scheduleDate, alert.getMessage());
+                            schedule.getId(), schedule.getTour().getId(), scheduleDate, alert.getMessage());
                 }
-
             } catch (Exception e) {
                 logger.error("Error verificando schedule {}: {}", schedule.getId(), e.getMessage());
             }
         }
 
-        logger.info("Verificación completada. Alertas creadas: {}", alertsCreated);
+        if (!newAlerts.isEmpty()) {
+            alertRepository.saveAll(newAlerts);
+        }
+
+        logger.info("Verificación completada. Alertas creadas: {} ({} evaluaciones de riesgo)",
+                newAlerts.size(), risks.size());
     }
 
+    private record TourDay(UUID tourId, LocalDate date) {}
+
     /**
-     * Verifica las condiciones climáticas y lunares para un schedule
+     * Construye la alerta para un schedule a partir del riesgo climático y lunar
+     * (precalculado por WeatherRiskService)
      * @return WeatherAlert si hay problemas, null si todo OK
      */
-    private WeatherAlert checkConditions(TourSchedule schedule, LocalDate date, Tour tour) {
-        // Verificar viento para tours sensibles
-        if (tour.isWindSensitive()) {
-            DailyForecast forecast = weatherService.getDailyForecast(date);
-            if (forecast != null) {
-                double maxWind = forecast.windSpeed();
-                if (forecast.windGust() != null && forecast.windGust() > maxWind) {
-                    maxWind = forecast.windGust();
-                }
-
-                if (maxWind > WIND_THRESHOLD_MS) {
-                    WeatherAlert alert = new WeatherAlert();
-                    alert.setTourSchedule(schedule);
-                    alert.setAlertType("WIND");
-                    alert.setSeverity("CRITICAL");
-                    alert.setWindSpeed(maxWind);
-                    alert.setMessage(String.format(
-                            "Viento excesivo detectado: %.1f m/s (%.1f nudos). Umbral: %.0f nudos",
-                            maxWind, maxWind / 0.514444, WIND_THRESHOLD_KNOTS
-                    ));
-                    return alert;
-                }
-            }
+    private WeatherAlert buildAlert(TourSchedule schedule, WeatherRisk risk) {
+
+        // Viento para tours sensibles
+        if (risk.wind()) {
+            WeatherAlert alert = new WeatherAlert();
+            alert.setTourSchedule(schedule);
+            alert.setAlertType("WIND");
+            alert.setSeverity("CRITICAL");
+            alert.setWindSpeed(risk.maxWindMs());
+            alert.setMessage(String.format(
+                    "Viento excesivo detectado: %.1f m/s (%.1f nudos). Umbral: %.0f nudos",
+                    risk.maxWindMs(), risk.maxWindKnots(), WeatherRiskService.WIND_THRESHOLD_KNOTS
+            ));
+            return alert;
         }
 
-        // Verificar nubosidad para tours sensibles
-        if (tour.isCloudSensitive()) {
-            DailyForecast forecast = weatherService.getDailyForecast(date);
-            if (forecast != null && forecast.clouds() > CLOUD_THRESHOLD) {
-                WeatherAlert alert = new WeatherAlert();
-                alert.setTourSchedule(schedule);
-                alert.setAlertType("CLOUDS");
-                alert.setSeverity("WARNING");
-                alert.setCloudCoverage(forecast.clouds());
-                alert.setMessage(String.format(
-                        "Nubosidad alta detectada: %d%%. Umbral: %d%%",
-                        forecast.clouds(), CLOUD_THRESHOLD
-                ));
-                return alert;
-            }
+        // Nubosidad para tours sensibles
+        if (risk.cloudy()) {
+            WeatherAlert alert = new WeatherAlert();
+            alert.setTourSchedule(schedule);
+            alert.setAlertType("CLOUDS");
+            alert.setSeverity("WARNING");
+            alert.setCloudCoverage(risk.clouds());
+            alert.setMessage(String.format(
+                    "Nubosidad alta detectada: %d%%. Umbral: %d%%",
+                    risk.clouds(), WeatherRiskService.CLOUD_THRESHOLD
+            ));
+            return alert;
         }
 
-        // Verificar luna llena para tours astronómicos
-        if (tour.isMoonSensitive()) {
-            if (lunarService.isFullMoon(date)) {
-                double moonPhase = lunarService.getMoonPhase(date);
-                int illumination = lunarService.getMoonIllumination(date);
-
-                WeatherAlert alert = new WeatherAlert();
-                alert.setTourSchedule(schedule);
-                alert.setAlertType("MOON");
-                alert.setSeverity("CRITICAL");
-                alert.setMoonPhase(moonPhase);
-                alert.setMessage(String.format(
-                        "Luna llena detectada: %d%% iluminación (fase: %.2f). Tours astronómicos afectados",
-                        illumination, moonPhase
-                ));
-                return alert;
-            }
+        // Luna llena para tours sensibles a la luna
+        if (risk.moonAlert()) {
+            WeatherAlert alert = new WeatherAlert();
+            alert.setTourSchedule(schedule);
+            alert.setAlertType("MOON");
+            alert.setSeverity("CRITICAL");
+            alert.setMoonPhase(risk.moonPhase());
+            alert.setMessage(String.format(
+                    "Luna llena detectada: %d%% iluminación (fase: %.2f). Tours astronómicos afectados",
+                    risk.moonIllumination(), risk.moonPhase()
+            ));
+            return alert;
         }
 
         return null; // Todo OK, no hay alerta
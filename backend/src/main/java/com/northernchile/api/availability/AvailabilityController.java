@@ -1,14 +1,18 @@
 package com.northernchile.api.availability;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import java.time.LocalDate;
 import java.time.YearMonth;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -17,9 +21,11 @@ import java.util.UUID;
 public class AvailabilityController {
 
     private final AvailabilityService availabilityService;
+    private final AvailabilityStreamService availabilityStreamService;
 
-    public AvailabilityController(AvailabilityService availabilityService) {
+    public AvailabilityController(AvailabilityService availabilityService, AvailabilityStreamService availabilityStreamService) {
         this.availabilityService = availabilityService;
+        this.availabilityStreamService = availabilityStreamService;
     }
 
     @GetMapping
@@ -33,4 +39,15 @@ public class AvailabilityController {
 
         return ResponseEntity.ok(availability);
     }
-}
\ No newline at end of file
+
+    /**
+     * Server-Sent Events stream of seat-count changes for the given tours.
+     * Emits "seats" events (JSON array of ScheduleSeats) at most once per second.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamAvailability(@RequestParam List<UUID> tourIds) {
+        return availabilityStreamService.subscribe(tourIds)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+}
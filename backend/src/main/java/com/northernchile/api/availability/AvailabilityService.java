@@ -1,11 +1,12 @@
 package com.northernchile.api.availability;
 
 import com.northernchile.api.booking.BookingRepository;
-import com.northernchile.api.external.LunarService;
-import com.northernchile.api.external.WeatherService;
 import com.northernchile.api.model.TourSchedule;
 import com.northernchile.api.tour.TourScheduleRepository;
+import com.northernchile.api.weather.WeatherRisk;
+import com.northernchile.api.weather.WeatherRiskService;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.northernchile.api.util.DateTimeUtils;
 
@@ -20,23 +21,19 @@ import java.util.stream.Collectors;
 @Service
 public class AvailabilityService {
 
-    private static final int WIND_THRESHOLD_KNOTS = 25;
     private static final int FEW_SLOTS_THRESHOLD = 5;
 
     private final TourScheduleRepository tourScheduleRepository;
-    private final AvailabilityValidator availabilityValidator;
-    private final WeatherService weatherService;
-    private final LunarService lunarService;
+    private final SeatLedger seatLedger;
+    private final WeatherRiskService weatherRiskService;
 
     public AvailabilityService(
             TourScheduleRepository tourScheduleRepository,
-            AvailabilityValidator availabilityValidator,
-            WeatherService weatherService,
-            LunarService lunarService) {
+            SeatLedger seatLedger,
+            WeatherRiskService weatherRiskService) {
         this.tourScheduleRepository = tourScheduleRepository;
-        this.availabilityValidator = availabilityValidator;
-        this.weatherService = weatherService;
-        this.lunarService = lunarService;
+        this.seatLedger = seatLedger;
+        this.weatherRiskService = weatherRiskService;
     }
 
     /**
@@ -50,6 +47,7 @@ public class AvailabilityService {
             Double moonIllumination
     ) {}
 
+    @Transactional(readOnly = true)
     public Map<LocalDate, DayAvailability> getAvailabilityForMonth(UUID tourId, int year, int month) {
         YearMonth yearMonth = YearMonth.of(year, month);
         LocalDate startOfMonth = yearMonth.atDay(1);
@@ -61,32 +59,33 @@ public class AvailabilityService {
                 endOfMonth.plusDays(1).atStartOfDay(DateTimeUtils.CHILE_ZONE).toInstant()
         );
 
+        // Resolve seat counts for the whole month from the seat ledger (accounts for bookings, carts and payment sessions)
+        Map<UUID, AvailabilityValidator.AvailabilityStatus> statuses =
+                seatLedger.getAvailabilityStatuses(schedules);
+
         return schedules.stream()
                 .collect(Collectors.toMap(
                         schedule -> LocalDate.ofInstant(schedule.getStartDatetime(), DateTimeUtils.CHILE_ZONE),
-                        schedule -> calculateDayAvailability(schedule),
+                        schedule -> calculateDayAvailability(schedule, statuses.get(schedule.getId())),
                         (day1, day2) -> day1 // In case of multiple schedules on the same day, take the first one
                 ));
     }
 
-    private DayAvailability calculateDayAvailability(TourSchedule schedule) {
-        LocalDate date = LocalDate.ofInstant(schedule.getStartDatetime(), DateTimeUtils.CHILE_ZONE);
+    private DayAvailability calculateDayAvailability(TourSchedule schedule,
+                                                     AvailabilityValidator.AvailabilityStatus availabilityStatus) {
+        WeatherRisk risk = weatherRiskService.riskFor(schedule);
+        Double moonIllumination = Double.valueOf(risk.moonIllumination());
 
-        // Check for full moon on astronomical tours
-        if ("ASTRONOMICAL".equalsIgnoreCase(schedule.getTour().getCategory()) && lunarService.isFullMoon(date)) {
-            return new DayAvailability("UNAVAILABLE_MOON", Integer.valueOf(0), Double.valueOf(lunarService.getMoonIllumination(date)));
+        // Full moon on astronomical tours
+        if (risk.moonBlocksAvailability()) {
+            return new DayAvailability("UNAVAILABLE_MOON", Integer.valueOf(0), moonIllumination);
         }
 
-        // Check for strong wind on sensitive tours
-        if (schedule.getTour().isWindSensitive() && weatherService.isWindAboveThreshold(date, WIND_THRESHOLD_KNOTS)) {
-            return new DayAvailability("UNAVAILABLE_WIND", Integer.valueOf(0), Double.valueOf(lunarService.getMoonIllumination(date)));
+        // Strong wind on wind-sensitive tours
+        if (risk.wind()) {
+            return new DayAvailability("UNAVAILABLE_WIND", Integer.valueOf(0), moonIllumination);
         }
 
-        // Get availability status using centralized validator (accounts for both bookings and carts)
-        var availabilityStatus = availabilityValidator.getAvailabilityStatus(
-                schedule.getId(),
-                schedule.getMaxParticipants()
-        );
         Integer availableSlots = availabilityStatus.availableSlots();
 
         String status = "AVAILABLE";
@@ -96,6 +95,6 @@ public class AvailabilityService {
             status = "FEW_SLOTS_LEFT";
         }
 
-        return new DayAvailability(status, availableSlots, Double.valueOf(lunarService.getMoonIllumination(date)));
+        return new DayAvailability(status, availableSlots, moonIllumination);
     }
 }
@@ -0,0 +1,242 @@
+package com.northernchile.api.availability;
+
+import com.northernchile.api.availability.event.SeatCountsChangedEvent;
+import com.northernchile.api.tour.TourScheduleRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes seat-count changes to clients over Server-Sent Events so calendars and checkout pages
+ * don't have to poll the availability endpoints.
+ *
+ * SeatLedger publishes a SeatCountsChangedEvent whenever a booking, cart hold or payment session
+ * moves the counts of a schedule. Changed schedule IDs are collected in one shared set and flushed
+ * once per second: each connection receives a single "seats" event with the current counts of the
+ * changed schedules belonging to its tours. A burst of changes on the same schedule is therefore
+ * coalesced into one update.
+ *
+ * Memory per connection is bounded: a connection only stores its (capped) set of tour IDs, nothing
+ * is queued per connection, and the total number of connections is capped.
+ *
+ * Writes to the connections happen on a dedicated sender thread, so a slow client never holds up the
+ * shared scheduler. At most one fan-out runs at a time: while it is busy, changes stay collected for
+ * the next flush and heartbeats are skipped.
+ */
+@Service
+public class AvailabilityStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(AvailabilityStreamService.class);
+
+    static final int MAX_CONNECTIONS = 1000;
+    static final int MAX_TOURS_PER_CONNECTION = 20;
+    private static final long FLUSH_INTERVAL_MILLIS = 1000;
+    // Keeps proxies (Cloudflare, nginx) from closing idle connections
+    private static final long HEARTBEAT_INTERVAL_MILLIS = 25_000;
+    // Clients (EventSource) reconnect automatically after this
+    private static final long EMITTER_TIMEOUT_MILLIS = 30 * 60_000L;
+
+    private final TourScheduleRepository tourScheduleRepository;
+    private final SeatLedger seatLedger;
+
+    private final Map<SseEmitter, Set<UUID>> subscriptions = new ConcurrentHashMap<>();
+    private final Set<UUID> changedSchedules = ConcurrentHashMap.newKeySet();
+
+    private final ExecutorService sender =
+            Executors.newSingleThreadExecutor(Thread.ofPlatform().name("availability-stream").factory());
+    private final AtomicBoolean sending = new AtomicBoolean();
+
+    public AvailabilityStreamService(TourScheduleRepository tourScheduleRepository, SeatLedger seatLedger) {
+        this.tourScheduleRepository = tourScheduleRepository;
+        this.seatLedger = seatLedger;
+    }
+
+    /**
+     * Opens a stream for the given tours.
+     *
+     * @param tourIds Tours to follow (1 to MAX_TOURS_PER_CONNECTION)
+     * @return The emitter, or empty if the connection limit has been reached
+     */
+    public Optional<SseEmitter> subscribe(Collection<UUID> tourIds) {
+        if (tourIds == null || tourIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one tourId is required");
+        }
+        Set<UUID> tours = Set.copyOf(tourIds);
+        if (tours.size() > MAX_TOURS_PER_CONNECTION) {
+            throw new IllegalArgumentException("At most " + MAX_TOURS_PER_CONNECTION + " tours per stream");
+        }
+        if (subscriptions.size() >= MAX_CONNECTIONS) {
+            log.warn("Availability stream rejected: {} connections open", subscriptions.size());
+            return Optional.empty();
+        }
+
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MILLIS);
+        emitter.onCompletion(() -> subscriptions.remove(emitter));
+        emitter.onTimeout(() -> subscriptions.remove(emitter));
+        emitter.onError(e -> subscriptions.remove(emitter));
+        subscriptions.put(emitter, tours);
+
+        try {
+            emitter.send(SseEmitter.event().comment("connected"));
+        } catch (IOException e) {
+            subscriptions.remove(emitter);
+            emitter.completeWithError(e);
+        }
+        return Optional.of(emitter);
+    }
+
+    /**
+     * Marks schedules as changed. Runs synchronously after SeatLedger applied the change.
+     */
+    @EventListener
+    public void onSeatCountsChanged(SeatCountsChangedEvent event) {
+        if (!subscriptions.isEmpty()) {
+            changedSchedules.addAll(event.scheduleIds());
+        }
+    }
+
+    /**
+     * Sends the coalesced changes of the last interval to every subscribed connection.
+     */
+    @Scheduled(fixedDelay = FLUSH_INTERVAL_MILLIS)
+    public void flush() {
+        if (changedSchedules.isEmpty() || sending.get()) {
+            return;
+        }
+        List<UUID> changed = new ArrayList<>(changedSchedules);
+        changedSchedules.removeAll(changed);
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+
+        Set<UUID> followedTours = new HashSet<>();
+        subscriptions.values().forEach(followedTours::addAll);
+
+        Map<UUID, List<ScheduleSeats>> updatesByTour = new HashMap<>();
+        try {
+            List<Object[]> rows = tourScheduleRepository.findCapacitiesByIdsAndTourIds(changed, followedTours);
+            if (rows.isEmpty()) {
+                return;
+            }
+            Map<UUID, AvailabilityValidator.ReservationCounts> counts =
+                    seatLedger.getReservationCounts(rows.stream().map(row -> (UUID) row[0]).toList());
+            for (Object[] row : rows) {
+                UUID scheduleId = (UUID) row[0];
+                UUID tourId = (UUID) row[1];
+                int maxParticipants = (Integer) row[2];
+                int reserved = counts.getOrDefault(scheduleId, AvailabilityValidator.ReservationCounts.EMPTY).totalReserved();
+                updatesByTour.computeIfAbsent(tourId, id -> new ArrayList<>()).add(new ScheduleSeats(
+                        scheduleId, tourId, maxParticipants, reserved, Math.max(0, maxParticipants - reserved)));
+            }
+        } catch (Exception e) {
+            log.error("Failed to load availability stream updates: {}", e.getMessage(), e);
+            return;
+        }
+
+        boolean started = fanOut(() -> subscriptions.forEach((emitter, tours) -> {
+            List<ScheduleSeats> updates = new ArrayList<>();
+            for (UUID tourId : tours) {
+                updates.addAll(updatesByTour.getOrDefault(tourId, List.of()));
+            }
+            if (!updates.isEmpty()) {
+                send(emitter, SseEmitter.event().name("seats").data(updates, MediaType.APPLICATION_JSON));
+            }
+        }));
+        if (!started) {
+            // A heartbeat took the sender first; send these with the next flush
+            changedSchedules.addAll(changed);
+        }
+    }
+
+    /**
+     * Sends a comment line to every connection so idle streams stay open.
+     */
+    @Scheduled(fixedDelay = HEARTBEAT_INTERVAL_MILLIS)
+    public void heartbeat() {
+        if (subscriptions.isEmpty() || sending.get()) {
+            return;
+        }
+        fanOut(() -> subscriptions.keySet().forEach(emitter -> send(emitter, SseEmitter.event().comment("ping"))));
+    }
+
+    /**
+     * Runs the writes on the sender thread unless a previous fan-out is still running.
+     *
+     * @return false if the writes were not started
+     */
+    private boolean fanOut(Runnable writes) {
+        if (!sending.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            sender.execute(() -> {
+                try {
+                    writes.run();
+                } finally {
+                    sending.set(false);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            sending.set(false);
+            return false;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sender.shutdownNow();
+    }
+
+    int openConnections() {
+        return subscriptions.size();
+    }
+
+    private void send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; drop the connection instead of buffering for it
+            subscriptions.remove(emitter);
+            emitter.completeWithError(e);
+        }
+    }
+
+    /**
+     * Current seat counts of one schedule, as sent in "seats" events.
+     *
+     * @param scheduleId The tour schedule
+     * @param tourId The tour the schedule belongs to
+     * @param maxParticipants Schedule capacity
+     * @param reservedSeats Seats taken by bookings, active carts and pending payment sessions
+     * @param availableSlots Seats still available
+     */
+    public record ScheduleSeats(
+            UUID scheduleId,
+            UUID tourId,
+            int maxParticipants,
+            int reservedSeats,
+            int availableSlots) {}
+}
@@ -3,12 +3,21 @@ package com.northernchile.api.availability;
 import com.northernchile.api.booking.BookingRepository;
 import com.northernchile.api.cart.CartRepository;
 import com.northernchile.api.model.TourSchedule;
+import com.northernchile.api.payment.model.PaymentSessionItem;
 import com.northernchile.api.payment.repository.PaymentSessionRepository;
+import com.northernchile.api.tour.TourScheduleRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * Centralized service for validating tour schedule availability and preventing overbooking.
@@ -27,14 +36,17 @@ public class AvailabilityValidator {
     private final BookingRepository bookingRepository;
     private final CartRepository cartRepository;
     private final PaymentSessionRepository paymentSessionRepository;
+    private final TourScheduleRepository tourScheduleRepository;
 
     public AvailabilityValidator(
             BookingRepository bookingRepository,
             CartRepository cartRepository,
-            PaymentSessionRepository paymentSessionRepository) {
+            PaymentSessionRepository paymentSessionRepository,
+            TourScheduleRepository tourScheduleRepository) {
         this.bookingRepository = bookingRepository;
         this.cartRepository = cartRepository;
         this.paymentSessionRepository = paymentSessionRepository;
+        this.tourScheduleRepository = tourScheduleRepository;
     }
 
     /**
@@ -142,6 +154,119 @@ public class AvailabilityValidator {
         );
     }
 
+    /**
+     * Gets current availability status for many schedules at once.
+     * Resolves confirmed, in-cart and in-payment counts for all schedules in a single
+     * grouped query instead of three queries per schedule.
+     *
+     * @param schedules The tour schedules to check
+     * @return AvailabilityStatus per schedule ID (schedules without reservations report zero counts)
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, AvailabilityStatus> getAvailabilityStatuses(Collection<TourSchedule> schedules) {
+        if (schedules.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<UUID, ReservationCounts> counts = countReservations(
+                schedules.stream().map(TourSchedule::getId).collect(Collectors.toSet()));
+
+        Map<UUID, AvailabilityStatus> statuses = new HashMap<>();
+        for (TourSchedule schedule : schedules) {
+            ReservationCounts c = counts.getOrDefault(schedule.getId(), ReservationCounts.EMPTY);
+            int maxParticipants = schedule.getMaxParticipants();
+            int availableSlots = maxParticipants - c.totalReserved();
+
+            statuses.put(schedule.getId(), new AvailabilityStatus(
+                    maxParticipants,
+                    c.bookedParticipants(),
+                    c.participantsInCarts(),
+                    c.participantsInPaymentSessions(),
+                    availableSlots
+            ));
+        }
+        return statuses;
+    }
+
+    /**
+     * Validates all items of a checkout at once, resolving counts for every schedule in one query.
+     * Items for the same schedule are summed. Only confirmed bookings and pending payment sessions
+     * count against the request: the items being paid come from the buyer's own cart.
+     *
+     * @param schedules The schedules of the items, by ID
+     * @param items The payment session items to validate
+     * @return AvailabilityResult per schedule ID, in ascending schedule ID order
+     */
+    @Transactional(readOnly = true)
+    public SortedMap<UUID, AvailabilityResult> validateItems(
+            Map<UUID, TourSchedule> schedules,
+            Collection<PaymentSessionItem> items) {
+
+        SortedMap<UUID, Integer> requestedBySchedule = new TreeMap<>();
+        for (PaymentSessionItem item : items) {
+            requestedBySchedule.merge(item.scheduleId(), item.numParticipants(), Integer::sum);
+        }
+        Map<UUID, ReservationCounts> counts = countReservations(requestedBySchedule.keySet());
+
+        SortedMap<UUID, AvailabilityResult> results = new TreeMap<>();
+        requestedBySchedule.forEach((scheduleId, requestedSlots) -> {
+            ReservationCounts c = counts.getOrDefault(scheduleId, ReservationCounts.EMPTY);
+            int maxParticipants = schedules.get(scheduleId).getMaxParticipants();
+            int availableSlots = maxParticipants - c.bookedParticipants() - c.participantsInPaymentSessions();
+
+            results.put(scheduleId, new AvailabilityResult(
+                    availableSlots >= requestedSlots,
+                    maxParticipants,
+                    c.bookedParticipants(),
+                    0,
+                    c.participantsInPaymentSessions(),
+                    availableSlots,
+                    requestedSlots
+            ));
+        });
+        return results;
+    }
+
+    /**
+     * Counts reserved participants for each schedule from all three sources in one query.
+     *
+     * @param scheduleIds The tour schedule IDs to count
+     * @return ReservationCounts per schedule ID (only IDs that exist are present)
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, ReservationCounts> countReservations(Collection<UUID> scheduleIds) {
+        if (scheduleIds.isEmpty()) {
+            return Map.of();
+        }
+
+        List<Object[]> rows = tourScheduleRepository.countReservationsByScheduleIds(scheduleIds, Instant.now());
+
+        Map<UUID, ReservationCounts> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put((UUID) row[0], new ReservationCounts(
+                    ((Number) row[1]).intValue(),
+                    ((Number) row[2]).intValue(),
+                    ((Number) row[3]).intValue()
+            ));
+        }
+        return counts;
+    }
+
+    /**
+     * Reserved participants for a schedule, broken down by source.
+     */
+    public record ReservationCounts(
+            int bookedParticipants,
+            int participantsInCarts,
+            int participantsInPaymentSessions
+    ) {
+        static final ReservationCounts EMPTY = new ReservationCounts(0, 0, 0);
+
+        public int totalReserved() {
+            return bookedParticipants + participantsInCarts + participantsInPaymentSessions;
+        }
+    }
+
     /**
      * Result of availability validation.
      */
@@ -0,0 +1,151 @@
+package com.northernchile.api.availability;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hierarchical timing wheel for expiring keys at (tick-rounded) deadlines.
+ *
+ * Four levels of 64 slots each: level 0 covers the current 64 ticks, each higher level covers
+ * 64 times the span of the one below. Entries move down a level when the wheel reaches their block
+ * ("cascade"), so scheduling, cancelling and expiring are all O(1) amortized, regardless of how
+ * many holds are pending. Deadlines beyond the top level's span (~194 days at 1s ticks) are
+ * parked in the top level and re-placed each time their slot comes around.
+ *
+ * Not thread-safe on its own; callers synchronize.
+ *
+ * @param <K> Key type (must implement equals/hashCode)
+ */
+final class HierarchicalTimingWheel<K> {
+
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final long tickMillis;
+    private final List<List<Set<K>>> wheels = new ArrayList<>(LEVELS);
+    private final Map<K, Long> deadlines = new HashMap<>();
+    private final Set<K> overdue = new HashSet<>();
+    private long currentTick;
+
+    HierarchicalTimingWheel(long tickMillis, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        for (int level = 0; level < LEVELS; level++) {
+            List<Set<K>> slots = new ArrayList<>(SLOTS);
+            for (int slot = 0; slot < SLOTS; slot++) {
+                slots.add(new HashSet<>());
+            }
+            wheels.add(slots);
+        }
+    }
+
+    /**
+     * Schedules (or reschedules) a key. Deadlines already reached expire on the next advance.
+     */
+    void schedule(K key, long deadlineMillis) {
+        cancel(key);
+        // Round up so a key never expires before its deadline
+        long deadlineTick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        deadlines.put(key, deadlineTick);
+        if (deadlineTick <= currentTick) {
+            overdue.add(key);
+        } else {
+            place(key, deadlineTick);
+        }
+    }
+
+    /**
+     * Removes a key. No-op if it is not scheduled.
+     */
+    void cancel(K key) {
+        Long deadlineTick = deadlines.remove(key);
+        if (deadlineTick == null) {
+            return;
+        }
+        if (overdue.remove(key)) {
+            return;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            if (wheels.get(level).get(slotFor(deadlineTick, level)).remove(key)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Advances the wheel to the given time and returns every key whose deadline has been reached.
+     */
+    List<K> advance(long nowMillis) {
+        List<K> expired = new ArrayList<>(overdue);
+        overdue.clear();
+        expired.forEach(deadlines::remove);
+
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            Set<K> slot = wheels.get(0).get((int) (currentTick & SLOT_MASK));
+            if (!slot.isEmpty()) {
+                for (K key : slot) {
+                    deadlines.remove(key);
+                    expired.add(key);
+                }
+                slot.clear();
+            }
+        }
+        return expired;
+    }
+
+    int size() {
+        return deadlines.size();
+    }
+
+    /**
+     * Moves entries from higher levels down when the wheel enters their block.
+     */
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            long blockMask = (1L << (SLOT_BITS * level)) - 1;
+            if ((currentTick & blockMask) != 0) {
+                return;
+            }
+            Set<K> slot = wheels.get(level).get(slotFor(currentTick, level));
+            if (slot.isEmpty()) {
+                continue;
+            }
+            List<K> moving = new ArrayList<>(slot);
+            slot.clear();
+            for (K key : moving) {
+                place(key, deadlines.get(key));
+            }
+        }
+    }
+
+    /**
+     * Places a key on the lowest level whose current block contains its deadline.
+     */
+    private void place(K key, long deadlineTick) {
+        if (deadlineTick < currentTick) {
+            overdue.add(key);
+            return;
+        }
+        for (int level = 0; level < LEVELS - 1; level++) {
+            int blockShift = SLOT_BITS * (level + 1);
+            if ((deadlineTick >>> blockShift) == (currentTick >>> blockShift)) {
+                wheels.get(level).get(slotFor(deadlineTick, level)).add(key);
+                return;
+            }
+        }
+        wheels.get(LEVELS - 1).get(slotFor(deadlineTick, LEVELS - 1)).add(key);
+    }
+
+    private static int slotFor(long tick, int level) {
+        return (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+    }
+}
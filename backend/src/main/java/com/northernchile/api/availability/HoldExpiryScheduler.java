@@ -0,0 +1,161 @@
+package com.northernchile.api.availability;
+
+import com.northernchile.api.availability.event.SeatHoldChangedEvent;
+import com.northernchile.api.cart.CartRepository;
+import com.northernchile.api.cart.CartService;
+import com.northernchile.api.payment.PaymentSessionService;
+import com.northernchile.api.payment.repository.PaymentSessionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Expires cart and payment session holds at their exact expiration time.
+ *
+ * Every active hold is registered in a hierarchical timing wheel (1 second ticks). The wheel is
+ * advanced every second in memory; only when holds actually expire are they written back in one
+ * batch per source (DELETE for carts, UPDATE to EXPIRED for payment sessions). This keeps dead
+ * holds out of the reservation tables without polling the database.
+ *
+ * How it stays current:
+ * 1. Rebuilt from the database when the application is ready (overdue holds expire on the first tick)
+ * 2. Updated from SeatHoldChangedEvent after each transaction commits (new, extended and released holds)
+ *
+ * The hourly CartService / PaymentSessionCleanupJob sweeps remain as a safety net.
+ */
+@Component
+public class HoldExpiryScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(HoldExpiryScheduler.class);
+
+    private static final long TICK_MILLIS = 1000;
+    // Max IDs per batched DELETE/UPDATE
+    private static final int FLUSH_BATCH_SIZE = 500;
+    // Delay before retrying holds whose expiry could not be written
+    private static final long RETRY_DELAY_MILLIS = 30_000;
+
+    private final CartRepository cartRepository;
+    private final PaymentSessionRepository paymentSessionRepository;
+    private final CartService cartService;
+    private final PaymentSessionService paymentSessionService;
+
+    private final HierarchicalTimingWheel<HoldKey> wheel =
+            new HierarchicalTimingWheel<>(TICK_MILLIS, System.currentTimeMillis());
+
+    public HoldExpiryScheduler(
+            CartRepository cartRepository,
+            PaymentSessionRepository paymentSessionRepository,
+            CartService cartService,
+            PaymentSessionService paymentSessionService) {
+        this.cartRepository = cartRepository;
+        this.paymentSessionRepository = paymentSessionRepository;
+        this.cartService = cartService;
+        this.paymentSessionService = paymentSessionService;
+    }
+
+    /**
+     * Tracks new and extended holds, and forgets released ones, once their transaction has committed.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSeatHoldChanged(SeatHoldChangedEvent event) {
+        HoldKey key = new HoldKey(event.ownerId(), event.source());
+        synchronized (wheel) {
+            if (event.isRelease() || event.expiresAt() == null) {
+                wheel.cancel(key);
+            } else {
+                wheel.schedule(key, event.expiresAt().toEpochMilli());
+            }
+        }
+    }
+
+    /**
+     * Advances the wheel. Pure in-memory unless holds expired during this tick.
+     */
+    @Scheduled(fixedDelay = TICK_MILLIS)
+    public void tick() {
+        List<HoldKey> expired;
+        synchronized (wheel) {
+            expired = wheel.advance(System.currentTimeMillis());
+        }
+        if (expired.isEmpty()) {
+            return;
+        }
+
+        List<UUID> cartIds = new ArrayList<>();
+        List<UUID> sessionIds = new ArrayList<>();
+        for (HoldKey key : expired) {
+            (key.source() == SeatHoldChangedEvent.Source.CART ? cartIds : sessionIds).add(key.ownerId());
+        }
+        flush(cartIds, SeatHoldChangedEvent.Source.CART);
+        flush(sessionIds, SeatHoldChangedEvent.Source.PAYMENT_SESSION);
+    }
+
+    /**
+     * Registers every cart with items and every pending payment session at startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        try {
+            int carts = 0;
+            int sessions = 0;
+            synchronized (wheel) {
+                for (Object[] row : cartRepository.findHoldExpirations()) {
+                    wheel.schedule(new HoldKey((UUID) row[0], SeatHoldChangedEvent.Source.CART),
+                            ((Instant) row[1]).toEpochMilli());
+                    carts++;
+                }
+                for (Object[] row : paymentSessionRepository.findPendingExpirations()) {
+                    wheel.schedule(new HoldKey((UUID) row[0], SeatHoldChangedEvent.Source.PAYMENT_SESSION),
+                            ((Instant) row[1]).toEpochMilli());
+                    sessions++;
+                }
+            }
+            log.info("Hold expiry wheel rebuilt: {} carts, {} pending payment sessions", carts, sessions);
+        } catch (Exception e) {
+            // Hourly cleanup jobs still expire holds; the wheel fills up again from new events
+            log.error("Failed to rebuild hold expiry wheel: {}", e.getMessage(), e);
+        }
+    }
+
+    private void flush(List<UUID> ownerIds, SeatHoldChangedEvent.Source source) {
+        for (int i = 0; i < ownerIds.size(); i += FLUSH_BATCH_SIZE) {
+            List<UUID> batch = ownerIds.subList(i, Math.min(i + FLUSH_BATCH_SIZE, ownerIds.size()));
+            try {
+                int expired = source == SeatHoldChangedEvent.Source.CART
+                        ? cartService.expireCarts(batch)
+                        : paymentSessionService.expireSessions(batch);
+                log.debug("Expired {} of {} {} holds", expired, batch.size(), source);
+            } catch (Exception e) {
+                log.warn("Failed to expire {} {} holds, retrying in {}s: {}",
+                        batch.size(), source, RETRY_DELAY_MILLIS / 1000, e.getMessage());
+                long retryAt = System.currentTimeMillis() + RETRY_DELAY_MILLIS;
+                synchronized (wheel) {
+                    batch.forEach(ownerId -> wheel.schedule(new HoldKey(ownerId, source), retryAt));
+                }
+            }
+        }
+    }
+
+    int pendingHolds() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    /**
+     * A cart or payment session holding seats.
+     */
+    private record HoldKey(UUID ownerId, SeatHoldChangedEvent.Source source) {}
+}
@@ -0,0 +1,112 @@
+package com.northernchile.api.availability;
+
+import com.northernchile.api.availability.event.SeatEventPublisher;
+import com.northernchile.api.exception.ScheduleFullException;
+import com.northernchile.api.model.Booking;
+import com.northernchile.api.model.BookingStatus;
+import com.northernchile.api.tour.TourScheduleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * Maintains the confirmed-seat counter (tour_schedules.reserved_seats) that guards against overbooking.
+ *
+ * Seats are claimed with a single conditional UPDATE, so capacity is enforced by the database
+ * without holding a schedule row lock while counting bookings, carts and payment sessions.
+ * Every counter change is also published for the in-memory SeatLedger.
+ */
+@Service
+public class ScheduleCapacityService {
+
+    private static final Logger log = LoggerFactory.getLogger(ScheduleCapacityService.class);
+
+    private final TourScheduleRepository tourScheduleRepository;
+    private final SeatEventPublisher seatEventPublisher;
+
+    public ScheduleCapacityService(
+            TourScheduleRepository tourScheduleRepository,
+            SeatEventPublisher seatEventPublisher) {
+        this.tourScheduleRepository = tourScheduleRepository;
+        this.seatEventPublisher = seatEventPublisher;
+    }
+
+    /**
+     * Claims confirmed seats on a schedule if capacity allows.
+     *
+     * @param scheduleId The tour schedule ID
+     * @param seats Number of seats to claim
+     * @return true if claimed, false if the schedule does not have enough remaining capacity
+     */
+    @Transactional
+    public boolean tryReserveSeats(UUID scheduleId, int seats) {
+        if (seats <= 0) {
+            return true;
+        }
+        if (tourScheduleRepository.reserveSeats(scheduleId, seats) == 0) {
+            return false;
+        }
+        seatEventPublisher.publishConfirmedSeatsChanged(scheduleId, seats);
+        return true;
+    }
+
+    /**
+     * Returns confirmed seats to a schedule.
+     *
+     * @param scheduleId The tour schedule ID
+     * @param seats Number of seats to release
+     */
+    @Transactional
+    public void releaseSeats(UUID scheduleId, int seats) {
+        if (seats <= 0) {
+            return;
+        }
+        tourScheduleRepository.releaseSeats(scheduleId, seats);
+        seatEventPublisher.publishConfirmedSeatsChanged(scheduleId, -seats);
+    }
+
+    /**
+     * Remaining confirmed-seat capacity, read from the database.
+     *
+     * @param scheduleId The tour schedule ID
+     * @return Remaining seats (0 if the schedule does not exist)
+     */
+    @Transactional(readOnly = true)
+    public int getRemainingSeats(UUID scheduleId) {
+        return tourScheduleRepository.findRemainingSeats(scheduleId).orElse(0);
+    }
+
+    /**
+     * Adjusts the counter for a booking status transition.
+     * Only transitions into or out of CONFIRMED change confirmed seats.
+     *
+     * @param booking The booking after its status changed
+     * @param previousStatus The status before the change
+     * @throws ScheduleFullException if confirming the booking would exceed capacity
+     */
+    @Transactional
+    public void onBookingStatusChanged(Booking booking, BookingStatus previousStatus) {
+        boolean wasConfirmed = previousStatus == BookingStatus.CONFIRMED;
+        boolean isConfirmed = booking.getStatus() == BookingStatus.CONFIRMED;
+        if (wasConfirmed == isConfirmed) {
+            return;
+        }
+
+        UUID scheduleId = booking.getSchedule().getId();
+        int seats = booking.getParticipants() != null ? booking.getParticipants().size() : 0;
+
+        if (isConfirmed) {
+            if (!tryReserveSeats(scheduleId, seats)) {
+                int remaining = getRemainingSeats(scheduleId);
+                log.warn("Cannot confirm booking {}: {} seats requested, {} remaining on schedule {}",
+                        booking.getId(), seats, remaining, scheduleId);
+                throw new ScheduleFullException(scheduleId, seats, remaining);
+            }
+        } else {
+            releaseSeats(scheduleId, seats);
+        }
+    }
+}
@@ -0,0 +1,455 @@
+package com.northernchile.api.availability;
+
+import com.northernchile.api.availability.event.ConfirmedSeatsChangedEvent;
+import com.northernchile.api.availability.event.SeatEventPublisher;
+import com.northernchile.api.availability.event.SeatHoldChangedEvent;
+import com.northernchile.api.booking.BookingRepository;
+import com.northernchile.api.cart.CartRepository;
+import com.northernchile.api.model.TourSchedule;
+import com.northernchile.api.payment.model.PaymentSession;
+import com.northernchile.api.payment.model.PaymentSessionItem;
+import com.northernchile.api.payment.repository.PaymentSessionRepository;
+import com.northernchile.api.tour.TourScheduleRepository;
+import com.northernchile.api.util.DateTimeUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory ledger of reserved seats per tour schedule.
+ *
+ * Keeps confirmed, in-cart and in-payment seat counts so that the cart and public schedule
+ * read paths can answer capacity questions without recounting bookings, cart_items and
+ * payment_sessions on every request.
+ *
+ * How it stays current:
+ * 1. Rebuilt from the database when the application is ready
+ * 2. Updated from SeatHoldChangedEvent / ConfirmedSeatsChangedEvent after each transaction commits
+ * 3. Expired cart and payment holds are dropped by a periodic in-memory sweep
+ * 4. An hourly reconciliation pass compares against the database and repairs any drift
+ *
+ * After each change a SeatCountsChangedEvent lists the schedules whose counts moved
+ * (consumed by the availability SSE stream).
+ *
+ * Counters are AtomicLongs. Writing a confirmed count read from the database (lazy load, reconciliation)
+ * and applying a confirmed delta both happen under confirmedLock; each delta is stamped with a sequence
+ * number, and a database value is not written for a schedule that received a delta while it was being
+ * read (the read may or may not include that delta). Such schedules are loaded again on next use or
+ * corrected by the next reconciliation. Held-seat entries are removed once a schedule has no holds left.
+ *
+ * The ledger is a read-path optimization only: booking creation still claims seats through the
+ * reserved_seats counter (ScheduleCapacityService).
+ */
+@Component
+public class SeatLedger {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatLedger.class);
+
+    // Max IDs per IN clause when loading confirmed counts
+    private static final int LOAD_BATCH_SIZE = 500;
+
+    private final BookingRepository bookingRepository;
+    private final CartRepository cartRepository;
+    private final PaymentSessionRepository paymentSessionRepository;
+    private final TourScheduleRepository tourScheduleRepository;
+    private final SeatEventPublisher seatEventPublisher;
+
+    // Confirmed seats per schedule, loaded lazily for schedules not seen at rebuild
+    private final ConcurrentHashMap<UUID, AtomicLong> confirmedSeats = new ConcurrentHashMap<>();
+
+    // Guards writes of database values against concurrent confirmed deltas
+    private final Object confirmedLock = new Object();
+    private final AtomicLong deltaSequence = new AtomicLong();
+    // Sequence number of the last confirmed delta per schedule (pruned on reconciliation)
+    private final Map<UUID, Long> lastDeltaSequence = new HashMap<>();
+
+    // Held seats per schedule; complete at all times because every active hold is tracked below
+    private final ConcurrentHashMap<UUID, HeldSeats> heldSeats = new ConcurrentHashMap<>();
+
+    // Active holds by cart ID or payment session ID
+    private final ConcurrentHashMap<UUID, Hold> holdsByOwner = new ConcurrentHashMap<>();
+
+    public SeatLedger(
+            BookingRepository bookingRepository,
+            CartRepository cartRepository,
+            PaymentSessionRepository paymentSessionRepository,
+            TourScheduleRepository tourScheduleRepository,
+            SeatEventPublisher seatEventPublisher) {
+        this.bookingRepository = bookingRepository;
+        this.cartRepository = cartRepository;
+        this.paymentSessionRepository = paymentSessionRepository;
+        this.tourScheduleRepository = tourScheduleRepository;
+        this.seatEventPublisher = seatEventPublisher;
+    }
+
+    // ==================== Reads ====================
+
+    /**
+     * Validates if the requested number of slots is available, using in-memory counts.
+     *
+     * @param schedule The tour schedule to check
+     * @param requestedSlots Number of slots being requested
+     * @param excludeCartId Cart whose own hold should not count against it (null to include all)
+     * @return AvailabilityResult with validation details
+     */
+    public AvailabilityValidator.AvailabilityResult validateAvailability(
+            TourSchedule schedule,
+            int requestedSlots,
+            UUID excludeCartId) {
+
+        UUID scheduleId = schedule.getId();
+        int maxParticipants = schedule.getMaxParticipants();
+        AvailabilityValidator.ReservationCounts counts = getReservationCounts(List.of(scheduleId)).get(scheduleId);
+
+        int participantsInCarts = counts.participantsInCarts();
+        if (excludeCartId != null) {
+            participantsInCarts -= heldBy(excludeCartId, scheduleId);
+        }
+
+        int totalReserved = counts.bookedParticipants() + participantsInCarts + counts.participantsInPaymentSessions();
+        int availableSlots = maxParticipants - totalReserved;
+
+        return new AvailabilityValidator.AvailabilityResult(
+                availableSlots >= requestedSlots,
+                maxParticipants,
+                counts.bookedParticipants(),
+                participantsInCarts,
+                counts.participantsInPaymentSessions(),
+                availableSlots,
+                requestedSlots
+        );
+    }
+
+    /**
+     * Gets current availability status for many schedules from in-memory counts.
+     *
+     * @param schedules The tour schedules to check
+     * @return AvailabilityStatus per schedule ID
+     */
+    public Map<UUID, AvailabilityValidator.AvailabilityStatus> getAvailabilityStatuses(Collection<TourSchedule> schedules) {
+        Map<UUID, AvailabilityValidator.ReservationCounts> counts =
+                getReservationCounts(schedules.stream().map(TourSchedule::getId).toList());
+
+        Map<UUID, AvailabilityValidator.AvailabilityStatus> statuses = new HashMap<>();
+        for (TourSchedule schedule : schedules) {
+            AvailabilityValidator.ReservationCounts c = counts.get(schedule.getId());
+            statuses.put(schedule.getId(), new AvailabilityValidator.AvailabilityStatus(
+                    schedule.getMaxParticipants(),
+                    c.bookedParticipants(),
+                    c.participantsInCarts(),
+                    c.participantsInPaymentSessions(),
+                    schedule.getMaxParticipants() - c.totalReserved()
+            ));
+        }
+        return statuses;
+    }
+
+    /**
+     * Gets reserved seat counts for the given schedules.
+     * Only schedules the ledger has never seen are loaded from the database (one batched query).
+     *
+     * @param scheduleIds The tour schedule IDs
+     * @return ReservationCounts for every requested ID
+     */
+    public Map<UUID, AvailabilityValidator.ReservationCounts> getReservationCounts(Collection<UUID> scheduleIds) {
+        List<UUID> missing = scheduleIds.stream()
+                .filter(id -> !confirmedSeats.containsKey(id))
+                .distinct()
+                .toList();
+        Map<UUID, Long> loaded = Map.of();
+        if (!missing.isEmpty()) {
+            long readFrom = deltaSequence.get();
+            loaded = loadConfirmedCounts(missing);
+            synchronized (confirmedLock) {
+                for (UUID id : missing) {
+                    // A delta during the read: serve the read value this time, load again next time
+                    if (!changedSince(id, readFrom)) {
+                        confirmedSeats.putIfAbsent(id, new AtomicLong(loaded.getOrDefault(id, 0L)));
+                    }
+                }
+            }
+        }
+
+        Map<UUID, AvailabilityValidator.ReservationCounts> counts = new HashMap<>();
+        for (UUID scheduleId : scheduleIds) {
+            AtomicLong confirmed = confirmedSeats.get(scheduleId);
+            HeldSeats held = heldSeats.get(scheduleId);
+            counts.put(scheduleId, new AvailabilityValidator.ReservationCounts(
+                    confirmed != null ? (int) confirmed.get() : loaded.getOrDefault(scheduleId, 0L).intValue(),
+                    held != null ? (int) held.inCarts.get() : 0,
+                    held != null ? (int) held.inPaymentSessions.get() : 0
+            ));
+        }
+        return counts;
+    }
+
+    // ==================== Event-driven updates ====================
+
+    /**
+     * Applies a cart or payment session hold change once its transaction has committed.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSeatHoldChanged(SeatHoldChangedEvent event) {
+        Set<UUID> changed = new HashSet<>();
+        if (event.isRelease()) {
+            releaseHold(event.ownerId(), changed);
+        } else {
+            replaceHold(event.ownerId(), new Hold(event.source(), Map.copyOf(event.seatsBySchedule()), event.expiresAt()), changed);
+        }
+        seatEventPublisher.publishSeatCountsChanged(changed);
+    }
+
+    /**
+     * Applies a confirmed seat change once its transaction has committed.
+     * Schedules the ledger has not loaded yet are skipped; their count is read fresh on first use.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onConfirmedSeatsChanged(ConfirmedSeatsChangedEvent event) {
+        synchronized (confirmedLock) {
+            lastDeltaSequence.put(event.scheduleId(), deltaSequence.incrementAndGet());
+            AtomicLong confirmed = confirmedSeats.get(event.scheduleId());
+            if (confirmed != null) {
+                confirmed.addAndGet(event.delta());
+            }
+        }
+        seatEventPublisher.publishSeatCountsChanged(Set.of(event.scheduleId()));
+    }
+
+    /**
+     * Drops holds whose expiration has passed. Pure in-memory sweep, no database access.
+     */
+    @Scheduled(fixedDelay = 30000)
+    public void purgeExpiredHolds() {
+        Instant now = Instant.now();
+        Set<UUID> changed = new HashSet<>();
+        for (UUID ownerId : holdsByOwner.keySet()) {
+            holdsByOwner.computeIfPresent(ownerId, (id, hold) -> {
+                if (hold.expiresAt() == null || hold.expiresAt().isAfter(now)) {
+                    return hold;
+                }
+                apply(hold, -1);
+                changed.addAll(hold.seatsBySchedule().keySet());
+                return null;
+            });
+        }
+        seatEventPublisher.publishSeatCountsChanged(changed);
+    }
+
+    // ==================== Rebuild and reconciliation ====================
+
+    /**
+     * Loads confirmed counts for upcoming schedules and all active holds at startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        try {
+            int drift = synchronizeWithDatabase();
+            log.info("SeatLedger rebuilt: {} schedules, {} active holds ({} corrections)",
+                    confirmedSeats.size(), holdsByOwner.size(), drift);
+        } catch (Exception e) {
+            // Ledger still works: confirmed counts load lazily, holds are repaired on the next reconciliation
+            log.error("Failed to rebuild SeatLedger from database: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Compares the ledger with the database and repairs any drift.
+     * Runs hourly (at :30, away from the cart/session cleanup jobs) to limit Neon compute usage.
+     */
+    @Scheduled(cron = "0 30 * * * *")
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        int drift = synchronizeWithDatabase();
+        if (drift > 0) {
+            log.warn("SeatLedger reconciliation repaired {} drifted entries", drift);
+        } else {
+            log.debug("SeatLedger reconciliation found no drift");
+        }
+    }
+
+    /**
+     * Overwrites ledger state with database state.
+     * Confirmed counts are kept for schedules starting today or later; older entries are evicted
+     * (they are reloaded on demand) so the ledger stays bounded.
+     *
+     * @return Number of schedules or holds whose in-memory value differed from the database
+     */
+    private int synchronizeWithDatabase() {
+        Instant now = Instant.now();
+        Instant from = DateTimeUtils.toInstantStartOfDay(LocalDate.now(DateTimeUtils.CHILE_ZONE));
+        int drift = 0;
+        Set<UUID> changed = new HashSet<>();
+
+        // Confirmed seats for upcoming schedules
+        Set<UUID> upcoming = new HashSet<>(tourScheduleRepository.findIdsByStartDatetimeFrom(from));
+        long readFrom = deltaSequence.get();
+        Map<UUID, Long> confirmed = loadConfirmedCounts(upcoming);
+        synchronized (confirmedLock) {
+            for (UUID scheduleId : upcoming) {
+                if (changedSince(scheduleId, readFrom)) {
+                    // Keep the in-memory value, which has the delta; the next pass checks it
+                    continue;
+                }
+                long actual = confirmed.getOrDefault(scheduleId, 0L);
+                AtomicLong counter = confirmedSeats.putIfAbsent(scheduleId, new AtomicLong(actual));
+                if (counter != null && counter.getAndSet(actual) != actual) {
+                    log.warn("SeatLedger drift on schedule {}: confirmed seats corrected to {}", scheduleId, actual);
+                    changed.add(scheduleId);
+                    drift++;
+                }
+            }
+            confirmedSeats.keySet().retainAll(upcoming);
+            lastDeltaSequence.values().removeIf(sequence -> sequence <= readFrom);
+        }
+
+        // Active holds (carts and pending payment sessions)
+        Map<UUID, Hold> activeHolds = loadActiveHolds(now);
+        for (Map.Entry<UUID, Hold> entry : activeHolds.entrySet()) {
+            Hold previous = holdsByOwner.get(entry.getKey());
+            if (previous == null || !previous.seatsBySchedule().equals(entry.getValue().seatsBySchedule())) {
+                drift += previous != null ? 1 : 0;
+                replaceHold(entry.getKey(), entry.getValue(), changed);
+            } else {
+                replaceHold(entry.getKey(), entry.getValue(), new HashSet<>());
+            }
+        }
+        for (UUID ownerId : new ArrayList<>(holdsByOwner.keySet())) {
+            if (!activeHolds.containsKey(ownerId)) {
+                releaseHold(ownerId, changed);
+                drift++;
+            }
+        }
+
+        seatEventPublisher.publishSeatCountsChanged(changed);
+        return drift;
+    }
+
+    private Map<UUID, Long> loadConfirmedCounts(Collection<UUID> scheduleIds) {
+        Map<UUID, Long> counts = new HashMap<>();
+        List<UUID> ids = new ArrayList<>(scheduleIds);
+        for (int i = 0; i < ids.size(); i += LOAD_BATCH_SIZE) {
+            List<UUID> batch = ids.subList(i, Math.min(i + LOAD_BATCH_SIZE, ids.size()));
+            for (Object[] row : bookingRepository.countConfirmedParticipantsByScheduleIds(batch)) {
+                counts.put((UUID) row[0], ((Number) row[1]).longValue());
+            }
+        }
+        return counts;
+    }
+
+    private Map<UUID, Hold> loadActiveHolds(Instant now) {
+        Map<UUID, Map<UUID, Integer>> cartSeats = new HashMap<>();
+        Map<UUID, Instant> cartExpirations = new HashMap<>();
+        for (Object[] row : cartRepository.findActiveHolds(now)) {
+            UUID cartId = (UUID) row[0];
+            cartSeats.computeIfAbsent(cartId, id -> new HashMap<>())
+                    .merge((UUID) row[1], ((Number) row[2]).intValue(), Integer::sum);
+            cartExpirations.put(cartId, (Instant) row[3]);
+        }
+
+        Map<UUID, Hold> holds = new HashMap<>();
+        cartSeats.forEach((cartId, seats) -> holds.put(cartId,
+                new Hold(SeatHoldChangedEvent.Source.CART, Map.copyOf(seats), cartExpirations.get(cartId))));
+
+        for (PaymentSession session : paymentSessionRepository.findActivePendingSessions(now)) {
+            Map<UUID, Integer> seats = new HashMap<>();
+            for (PaymentSessionItem item : session.getItems()) {
+                seats.merge(item.scheduleId(), item.numParticipants(), Integer::sum);
+            }
+            holds.put(session.getId(),
+                    new Hold(SeatHoldChangedEvent.Source.PAYMENT_SESSION, Map.copyOf(seats), session.getExpiresAt()));
+        }
+        return holds;
+    }
+
+    // ==================== Internal state ====================
+
+    private void replaceHold(UUID ownerId, Hold hold, Set<UUID> changed) {
+        holdsByOwner.compute(ownerId, (id, previous) -> {
+            if (previous != null) {
+                apply(previous, -1);
+                changed.addAll(previous.seatsBySchedule().keySet());
+            }
+            apply(hold, 1);
+            changed.addAll(hold.seatsBySchedule().keySet());
+            return hold;
+        });
+    }
+
+    private void releaseHold(UUID ownerId, Set<UUID> changed) {
+        holdsByOwner.computeIfPresent(ownerId, (id, previous) -> {
+            apply(previous, -1);
+            changed.addAll(previous.seatsBySchedule().keySet());
+            return null;
+        });
+    }
+
+    private void apply(Hold hold, int sign) {
+        hold.seatsBySchedule().forEach((scheduleId, seats) ->
+                heldSeats.compute(scheduleId, (id, held) -> {
+                    if (held == null) {
+                        held = new HeldSeats();
+                    }
+                    AtomicLong counter = hold.source() == SeatHoldChangedEvent.Source.CART
+                            ? held.inCarts
+                            : held.inPaymentSessions;
+                    counter.addAndGet((long) sign * seats);
+                    // Drop schedules without holds so past schedules don't accumulate
+                    return held.isEmpty() ? null : held;
+                }));
+    }
+
+    /**
+     * Whether a confirmed delta for the schedule arrived after the given sequence number.
+     * Caller must hold confirmedLock.
+     */
+    private boolean changedSince(UUID scheduleId, long sequence) {
+        Long last = lastDeltaSequence.get(scheduleId);
+        return last != null && last > sequence;
+    }
+
+    private int heldBy(UUID ownerId, UUID scheduleId) {
+        Hold hold = holdsByOwner.get(ownerId);
+        return hold != null ? hold.seatsBySchedule().getOrDefault(scheduleId, 0) : 0;
+    }
+
+    /**
+     * Seats held by one cart or payment session.
+     */
+    private record Hold(
+            SeatHoldChangedEvent.Source source,
+            Map<UUID, Integer> seatsBySchedule,
+            Instant expiresAt
+    ) {}
+
+    /**
+     * Held seat counters for one schedule.
+     */
+    private static final class HeldSeats {
+        private final AtomicLong inCarts = new AtomicLong();
+        private final AtomicLong inPaymentSessions = new AtomicLong();
+
+        boolean isEmpty() {
+            return inCarts.get() == 0 && inPaymentSessions.get() == 0;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.northernchile.api.availability.event;
+
+import java.util.UUID;
+
+/**
+ * Event published when confirmed seats on a schedule change
+ * (booking created from a payment, booking cancelled or refunded).
+ *
+ * @param scheduleId The affected tour schedule
+ * @param delta Number of seats added (positive) or released (negative)
+ */
+public record ConfirmedSeatsChangedEvent(UUID scheduleId, int delta) {}
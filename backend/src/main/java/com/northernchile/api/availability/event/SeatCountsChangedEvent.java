@@ -0,0 +1,12 @@
+package com.northernchile.api.availability.event;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Event published by SeatLedger after it applied a change to one or more schedules
+ * (holds placed or released, confirmed seats changed, drift repaired).
+ *
+ * @param scheduleIds Schedules whose reserved seat counts changed
+ */
+public record SeatCountsChangedEvent(Set<UUID> scheduleIds) {}
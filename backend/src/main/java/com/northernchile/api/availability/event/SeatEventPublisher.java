@@ -0,0 +1,97 @@
+package com.northernchile.api.availability.event;
+
+import com.northernchile.api.model.Cart;
+import com.northernchile.api.model.CartItem;
+import com.northernchile.api.payment.model.PaymentSession;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Publisher for seat reservation events (cart holds, payment session holds, confirmed seats).
+ * Listeners such as SeatLedger receive these after the surrounding transaction commits.
+ */
+@Component
+public class SeatEventPublisher {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public SeatEventPublisher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Publishes the current seats held by a cart (all items, current expiration).
+     *
+     * @param cart The cart after its items or expiration changed
+     */
+    public void publishCartHeld(Cart cart) {
+        Map<UUID, Integer> seatsBySchedule = new HashMap<>();
+        if (cart.getItems() != null) {
+            for (CartItem item : cart.getItems()) {
+                seatsBySchedule.merge(item.getSchedule().getId(), item.getNumParticipants(), Integer::sum);
+            }
+        }
+        eventPublisher.publishEvent(new SeatHoldChangedEvent(
+                cart.getId(), SeatHoldChangedEvent.Source.CART, seatsBySchedule, cart.getExpiresAt()));
+    }
+
+    /**
+     * Publishes that a cart no longer holds any seats (cleared, merged or converted to bookings).
+     *
+     * @param cartId The cart ID
+     */
+    public void publishCartReleased(UUID cartId) {
+        eventPublisher.publishEvent(new SeatHoldChangedEvent(
+                cartId, SeatHoldChangedEvent.Source.CART, Map.of(), null));
+    }
+
+    /**
+     * Publishes the seats held by a newly created pending payment session.
+     *
+     * @param session The pending payment session
+     */
+    public void publishPaymentSessionHeld(PaymentSession session) {
+        eventPublisher.publishEvent(new SeatHoldChangedEvent(
+                session.getId(), SeatHoldChangedEvent.Source.PAYMENT_SESSION,
+                Map.copyOf(session.getSeatsBySchedule()), session.getExpiresAt()));
+    }
+
+    /**
+     * Publishes that a payment session left PENDING (completed, cancelled, failed or expired).
+     *
+     * @param sessionId The payment session ID
+     */
+    public void publishPaymentSessionReleased(UUID sessionId) {
+        eventPublisher.publishEvent(new SeatHoldChangedEvent(
+                sessionId, SeatHoldChangedEvent.Source.PAYMENT_SESSION, Map.of(), null));
+    }
+
+    /**
+     * Publishes a change in confirmed seats for a schedule.
+     *
+     * @param scheduleId The tour schedule ID
+     * @param delta Seats added (positive) or released (negative)
+     */
+    public void publishConfirmedSeatsChanged(UUID scheduleId, int delta) {
+        if (delta != 0) {
+            eventPublisher.publishEvent(new ConfirmedSeatsChangedEvent(scheduleId, delta));
+        }
+    }
+
+    /**
+     * Publishes the schedules whose seat counts changed in the ledger.
+     *
+     * @param scheduleIds The affected tour schedule IDs (nothing is published when empty)
+     */
+    public void publishSeatCountsChanged(Collection<UUID> scheduleIds) {
+        if (!scheduleIds.isEmpty()) {
+            eventPublisher.publishEvent(new SeatCountsChangedEvent(Set.copyOf(scheduleIds)));
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.northernchile.api.availability.event;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Event published when the seats held by a cart or a pending payment session change.
+ * Carries the full current hold (not a delta), so replaying it is idempotent.
+ * An empty seatsBySchedule map means the hold was released.
+ *
+ * @param ownerId Cart ID or payment session ID holding the seats
+ * @param source Where the hold comes from
+ * @param seatsBySchedule Seats held per schedule ID
+ * @param expiresAt When the hold lapses if nothing else happens (null when released)
+ */
+public record SeatHoldChangedEvent(
+        UUID ownerId,
+        Source source,
+        Map<UUID, Integer> seatsBySchedule,
+        Instant expiresAt
+) {
+    public enum Source {
+        CART,
+        PAYMENT_SESSION
+    }
+
+    public boolean isRelease() {
+        return seatsBySchedule.isEmpty();
+    }
+}
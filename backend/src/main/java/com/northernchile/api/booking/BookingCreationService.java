@@ -21,8 +21,8 @@ public interface BookingCreationService {
      *
      * <p>This method performs the following operations for each item in the session:
      * <ul>
-     *   <li>Acquires a pessimistic lock on the schedule to prevent race conditions</li>
-     *   <li>Re-validates availability with the lock held</li>
+     *   <li>Claims the seats with one conditional update of the schedule's reserved_seats counter</li>
+     *   <li>Fails with ScheduleFullException if the claim would exceed capacity</li>
      *   <li>Calculates pricing with proper tax breakdown</li>
      *   <li>Creates the booking with CONFIRMED status (already paid)</li>
      *   <li>Creates participant records from session data</li>
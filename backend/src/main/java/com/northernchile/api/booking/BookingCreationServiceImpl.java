@@ -1,6 +1,6 @@
 package com.northernchile.api.booking;
 
-import com.northernchile.api.availability.AvailabilityValidator;
+import com.northernchile.api.availability.ScheduleCapacityService;
 import com.northernchile.api.booking.event.BookingEventPublisher;
 import com.northernchile.api.exception.ScheduleFullException;
 import com.northernchile.api.model.Booking;
@@ -22,7 +22,13 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.UUID;
 
 /**
@@ -39,7 +45,7 @@ public class BookingCreationServiceImpl implements BookingCreationService {
 
     private final TourScheduleRepository scheduleRepository;
     private final BookingRepository bookingRepository;
-    private final AvailabilityValidator availabilityValidator;
+    private final ScheduleCapacityService scheduleCapacityService;
     private final PricingService pricingService;
     private final SavedParticipantService savedParticipantService;
     private final BookingEventPublisher eventPublisher;
@@ -47,13 +53,13 @@ public class BookingCreationServiceImpl implements BookingCreationService {
     public BookingCreationServiceImpl(
             TourScheduleRepository scheduleRepository,
             BookingRepository bookingRepository,
-            AvailabilityValidator availabilityValidator,
+            ScheduleCapacityService scheduleCapacityService,
             PricingService pricingService,
             SavedParticipantService savedParticipantService,
             BookingEventPublisher eventPublisher) {
         this.scheduleRepository = scheduleRepository;
         this.bookingRepository = bookingRepository;
-        this.availabilityValidator = availabilityValidator;
+        this.scheduleCapacityService = scheduleCapacityService;
         this.pricingService = pricingService;
         this.savedParticipantService = savedParticipantService;
         this.eventPublisher = eventPublisher;
@@ -62,10 +68,14 @@ public class BookingCreationServiceImpl implements BookingCreationService {
     @Override
     @Transactional
     public List<UUID> createBookingsFromPaymentSession(PaymentSession session, User user) {
-        List<UUID> bookingIds = new ArrayList<>();
+        Map<UUID, TourSchedule> schedules = loadSchedules(session.getItems());
+
+        // Claim every seat before writing any booking
+        claimSeats(session);
 
+        List<UUID> bookingIds = new ArrayList<>();
         for (PaymentSessionItem item : session.getItems()) {
-            UUID bookingId = createBookingForItem(session, item, user);
+            UUID bookingId = createBookingForItem(session, item, schedules.get(item.scheduleId()), user);
             bookingIds.add(bookingId);
         }
 
@@ -73,27 +83,56 @@ public class BookingCreationServiceImpl implements BookingCreationService {
     }
 
     /**
-     * Creates a single booking from a payment session item.
+     * Loads the schedules of all session items in one query.
      */
-    private UUID createBookingForItem(PaymentSession session, PaymentSessionItem item, User user) {
-        // Use pessimistic lock to prevent overbooking race conditions
-        TourSchedule schedule = scheduleRepository.findByIdWithLock(item.scheduleId())
-                .orElseThrow(() -> new IllegalStateException("Schedule not found: " + item.scheduleId()));
-
-        // Re-validate availability with lock held (critical for preventing overbooking!)
-        // Exclude this user's cart since it's being converted to booking
-        var availability = availabilityValidator.validateAvailability(
-                schedule, item.numParticipants(), null, user.getId());
-
-        if (!availability.available()) {
-            log.error("Overbooking prevented! Session {} item for schedule {} - {}",
-                    session.getId(), schedule.getId(), availability.errorMessage());
-            throw new ScheduleFullException(
-                    "No hay suficientes cupos disponibles para " + item.tourName() +
-                            ". Disponibles: " + availability.availableSlots() +
-                            ", Solicitados: " + item.numParticipants());
+    private Map<UUID, TourSchedule> loadSchedules(List<PaymentSessionItem> items) {
+        Set<UUID> scheduleIds = new HashSet<>();
+        items.forEach(item -> scheduleIds.add(item.scheduleId()));
+
+        Map<UUID, TourSchedule> schedules = new HashMap<>();
+        scheduleRepository.findAllById(scheduleIds).forEach(schedule -> schedules.put(schedule.getId(), schedule));
+        for (UUID scheduleId : scheduleIds) {
+            if (!schedules.containsKey(scheduleId)) {
+                throw new IllegalStateException("Schedule not found: " + scheduleId);
+            }
         }
+        return schedules;
+    }
 
+    /**
+     * Claims seats atomically (critical for preventing overbooking!)
+     * The conditional UPDATE on reserved_seats replaces the schedule lock + recount;
+     * seats held by this session were already validated when the session was created.
+     *
+     * Each UPDATE locks its schedule row until commit. Seats are summed per schedule and claimed in
+     * ascending schedule ID order, so concurrent multi-item checkouts take row locks in the same order
+     * and never deadlock. A failed claim rolls back the claims already made.
+     */
+    private void claimSeats(PaymentSession session) {
+        SortedMap<UUID, Integer> seatsBySchedule = new TreeMap<>();
+        Map<UUID, String> tourNames = new HashMap<>();
+        for (PaymentSessionItem item : session.getItems()) {
+            seatsBySchedule.merge(item.scheduleId(), item.participants().size(), Integer::sum);
+            tourNames.putIfAbsent(item.scheduleId(), item.tourName());
+        }
+
+        seatsBySchedule.forEach((scheduleId, seats) -> {
+            if (!scheduleCapacityService.tryReserveSeats(scheduleId, seats)) {
+                int availableSlots = scheduleCapacityService.getRemainingSeats(scheduleId);
+                log.error("Overbooking prevented! Session {} item for schedule {} - requested {}, available {}",
+                        session.getId(), scheduleId, seats, availableSlots);
+                throw new ScheduleFullException(
+                        "No hay suficientes cupos disponibles para " + tourNames.get(scheduleId) +
+                                ". Disponibles: " + availableSlots +
+                                ", Solicitados: " + seats);
+            }
+        });
+    }
+
+    /**
+     * Creates a single booking from a payment session item. Its seats are already claimed.
+     */
+    private UUID createBookingForItem(PaymentSession session, PaymentSessionItem item, TourSchedule schedule, User user) {
         // Create booking with proper tax calculation using PricingService
         // Tour prices are tax-inclusive, so we need to back-calculate subtotal and tax
         var pricing = pricingService.calculateFromTaxInclusiveAmount(item.itemTotal());
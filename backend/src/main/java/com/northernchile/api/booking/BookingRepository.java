@@ -2,24 +2,30 @@ package com.northernchile.api.booking;
 
 import com.northernchile.api.model.Booking;
 import com.northernchile.api.model.BookingStatus;
+import com.northernchile.api.tour.manifest.ManifestRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, UUID> {
     /**
      * Count confirmed participants for a schedule.
-     * Note: Locking should be done on the TourSchedule (via findByIdWithLock),
-     * not on this count query. The schedule lock prevents race conditions.
+     * Note: Overbooking is prevented by the reserved_seats counter on the TourSchedule
+     * (see TourScheduleRepository.reserveSeats), not by this count query.
      */
     @Query("SELECT COUNT(p) FROM Participant p WHERE p.booking.schedule.id = :scheduleId AND p.booking.status = 'CONFIRMED'")
     Integer countConfirmedParticipantsByScheduleId(UUID scheduleId);
@@ -27,8 +33,31 @@ public interface BookingRepository extends JpaRepository<Booking, UUID> {
     @Query("SELECT COUNT(p) FROM Participant p WHERE p.booking.schedule.id = :scheduleId")
     Integer countParticipantsByScheduleId(UUID scheduleId);
 
+    /**
+     * Batch count of confirmed participants grouped by schedule.
+     * Each row is [scheduleId, confirmedParticipants]; schedules without confirmed bookings are omitted.
+     */
+    @Query("SELECT p.booking.schedule.id, COUNT(p) FROM Participant p " +
+           "WHERE p.booking.schedule.id IN :scheduleIds AND p.booking.status = 'CONFIRMED' " +
+           "GROUP BY p.booking.schedule.id")
+    List<Object[]> countConfirmedParticipantsByScheduleIds(@Param("scheduleIds") Collection<UUID> scheduleIds);
+
     List<Booking> findByScheduleId(UUID scheduleId);
 
+    /**
+     * Manifest rows of a schedule: every participant of its CONFIRMED bookings with the booking and
+     * its user, in one query, streamed with a JDBC fetch size so rows are not all held at once.
+     * Must be consumed (and closed) inside a transaction.
+     */
+    @Query("SELECT new com.northernchile.api.tour.manifest.ManifestRow(" +
+           "b.id, b.languageCode, b.specialRequests, u.fullName, " +
+           "p.fullName, p.phoneNumber, p.pickupAddress, p.nationality, p.documentId, p.specialRequirements, p.email) " +
+           "FROM Participant p JOIN p.booking b JOIN b.user u " +
+           "WHERE b.schedule.id = :scheduleId AND b.status = 'CONFIRMED' " +
+           "ORDER BY b.createdAt, b.id, p.createdAt")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"))
+    Stream<ManifestRow> streamManifestRows(@Param("scheduleId") UUID scheduleId);
+
     /**
      * Find all bookings for a schedule with full details (for cascade cancellation).
      */
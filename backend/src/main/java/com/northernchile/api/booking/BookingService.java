@@ -1,6 +1,7 @@
 package com.northernchile.api.booking;
 
 import com.northernchile.api.audit.AuditLogService;
+import com.northernchile.api.availability.ScheduleCapacityService;
 import com.northernchile.api.booking.dto.BookingClientUpdateReq;
 import com.northernchile.api.booking.dto.BookingRes;
 import com.northernchile.api.booking.event.BookingCreatedEvent;
@@ -45,18 +46,21 @@ public class BookingService {
     private final AuditLogService auditLogService;
     private final BookingMapper bookingMapper;
     private final NotificationConfig notificationConfig;
+    private final ScheduleCapacityService scheduleCapacityService;
 
     public BookingService(
             BookingRepository bookingRepository,
             EmailService emailService,
             AuditLogService auditLogService,
             BookingMapper bookingMapper,
-            NotificationConfig notificationConfig) {
+            NotificationConfig notificationConfig,
+            ScheduleCapacityService scheduleCapacityService) {
         this.bookingRepository = bookingRepository;
         this.emailService = emailService;
         this.auditLogService = auditLogService;
         this.bookingMapper = bookingMapper;
         this.notificationConfig = notificationConfig;
+        this.scheduleCapacityService = scheduleCapacityService;
     }
 
     /**
@@ -213,6 +217,7 @@ public class BookingService {
 
         booking.setStatus(newStatus);
         Booking updatedBooking = bookingRepository.save(booking);
+        scheduleCapacityService.onBookingStatusChanged(updatedBooking, oldStatus);
 
         String tourName = booking.getSchedule().getTour().getDisplayName();
         String description = tourName + " - " + booking.getUser().getFullName();
@@ -235,6 +240,7 @@ public class BookingService {
 
         booking.setStatus(BookingStatus.CANCELLED);
         bookingRepository.save(booking);
+        scheduleCapacityService.onBookingStatusChanged(booking, oldStatus);
 
         String tourName = booking.getSchedule().getTour().getDisplayName();
         String description = tourName + " - " + booking.getUser().getFullName();
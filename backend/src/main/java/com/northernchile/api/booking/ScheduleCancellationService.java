@@ -1,6 +1,7 @@
 package com.northernchile.api.booking;
 
 import com.northernchile.api.audit.AuditLogService;
+import com.northernchile.api.availability.ScheduleCapacityService;
 import com.northernchile.api.booking.dto.BookingRefundDetail;
 import com.northernchile.api.booking.dto.CancellationReason;
 import com.northernchile.api.booking.dto.ScheduleCancellationResult;
@@ -15,6 +16,7 @@ import com.northernchile.api.payment.RefundService;
 import com.northernchile.api.payment.dto.RefundRes;
 import com.northernchile.api.tour.TourScheduleRepository;
 import com.northernchile.api.tour.TourUtils;
+import com.northernchile.api.tour.event.ScheduleEventPublisher;
 import com.northernchile.api.util.DateTimeUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,18 +47,24 @@ public class ScheduleCancellationService {
     private final RefundService refundService;
     private final EmailService emailService;
     private final AuditLogService auditLogService;
+    private final ScheduleCapacityService scheduleCapacityService;
+    private final ScheduleEventPublisher scheduleEventPublisher;
 
     public ScheduleCancellationService(
             TourScheduleRepository tourScheduleRepository,
             BookingRepository bookingRepository,
             RefundService refundService,
             EmailService emailService,
-            AuditLogService auditLogService) {
+            AuditLogService auditLogService,
+            ScheduleCapacityService scheduleCapacityService,
+            ScheduleEventPublisher scheduleEventPublisher) {
         this.tourScheduleRepository = tourScheduleRepository;
         this.bookingRepository = bookingRepository;
         this.refundService = refundService;
         this.emailService = emailService;
         this.auditLogService = auditLogService;
+        this.scheduleCapacityService = scheduleCapacityService;
+        this.scheduleEventPublisher = scheduleEventPublisher;
     }
 
     /**
@@ -98,6 +106,7 @@ public class ScheduleCancellationService {
         TourScheduleStatus oldStatus = schedule.getStatus();
         schedule.setStatus(TourScheduleStatus.CANCELLED);
         tourScheduleRepository.save(schedule);
+        scheduleEventPublisher.publishScheduleChanged(schedule);
 
         // Get tour name for emails and logs
         String tourName = TourUtils.getTourName(schedule.getTour(), "es");
@@ -205,6 +214,7 @@ public class ScheduleCancellationService {
             // Mark booking as cancelled even if refund failed (admin will handle manually)
             booking.setStatus(BookingStatus.CANCELLED);
             bookingRepository.save(booking);
+            scheduleCapacityService.onBookingStatusChanged(booking, BookingStatus.CONFIRMED);
 
             // Send cancellation email noting refund issue
             sendCancellationEmailWithRefundPending(booking, reason, tourName);
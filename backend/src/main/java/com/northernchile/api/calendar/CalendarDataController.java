@@ -49,7 +49,7 @@ public class CalendarDataController {
         List<MoonPhaseDTO> moonPhases = lunarService.getMoonPhasesForRange(startDate, endDate);
 
         // 2. Obtener pronóstico meteorológico (5 días, cacheado 3 horas)
-        Map<String, Object> weatherForecast = weatherService.getForecast();
+        Map<String, Object> weatherForecast = weatherService.getForecast().asMap();
 
         // 3. Combinar ambos en una sola respuesta
         return new CalendarDataRes(moonPhases, weatherForecast);
@@ -29,7 +29,7 @@ public class CartController {
 
     @GetMapping
     public ResponseEntity<CartRes> getCart(@CookieValue(name = "cartId", required = false) String cartId) {
-        Cart cart = cartService.getOrCreateCart(getCurrentUser(), getCartId(cartId));
+        Cart cart = cartService.getCart(getCurrentUser(), getCartId(cartId));
         return ResponseEntity.ok(cartService.toCartRes(cart));
     }
 
@@ -38,8 +38,7 @@ public class CartController {
             @CookieValue(name = "cartId", required = false) String cartId,
             @jakarta.validation.Valid @RequestBody CartItemReq itemReq,
             HttpServletResponse response) {
-        Cart cart = cartService.getOrCreateCart(getCurrentUser(), getCartId(cartId));
-        Cart updatedCart = cartService.addItemToCart(cart, itemReq);
+        Cart updatedCart = cartService.addItemToCart(getCurrentUser(), getCartId(cartId), itemReq);
         cookieHelper.setCartIdCookie(response, updatedCart.getId().toString());
         return ResponseEntity.ok(cartService.toCartRes(updatedCart));
     }
@@ -48,8 +47,7 @@ public class CartController {
     public ResponseEntity<CartRes> removeItemFromCart(
             @CookieValue(name = "cartId", required = false) String cartId,
             @PathVariable UUID itemId) {
-        Cart cart = cartService.getOrCreateCart(getCurrentUser(), getCartId(cartId));
-        Cart updatedCart = cartService.removeItemFromCart(cart, itemId);
+        Cart updatedCart = cartService.removeItemFromCart(getCurrentUser(), getCartId(cartId), itemId);
         return ResponseEntity.ok(cartService.toCartRes(updatedCart));
     }
 
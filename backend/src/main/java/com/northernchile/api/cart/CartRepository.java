@@ -8,6 +8,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -22,11 +24,47 @@ public interface CartRepository extends JpaRepository<Cart, UUID> {
            "WHERE c.id = :cartId")
     Optional<Cart> findByIdWithDetails(@Param("cartId") UUID cartId);
 
+    @Query("SELECT c FROM Cart c " +
+           "LEFT JOIN FETCH c.items items " +
+           "LEFT JOIN FETCH items.schedule s " +
+           "LEFT JOIN FETCH s.tour " +
+           "WHERE c.user.id = :userId")
+    Optional<Cart> findByUserIdWithDetails(@Param("userId") UUID userId);
+
     @Query("SELECT COALESCE(SUM(ci.numParticipants), 0) FROM CartItem ci " +
            "WHERE ci.schedule.id = :scheduleId " +
            "AND ci.cart.expiresAt > CURRENT_TIMESTAMP")
     Integer countParticipantsByScheduleId(@Param("scheduleId") UUID scheduleId);
 
+    /**
+     * Seats held by every non-expired cart, grouped by cart and schedule.
+     * Each row is [cartId, scheduleId, participants, cartExpiresAt]. Used to rebuild the SeatLedger.
+     */
+    @Query("SELECT ci.cart.id, ci.schedule.id, SUM(ci.numParticipants), ci.cart.expiresAt FROM CartItem ci " +
+           "WHERE ci.cart.expiresAt > :now " +
+           "GROUP BY ci.cart.id, ci.schedule.id, ci.cart.expiresAt")
+    List<Object[]> findActiveHolds(@Param("now") Instant now);
+
+    /**
+     * Expiration of every cart that holds seats (has at least one item).
+     * Each row is [cartId, expiresAt]. Used to rebuild the HoldExpiryScheduler.
+     */
+    @Query("SELECT DISTINCT ci.cart.id, ci.cart.expiresAt FROM CartItem ci")
+    List<Object[]> findHoldExpirations();
+
+    /**
+     * Carts among the given IDs that have actually expired (a cart may have been extended since).
+     */
+    @Query("SELECT c.id FROM Cart c WHERE c.id IN :cartIds AND c.expiresAt <= :now")
+    List<UUID> findExpiredIds(@Param("cartIds") Collection<UUID> cartIds, @Param("now") Instant now);
+
+    /**
+     * Batch delete of expired carts (cart_items are removed by ON DELETE CASCADE).
+     */
+    @Modifying
+    @Query("DELETE FROM Cart c WHERE c.id IN :cartIds AND c.expiresAt <= :now")
+    int deleteExpiredByIds(@Param("cartIds") Collection<UUID> cartIds, @Param("now") Instant now);
+
     @Modifying
     @Query("DELETE FROM Cart c WHERE c.expiresAt < :now")
     int deleteByExpiresAtBefore(@Param("now") Instant now);
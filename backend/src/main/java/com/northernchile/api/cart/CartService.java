@@ -1,5 +1,7 @@
 package com.northernchile.api.cart;
 
+import com.northernchile.api.availability.SeatLedger;
+import com.northernchile.api.availability.event.SeatEventPublisher;
 import com.northernchile.api.cart.dto.CartItemReq;
 import com.northernchile.api.cart.dto.CartItemRes;
 import com.northernchile.api.cart.dto.CartRes;
@@ -19,6 +21,7 @@ import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -30,68 +33,53 @@ public class CartService {
     private final CartRepository cartRepository;
     private final CartItemRepository cartItemRepository;
     private final TourScheduleRepository tourScheduleRepository;
-    private final com.northernchile.api.availability.AvailabilityValidator availabilityValidator;
+    private final SeatLedger seatLedger;
+    private final SeatEventPublisher seatEventPublisher;
     private final PricingService pricingService;
+    private final GuestCartStore guestCartStore;
 
     public CartService(
             CartRepository cartRepository,
             CartItemRepository cartItemRepository,
             TourScheduleRepository tourScheduleRepository,
-            com.northernchile.api.availability.AvailabilityValidator availabilityValidator,
-            PricingService pricingService) {
+            SeatLedger seatLedger,
+            SeatEventPublisher seatEventPublisher,
+            PricingService pricingService,
+            GuestCartStore guestCartStore) {
         this.cartRepository = cartRepository;
         this.cartItemRepository = cartItemRepository;
         this.tourScheduleRepository = tourScheduleRepository;
-        this.availabilityValidator = availabilityValidator;
+        this.seatLedger = seatLedger;
+        this.seatEventPublisher = seatEventPublisher;
         this.pricingService = pricingService;
+        this.guestCartStore = guestCartStore;
     }
 
+    /**
+     * Current cart of the visitor, for reading. Nothing is written for visitors without a cart:
+     * they get an empty draft (GuestCartStore). A guest cart is adopted or merged at login.
+     */
     @Transactional
-    public Cart getOrCreateCart(Optional<User> currentUser, Optional<UUID> cartId) {
-        if (currentUser.isPresent()) {
-            User user = currentUser.get();
-            // User is logged in, try to find their cart
-            Cart userCart = cartRepository.findByUserId(user.getId()).orElse(null);
-            
-            if (userCart != null) {
-                // User already has a cart, merge guest cart if present
-                if (cartId.isPresent()) {
-                    mergeCarts(cartId.get(), userCart);
-                }
-                return cartRepository.findByIdWithDetails(userCart.getId()).orElse(userCart);
-            }
-            
-            // User doesn't have a cart yet
-            if (cartId.isPresent()) {
-                // Adopt the guest cart (associate it with the user)
-                Cart guestCart = cartRepository.findByIdWithDetails(cartId.get()).orElse(null);
-                if (guestCart != null && guestCart.getUser() == null) {
-                    guestCart.setUser(user);
-                    guestCart.setExpiresAt(Instant.now().plus(1, ChronoUnit.HOURS));
-                    return cartRepository.save(guestCart);
-                }
-            }
-            
-            // No guest cart to adopt, create a new one for the user
-            return createNewCart(user);
-        }
-
-        // Guest user (not logged in)
-        if (cartId.isPresent()) {
-            return cartRepository.findByIdWithDetails(cartId.get())
-                    .orElseGet(() -> createNewCart(null));
-        }
-
-        return createNewCart(null);
+    public Cart getCart(Optional<User> currentUser, Optional<UUID> cartId) {
+        return findPersistedCart(currentUser, cartId)
+                .orElseGet(() -> guestCartStore.draft(
+                        currentUser.isEmpty() ? cartId.orElse(null) : null,
+                        currentUser.orElse(null)));
     }
 
+    /**
+     * Adds participants for a schedule to the visitor's cart, creating the cart row if it was a draft.
+     * Cart, items, schedules and tours stay loaded, so the response is built without reading the cart again.
+     */
     @Transactional
-    public Cart addItemToCart(Cart cart, CartItemReq itemReq) {
-        var schedule = tourScheduleRepository.findById(itemReq.scheduleId())
+    public Cart addItemToCart(Optional<User> currentUser, Optional<UUID> cartId, CartItemReq itemReq) {
+        var schedule = tourScheduleRepository.findByIdWithTourAndOwner(itemReq.scheduleId())
                 .orElseThrow(() -> new ResourceNotFoundException("TourSchedule", itemReq.scheduleId()));
 
+        Cart cart = findPersistedCart(currentUser, cartId).orElse(null);
+
         // Count participants already in THIS cart for the same schedule
-        int participantsInCart = cart.getItems() != null
+        int participantsInCart = cart != null && cart.getItems() != null
             ? cart.getItems().stream()
                 .filter(item -> item.getSchedule().getId().equals(itemReq.scheduleId()))
                 .mapToInt(CartItem::getNumParticipants)
@@ -99,14 +87,20 @@ public class CartService {
             : 0;
 
         // Validate availability excluding this cart (to allow adding more to same cart)
+        // Uses in-memory seat counts; bookings are re-validated against the database at payment time
         int totalRequestedSlots = participantsInCart + itemReq.numParticipants();
-        var availabilityResult = availabilityValidator.validateAvailability(
-                schedule, totalRequestedSlots, cart.getId(), null);
+        var availabilityResult = seatLedger.validateAvailability(
+                schedule, totalRequestedSlots, cart != null ? cart.getId() : null);
 
         if (!availabilityResult.available()) {
             throw new ScheduleFullException(availabilityResult.errorMessage());
         }
 
+        if (cart == null) {
+            // First item: the draft becomes a real cart, since it now holds seats
+            cartId.ifPresent(guestCartStore::remove);
+            cart = createNewCart(currentUser.orElse(null));
+        }
         if (cart.getItems() == null) {
             cart.setItems(new ArrayList<>());
         }
@@ -126,60 +120,125 @@ public class CartService {
             newItem.setCart(cart);
             newItem.setSchedule(schedule);
             newItem.setNumParticipants(itemReq.numParticipants());
-            cart.getItems().add(newItem);
+            cart.getItems().add(cartItemRepository.save(newItem));
         }
 
         // Extend cart expiration when items are added
         cart.setExpiresAt(Instant.now().plus(1, ChronoUnit.HOURS));
 
         Cart savedCart = cartRepository.save(cart);
-
-        // Reload cart with all relationships to avoid LazyInitializationException
-        return cartRepository.findByIdWithDetails(savedCart.getId())
-                .orElse(savedCart);
+        seatEventPublisher.publishCartHeld(savedCart);
+        return savedCart;
     }
 
+    /**
+     * Removes an item of the visitor's cart. Items of other carts are ignored.
+     */
     @Transactional
-    public Cart removeItemFromCart(Cart cart, UUID itemId) {
-        cartItemRepository.deleteById(itemId);
-        // Refresh cart from DB to reflect removed item with all relationships loaded
-        return cartRepository.findByIdWithDetails(cart.getId()).orElseThrow();
+    public Cart removeItemFromCart(Optional<User> currentUser, Optional<UUID> cartId, UUID itemId) {
+        Cart cart = findPersistedCart(currentUser, cartId).orElse(null);
+        if (cart == null) {
+            return getCart(currentUser, cartId);
+        }
+        // orphanRemoval deletes the row on flush
+        if (cart.getItems() != null && cart.getItems().removeIf(item -> itemId.equals(item.getId()))) {
+            cart = cartRepository.save(cart);
+            seatEventPublisher.publishCartHeld(cart);
+        }
+        return cart;
+    }
+
+    /**
+     * The visitor's cart row with items, schedules and tours, adopting or merging the guest cart
+     * into the user's cart on login. Empty if the visitor has no cart row yet.
+     */
+    private Optional<Cart> findPersistedCart(Optional<User> currentUser, Optional<UUID> cartId) {
+        // Known drafts have no row, so there is nothing to read for them
+        Optional<UUID> guestCartId = cartId.filter(id -> !guestCartStore.isDraft(id));
+
+        if (currentUser.isPresent()) {
+            User user = currentUser.get();
+            // User is logged in, try to find their cart
+            Cart userCart = cartRepository.findByUserIdWithDetails(user.getId()).orElse(null);
+
+            if (userCart != null) {
+                // User already has a cart, merge guest cart if present
+                if (guestCartId.isPresent() && mergeCarts(guestCartId.get(), userCart)) {
+                    seatEventPublisher.publishCartHeld(userCart);
+                }
+                return Optional.of(userCart);
+            }
+
+            // User doesn't have a cart yet
+            if (guestCartId.isPresent()) {
+                // Adopt the guest cart (associate it with the user)
+                Cart guestCart = cartRepository.findByIdWithDetails(guestCartId.get()).orElse(null);
+                if (guestCart != null && guestCart.getUser() == null) {
+                    guestCart.setUser(user);
+                    guestCart.setExpiresAt(Instant.now().plus(1, ChronoUnit.HOURS));
+                    Cart adoptedCart = cartRepository.save(guestCart);
+                    seatEventPublisher.publishCartHeld(adoptedCart);
+                    return Optional.of(adoptedCart);
+                }
+            }
+            return Optional.empty();
+        }
+
+        // Guest user (not logged in)
+        if (guestCartId.isEmpty()) {
+            return Optional.empty();
+        }
+        Optional<Cart> guestCart = cartRepository.findByIdWithDetails(guestCartId.get());
+        if (guestCart.isEmpty()) {
+            // Stale cookie: answer later reads from memory
+            guestCartStore.draft(guestCartId.get(), null);
+        }
+        return guestCart;
     }
 
     private Cart createNewCart(User user) {
         Cart cart = new Cart();
         cart.setUser(user);
         cart.setStatus(CartStatus.ACTIVE);
+        cart.setItems(new ArrayList<>());
         cart.setExpiresAt(Instant.now().plus(1, ChronoUnit.HOURS)); // Cart expires in 1 hour
         return cartRepository.save(cart);
     }
 
-    private void mergeCarts(UUID guestCartId, Cart userCart) {
-        cartRepository.findById(guestCartId).ifPresent(guestCart -> {
-            if (!guestCart.getId().equals(userCart.getId())) {
-                guestCart.getItems().forEach(guestItem -> {
-                    // Check if user already has an item for this schedule
-                    CartItem existingItem = userCart.getItems().stream()
-                            .filter(item -> item.getSchedule().getId().equals(guestItem.getSchedule().getId()))
-                            .findFirst()
-                            .orElse(null);
-
-                    if (existingItem != null) {
-                        // Merge: Add guest item participants to existing item
-                        existingItem.setNumParticipants(existingItem.getNumParticipants() + guestItem.getNumParticipants());
-                        // Note: CartItem doesn't store itemTotal, it's calculated on-the-fly from schedule.tour.price * numParticipants
-                        cartItemRepository.save(existingItem);
-                        // Guest item will be deleted with the guest cart
-                    } else {
-                        // No duplicate: Move item to user cart
-                        guestItem.setCart(userCart);
-                        userCart.getItems().add(guestItem);
-                    }
-                });
-                cartRepository.save(userCart);
-                cartRepository.delete(guestCart);
+    /**
+     * Moves guest cart items into the user's cart and deletes the guest cart.
+     *
+     * @return true if a guest cart was merged
+     */
+    private boolean mergeCarts(UUID guestCartId, Cart userCart) {
+        // With details: moved items keep their schedule and tour loaded for toCartRes
+        Cart guestCart = cartRepository.findByIdWithDetails(guestCartId).orElse(null);
+        if (guestCart == null || guestCart.getId().equals(userCart.getId())) {
+            return false;
+        }
+        guestCart.getItems().forEach(guestItem -> {
+            // Check if user already has an item for this schedule
+            CartItem existingItem = userCart.getItems().stream()
+                    .filter(item -> item.getSchedule().getId().equals(guestItem.getSchedule().getId()))
+                    .findFirst()
+                    .orElse(null);
+
+            if (existingItem != null) {
+                // Merge: Add guest item participants to existing item
+                existingItem.setNumParticipants(existingItem.getNumParticipants() + guestItem.getNumParticipants());
+                // Note: CartItem doesn't store itemTotal, it's calculated on-the-fly from schedule.tour.price * numParticipants
+                cartItemRepository.save(existingItem);
+                // Guest item will be deleted with the guest cart
+            } else {
+                // No duplicate: Move item to user cart
+                guestItem.setCart(userCart);
+                userCart.getItems().add(guestItem);
             }
         });
+        cartRepository.save(userCart);
+        cartRepository.delete(guestCart);
+        seatEventPublisher.publishCartReleased(guestCart.getId());
+        return true;
     }
 
     @Transactional(readOnly = true)
@@ -242,13 +301,35 @@ public class CartService {
         }
         
         // Delete the cart if found
-        cartOpt.ifPresent(cartRepository::delete);
+        cartOpt.ifPresent(cart -> {
+            cartRepository.delete(cart);
+            seatEventPublisher.publishCartReleased(cart.getId());
+        });
+    }
+
+    /**
+     * Deletes the given carts if they have expired and releases their seat holds.
+     * Called in batches by HoldExpiryScheduler at the carts' exact expiration time.
+     *
+     * @param cartIds Carts whose expiration time was reached
+     * @return Number of carts deleted
+     */
+    @Transactional
+    public int expireCarts(Collection<UUID> cartIds) {
+        Instant now = Instant.now();
+        List<UUID> expiredIds = cartRepository.findExpiredIds(cartIds, now);
+        if (expiredIds.isEmpty()) {
+            return 0;
+        }
+        int deletedCount = cartRepository.deleteExpiredByIds(expiredIds, now);
+        expiredIds.forEach(seatEventPublisher::publishCartReleased);
+        return deletedCount;
     }
 
     /**
      * Scheduled task to delete expired carts.
-     * Runs every hour to cleanup carts that have passed their expiration time.
-     * Interval increased from 15 min to reduce database compute costs on Neon.
+     * Safety net for HoldExpiryScheduler (which deletes carts with items at their exact expiration);
+     * also removes expired empty carts. Runs hourly to reduce database compute costs on Neon.
      */
     @org.springframework.scheduling.annotation.Scheduled(cron = "0 0 * * * *")
     @Transactional
@@ -0,0 +1,76 @@
+package com.northernchile.api.cart;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.northernchile.api.model.Cart;
+import com.northernchile.api.model.CartStatus;
+import com.northernchile.api.model.User;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.UUID;
+
+/**
+ * Empty carts that only exist in memory (drafts).
+ *
+ * A cart only holds seats once it has items, so reading a cart doesn't need a row in the carts table.
+ * Visitors without a cart get a transient draft instead. Only a cart ID the client sent that has no
+ * row (never created, expired or cleared) is remembered here, so repeated reads with that cookie
+ * don't query the database; IDs generated for visitors without a cookie are never sent back as one,
+ * so they are not stored.
+ * CartService writes the cart to the database when it gains its first item.
+ *
+ * Bounded and expiring like the carts themselves, so bots can't grow it without limit.
+ */
+@Component
+public class GuestCartStore {
+
+    static final long MAX_DRAFTS = 10_000;
+    static final Duration DRAFT_TTL = Duration.ofHours(1);
+
+    // Draft ID -> draft expiration
+    private final Cache<UUID, Instant> drafts = Caffeine.newBuilder()
+            .maximumSize(MAX_DRAFTS)
+            .expireAfterWrite(DRAFT_TTL)
+            .build();
+
+    /**
+     * @return Whether the ID belongs to a known draft (so there is no row to look up)
+     */
+    public boolean isDraft(UUID cartId) {
+        return drafts.getIfPresent(cartId) != null;
+    }
+
+    /**
+     * Returns the draft with this ID, registering it if needed, or a new unregistered draft when no ID
+     * is given. The returned cart is transient and must not be saved; CartService creates a new row instead.
+     */
+    public Cart draft(UUID cartId, User user) {
+        UUID id = cartId != null ? cartId : UUID.randomUUID();
+        Instant expiresAt = cartId != null
+                ? drafts.get(id, key -> Instant.now().plus(DRAFT_TTL))
+                : Instant.now().plus(DRAFT_TTL);
+
+        Cart cart = new Cart();
+        cart.setId(id);
+        cart.setUser(user);
+        cart.setStatus(CartStatus.ACTIVE);
+        cart.setItems(new ArrayList<>());
+        cart.setExpiresAt(expiresAt);
+        return cart;
+    }
+
+    /**
+     * Forgets a draft once it has been written to the database.
+     */
+    public void remove(UUID cartId) {
+        drafts.invalidate(cartId);
+    }
+
+    long size() {
+        drafts.cleanUp();
+        return drafts.estimatedSize();
+    }
+}
@@ -13,7 +13,6 @@ import java.util.concurrent.TimeUnit;
 
 /**
  * Cache configuration using Caffeine for improved performance.
- * - weatherForecast: 24-hour cache for weather API calls
  * - tour-detail: 30-minute cache for individual tour pages
  * - tour-list: 15-minute cache for tour lists
  */
@@ -25,16 +24,13 @@ public class CacheConfig {
     public CacheManager cacheManager() {
         SimpleCacheManager cacheManager = new SimpleCacheManager();
 
-        // Weather forecast cache (24 hours)
-        CaffeineCache weatherCache = buildCache("weatherForecast", 1440, 100);
-
         // Tour detail cache (30 minutes, by slug + locale)
         CaffeineCache tourDetailCache = buildCache("tour-detail", 30, 500);
 
         // Tour list cache (15 minutes)
         CaffeineCache tourListCache = buildCache("tour-list", 15, 50);
 
-        cacheManager.setCaches(Arrays.asList(weatherCache, tourDetailCache, tourListCache));
+        cacheManager.setCaches(Arrays.asList(tourDetailCache, tourListCache));
         return cacheManager;
     }
 
@@ -21,6 +21,7 @@ public class AppProperties {
     private Manifest manifest = new Manifest();
     private Cookie cookie = new Cookie();
     private Security security = new Security();
+    private Lunar lunar = new Lunar();
 
     public String getBaseUrl() {
         return baseUrl;
@@ -86,6 +87,14 @@ public class AppProperties {
         this.security = security;
     }
 
+    public Lunar getLunar() {
+        return lunar;
+    }
+
+    public void setLunar(Lunar lunar) {
+        this.lunar = lunar;
+    }
+
     public static class Booking {
         private int minHoursBeforeTour = 2;
 
@@ -155,4 +164,29 @@ public class AppProperties {
             this.allowedRedirectDomains = allowedRedirectDomains;
         }
     }
+
+    /**
+     * Window of the precomputed lunar table, relative to the startup date.
+     * Dates outside the window are still answered, computed on demand.
+     */
+    public static class Lunar {
+        private int pastDays = 365;
+        private int futureDays = 1095;
+
+        public int getPastDays() {
+            return pastDays;
+        }
+
+        public void setPastDays(int pastDays) {
+            this.pastDays = pastDays;
+        }
+
+        public int getFutureDays() {
+            return futureDays;
+        }
+
+        public void setFutureDays(int futureDays) {
+            this.futureDays = futureDays;
+        }
+    }
 }
@@ -3,6 +3,8 @@ package com.northernchile.api.config.properties;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 /**
  * Weather API configuration properties.
  * Settings for OpenWeatherMap integration.
@@ -11,7 +13,18 @@ import org.springframework.stereotype.Component;
 @ConfigurationProperties(prefix = "weather")
 public class WeatherProperties {
 
+    /** "openweather" (default) or "replay" */
+    private String provider = "openweather";
     private Api api = new Api();
+    private Replay replay = new Replay();
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public void setProvider(String provider) {
+        this.provider = provider;
+    }
 
     public Api getApi() {
         return api;
@@ -21,6 +34,14 @@ public class WeatherProperties {
         this.api = api;
     }
 
+    public Replay getReplay() {
+        return replay;
+    }
+
+    public void setReplay(Replay replay) {
+        this.replay = replay;
+    }
+
     public static class Api {
         private String key = "dummy";
         private double lat = -22.9083; // San Pedro de Atacama
@@ -50,4 +71,50 @@ public class WeatherProperties {
             this.lon = lon;
         }
     }
+
+    /**
+     * Recorded forecasts served by the replay provider (weather.provider=replay).
+     */
+    public static class Replay {
+        /** Directory with recorded 5 day / 3 hour API responses (*.json) */
+        private String directory = "weather-replay";
+        /** Fixed delay added to every fetch, to simulate the upstream API */
+        private Duration latency = Duration.ZERO;
+        /** Random extra delay, uniformly distributed between zero and this value */
+        private Duration latencyJitter = Duration.ZERO;
+        /** Shift recorded timestamps so the first recorded day is today */
+        private boolean shiftToToday = true;
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public Duration getLatency() {
+            return latency;
+        }
+
+        public void setLatency(Duration latency) {
+            this.latency = latency;
+        }
+
+        public Duration getLatencyJitter() {
+            return latencyJitter;
+        }
+
+        public void setLatencyJitter(Duration latencyJitter) {
+            this.latencyJitter = latencyJitter;
+        }
+
+        public boolean isShiftToToday() {
+            return shiftToToday;
+        }
+
+        public void setShiftToToday(boolean shiftToToday) {
+            this.shiftToToday = shiftToToday;
+        }
+    }
 }
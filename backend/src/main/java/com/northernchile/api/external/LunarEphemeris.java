@@ -0,0 +1,120 @@
+package com.northernchile.api.external;
+
+import com.northernchile.api.util.DateTimeUtils;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Lunar phase table indexed by epoch day, computed once with Meeus' lunar theory.
+ *
+ * The phase is the Moon-Sun elongation (Astronomical Algorithms, ch. 47/48: mean elongation D,
+ * anomalies M and M' plus the six largest periodic terms) divided by 360°, so 0.0 = new moon and
+ * 0.5 = full moon. Accuracy is within a few tenths of a degree (well under an hour of lunar motion),
+ * versus ±0.5 day for a mean synodic month. Each date is evaluated at 21:00 Chile time on that
+ * same date (00:00 or 01:00 UTC of the next day, depending on DST), when evening tours run.
+ *
+ * Storage is one primitive slot per day (float phase, byte illumination), so lookups are an
+ * array read with no allocation. Days outside the table fall back to computing
+ * the same formula on demand.
+ */
+final class LunarEphemeris {
+
+    private static final double JULIAN_DAY_AT_EPOCH = 2440587.5; // 1970-01-01T00:00Z
+    private static final double J2000 = 2451545.0;
+    private static final double DAYS_PER_CENTURY = 36525.0;
+    private static final double SECONDS_PER_DAY = 86400.0;
+    private static final LocalTime CHILE_EVENING = LocalTime.of(21, 0);
+
+    private final long firstEpochDay;
+    private final float[] phases;
+    private final byte[] illuminations;
+
+    LunarEphemeris(long firstEpochDay, int days) {
+        this.firstEpochDay = firstEpochDay;
+        this.phases = new float[days];
+        this.illuminations = new byte[days];
+        for (int i = 0; i < days; i++) {
+            double phase = computePhase(firstEpochDay + i);
+            phases[i] = (float) phase;
+            illuminations[i] = (byte) illuminationPercent(phase);
+        }
+    }
+
+    /**
+     * @return Phase in [0, 1): 0.0 = new moon, 0.25 = first quarter, 0.5 = full moon, 0.75 = last quarter
+     */
+    double phase(long epochDay) {
+        long index = epochDay - firstEpochDay;
+        if (index >= 0 && index < phases.length) {
+            return phases[(int) index];
+        }
+        return computePhase(epochDay);
+    }
+
+    /**
+     * @return Illuminated fraction of the disc, 0-100
+     */
+    int illumination(long epochDay) {
+        long index = epochDay - firstEpochDay;
+        if (index >= 0 && index < illuminations.length) {
+            return illuminations[(int) index];
+        }
+        return illuminationPercent(computePhase(epochDay));
+    }
+
+    boolean contains(long epochDay) {
+        return epochDay >= firstEpochDay && epochDay < firstEpochDay + phases.length;
+    }
+
+    long firstEpochDay() {
+        return firstEpochDay;
+    }
+
+    int days() {
+        return phases.length;
+    }
+
+    /**
+     * Moon-Sun elongation at 21:00 Chile time of the given date, as a fraction of a full cycle.
+     */
+    static double computePhase(long epochDay) {
+        long eveningEpochSecond = LocalDate.ofEpochDay(epochDay)
+                .atTime(CHILE_EVENING)
+                .atZone(DateTimeUtils.CHILE_ZONE)
+                .toEpochSecond();
+        double julianDay = JULIAN_DAY_AT_EPOCH + eveningEpochSecond / SECONDS_PER_DAY;
+        double t = (julianDay - J2000) / DAYS_PER_CENTURY;
+        double t2 = t * t;
+        double t3 = t2 * t;
+        double t4 = t3 * t;
+
+        // Mean elongation of the Moon, mean anomaly of the Sun and of the Moon (degrees)
+        double d = 297.8501921 + 445267.1114034 * t - 0.0018819 * t2 + t3 / 545868.0 - t4 / 113065000.0;
+        double m = 357.5291092 + 35999.0502909 * t - 0.0001536 * t2 + t3 / 24490000.0;
+        double mPrime = 134.9633964 + 477198.8675055 * t + 0.0087414 * t2 + t3 / 69699.0 - t4 / 14712000.0;
+
+        double dRad = Math.toRadians(d);
+        double mRad = Math.toRadians(m);
+        double mPrimeRad = Math.toRadians(mPrime);
+
+        // True elongation = 180° - phase angle i (Meeus 48.4)
+        double elongation = d
+                + 6.289 * Math.sin(mPrimeRad)
+                - 2.100 * Math.sin(mRad)
+                + 1.274 * Math.sin(2 * dRad - mPrimeRad)
+                + 0.658 * Math.sin(2 * dRad)
+                + 0.214 * Math.sin(2 * mPrimeRad)
+                + 0.110 * Math.sin(dRad);
+
+        double phase = elongation / 360.0;
+        return phase - Math.floor(phase);
+    }
+
+    /**
+     * Illuminated fraction k = (1 + cos i) / 2 = (1 - cos elongation) / 2 (Meeus 48.1).
+     */
+    static int illuminationPercent(double phase) {
+        return (int) Math.round((1 - Math.cos(2 * Math.PI * phase)) * 50);
+    }
+}
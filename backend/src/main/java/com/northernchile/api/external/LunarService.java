@@ -1,25 +1,25 @@
 package com.northernchile.api.external;
 
+import com.northernchile.api.config.properties.AppProperties;
 import com.northernchile.api.lunar.dto.MoonPhaseDTO;
+import com.northernchile.api.util.DateTimeUtils;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.time.ZoneId;
-import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Servicio para calcular fase lunar usando método Julian Date
+ * Servicio para calcular fase lunar con tabla precalculada (algoritmo de Meeus)
  *
- * Este servicio NO depende de APIs externas - calcula la fase lunar matemáticamente
- * basándose en el ciclo sinódico lunar de 29.53058867 días.
+ * Este servicio NO depende de APIs externas. Al iniciar calcula una tabla de fase e iluminación
+ * por día (LunarEphemeris) para una ventana configurable (app.lunar.past-days / future-days);
+ * todas las consultas dentro de la ventana son lecturas O(1) de arrays primitivos, sin asignar memoria.
  *
  * Ventajas:
  * - ✅ Funciona offline (sin llamadas HTTP)
- * - ✅ Sin límite de días (pasado, presente, futuro)
- * - ✅ Instantáneo (~0.001ms por cálculo)
- * - ✅ Precisión: ±0.5 días (suficiente para tours astronómicos)
+ * - ✅ Sin límite de días (fuera de la ventana se calcula en el momento con la misma fórmula)
+ * - ✅ Precisión: elongación real Luna-Sol (< 1 hora), no el mes sinódico medio (±0.5 días)
  *
  * Moon phase values:
  * - 0.0 (y 1.0) = New moon (luna nueva)
@@ -34,11 +34,24 @@ public class LunarService {
     private static final double FULL_MOON_MIN = 0.45;
     private static final double FULL_MOON_MAX = 0.55;
 
-    // Constantes para cálculo Julian Date
-    private static final double JULIAN_EPOCH = 2440587.5; // 1 Jan 1970 00:00 UTC en Julian Date
-    private static final double KNOWN_NEW_MOON = 2451550.1; // 6 Jan 2000 18:14 UTC (luna nueva conocida)
-    private static final double SYNODIC_MONTH = 29.53058867; // Ciclo lunar en días
-    private static final double SECONDS_PER_DAY = 86400.0;
+    // Máximo de días por consulta de rango (protege los endpoints públicos)
+    static final int MAX_RANGE_DAYS = 366;
+
+    private final LunarEphemeris ephemeris;
+    // One immutable DTO per day of the table, shared by all range/date queries
+    private final List<MoonPhaseDTO> phaseData;
+
+    public LunarService(AppProperties appProperties) {
+        AppProperties.Lunar window = appProperties.getLunar();
+        long today = LocalDate.now(DateTimeUtils.CHILE_ZONE).toEpochDay();
+        this.ephemeris = new LunarEphemeris(today - window.getPastDays(), window.getPastDays() + window.getFutureDays() + 1);
+
+        MoonPhaseDTO[] data = new MoonPhaseDTO[ephemeris.days()];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = buildMoonPhaseData(LocalDate.ofEpochDay(ephemeris.firstEpochDay() + i));
+        }
+        this.phaseData = List.of(data);
+    }
 
     /**
      * Verifica si una fecha tiene luna llena
@@ -51,73 +64,29 @@ public class LunarService {
     }
 
     /**
-     * Calcula la fase lunar para cualquier fecha usando método Julian Date
-     *
-     * Este método calcula la fase lunar basándose en:
-     * 1. Convertir la fecha a Julian Date
-     * 2. Calcular días desde una luna nueva conocida (6 Jan 2000)
-     * 3. Dividir por el ciclo sinódico lunar (29.53 días)
-     * 4. Obtener la parte fraccionaria (fase de 0.0 a 1.0)
+     * Obtiene la fase lunar de una fecha (a las 21:00 hora de Chile de ese mismo día)
      *
      * @param date Fecha a verificar (puede ser pasado, presente o futuro)
      * @return Fase lunar: 0.0=new moon, 0.25=first quarter, 0.5=full moon, 0.75=last quarter
      */
     public double getMoonPhase(LocalDate date) {
-        // Convertir LocalDate a Julian Date
-        ZonedDateTime zdt = date.atStartOfDay(ZoneId.of("UTC"));
-        double julianDate = JULIAN_EPOCH + (zdt.toEpochSecond() / SECONDS_PER_DAY);
-
-        // Calcular días desde luna nueva conocida
-        double daysSinceNewMoon = julianDate - KNOWN_NEW_MOON;
-
-        // Calcular número de ciclos lunares completos
-        double lunarCycles = daysSinceNewMoon / SYNODIC_MONTH;
-
-        // Obtener solo la parte fraccionaria (fase actual)
-        double phase = lunarCycles - Math.floor(lunarCycles);
-
-        return phase;
+        return ephemeris.phase(date.toEpochDay());
     }
 
     /**
      * Obtiene el porcentaje de iluminación lunar (0-100%)
-     * Calculado aproximadamente desde moon_phase
+     * Fracción iluminada real del disco: (1 - cos(elongación)) / 2
      */
     public int getMoonIllumination(LocalDate date) {
-        double phase = getMoonPhase(date);
-
-        // Convertir fase (0-1) a iluminación (0-100%)
-        // 0 = 0%, 0.25 = 50%, 0.5 = 100%, 0.75 = 50%, 1 = 0%
-        double illumination;
-        if (phase <= 0.5) {
-            // Waxing: de 0% a 100%
-            illumination = phase * 200;
-        } else {
-            // Waning: de 100% a 0%
-            illumination = (1 - phase) * 200;
-        }
-
-        return (int) Math.round(illumination);
+        return ephemeris.illumination(date.toEpochDay());
     }
 
     /**
      * Obtiene la fase lunar como texto descriptivo
      */
     public String getMoonPhaseName(LocalDate date) {
-        double phase = getMoonPhase(date);
-
-        if (phase < 0.03 || phase > 0.97) return "New Moon";
-        if (phase >= 0.03 && phase < 0.22) return "Waxing Crescent";
-        if (phase >= 0.22 && phase < 0.28) return "First Quarter";
-        if (phase >= 0.28 && phase < 0.47) return "Waxing Gibbous";
-        if (phase >= 0.47 && phase < 0.53) return "Full Moon";
-        if (phase >= 0.53 && phase < 0.72) return "Waning Gibbous";
-        if (phase >= 0.72 && phase < 0.78) return "Last Quarter";
-        if (phase >= 0.78 && phase <= 0.97) return "Waning Crescent";
-
-        return "Unknown";
+        return phaseName(getMoonPhase(date));
     }
-
     /**
      * Maps lunar phase (0.0-1.0) to moon emoji icon
      *
@@ -141,35 +110,69 @@ public class LunarService {
      * Centralizes the logic previously duplicated in controllers.
      *
      * @param date The date to get moon phase for
-     * @return MoonPhaseDTO with all lunar information
+     * @return MoonPhaseDTO with all lunar information (shared instance inside the table window)
      */
     public MoonPhaseDTO getMoonPhaseData(LocalDate date) {
-        double phase = getMoonPhase(date);
-        return new MoonPhaseDTO(
-                date,
-                phase,
-                getMoonIllumination(date),
-                getMoonPhaseName(date),
-                isFullMoon(date),
-                getMoonIcon(phase)
-        );
+        long epochDay = date.toEpochDay();
+        if (ephemeris.contains(epochDay)) {
+            return phaseData.get((int) (epochDay - ephemeris.firstEpochDay()));
+        }
+        return buildMoonPhaseData(date);
     }
 
     /**
      * Get moon phases for a date range.
      * Centralizes the loop logic previously duplicated in LunarController and CalendarDataController.
+     * Ranges inside the table window are returned as a view of the precomputed DTOs.
      *
      * @param startDate Start date (inclusive)
      * @param endDate End date (inclusive)
      * @return List of MoonPhaseDTO for each day in the range
+     * @throws IllegalArgumentException if the range is longer than MAX_RANGE_DAYS
      */
     public List<MoonPhaseDTO> getMoonPhasesForRange(LocalDate startDate, LocalDate endDate) {
+        long first = startDate.toEpochDay();
+        long last = endDate.toEpochDay();
+        if (last < first) {
+            return List.of();
+        }
+        if (last - first + 1 > MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Date range cannot exceed " + MAX_RANGE_DAYS + " days");
+        }
+        if (ephemeris.contains(first) && ephemeris.contains(last)) {
+            int offset = (int) (first - ephemeris.firstEpochDay());
+            return phaseData.subList(offset, offset + (int) (last - first) + 1);
+        }
+
         List<MoonPhaseDTO> phases = new ArrayList<>();
-        LocalDate current = startDate;
-        while (!current.isAfter(endDate)) {
-            phases.add(getMoonPhaseData(current));
-            current = current.plusDays(1);
+        for (long day = first; day <= last; day++) {
+            phases.add(getMoonPhaseData(LocalDate.ofEpochDay(day)));
         }
         return phases;
     }
+
+    private MoonPhaseDTO buildMoonPhaseData(LocalDate date) {
+        double phase = getMoonPhase(date);
+        return new MoonPhaseDTO(
+                date,
+                phase,
+                getMoonIllumination(date),
+                phaseName(phase),
+                isFullMoon(date),
+                getMoonIcon(phase)
+        );
+    }
+
+    private static String phaseName(double phase) {
+        if (phase < 0.03 || phase > 0.97) return "New Moon";
+        if (phase >= 0.03 && phase < 0.22) return "Waxing Crescent";
+        if (phase >= 0.22 && phase < 0.28) return "First Quarter";
+        if (phase >= 0.28 && phase < 0.47) return "Waxing Gibbous";
+        if (phase >= 0.47 && phase < 0.53) return "Full Moon";
+        if (phase >= 0.53 && phase < 0.72) return "Waning Gibbous";
+        if (phase >= 0.72 && phase < 0.78) return "Last Quarter";
+        if (phase >= 0.78 && phase <= 0.97) return "Waning Crescent";
+
+        return "Unknown";
+    }
 }
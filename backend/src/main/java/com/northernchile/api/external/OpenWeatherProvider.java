@@ -0,0 +1,52 @@
+package com.northernchile.api.external;
+
+import com.northernchile.api.config.properties.WeatherProperties;
+import com.northernchile.api.external.dto.FiveDayForecastResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+/**
+ * OpenWeatherMap 5 Day / 3 Hour Forecast API (free plan)
+ * https://openweathermap.org/forecast5
+ */
+@Component
+@ConditionalOnProperty(name = "weather.provider", havingValue = "openweather", matchIfMissing = true)
+public class OpenWeatherProvider implements WeatherProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(OpenWeatherProvider.class);
+
+    private final RestTemplate restTemplate;
+    private final WeatherProperties weatherProperties;
+
+    public OpenWeatherProvider(RestTemplateBuilder restTemplateBuilder, WeatherProperties weatherProperties) {
+        this.restTemplate = restTemplateBuilder
+                .connectTimeout(Duration.ofSeconds(5))
+                .readTimeout(Duration.ofSeconds(10))
+                .build();
+        this.weatherProperties = weatherProperties;
+    }
+
+    @Override
+    public FiveDayForecastResponse fetchFiveDayForecast(double lat, double lon) {
+        String key = weatherProperties.getApi().getKey();
+        String url = String.format("https://api.openweathermap.org/data/2.5/forecast?lat=%s&lon=%s&units=metric&appid=%s",
+                lat, lon, key);
+
+        log.debug("Fetching weather from: {}", url.replace(key, "***"));
+        return restTemplate.getForObject(url, FiveDayForecastResponse.class);
+    }
+
+    /**
+     * The API key defaults to "dummy" when WEATHER_API_KEY is not set
+     */
+    @Override
+    public boolean isAvailable() {
+        return !"dummy".equals(weatherProperties.getApi().getKey());
+    }
+}
@@ -0,0 +1,147 @@
+package com.northernchile.api.external;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.northernchile.api.config.properties.WeatherProperties;
+import com.northernchile.api.external.dto.FiveDayForecastResponse;
+import com.northernchile.api.util.DateTimeUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Serves recorded OpenWeather 5 day / 3 hour responses from disk (weather.provider=replay).
+ *
+ * Files named {@code <lat>_<lon>*.json} (one decimal, e.g. {@code -22.9_-68.2.json}) are served for
+ * that location; any other {@code *.json} file is served for every location without its own recordings.
+ * Each fetch for a location returns the next recording in file name order, cycling, so a sequence
+ * of recordings replays forecast changes across refreshes.
+ *
+ * Timestamps are shifted by whole days so the first recorded day is today (weather.replay.shift-to-today),
+ * and every fetch waits weather.replay.latency plus a random jitter to simulate the upstream API.
+ */
+@Component
+@ConditionalOnProperty(name = "weather.provider", havingValue = "replay")
+public class ReplayWeatherProvider implements WeatherProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplayWeatherProvider.class);
+
+    private static final Pattern LOCATION_FILE = Pattern.compile("^(-?\\d+\\.\\d)_(-?\\d+\\.\\d).*\\.json$");
+    private static final DateTimeFormatter DT_TXT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneOffset.UTC);
+
+    private final ObjectMapper objectMapper;
+    private final WeatherProperties.Replay replay;
+    private final List<byte[]> sharedRecordings = new ArrayList<>();
+    private final Map<String, List<byte[]>> recordingsByLocation = new HashMap<>();
+    private final Map<String, AtomicInteger> cursors = new ConcurrentHashMap<>();
+
+    public ReplayWeatherProvider(ObjectMapper objectMapper, WeatherProperties weatherProperties) {
+        this.objectMapper = objectMapper;
+        this.replay = weatherProperties.getReplay();
+
+        Path directory = Path.of(replay.getDirectory());
+        if (!Files.isDirectory(directory)) {
+            throw new IllegalStateException("Weather replay directory not found: " + directory.toAbsolutePath());
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(".json")).sorted().toList()) {
+                byte[] json = Files.readAllBytes(file);
+                Matcher matcher = LOCATION_FILE.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    String location = matcher.group(1) + "_" + matcher.group(2);
+                    recordingsByLocation.computeIfAbsent(location, k -> new ArrayList<>()).add(json);
+                } else {
+                    sharedRecordings.add(json);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read weather replay directory " + directory, e);
+        }
+        if (sharedRecordings.isEmpty() && recordingsByLocation.isEmpty()) {
+            throw new IllegalStateException("No *.json recordings in weather replay directory " + directory.toAbsolutePath());
+        }
+        log.info("Weather replay provider: {} shared recording(s), {} location(s), latency {} + jitter {}",
+                sharedRecordings.size(), recordingsByLocation.size(), replay.getLatency(), replay.getLatencyJitter());
+    }
+
+    @Override
+    public FiveDayForecastResponse fetchFiveDayForecast(double lat, double lon) {
+        String location = String.format(Locale.ROOT, "%.1f_%.1f", lat, lon);
+        List<byte[]> recordings = recordingsByLocation.getOrDefault(location, sharedRecordings);
+        if (recordings.isEmpty()) {
+            throw new IllegalStateException("No weather replay recording for location " + location);
+        }
+        int next = cursors.computeIfAbsent(location, k -> new AtomicInteger()).getAndIncrement();
+        byte[] json = recordings.get(Math.floorMod(next, recordings.size()));
+
+        simulateLatency();
+        try {
+            FiveDayForecastResponse response = objectMapper.readValue(json, FiveDayForecastResponse.class);
+            return replay.isShiftToToday() ? shiftToToday(response) : response;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Invalid weather replay recording for location " + location, e);
+        }
+    }
+
+    private void simulateLatency() {
+        long millis = replay.getLatency().toMillis();
+        long jitter = replay.getLatencyJitter().toMillis();
+        if (jitter > 0) {
+            millis += ThreadLocalRandom.current().nextLong(jitter + 1);
+        }
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while simulating weather latency", e);
+        }
+    }
+
+    /**
+     * Moves every item by the same number of days so the first recorded day (Chile time) is today.
+     */
+    private static FiveDayForecastResponse shiftToToday(FiveDayForecastResponse response) {
+        if (response.list() == null || response.list().isEmpty()) {
+            return response;
+        }
+        LocalDate firstDay = Instant.ofEpochSecond(response.list().get(0).dt()).atZone(DateTimeUtils.CHILE_ZONE).toLocalDate();
+        long days = ChronoUnit.DAYS.between(firstDay, LocalDate.now(DateTimeUtils.CHILE_ZONE));
+        if (days == 0) {
+            return response;
+        }
+        long shiftSeconds = days * 86_400;
+        List<FiveDayForecastResponse.ForecastItem> shifted = response.list().stream()
+                .map(item -> {
+                    long dt = item.dt() + shiftSeconds;
+                    return new FiveDayForecastResponse.ForecastItem(
+                            dt, item.main(), item.weather(), item.clouds(), item.wind(), item.visibility(),
+                            item.pop(), item.rain(), item.snow(), item.sys(), DT_TXT.format(Instant.ofEpochSecond(dt)));
+                })
+                .toList();
+        return new FiveDayForecastResponse(response.cod(), response.message(), response.cnt(), shifted, response.city());
+    }
+}
@@ -0,0 +1,170 @@
+package com.northernchile.api.external;
+
+import com.northernchile.api.external.dto.DailyForecast;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pronóstico diario parseado una sola vez, indexado por epoch day.
+ *
+ * Los valores que consultan el generador de horarios, las alertas y la disponibilidad
+ * (viento, nubes, probabilidad de lluvia) se guardan en arreglos primitivos, así que cada
+ * consulta es una lectura de arreglo sin conversiones ni allocations. El Map original se
+ * conserva solo como vista JSON para los endpoints del calendario y del clima.
+ *
+ * Inmutable: WeatherService guarda una instancia por celda de la grilla (CellForecast) y la
+ * entrega tal cual a todos los lectores; un refresco la reemplaza por una nueva, nunca la modifica.
+ */
+public final class WeatherForecast {
+
+    static final WeatherForecast EMPTY = new WeatherForecast(List.of());
+
+    private final long firstEpochDay;
+    private final boolean[] present;
+    private final double[] windSpeeds;
+    private final double[] windGusts;
+    private final int[] clouds;
+    private final double[] pops;
+    private final DailyForecast[] dailyForecasts;
+    private final Map<String, Object> view;
+
+    private WeatherForecast(List<Day> days) {
+        List<Day> sorted = days.stream().sorted(Comparator.comparing(Day::date)).toList();
+        this.firstEpochDay = sorted.isEmpty() ? 0 : sorted.get(0).date().toEpochDay();
+        int length = sorted.isEmpty() ? 0
+                : (int) (sorted.get(sorted.size() - 1).date().toEpochDay() - firstEpochDay + 1);
+
+        this.present = new boolean[length];
+        this.windSpeeds = new double[length];
+        this.windGusts = new double[length];
+        this.clouds = new int[length];
+        this.pops = new double[length];
+        this.dailyForecasts = new DailyForecast[length];
+
+        List<Map<String, Object>> daily = new ArrayList<>(sorted.size());
+        for (Day day : sorted) {
+            int i = (int) (day.date().toEpochDay() - firstEpochDay);
+            present[i] = true;
+            windSpeeds[i] = day.windSpeed();
+            windGusts[i] = day.windGust();
+            clouds[i] = day.clouds();
+            pops[i] = day.pop();
+            dailyForecasts[i] = toDailyForecast(day);
+            daily.add(Collections.unmodifiableMap(day.json()));
+        }
+        this.view = Map.of("daily", Collections.unmodifiableList(daily));
+    }
+
+    /**
+     * @param days Un elemento por día; el orden no importa y pueden faltar días intermedios
+     */
+    public static WeatherForecast of(List<Day> days) {
+        return days.isEmpty() ? EMPTY : new WeatherForecast(days);
+    }
+
+    public boolean isEmpty() {
+        return present.length == 0;
+    }
+
+    public boolean hasDay(LocalDate date) {
+        return index(date) >= 0;
+    }
+
+    /**
+     * Máximo entre velocidad sostenida y ráfaga, en m/s (0 si no hay pronóstico para la fecha)
+     */
+    public double maxWindMs(LocalDate date) {
+        int i = index(date);
+        return i < 0 ? 0 : Math.max(windSpeeds[i], windGusts[i]);
+    }
+
+    /**
+     * Cobertura de nubes promedio, 0-100 (0 si no hay pronóstico para la fecha)
+     */
+    public int clouds(LocalDate date) {
+        int i = index(date);
+        return i < 0 ? 0 : clouds[i];
+    }
+
+    /**
+     * Probabilidad máxima de precipitación, 0-1 (0 si no hay pronóstico para la fecha)
+     */
+    public double pop(LocalDate date) {
+        int i = index(date);
+        return i < 0 ? 0 : pops[i];
+    }
+
+    /**
+     * @return El pronóstico del día, o null si la fecha está fuera del pronóstico
+     */
+    public DailyForecast daily(LocalDate date) {
+        int i = index(date);
+        return i < 0 ? null : dailyForecasts[i];
+    }
+
+    /**
+     * Vista JSON ({"daily": [...]}) con el formato que espera el frontend
+     */
+    public Map<String, Object> asMap() {
+        return view;
+    }
+
+    private int index(LocalDate date) {
+        long i = date.toEpochDay() - firstEpochDay;
+        if (i < 0 || i >= present.length || !present[(int) i]) {
+            return -1;
+        }
+        return (int) i;
+    }
+
+    private static DailyForecast toDailyForecast(Day day) {
+        return new DailyForecast(
+                day.dt(),
+                0L, // sunrise - not available from 5-day API
+                0L, // sunset - not available from 5-day API
+                0L, // moonrise - not available from 5-day API
+                0L, // moonset - not available from 5-day API
+                0.0, // moonPhase - not available from 5-day API
+                null, // summary - not available from 5-day API
+                null, // temp - not used in this context
+                null, // feelsLike - not used in this context
+                0, // pressure - not used in this context
+                0, // humidity - not used in this context
+                0.0, // dewPoint - not used in this context
+                day.windSpeed(),
+                0, // windDeg - not used in this context
+                day.windGust(),
+                null, // weather - not used in this context
+                day.clouds(),
+                day.pop(),
+                null, // rain - not used in this context
+                null, // snow - not used in this context
+                0.0 // uvi - not used in this context
+        );
+    }
+
+    /**
+     * Datos agregados de un día (hora de Chile).
+     *
+     * @param date Fecha local del pronóstico
+     * @param dt Timestamp representativo del día (mediodía si existe)
+     * @param windSpeed Viento máximo del día, m/s
+     * @param windGust Ráfaga máxima del día, m/s
+     * @param clouds Cobertura de nubes promedio, 0-100
+     * @param pop Probabilidad máxima de precipitación, 0-1
+     * @param json Representación del día para la vista JSON
+     */
+    public record Day(
+            LocalDate date,
+            long dt,
+            double windSpeed,
+            double windGust,
+            int clouds,
+            double pop,
+            Map<String, Object> json) {}
+}
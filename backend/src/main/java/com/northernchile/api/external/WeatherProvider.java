@@ -0,0 +1,27 @@
+package com.northernchile.api.external;
+
+import com.northernchile.api.external.dto.FiveDayForecastResponse;
+
+/**
+ * Source of raw 5 day / 3 hour forecasts for WeatherService.
+ *
+ * Selected with weather.provider: "openweather" (default) calls the OpenWeatherMap API,
+ * "replay" serves recorded responses from disk so weather-dependent jobs can be benchmarked
+ * and load-tested without network access.
+ */
+public interface WeatherProvider {
+
+    /**
+     * @param lat Latitude of the location
+     * @param lon Longitude of the location
+     * @return Forecast in the OpenWeather 5 day / 3 hour format
+     */
+    FiveDayForecastResponse fetchFiveDayForecast(double lat, double lon);
+
+    /**
+     * @return false if the provider is not configured (e.g. no API key), in which case no fetch is attempted
+     */
+    default boolean isAvailable() {
+        return true;
+    }
+}
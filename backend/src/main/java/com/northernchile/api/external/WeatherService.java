@@ -1,109 +1,283 @@
 package com.northernchile.api.external;
 
 import com.northernchile.api.config.properties.WeatherProperties;
-import com.northernchile.api.external.dto.DailyForecast;
 import com.northernchile.api.external.dto.FiveDayForecastResponse;
+import com.northernchile.api.external.event.WeatherForecastUpdatedEvent;
+import com.northernchile.api.model.Tour;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.cache.annotation.Cacheable;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import com.northernchile.api.util.DateTimeUtils;
 
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
-import java.util.*;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
 /**
- * Servicio para obtener datos del clima de OpenWeatherMap
- * Usa la API gratuita de pronóstico de 5 días
- * https://openweathermap.org/forecast5
+ * Servicio para obtener datos del clima
+ * Los datos crudos vienen de un WeatherProvider (OpenWeatherMap, o grabaciones con weather.provider=replay);
+ * este servicio los agrupa por día, los cachea por ubicación y los mantiene frescos.
  */
 @Service
 public class WeatherService {
 
     private static final Logger log = LoggerFactory.getLogger(WeatherService.class);
 
-    /** Conversion factor: 1 knot = 0.514444 m/s (OpenWeather uses m/s) */
-    private static final double KNOTS_TO_MS = 0.514444;
+    /** Refresh in the background once the forecast is this old (OpenWeather updates every 3 hours) */
+    static final Duration REFRESH_AFTER = Duration.ofHours(3);
+    /** Last good forecast is served while refreshes fail, up to this age */
+    static final Duration MAX_STALENESS = Duration.ofHours(24);
+    /** Empty/failed fetches are remembered this long before requests try again */
+    static final Duration NEGATIVE_TTL = Duration.ofMinutes(5);
+    /** Forecasts are cached per grid cell of this size (0.1° ≈ 11 km); tours at the same site share one fetch */
+    static final double GRID_DEGREES = 0.1;
+    // Concurrent background fetches; the "weather" rate limiter keeps the total under the free-tier 60 calls/min
+    private static final int REFRESH_CONCURRENCY = 4;
+    private static final long REFRESH_CHECK_MILLIS = 10 * 60_000L;
+
+    private final WeatherProvider weatherProvider;
+    private final WeatherProperties weatherProperties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<GridCell, CellForecast> cells = new ConcurrentHashMap<>();
+    private final Counter refreshFailures;
+
+    // Self-injection to allow internal calls to pass through the Spring proxy (for @CircuitBreaker/@RateLimiter)
+    @org.springframework.context.annotation.Lazy
+    @org.springframework.beans.factory.annotation.Autowired
+    private WeatherService self;
+
+    public WeatherService(
+            WeatherProvider weatherProvider,
+            WeatherProperties weatherProperties,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry) {
+        this.weatherProvider = weatherProvider;
+        this.weatherProperties = weatherProperties;
+        this.eventPublisher = eventPublisher;
+        this.refreshFailures = Counter.builder("weather.forecast.refresh.failures")
+                .description("Weather forecast fetches that failed or returned no data")
+                .register(meterRegistry);
+        Gauge.builder("weather.forecast.age", this, WeatherService::forecastAgeSeconds)
+                .description("Age of the oldest forecast being served, in seconds (NaN if none)")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Pronóstico de la ubicación por defecto (weather.api.lat/lon), servido desde memoria.
+     * @see #getForecast(Tour)
+     */
+    public WeatherForecast getForecast() {
+        var api = weatherProperties.getApi();
+        return getForecast(GridCell.of(api.getLat(), api.getLon()));
+    }
 
     /**
-     * Configuration for RestTemplate bean used by WeatherService
+     * Pronóstico de 5 días con datos cada 3 horas (API gratuita) para la ubicación del tour,
+     * o la ubicación por defecto si el tour no tiene coordenadas.
+     *
+     * Se cachea por celda de grilla. Stale-while-revalidate: refreshIfStale() renueva cada celda en
+     * segundo plano cada 3 horas y mientras tanto (o si la API falla) se sigue sirviendo el último
+     * pronóstico bueno, hasta 24 horas. Solo si la celda no tiene pronóstico vigente la llamada espera
+     * un fetch, y las llamadas concurrentes para la misma celda esperan ese mismo fetch (single flight).
+     * Si falla, se recuerda por 5 minutos (negative cache) y se devuelve un pronóstico vacío.
+     *
+     * @return Pronóstico por día, parseado una vez e indexado por fecha. asMap() da la vista JSON
      */
-    @Configuration
-    static class RestTemplateConfig {
-        @Bean
-        RestTemplate weatherRestTemplate(RestTemplateBuilder builder) {
-            return builder
-                    .connectTimeout(Duration.ofSeconds(5))
-                    .readTimeout(Duration.ofSeconds(10))
-                    .build();
+    public WeatherForecast getForecast(Tour tour) {
+        if (tour.getLatitude() == null || tour.getLongitude() == null) {
+            return getForecast();
         }
+        return getForecast(GridCell.of(tour.getLatitude(), tour.getLongitude()));
     }
 
-    private final RestTemplate restTemplate;
-    private final WeatherProperties weatherProperties;
+    private WeatherForecast getForecast(GridCell cell) {
+        if (!weatherProvider.isAvailable()) {
+            return WeatherForecast.EMPTY;
+        }
+        CellForecast state = cells.computeIfAbsent(cell, CellForecast::new);
+        state.lastUsedMillis = System.currentTimeMillis();
 
-    // Self-injection to allow internal calls to pass through the Spring proxy (for @Cacheable)
-    @org.springframework.context.annotation.Lazy
-    @org.springframework.beans.factory.annotation.Autowired
-    private WeatherService self;
+        Snapshot current = state.snapshot;
+        if (isUsable(current)) {
+            return current.forecast();
+        }
+        if (System.currentTimeMillis() < state.negativeUntilMillis) {
+            return WeatherForecast.EMPTY;
+        }
 
-    public WeatherService(RestTemplate weatherRestTemplate, WeatherProperties weatherProperties) {
-        this.restTemplate = weatherRestTemplate;
-        this.weatherProperties = weatherProperties;
+        state.lock.lock();
+        try {
+            // Another request may have finished the fetch while we waited
+            current = state.snapshot;
+            if (isUsable(current)) {
+                return current.forecast();
+            }
+            if (System.currentTimeMillis() < state.negativeUntilMillis) {
+                return WeatherForecast.EMPTY;
+            }
+            if (load(state)) {
+                eventPublisher.publishEvent(new WeatherForecastUpdatedEvent(1));
+            }
+            current = state.snapshot;
+            return isUsable(current) ? current.forecast() : WeatherForecast.EMPTY;
+        } finally {
+            state.lock.unlock();
+        }
     }
 
     /**
-     * Obtiene pronóstico de 5 días con datos cada 3 horas (API gratuita)
-     * Caché de 3 horas para evitar llamadas excesivas
-     * Circuit breaker protects against cascading failures when weather API is down.
-     * @return Datos agrupados por día con temperaturas, viento, nubes, etc.
+     * Refreshes cells ahead of expiry, a few at a time. Requests keep getting the current forecast meanwhile.
+     * Cells no tour has asked for in 24 hours are dropped (except the default location).
      */
-    @Cacheable(value = "weatherForecast", key = "'fiveday'")
-    @CircuitBreaker(name = "weather", fallbackMethod = "getForecastFallback")
-    public Map<String, Object> getForecast() {
+    @Scheduled(fixedDelay = REFRESH_CHECK_MILLIS)
+    public void refreshIfStale() {
+        if (!weatherProvider.isAvailable()) {
+            return;
+        }
         var api = weatherProperties.getApi();
-        if ("dummy".equals(api.getKey())) {
-            log.warn("API key is 'dummy', skipping weather fetch");
-            return createEmptyForecast();
+        GridCell defaultCell = GridCell.of(api.getLat(), api.getLon());
+        cells.computeIfAbsent(defaultCell, CellForecast::new);
+
+        long now = System.currentTimeMillis();
+        cells.values().removeIf(state -> !state.cell.equals(defaultCell)
+                && now - state.lastUsedMillis > MAX_STALENESS.toMillis());
+
+        refresh(cells.values().stream()
+                .filter(state -> state.snapshot == null || state.snapshot.ageMillis() > REFRESH_AFTER.toMillis())
+                .toList());
+    }
+
+    /**
+     * Fetches every known cell again, regardless of age.
+     */
+    void refreshAll() {
+        refresh(List.copyOf(cells.values()));
+    }
+
+    private void refresh(List<CellForecast> stale) {
+        if (stale.isEmpty()) {
+            return;
+        }
+        log.debug("Refreshing weather forecast for {} location(s)", stale.size());
+        AtomicInteger updated = new AtomicInteger();
+        // close() waits for all fetches
+        try (ExecutorService pool = Executors.newFixedThreadPool(Math.min(REFRESH_CONCURRENCY, stale.size()))) {
+            for (CellForecast state : stale) {
+                pool.execute(() -> {
+                    // Skip cells a request is already fetching
+                    if (state.lock.tryLock()) {
+                        try {
+                            if (load(state)) {
+                                updated.incrementAndGet();
+                            }
+                        } finally {
+                            state.lock.unlock();
+                        }
+                    }
+                });
+            }
+        }
+        // One event per batch, so listeners recompute once
+        if (updated.get() > 0) {
+            eventPublisher.publishEvent(new WeatherForecastUpdatedEvent(updated.get()));
+        }
+    }
+
+    /**
+     * Fetches the forecast of one cell and stores it; caller must hold the cell's lock.
+     * On failure the last good forecast stays in place, or the cell is negatively cached if there is none.
+     *
+     * @return true if a new forecast was stored
+     */
+    private boolean load(CellForecast state) {
+        WeatherForecast fetched = self.fetchForecast(state.cell.lat(), state.cell.lon());
+        if (!fetched.isEmpty()) {
+            state.snapshot = new Snapshot(fetched, System.currentTimeMillis());
+            state.negativeUntilMillis = 0;
+            return true;
         }
 
-        // Free 5 Day / 3 Hour Forecast API
-        String url = String.format("https://api.openweathermap.org/data/2.5/forecast?lat=%s&lon=%s&units=metric&appid=%s",
-                api.getLat(), api.getLon(), api.getKey());
+        refreshFailures.increment();
+        Snapshot current = state.snapshot;
+        if (isUsable(current)) {
+            log.warn("Weather refresh failed for {}, serving forecast fetched {} min ago",
+                    state.cell, current.ageMillis() / 60_000);
+        } else {
+            state.negativeUntilMillis = System.currentTimeMillis() + NEGATIVE_TTL.toMillis();
+        }
+        return false;
+    }
+
+    private boolean isUsable(Snapshot current) {
+        return current != null && current.ageMillis() < MAX_STALENESS.toMillis();
+    }
+
+    private double forecastAgeSeconds() {
+        long oldestMillis = cells.values().stream()
+                .map(state -> state.snapshot)
+                .filter(Objects::nonNull)
+                .mapToLong(Snapshot::ageMillis)
+                .max()
+                .orElse(-1);
+        return oldestMillis < 0 ? Double.NaN : oldestMillis / 1000.0;
+    }
 
-        log.debug("Fetching weather from: {}", url.replace(api.getKey(), "***"));
+    /**
+     * Obtiene el pronóstico del WeatherProvider configurado. Usar getForecast(); este método no cachea.
+     * Circuit breaker protects against cascading failures when weather API is down.
+     * Rate limiter keeps all fetches (requests and background refresh) under the free-tier limit.
+     * @return Pronóstico parseado, o vacío si la llamada falla
+     */
+    @CircuitBreaker(name = "weather", fallbackMethod = "fetchForecastFallback")
+    @RateLimiter(name = "weather")
+    public WeatherForecast fetchForecast(double lat, double lon) {
+        if (!weatherProvider.isAvailable()) {
+            log.warn("Weather provider not configured, skipping weather fetch");
+            return WeatherForecast.EMPTY;
+        }
 
         try {
-            FiveDayForecastResponse response = restTemplate.getForObject(url, FiveDayForecastResponse.class);
+            FiveDayForecastResponse response = weatherProvider.fetchFiveDayForecast(lat, lon);
 
             if (response == null) {
                 log.error("Weather API response is null");
-                return createEmptyForecast();
+                return WeatherForecast.EMPTY;
             }
 
             if (response.list() == null) {
                 log.error("Weather API response.list is null");
-                return createEmptyForecast();
+                return WeatherForecast.EMPTY;
             }
 
             log.info("Received {} forecast items from Weather API", response.list().size());
 
             // Agrupar por día y procesar
-            Map<String, Object> result = processForecastData(response);
-            log.info("Processed into {} daily forecasts", ((List<?>) result.get("daily")).size());
-            return result;
+            List<WeatherForecast.Day> days = processForecastData(response);
+            log.info("Processed into {} daily forecasts", days.size());
+            return WeatherForecast.of(days);
         } catch (Exception e) {
-            log.error("Error fetching OpenWeather forecast: {}", e.getMessage(), e);
-            return createEmptyForecast();
+            log.error("Error fetching weather forecast: {}", e.getMessage(), e);
+            return WeatherForecast.EMPTY;
         }
     }
 
@@ -111,28 +285,26 @@ public class WeatherService {
      * Fallback method called when circuit breaker is open or call fails.
      * Returns empty forecast to allow graceful degradation.
      */
-    private Map<String, Object> getForecastFallback(Throwable t) {
+    private WeatherForecast fetchForecastFallback(double lat, double lon, Throwable t) {
         log.warn("Weather circuit breaker fallback triggered: {}", t.getMessage());
-        return createEmptyForecast();
+        return WeatherForecast.EMPTY;
     }
 
     /**
      * Procesa los datos de 3 horas y los agrupa por día
      */
-    private Map<String, Object> processForecastData(FiveDayForecastResponse response) {
+    private List<WeatherForecast.Day> processForecastData(FiveDayForecastResponse response) {
         // Agrupar items por fecha
         Map<LocalDate, List<FiveDayForecastResponse.ForecastItem>> byDay = response.list().stream()
                 .collect(Collectors.groupingBy(item ->
                     Instant.ofEpochSecond(item.dt()).atZone(DateTimeUtils.CHILE_ZONE).toLocalDate()
                 ));
 
-        // Convertir a formato que espera el frontend
-        List<Map<String, Object>> dailyForecasts = byDay.entrySet().stream()
+        return byDay.entrySet().stream()
                 .sorted(Map.Entry.comparingByKey())
                 .map(entry -> {
                     LocalDate date = entry.getKey();
                     List<FiveDayForecastResponse.ForecastItem> items = entry.getValue();
-
                     // Calcular máximos y mínimos del día
                     double tempMax = items.stream().mapToDouble(i -> i.main().tempMax()).max().orElse(0);
                     double tempMin = items.stream().mapToDouble(i -> i.main().tempMin()).min().orElse(0);
@@ -193,141 +365,47 @@ public class WeatherService {
                             "icon", representativeWeather.icon()
                     )));
 
-                    return dayForecast;
+                    return new WeatherForecast.Day(date, dt, windSpeed, windGust, (int) clouds, pop, dayForecast);
                 })
-                .collect(Collectors.toList());
-
-        Map<String, Object> result = new HashMap<>();
-        result.put("daily", dailyForecasts);
-        return result;
-    }
-
-    private Map<String, Object> createEmptyForecast() {
-        Map<String, Object> result = new HashMap<>();
-        result.put("daily", new ArrayList<>());
-        return result;
+                .toList();
     }
 
     /**
-     * Verifica si el viento supera un umbral en una fecha específica
-     * @param date Fecha a verificar
-     * @param thresholdKnots Umbral en nudos
-     * @return true si el viento supera el umbral
+     * Celda de la grilla de pronósticos (índices de GRID_DEGREES)
      */
-    public boolean isWindAboveThreshold(LocalDate date, double thresholdKnots) {
-        double thresholdMs = thresholdKnots * KNOTS_TO_MS;
+    record GridCell(int latIndex, int lonIndex) {
 
-        Map<String, Object> forecast = self.getForecast();
-        if (forecast == null || !forecast.containsKey("daily")) {
-            return false; // Sin datos, asumir OK
+        static GridCell of(double lat, double lon) {
+            return new GridCell((int) Math.round(lat / GRID_DEGREES), (int) Math.round(lon / GRID_DEGREES));
         }
 
-        @SuppressWarnings("unchecked")
-        List<Map<String, Object>> daily = (List<Map<String, Object>>) forecast.get("daily");
-
-        return daily.stream()
-                .filter(day -> {
-                    long dt = ((Number) day.get("dt")).longValue();
-                    LocalDate forecastDate = Instant.ofEpochSecond(dt)
-                            .atZone(DateTimeUtils.CHILE_ZONE)
-                            .toLocalDate();
-                    return forecastDate.equals(date);
-                })
-                .findFirst()
-                .map(day -> {
-                    double windSpeed = ((Number) day.get("windSpeed")).doubleValue();
-                    double windGust = ((Number) day.get("windGust")).doubleValue();
-                    double maxWind = Math.max(windSpeed, windGust);
-                    return maxWind > thresholdMs;
-                })
-                .orElse(false);
-    }
-
-    /**
-     * Verifica si un día está muy nublado (>80% de nubes)
-     * @param date Fecha a verificar
-     * @return true si está muy nublado
-     */
-    public boolean isCloudyDay(LocalDate date) {
-        Map<String, Object> forecast = self.getForecast();
-        if (forecast == null || !forecast.containsKey("daily")) {
-            return false;
+        /** Centro de la celda, usado para el fetch */
+        double lat() {
+            return latIndex / (1 / GRID_DEGREES);
         }
 
-        @SuppressWarnings("unchecked")
-        List<Map<String, Object>> daily = (List<Map<String, Object>>) forecast.get("daily");
-
-        return daily.stream()
-                .filter(day -> {
-                    long dt = ((Number) day.get("dt")).longValue();
-                    LocalDate forecastDate = Instant.ofEpochSecond(dt)
-                            .atZone(DateTimeUtils.CHILE_ZONE)
-                            .toLocalDate();
-                    return forecastDate.equals(date);
-                })
-                .findFirst()
-                .map(day -> {
-                    int clouds = ((Number) day.get("clouds")).intValue();
-                    return clouds > 80;
-                })
-                .orElse(false);
+        double lon() {
+            return lonIndex / (1 / GRID_DEGREES);
+        }
     }
 
-    /**
-     * Obtiene el pronóstico diario para una fecha específica
-     */
-    public DailyForecast getDailyForecast(LocalDate date) {
-        Map<String, Object> forecast = self.getForecast();
-        if (forecast == null || !forecast.containsKey("daily")) {
-            return null;
+    private static final class CellForecast {
+        final GridCell cell;
+        // Single flight: one fetch per cell at a time; concurrent readers wait for it instead of calling the API too
+        final ReentrantLock lock = new ReentrantLock();
+        // Last good forecast and when it was fetched
+        volatile Snapshot snapshot;
+        volatile long negativeUntilMillis;
+        volatile long lastUsedMillis = System.currentTimeMillis();
+
+        CellForecast(GridCell cell) {
+            this.cell = cell;
         }
+    }
 
-        @SuppressWarnings("unchecked")
-        List<Map<String, Object>> daily = (List<Map<String, Object>>) forecast.get("daily");
-
-        Map<String, Object> dayData = daily.stream()
-                .filter(day -> {
-                    long dt = ((Number) day.get("dt")).longValue();
-                    LocalDate forecastDate = Instant.ofEpochSecond(dt)
-                            .atZone(DateTimeUtils.CHILE_ZONE)
-                            .toLocalDate();
-                    return forecastDate.equals(date);
-                })
-                .findFirst()
-                .orElse(null);
-
-        if (dayData == null) {
-            return null;
+    private record Snapshot(WeatherForecast forecast, long fetchedAtMillis) {
+        long ageMillis() {
+            return System.currentTimeMillis() - fetchedAtMillis;
         }
-
-        // Convertir Map a DailyForecast
-        long dt = ((Number) dayData.get("dt")).longValue();
-        double windSpeed = ((Number) dayData.get("windSpeed")).doubleValue();
-        Double windGust = ((Number) dayData.get("windGust")).doubleValue();
-        int clouds = ((Number) dayData.get("clouds")).intValue();
-
-        return new DailyForecast(
-                dt,
-                0L, // sunrise - not available from 5-day API
-                0L, // sunset - not available from 5-day API
-                0L, // moonrise - not available from 5-day API
-                0L, // moonset - not available from 5-day API
-                0.0, // moonPhase - not available from 5-day API
-                null, // summary - not available from 5-day API
-                null, // temp - not used in this context
-                null, // feelsLike - not used in this context
-                0, // pressure - not used in this context
-                0, // humidity - not used in this context
-                0.0, // dewPoint - not used in this context
-                windSpeed,
-                0, // windDeg - not used in this context
-                windGust,
-                null, // weather - not used in this context
-                clouds,
-                0.0, // pop - not used in this context
-                null, // rain - not used in this context
-                null, // snow - not used in this context
-                0.0 // uvi - not used in this context
-        );
     }
 }
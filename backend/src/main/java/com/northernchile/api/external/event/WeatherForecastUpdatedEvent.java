@@ -0,0 +1,9 @@
+package com.northernchile.api.external.event;
+
+/**
+ * Event published by WeatherService after new forecasts were fetched
+ * (background refresh or a first fetch for a location).
+ *
+ * @param locations Number of forecast grid cells updated
+ */
+public record WeatherForecastUpdatedEvent(int locations) {}
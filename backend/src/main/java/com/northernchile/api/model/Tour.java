@@ -12,6 +12,7 @@ import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.HashMap;
 import java.util.List;
@@ -44,6 +45,10 @@ public class Tour implements OwnedEntity, AuditableEntity {
     private boolean moonSensitive;
     private boolean cloudSensitive;
 
+    // Site coordinates for the weather forecast; null = business default location (weather.api.lat/lon)
+    private Double latitude;
+    private Double longitude;
+
     @Column(unique = true, length = 100)
     private String contentKey;
 
@@ -86,6 +91,10 @@ public class Tour implements OwnedEntity, AuditableEntity {
     @Column(length = 100)
     private String recurrenceRule;
 
+    // Last day already examined by TourScheduleGeneratorService; null = regenerate the full window
+    @Column(name = "schedules_generated_through")
+    private LocalDate schedulesGeneratedThrough;
+
     @Enumerated(EnumType.STRING)
     @Column(length = 20, nullable = false)
     private TourStatus status = TourStatus.DRAFT;
@@ -180,6 +189,22 @@ public class Tour implements OwnedEntity, AuditableEntity {
         this.cloudSensitive = cloudSensitive;
     }
 
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
     public String getContentKey() {
         return contentKey;
     }
@@ -252,6 +277,14 @@ public class Tour implements OwnedEntity, AuditableEntity {
         this.recurrenceRule = recurrenceRule;
     }
 
+    public LocalDate getSchedulesGeneratedThrough() {
+        return schedulesGeneratedThrough;
+    }
+
+    public void setSchedulesGeneratedThrough(LocalDate schedulesGeneratedThrough) {
+        this.schedulesGeneratedThrough = schedulesGeneratedThrough;
+    }
+
     public TourStatus getStatus() {
         return status;
     }
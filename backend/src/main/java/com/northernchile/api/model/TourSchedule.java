@@ -43,6 +43,13 @@ public class TourSchedule implements AuditableEntity {
     @JoinColumn(name = "assigned_guide_id")
     private User assignedGuide;
 
+    /**
+     * Confirmed seats, maintained only by TourScheduleRepository.reserveSeats/releaseSeats.
+     * Read-only here so entity saves never overwrite a concurrent counter update.
+     */
+    @Column(name = "reserved_seats", nullable = false, insertable = false, updatable = false)
+    private Integer reservedSeats = 0;
+
     @CreationTimestamp
     private Instant createdAt;
 
@@ -107,6 +114,10 @@ public class TourSchedule implements AuditableEntity {
         this.assignedGuide = assignedGuide;
     }
 
+    public Integer getReservedSeats() {
+        return reservedSeats;
+    }
+
     public Instant getCreatedAt() {
         return createdAt;
     }
@@ -1,7 +1,8 @@
 package com.northernchile.api.payment;
 
+import com.northernchile.api.availability.AvailabilityValidator;
+import com.northernchile.api.availability.event.SeatEventPublisher;
 import com.northernchile.api.booking.BookingCreationService;
-import com.northernchile.api.booking.BookingRepository;
 import com.northernchile.api.cart.CartRepository;
 import com.northernchile.api.config.properties.AppProperties;
 import com.northernchile.api.config.properties.PaymentProperties;
@@ -19,7 +20,9 @@ import com.northernchile.api.tour.TourUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.northernchile.api.util.DateTimeUtils;
 
@@ -28,7 +31,11 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -44,30 +51,36 @@ public class PaymentSessionService {
 
     private final PaymentSessionRepository sessionRepository;
     private final TourScheduleRepository scheduleRepository;
-    private final BookingRepository bookingRepository;
+    private final AvailabilityValidator availabilityValidator;
     private final BookingCreationService bookingCreationService;
     private final CartRepository cartRepository;
     private final PaymentSessionPaymentAdapter paymentAdapter;
     private final PaymentProperties paymentProperties;
     private final AppProperties appProperties;
+    private final SeatEventPublisher seatEventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
     public PaymentSessionService(
             PaymentSessionRepository sessionRepository,
             TourScheduleRepository scheduleRepository,
-            BookingRepository bookingRepository,
+            AvailabilityValidator availabilityValidator,
             BookingCreationService bookingCreationService,
             CartRepository cartRepository,
             PaymentSessionPaymentAdapter paymentAdapter,
             PaymentProperties paymentProperties,
-            AppProperties appProperties) {
+            AppProperties appProperties,
+            SeatEventPublisher seatEventPublisher,
+            PlatformTransactionManager transactionManager) {
         this.sessionRepository = sessionRepository;
         this.scheduleRepository = scheduleRepository;
-        this.bookingRepository = bookingRepository;
+        this.availabilityValidator = availabilityValidator;
         this.bookingCreationService = bookingCreationService;
         this.cartRepository = cartRepository;
         this.paymentAdapter = paymentAdapter;
         this.paymentProperties = paymentProperties;
         this.appProperties = appProperties;
+        this.seatEventPublisher = seatEventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
@@ -78,23 +91,26 @@ public class PaymentSessionService {
     public PaymentSessionRes createSession(PaymentSessionReq request, User user) {
         log.info("Creating payment session for user: {} with {} items", user.getId(), request.items().size());
 
-        // Validate all schedules exist, have availability, and are within booking cutoff time
-        validateAvailability(request);
-        validateBookingCutoffTimes(request);
+        // Load every schedule of the request in one query
+        Map<UUID, TourSchedule> schedules = loadSchedules(request);
+
+        // Convert request items to session items
+        List<PaymentSessionItem> sessionItems = request.items().stream()
+            .map(item -> convertToSessionItem(item, schedules.get(item.scheduleId())))
+            .collect(Collectors.toList());
+
+        // Validate all schedules are open, have availability, and are within booking cutoff time
+        validateAvailability(sessionItems, schedules);
+        validateBookingCutoffTimes(schedules.values());
 
         // Calculate total from schedule prices (don't trust client amounts)
-        BigDecimal trustedTotal = calculateTrustedTotal(request);
+        BigDecimal trustedTotal = calculateTrustedTotal(sessionItems);
         
         if (request.totalAmount().compareTo(trustedTotal) != 0) {
             log.warn("SECURITY: Client total ({}) differs from calculated total ({}). Using calculated.",
                 request.totalAmount(), trustedTotal);
         }
 
-        // Convert request items to session items
-        List<PaymentSessionItem> sessionItems = request.items().stream()
-            .map(this::convertToSessionItem)
-            .collect(Collectors.toList());
-
         // Create payment session
         PaymentSession session = new PaymentSession();
         session.setUser(user);
@@ -112,6 +128,7 @@ public class PaymentSessionService {
         session.setTest(paymentProperties.isTestMode());
 
         session = sessionRepository.save(session);
+        seatEventPublisher.publishPaymentSessionHeld(session);
         log.info("Payment session created: {}", session.getId());
 
         // Initialize payment with provider
@@ -134,6 +151,7 @@ public class PaymentSessionService {
             session.setStatus(PaymentSessionStatus.FAILED);
             session.setErrorMessage(e.getMessage());
             sessionRepository.save(session);
+            seatEventPublisher.publishPaymentSessionReleased(session.getId());
             throw new PaymentProviderException(
                 "Failed to initialize payment",
                 request.provider().name(),
@@ -186,6 +204,7 @@ public class PaymentSessionService {
         if (session.getExpiresAt().isBefore(Instant.now())) {
             session.setStatus(PaymentSessionStatus.EXPIRED);
             sessionRepository.save(session);
+            seatEventPublisher.publishPaymentSessionReleased(session.getId());
             throw new IllegalStateException("Payment session has expired");
         }
 
@@ -197,6 +216,7 @@ public class PaymentSessionService {
             session.setStatus(PaymentSessionStatus.CANCELLED);
             session.setErrorMessage("Payment cancelled by user");
             sessionRepository.save(session);
+            seatEventPublisher.publishPaymentSessionReleased(session.getId());
             
             log.info("Payment session {} cancelled by user", session.getId());
             
@@ -217,6 +237,7 @@ public class PaymentSessionService {
             session.setStatus(PaymentSessionStatus.FAILED);
             session.setErrorMessage("Payment not completed by provider");
             sessionRepository.save(session);
+            seatEventPublisher.publishPaymentSessionReleased(session.getId());
             
             return new PaymentSessionRes(
                 session.getId(),
@@ -237,11 +258,13 @@ public class PaymentSessionService {
         // Update session status
         session.setStatus(PaymentSessionStatus.COMPLETED);
         sessionRepository.save(session);
+        seatEventPublisher.publishPaymentSessionReleased(session.getId());
 
         // Clear user's cart
         cartRepository.findByUserId(session.getUser().getId())
             .ifPresent(cart -> {
                 cartRepository.delete(cart);
+                seatEventPublisher.publishCartReleased(cart.getId());
                 log.info("Cart cleared for user {} after successful payment", session.getUser().getId());
             });
 
@@ -297,6 +320,7 @@ public class PaymentSessionService {
         session.setStatus(PaymentSessionStatus.CANCELLED);
         session.setErrorMessage("Payment aborted by user");
         sessionRepository.save(session);
+        seatEventPublisher.publishPaymentSessionReleased(session.getId());
 
         log.info("Transbank payment session {} marked as cancelled (user abort)", session.getId());
 
@@ -354,6 +378,7 @@ public class PaymentSessionService {
         session.setStatus(PaymentSessionStatus.EXPIRED);
         session.setErrorMessage("Payment form timeout");
         sessionRepository.save(session);
+        seatEventPublisher.publishPaymentSessionReleased(session.getId());
 
         log.info("Transbank payment session {} marked as expired (timeout)", session.getId());
 
@@ -371,11 +396,14 @@ public class PaymentSessionService {
      * Confirm a MercadoPago payment session.
      * The webhook sends payment_id in data.id, so we need to fetch the payment
      * to get the external_reference (our session ID).
+     *
+     * Not transactional: the session lookup and the MercadoPago API calls run without holding a
+     * database connection, and only the outcome (bookings, status, cart) is written in one short
+     * transaction that re-reads the session under a row lock.
      * 
      * @param mpPaymentId The MercadoPago payment ID (payment_id from redirect or data.id from webhook)
      * @param externalReference Our session UUID (external_reference from redirect callback)
      */
-    @Transactional
     public PaymentSessionRes confirmMercadoPagoSession(String mpPaymentId, String externalReference) {
         log.info("Confirming MercadoPago payment session - mpPaymentId: {}, externalReference: {}", 
             mpPaymentId, externalReference);
@@ -387,6 +415,23 @@ public class PaymentSessionService {
             throw new IllegalArgumentException("MercadoPago payment_id or external_reference is required");
         }
 
+        PaymentSession session = findMercadoPagoSession(mpPaymentId, externalReference);
+
+        if (session.getStatus() == PaymentSessionStatus.COMPLETED) {
+            log.info("Session {} already completed", session.getId());
+            return buildCompletedResponse(session);
+        }
+
+        // Confirm with MercadoPago using the payment ID
+        PaymentSessionRes providerResult = paymentAdapter.confirmMercadoPagoPayment(session, null, mpPaymentId);
+
+        return transactionTemplate.execute(status -> applyMercadoPagoResult(session.getId(), mpPaymentId, providerResult));
+    }
+
+    /**
+     * Finds the session of a MercadoPago payment. Each repository read is its own short transaction.
+     */
+    private PaymentSession findMercadoPagoSession(String mpPaymentId, String externalReference) {
         PaymentSession session = null;
         
         // Strategy 1: If we have externalReference (our session UUID), use it directly
@@ -429,30 +474,47 @@ public class PaymentSessionService {
             String lookupInfo = mpPaymentId != null ? mpPaymentId : externalReference;
             throw new IllegalArgumentException("Payment session not found for MercadoPago: " + lookupInfo);
         }
+        return session;
+    }
+
+    /**
+     * Writes the outcome of a MercadoPago confirmation. Runs in the caller's transaction.
+     * The session is locked and re-checked, so a concurrent redirect and webhook create the bookings once.
+     */
+    private PaymentSessionRes applyMercadoPagoResult(UUID sessionId, String mpPaymentId, PaymentSessionRes providerResult) {
+        PaymentSession session = sessionRepository.findByIdForUpdate(sessionId)
+            .orElseThrow(() -> new IllegalArgumentException("Payment session not found: " + sessionId));
 
         if (session.getStatus() == PaymentSessionStatus.COMPLETED) {
             log.info("Session {} already completed", session.getId());
             return buildCompletedResponse(session);
         }
 
-        // Confirm with MercadoPago using the payment ID
-        PaymentSessionRes providerResult = paymentAdapter.confirmMercadoPagoPayment(session, null, mpPaymentId);
-
         if (providerResult.status() != PaymentSessionStatus.COMPLETED) {
             session.setStatus(PaymentSessionStatus.FAILED);
             sessionRepository.save(session);
+            seatEventPublisher.publishPaymentSessionReleased(session.getId());
             return providerResult;
         }
 
+        // Numeric payment ID, needed for refunds
+        if (mpPaymentId != null && !mpPaymentId.isEmpty()) {
+            session.setExternalPaymentId(mpPaymentId);
+        }
+
         // Create bookings
         List<UUID> bookingIds = bookingCreationService.createBookingsFromPaymentSession(session, session.getUser());
 
         session.setStatus(PaymentSessionStatus.COMPLETED);
         sessionRepository.save(session);
+        seatEventPublisher.publishPaymentSessionReleased(session.getId());
 
         // Clear cart
         cartRepository.findByUserId(session.getUser().getId())
-            .ifPresent(cartRepository::delete);
+            .ifPresent(cart -> {
+                cartRepository.delete(cart);
+                seatEventPublisher.publishCartReleased(cart.getId());
+            });
 
         PaymentSessionRes response = new PaymentSessionRes(
             session.getId(),
@@ -477,9 +539,28 @@ public class PaymentSessionService {
         return sessionRepository.countReservedSlotsByScheduleId(scheduleId, Instant.now());
     }
 
+    /**
+     * Expire specific pending sessions whose expiration time was reached, releasing their seat holds.
+     * Called in batches by HoldExpiryScheduler at the sessions' exact expiration time.
+     *
+     * @param sessionIds Sessions to expire
+     * @return Number of sessions marked as EXPIRED
+     */
+    @Transactional
+    public int expireSessions(Collection<UUID> sessionIds) {
+        Instant now = Instant.now();
+        List<UUID> expiredIds = sessionRepository.findExpiredPendingIds(sessionIds, now);
+        if (expiredIds.isEmpty()) {
+            return 0;
+        }
+        int expired = sessionRepository.expirePendingSessionsByIds(expiredIds, now);
+        expiredIds.forEach(seatEventPublisher::publishPaymentSessionReleased);
+        return expired;
+    }
+
     /**
      * Expire old pending sessions.
-     * Only runs the UPDATE if there are expired sessions (saves DB compute).
+     * Safety net for HoldExpiryScheduler. Only runs the UPDATE if there are expired sessions (saves DB compute).
      */
     @Transactional
     public int expirePendingSessions() {
@@ -497,27 +578,46 @@ public class PaymentSessionService {
 
     // === Private helper methods ===
 
-    private void validateAvailability(PaymentSessionReq request) {
-        for (var item : request.items()) {
-            TourSchedule schedule = scheduleRepository.findById(item.scheduleId())
-                .orElseThrow(() -> new IllegalArgumentException("Schedule not found: " + item.scheduleId()));
+    /**
+     * Loads the schedules of all request items (with their tours) in one query.
+     */
+    private Map<UUID, TourSchedule> loadSchedules(PaymentSessionReq request) {
+        Set<UUID> scheduleIds = request.items().stream()
+            .map(PaymentSessionReq.PaymentSessionItemReq::scheduleId)
+            .collect(Collectors.toSet());
+
+        Map<UUID, TourSchedule> schedules = new HashMap<>();
+        for (TourSchedule schedule : scheduleRepository.findAllByIdWithTour(scheduleIds)) {
+            schedules.put(schedule.getId(), schedule);
+        }
+        for (UUID scheduleId : scheduleIds) {
+            if (!schedules.containsKey(scheduleId)) {
+                throw new IllegalArgumentException("Schedule not found: " + scheduleId);
+            }
+        }
+        return schedules;
+    }
 
-            // Check if schedule is bookable (must be OPEN)
+    /**
+     * Validates every item in one pass: counts for all schedules come from a single query,
+     * and items for the same schedule are checked together.
+     */
+    private void validateAvailability(List<PaymentSessionItem> items, Map<UUID, TourSchedule> schedules) {
+        // Check if schedules are bookable (must be OPEN)
+        for (TourSchedule schedule : schedules.values()) {
             if (schedule.getStatus() != TourScheduleStatus.OPEN) {
-                throw new IllegalStateException("Schedule is not available for booking: " + item.scheduleId());
+                throw new IllegalStateException("Schedule is not available for booking: " + schedule.getId());
             }
+        }
 
-            // Check capacity (including reserved slots from pending sessions)
-            int bookedSlots = bookingRepository.countConfirmedParticipantsByScheduleId(item.scheduleId());
-            int reservedSlots = getReservedSlots(item.scheduleId());
-            int availableSlots = schedule.getMaxParticipants() - bookedSlots - reservedSlots;
-
-            if (item.numParticipants() > availableSlots) {
+        // Check capacity (including reserved slots from pending sessions)
+        availabilityValidator.validateItems(schedules, items).forEach((scheduleId, result) -> {
+            if (!result.available()) {
                 throw new IllegalStateException(
                     String.format("Not enough availability for schedule %s. Requested: %d, Available: %d",
-                        item.scheduleId(), item.numParticipants(), availableSlots));
+                        scheduleId, result.requestedSlots(), result.availableSlots()));
             }
-        }
+        });
     }
 
     /**
@@ -525,14 +625,11 @@ public class PaymentSessionService {
      * Users cannot create payment sessions for tours that start within the minimum hours limit.
      * This prevents payment sessions being created for tours that will start before payment can complete.
      */
-    private void validateBookingCutoffTimes(PaymentSessionReq request) {
+    private void validateBookingCutoffTimes(Collection<TourSchedule> schedules) {
         Instant now = Instant.now();
         int minHours = appProperties.getBooking().getMinHoursBeforeTour();
 
-        for (var item : request.items()) {
-            TourSchedule schedule = scheduleRepository.findById(item.scheduleId())
-                .orElseThrow(() -> new IllegalArgumentException("Schedule not found: " + item.scheduleId()));
-
+        for (TourSchedule schedule : schedules) {
             Instant cutoffTime = schedule.getStartDatetime().minus(minHours, ChronoUnit.HOURS);
 
             if (now.isAfter(cutoffTime)) {
@@ -541,23 +638,15 @@ public class PaymentSessionService {
         }
     }
 
-    private BigDecimal calculateTrustedTotal(PaymentSessionReq request) {
+    private BigDecimal calculateTrustedTotal(List<PaymentSessionItem> items) {
         BigDecimal total = BigDecimal.ZERO;
-        for (var item : request.items()) {
-            TourSchedule schedule = scheduleRepository.findById(item.scheduleId())
-                .orElseThrow(() -> new IllegalArgumentException("Schedule not found"));
-            
-            BigDecimal itemTotal = schedule.getTour().getPrice()
-                .multiply(BigDecimal.valueOf(item.numParticipants()));
-            total = total.add(itemTotal);
+        for (PaymentSessionItem item : items) {
+            total = total.add(item.itemTotal());
         }
         return total;
     }
 
-    private PaymentSessionItem convertToSessionItem(PaymentSessionReq.PaymentSessionItemReq reqItem) {
-        TourSchedule schedule = scheduleRepository.findById(reqItem.scheduleId())
-            .orElseThrow(() -> new IllegalArgumentException("Schedule not found"));
-
+    private PaymentSessionItem convertToSessionItem(PaymentSessionReq.PaymentSessionItemReq reqItem, TourSchedule schedule) {
         // Get tour name using centralized utility
         String tourName = TourUtils.getTourName(schedule.getTour());
         LocalDate tourDate = schedule.getStartDatetime().atZone(DateTimeUtils.CHILE_ZONE).toLocalDate();
@@ -5,6 +5,7 @@ import cl.transbank.webpay.webpayplus.responses.WebpayPlusTransactionRefundRespo
 import com.mercadopago.MercadoPagoConfig;
 import com.mercadopago.client.payment.PaymentRefundClient;
 import com.mercadopago.resources.payment.PaymentRefund;
+import com.northernchile.api.availability.ScheduleCapacityService;
 import com.northernchile.api.booking.BookingRepository;
 import com.northernchile.api.config.properties.PaymentProperties;
 import com.northernchile.api.exception.RefundException;
@@ -40,16 +41,19 @@ public class RefundService {
     private final PaymentSessionRepository paymentSessionRepository;
     private final EmailService emailService;
     private final PaymentProperties paymentProperties;
+    private final ScheduleCapacityService scheduleCapacityService;
 
     public RefundService(
             BookingRepository bookingRepository,
             PaymentSessionRepository paymentSessionRepository,
             EmailService emailService,
-            PaymentProperties paymentProperties) {
+            PaymentProperties paymentProperties,
+            ScheduleCapacityService scheduleCapacityService) {
         this.bookingRepository = bookingRepository;
         this.paymentSessionRepository = paymentSessionRepository;
         this.emailService = emailService;
         this.paymentProperties = paymentProperties;
+        this.scheduleCapacityService = scheduleCapacityService;
     }
 
     /**
@@ -119,8 +123,10 @@ public class RefundService {
         RefundRes providerResult = processProviderRefund(paymentSession, refundAmount);
 
         // Update booking status
+        BookingStatus previousStatus = booking.getStatus();
         booking.setStatus(BookingStatus.CANCELLED);
         bookingRepository.save(booking);
+        scheduleCapacityService.onBookingStatusChanged(booking, previousStatus);
 
         // Update payment session status
         paymentSession.setStatus(PaymentSessionStatus.REFUNDED);
@@ -169,8 +175,10 @@ public class RefundService {
      */
     @Transactional
     public RefundRes cancelBookingWithoutProviderRefund(Booking booking, String reason) {
+        BookingStatus previousStatus = booking.getStatus();
         booking.setStatus(BookingStatus.CANCELLED);
         bookingRepository.save(booking);
+        scheduleCapacityService.onBookingStatusChanged(booking, previousStatus);
 
         return new RefundRes(
             booking.getId(),           // bookingId
@@ -1,6 +1,6 @@
 package com.northernchile.api.payment;
 
-import com.northernchile.api.payment.dto.PaymentSessionRes;
+import com.northernchile.api.payment.model.PaymentProvider;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -16,7 +16,8 @@ import java.util.Map;
 
 /**
  * Webhook controller for payment providers.
- * Handles webhook notifications from MercadoPago.
+ * Handles webhook notifications from MercadoPago: verified notifications are stored in the
+ * webhook inbox and acknowledged at once, then processed by WebhookInboxProcessor.
  * Note: Transbank uses redirect-based flow, not webhooks.
  */
 @RestController
@@ -26,18 +27,18 @@ public class WebhookController {
 
     private static final Logger log = LoggerFactory.getLogger(WebhookController.class);
 
-    private final PaymentSessionService paymentSessionService;
+    private final WebhookInbox webhookInbox;
     private final WebhookSecurityService webhookSecurityService;
 
-    public WebhookController(PaymentSessionService paymentSessionService, WebhookSecurityService webhookSecurityService) {
-        this.paymentSessionService = paymentSessionService;
+    public WebhookController(WebhookInbox webhookInbox, WebhookSecurityService webhookSecurityService) {
+        this.webhookInbox = webhookInbox;
         this.webhookSecurityService = webhookSecurityService;
     }
 
     @PostMapping("/mercadopago")
     @Operation(summary = "Mercado Pago webhook", description = "Handle Mercado Pago payment notifications")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Webhook processed successfully"),
+        @ApiResponse(responseCode = "200", description = "Webhook accepted for processing"),
         @ApiResponse(responseCode = "400", description = "Invalid webhook payload"),
         @ApiResponse(responseCode = "401", description = "Invalid signature"),
         @ApiResponse(responseCode = "409", description = "Duplicate request")
@@ -124,16 +125,20 @@ public class WebhookController {
                 return ResponseEntity.ok(Map.of("status", "acknowledged", "reason", "no_payment_id"));
             }
 
-            // 7. Process webhook - confirm the payment session
-            PaymentSessionRes response = paymentSessionService.confirmMercadoPagoSession(dataId, dataId);
-            log.info("Mercado Pago webhook processed successfully: {}", response.sessionId());
+            // 7. Store in the inbox and acknowledge; WebhookInboxProcessor confirms the payment session
+            if (!webhookInbox.append(PaymentProvider.MERCADOPAGO, requestId, dataId, rawBody)) {
+                log.warn("Duplicate Mercado Pago webhook request already in inbox: {}", requestId);
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "Duplicate request"));
+            }
+            log.info("Mercado Pago webhook for payment {} queued", dataId);
 
             // 8. Mark request as processed
             if (requestId != null) {
                 webhookSecurityService.markRequestAsProcessed(requestId);
             }
 
-            return ResponseEntity.ok(Map.of("status", "processed"));
+            return ResponseEntity.ok(Map.of("status", "accepted"));
 
         } catch (Exception e) {
             log.error("Error processing Mercado Pago webhook", e);
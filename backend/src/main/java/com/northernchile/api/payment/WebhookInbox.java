@@ -0,0 +1,46 @@
+package com.northernchile.api.payment;
+
+import com.northernchile.api.payment.event.WebhookReceivedEvent;
+import com.northernchile.api.payment.model.PaymentProvider;
+import com.northernchile.api.payment.repository.WebhookInboxRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Write side of the webhook inbox: stores verified webhooks so the controller can acknowledge
+ * them without waiting for the provider API or booking creation (see WebhookInboxProcessor).
+ */
+@Service
+public class WebhookInbox {
+
+    private final WebhookInboxRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public WebhookInbox(WebhookInboxRepository repository, ApplicationEventPublisher eventPublisher) {
+        this.repository = repository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Appends a verified webhook for processing.
+     *
+     * @param provider Payment provider that sent it
+     * @param requestId Provider request ID (x-request-id), used to drop provider retries; may be null
+     * @param externalId Provider payment ID; entries with the same ID are processed in arrival order
+     * @param payload Raw request body
+     * @return false if a webhook with the same request ID is already in the inbox
+     */
+    @Transactional
+    public boolean append(PaymentProvider provider, String requestId, String externalId, String payload) {
+        UUID id = UUID.randomUUID();
+        if (repository.append(id, provider.name(), requestId, externalId, payload, Instant.now()) == 0) {
+            return false;
+        }
+        eventPublisher.publishEvent(new WebhookReceivedEvent(id));
+        return true;
+    }
+}
@@ -0,0 +1,248 @@
+package com.northernchile.api.payment;
+
+import com.northernchile.api.payment.event.WebhookReceivedEvent;
+import com.northernchile.api.payment.model.WebhookInboxEntry;
+import com.northernchile.api.payment.model.WebhookInboxStatus;
+import com.northernchile.api.payment.repository.WebhookInboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drains the webhook inbox on a single worker thread.
+ *
+ * Each entry confirms its payment session (PaymentSessionService.confirmMercadoPagoSession), which
+ * calls the provider API without a database connection and then creates the bookings in one short
+ * transaction. One worker keeps webhook processing to at most one of the two pooled connections, so
+ * checkout requests always have one left. Only the oldest pending entry of each external ID
+ * is picked up, and never while another entry of that ID is running, so notifications for one payment
+ * are applied in order. Failures are retried with exponential backoff up to MAX_ATTEMPTS, then the
+ * entry is marked FAILED for manual review. Confirmation is idempotent (completed sessions are
+ * skipped), so an entry re-run after a crash does no harm.
+ *
+ * The inbox is only queried when there is work: on startup, after a webhook is appended, after an
+ * entry finishes and when the earliest retry is due. Idle periods issue no queries (Neon auto-suspend).
+ * Like the SeatLedger, this assumes a single application instance.
+ *
+ * Metrics: webhook.inbox.depth (pending entries), webhook.inbox.lag (receipt to processed),
+ * webhook.inbox.attempts (tagged by outcome).
+ */
+@Component
+public class WebhookInboxProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(WebhookInboxProcessor.class);
+
+    private static final long TICK_MILLIS = 1000;
+    static final int WORKERS = 1;
+    // Heads picked up per drain; the next tick picks up the rest
+    static final int DRAIN_BATCH_SIZE = 50;
+    static final int MAX_ATTEMPTS = 8;
+    static final Duration BASE_BACKOFF = Duration.ofSeconds(5);
+    static final Duration MAX_BACKOFF = Duration.ofMinutes(15);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final WebhookInboxRepository repository;
+    private final PaymentSessionService paymentSessionService;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService workers;
+
+    // External IDs with an entry running on a worker
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean drainRequested = new AtomicBoolean();
+    private final AtomicInteger depth = new AtomicInteger();
+    // Earliest pending retry, only touched by the scheduler thread
+    private Instant nextDrainAt;
+
+    private final Timer lag;
+    private final Counter processed;
+    private final Counter retried;
+    private final Counter failed;
+
+    public WebhookInboxProcessor(WebhookInboxRepository repository,
+                                 PaymentSessionService paymentSessionService,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.paymentSessionService = paymentSessionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workers = Executors.newFixedThreadPool(WORKERS, Thread.ofPlatform().name("webhook-inbox-", 0).factory());
+
+        Gauge.builder("webhook.inbox.depth", depth, AtomicInteger::get)
+                .description("Webhooks waiting to be processed")
+                .register(meterRegistry);
+        this.lag = Timer.builder("webhook.inbox.lag")
+                .description("Time from webhook receipt to successful processing")
+                .register(meterRegistry);
+        this.processed = attempts(meterRegistry, "processed");
+        this.retried = attempts(meterRegistry, "retry");
+        this.failed = attempts(meterRegistry, "failed");
+    }
+
+    private static Counter attempts(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("webhook.inbox.attempts")
+                .description("Webhook processing attempts")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Picks up entries left pending by a previous run.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        try {
+            depth.set((int) repository.countByStatus(WebhookInboxStatus.PENDING));
+            log.info("Webhook inbox: {} pending entries", depth.get());
+        } catch (Exception e) {
+            log.error("Failed to read webhook inbox depth: {}", e.getMessage(), e);
+        }
+        drainRequested.set(true);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onWebhookReceived(WebhookReceivedEvent event) {
+        depth.incrementAndGet();
+        drainRequested.set(true);
+    }
+
+    /**
+     * Drains the inbox if something changed or a retry is due. Pure in-memory otherwise.
+     */
+    @Scheduled(fixedDelay = TICK_MILLIS)
+    public void tick() {
+        boolean retryDue = nextDrainAt != null && !Instant.now().isBefore(nextDrainAt);
+        if (drainRequested.getAndSet(false) || retryDue) {
+            drain();
+        }
+    }
+
+    void drain() {
+        try {
+            Instant now = Instant.now();
+            List<WebhookInboxEntry> heads = repository.findDueHeads(now, DRAIN_BATCH_SIZE);
+            for (WebhookInboxEntry entry : heads) {
+                if (inFlight.add(entry.getExternalId())) {
+                    workers.execute(() -> run(entry));
+                }
+            }
+            if (heads.size() == DRAIN_BATCH_SIZE) {
+                drainRequested.set(true);
+            }
+            nextDrainAt = repository.findNextAttemptAfter(now).orElse(null);
+        } catch (Exception e) {
+            log.error("Failed to drain webhook inbox, retrying in {}s: {}", BASE_BACKOFF.toSeconds(), e.getMessage());
+            nextDrainAt = Instant.now().plus(BASE_BACKOFF);
+        }
+    }
+
+    private void run(WebhookInboxEntry entry) {
+        try {
+            process(entry);
+        } finally {
+            inFlight.remove(entry.getExternalId());
+            // The next entry of this ID (if any) can run now
+            drainRequested.set(true);
+        }
+    }
+
+    void process(WebhookInboxEntry entry) {
+        try {
+            switch (entry.getProvider()) {
+                case MERCADOPAGO -> {
+                    var response = paymentSessionService.confirmMercadoPagoSession(entry.getExternalId(), entry.getExternalId());
+                    log.info("Mercado Pago webhook {} processed: session {}", entry.getId(), response.sessionId());
+                }
+                default -> throw new IllegalStateException("Unsupported webhook provider: " + entry.getProvider());
+            }
+        } catch (Exception e) {
+            onFailure(entry, e);
+            return;
+        }
+
+        Instant now = Instant.now();
+        Integer marked;
+        try {
+            marked = transactionTemplate.execute(status -> repository.markProcessed(entry.getId(), now));
+        } catch (Exception e) {
+            // The entry stays pending and is confirmed again, which is a no-op for a completed session
+            log.error("Processed webhook {} but could not mark it: {}", entry.getId(), e.getMessage());
+            return;
+        }
+        if (marked == null || marked == 0) {
+            return;
+        }
+        depth.decrementAndGet();
+        processed.increment();
+        lag.record(Duration.between(entry.getReceivedAt(), now));
+    }
+
+    private void onFailure(WebhookInboxEntry entry, Exception error) {
+        int attempt = entry.getAttempts() + 1;
+        String message = truncate(error.getClass().getSimpleName() + ": " + error.getMessage());
+        try {
+            if (attempt >= MAX_ATTEMPTS) {
+                Integer marked = transactionTemplate.execute(status ->
+                        repository.markFailed(entry.getId(), Instant.now(), message));
+                if (marked != null && marked > 0) {
+                    depth.decrementAndGet();
+                }
+                failed.increment();
+                log.error("Webhook {} ({} {}) failed after {} attempts, giving up: {}",
+                        entry.getId(), entry.getProvider(), entry.getExternalId(), attempt, message);
+            } else {
+                Duration delay = backoff(attempt);
+                transactionTemplate.executeWithoutResult(status ->
+                        repository.markRetry(entry.getId(), Instant.now().plus(delay), message));
+                retried.increment();
+                log.warn("Webhook {} ({} {}) attempt {} failed, retrying in {}s: {}",
+                        entry.getId(), entry.getProvider(), entry.getExternalId(), attempt, delay.toSeconds(), message);
+            }
+        } catch (Exception e) {
+            // Still pending with the old schedule, so it is picked up again on the next drain
+            log.error("Could not record failure of webhook {}: {}", entry.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * BASE_BACKOFF doubled per failed attempt, capped at MAX_BACKOFF.
+     */
+    static Duration backoff(int attempt) {
+        Duration delay = BASE_BACKOFF.multipliedBy(1L << Math.min(attempt - 1, 20));
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    int pendingEntries() {
+        return depth.get();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdown();
+    }
+}
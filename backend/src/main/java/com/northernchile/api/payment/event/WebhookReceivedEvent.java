@@ -0,0 +1,11 @@
+package com.northernchile.api.payment.event;
+
+import java.util.UUID;
+
+/**
+ * Event published after a webhook was appended to the inbox (WebhookInbox).
+ * WebhookInboxProcessor drains the inbox when it receives it.
+ *
+ * @param entryId ID of the new webhook_inbox row
+ */
+public record WebhookReceivedEvent(UUID entryId) {}
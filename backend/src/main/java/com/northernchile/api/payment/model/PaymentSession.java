@@ -9,7 +9,9 @@ import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 
@@ -45,6 +47,16 @@ public class PaymentSession {
     @Column(columnDefinition = "jsonb", nullable = false)
     private List<PaymentSessionItem> items;
 
+    /**
+     * Participants per schedule derived from items, stored in payment_session_items
+     * so reservation queries can use an index instead of scanning the JSON snapshot.
+     */
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "payment_session_items", joinColumns = @JoinColumn(name = "session_id"))
+    @MapKeyColumn(name = "schedule_id")
+    @Column(name = "num_participants", nullable = false)
+    private Map<UUID, Integer> seatsBySchedule = new HashMap<>();
+
     @Column(name = "total_amount", nullable = false, precision = 19, scale = 4)
     private BigDecimal totalAmount;
 
@@ -146,6 +158,16 @@ public class PaymentSession {
 
     public void setItems(List<PaymentSessionItem> items) {
         this.items = items;
+        seatsBySchedule.clear();
+        if (items != null) {
+            for (PaymentSessionItem item : items) {
+                seatsBySchedule.merge(item.scheduleId(), item.numParticipants(), Integer::sum);
+            }
+        }
+    }
+
+    public Map<UUID, Integer> getSeatsBySchedule() {
+        return seatsBySchedule;
     }
 
     public BigDecimal getTotalAmount() {
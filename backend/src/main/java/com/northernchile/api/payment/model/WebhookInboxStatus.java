@@ -0,0 +1,21 @@
+package com.northernchile.api.payment.model;
+
+/**
+ * Processing state of a webhook inbox entry.
+ */
+public enum WebhookInboxStatus {
+    /**
+     * Waiting to be processed (first attempt or retry)
+     */
+    PENDING,
+
+    /**
+     * Payment session confirmed
+     */
+    PROCESSED,
+
+    /**
+     * Gave up after WebhookInboxProcessor.MAX_ATTEMPTS; needs manual review
+     */
+    FAILED
+}
@@ -2,13 +2,16 @@ package com.northernchile.api.payment.repository;
 
 import com.northernchile.api.payment.model.PaymentSession;
 import com.northernchile.api.payment.model.PaymentSessionStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -22,28 +25,67 @@ public interface PaymentSessionRepository extends JpaRepository<PaymentSession,
 
     List<PaymentSession> findByUserIdAndStatus(UUID userId, PaymentSessionStatus status);
 
+    /**
+     * Session with its row locked until the transaction ends (payment confirmation)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT ps FROM PaymentSession ps WHERE ps.id = :id")
+    Optional<PaymentSession> findByIdForUpdate(@Param("id") UUID id);
+
     /**
      * Find expired pending sessions (for cleanup job)
      */
     @Query("SELECT ps FROM PaymentSession ps WHERE ps.status = 'PENDING' AND ps.expiresAt < :now")
     List<PaymentSession> findExpiredPendingSessions(@Param("now") Instant now);
 
+    /**
+     * Find pending sessions that still hold seats (for rebuilding the SeatLedger)
+     */
+    @Query("SELECT ps FROM PaymentSession ps WHERE ps.status = 'PENDING' AND ps.expiresAt > :now")
+    List<PaymentSession> findActivePendingSessions(@Param("now") Instant now);
+
     /**
      * Count reserved slots for a schedule from pending payment sessions.
      * Used for availability calculation.
      */
     @Query(value = """
-        SELECT COALESCE(SUM(
-            (SELECT SUM((item->>'numParticipants')::int)
-             FROM jsonb_array_elements(ps.items) AS item
-             WHERE (item->>'scheduleId')::uuid = :scheduleId)
-        ), 0)
-        FROM payment_sessions ps
-        WHERE ps.status = 'PENDING'
+        SELECT COALESCE(SUM(psi.num_participants), 0)
+        FROM payment_session_items psi
+        JOIN payment_sessions ps ON ps.id = psi.session_id
+        WHERE psi.schedule_id = :scheduleId
+          AND ps.status = 'PENDING'
           AND ps.expires_at > :now
         """, nativeQuery = true)
     int countReservedSlotsByScheduleId(@Param("scheduleId") UUID scheduleId, @Param("now") Instant now);
 
+    /**
+     * Expiration of every pending session. Each row is [sessionId, expiresAt].
+     * Used to rebuild the HoldExpiryScheduler.
+     */
+    @Query("SELECT ps.id, ps.expiresAt FROM PaymentSession ps WHERE ps.status = 'PENDING'")
+    List<Object[]> findPendingExpirations();
+
+    /**
+     * Pending sessions among the given IDs whose expiration has passed. The rows stay locked until
+     * the transaction ends, so a concurrent confirmation cannot complete them before they are expired.
+     */
+    @Query(value = """
+        SELECT ps.id FROM payment_sessions ps
+        WHERE ps.id IN :sessionIds
+          AND ps.status = 'PENDING'
+          AND ps.expires_at <= :now
+        FOR UPDATE
+        """, nativeQuery = true)
+    List<UUID> findExpiredPendingIds(@Param("sessionIds") Collection<UUID> sessionIds, @Param("now") Instant now);
+
+    /**
+     * Batch expiry of specific pending sessions whose expiration has passed
+     */
+    @Modifying
+    @Query("UPDATE PaymentSession ps SET ps.status = 'EXPIRED' " +
+           "WHERE ps.id IN :sessionIds AND ps.status = 'PENDING' AND ps.expiresAt <= :now")
+    int expirePendingSessionsByIds(@Param("sessionIds") Collection<UUID> sessionIds, @Param("now") Instant now);
+
     /**
      * Expire old pending sessions
      */
@@ -63,12 +105,10 @@ public interface PaymentSessionRepository extends JpaRepository<PaymentSession,
      */
     @Query(value = """
         SELECT ps.* FROM payment_sessions ps
+        JOIN payment_session_items psi ON psi.session_id = ps.id
         WHERE ps.user_id = :userId
           AND ps.status = 'COMPLETED'
-          AND EXISTS (
-            SELECT 1 FROM jsonb_array_elements(ps.items) AS item
-            WHERE (item->>'scheduleId')::uuid = :scheduleId
-          )
+          AND psi.schedule_id = :scheduleId
         ORDER BY ps.created_at DESC
         LIMIT 1
         """, nativeQuery = true)
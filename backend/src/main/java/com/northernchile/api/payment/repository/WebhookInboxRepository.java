@@ -0,0 +1,80 @@
+package com.northernchile.api.payment.repository;
+
+import com.northernchile.api.payment.model.WebhookInboxEntry;
+import com.northernchile.api.payment.model.WebhookInboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface WebhookInboxRepository extends JpaRepository<WebhookInboxEntry, UUID> {
+
+    /**
+     * Appends a verified webhook. Provider retries of an already stored request ID are skipped.
+     *
+     * @return 1 if stored, 0 if the request ID was already in the inbox
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO webhook_inbox (id, provider, request_id, external_id, payload, status, attempts, next_attempt_at, received_at)
+        VALUES (:id, :provider, :requestId, :externalId, :payload, 'PENDING', 0, :now, :now)
+        ON CONFLICT (provider, request_id) DO NOTHING
+        """, nativeQuery = true)
+    int append(
+        @Param("id") UUID id,
+        @Param("provider") String provider,
+        @Param("requestId") String requestId,
+        @Param("externalId") String externalId,
+        @Param("payload") String payload,
+        @Param("now") Instant now
+    );
+
+    /**
+     * Oldest pending entry of each external ID, if it is due. Later entries of an ID wait
+     * until the ones before them are processed or have failed for good.
+     */
+    @Query(value = """
+        SELECT * FROM (
+            SELECT DISTINCT ON (external_id) *
+            FROM webhook_inbox
+            WHERE status = 'PENDING'
+            ORDER BY external_id, received_at
+        ) heads
+        WHERE heads.next_attempt_at <= :now
+        ORDER BY heads.received_at
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<WebhookInboxEntry> findDueHeads(@Param("now") Instant now, @Param("limit") int limit);
+
+    /**
+     * Earliest future retry among pending entries (drives the next drain).
+     */
+    @Query("SELECT MIN(e.nextAttemptAt) FROM WebhookInboxEntry e WHERE e.status = 'PENDING' AND e.nextAttemptAt > :now")
+    Optional<Instant> findNextAttemptAfter(@Param("now") Instant now);
+
+    long countByStatus(WebhookInboxStatus status);
+
+    // Status transitions only apply to pending entries, so an entry picked up twice is counted once
+
+    @Modifying
+    @Query("UPDATE WebhookInboxEntry e SET e.status = 'PROCESSED', e.attempts = e.attempts + 1, " +
+           "e.processedAt = :now, e.lastError = NULL WHERE e.id = :id AND e.status = 'PENDING'")
+    int markProcessed(@Param("id") UUID id, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE WebhookInboxEntry e SET e.attempts = e.attempts + 1, e.nextAttemptAt = :nextAttemptAt, " +
+           "e.lastError = :error WHERE e.id = :id AND e.status = 'PENDING'")
+    int markRetry(@Param("id") UUID id, @Param("nextAttemptAt") Instant nextAttemptAt, @Param("error") String error);
+
+    @Modifying
+    @Query("UPDATE WebhookInboxEntry e SET e.status = 'FAILED', e.attempts = e.attempts + 1, " +
+           "e.processedAt = :now, e.lastError = :error WHERE e.id = :id AND e.status = 'PENDING'")
+    int markFailed(@Param("id") UUID id, @Param("now") Instant now, @Param("error") String error);
+}
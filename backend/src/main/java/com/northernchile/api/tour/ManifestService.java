@@ -1,36 +1,67 @@
 package com.northernchile.api.tour;
 
 import com.northernchile.api.booking.BookingRepository;
-import com.northernchile.api.model.Booking;
-import com.northernchile.api.model.BookingStatus;
-import com.northernchile.api.model.Participant;
 import com.northernchile.api.model.TourSchedule;
 import com.northernchile.api.notification.EmailService;
+import com.northernchile.api.tour.manifest.ManifestFormat;
+import com.northernchile.api.tour.manifest.ManifestHeader;
+import com.northernchile.api.tour.manifest.ManifestRenderer;
+import com.northernchile.api.tour.manifest.ManifestRow;
+import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.northernchile.api.util.DateTimeUtils;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
 
 /**
  * Service responsible for generating and sending tour manifests
- * when a schedule is closed (2 hours before tour start).
+ * when a schedule is closed (2 hours before tour start), and for exporting them as CSV or PDF.
+ *
+ * Participants, bookings and booking users come from a single streamed projection query
+ * (BookingRepository.streamManifestRows). Exports write each row to the renderer as it is read,
+ * into a temporary file that is copied to the client once the read-only transaction has ended.
+ * When a manifest is sent, the rows are read in a short read-only transaction and no email is sent
+ * until it has ended. Neither a slow download nor slow email delivery holds a database connection.
  */
 @Service
 public class ManifestService {
 
     private static final Logger log = LoggerFactory.getLogger(ManifestService.class);
 
+    // Pickup reminders in flight at once, so a large manifest doesn't overflow the async email queue
+    static final int REMINDER_CONCURRENCY = 4;
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy")
+            .withZone(DateTimeUtils.CHILE_ZONE);
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm")
+            .withZone(DateTimeUtils.CHILE_ZONE);
+
     private final BookingRepository bookingRepository;
+    private final TourScheduleRepository tourScheduleRepository;
     private final EmailService emailService;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Semaphore reminderPermits = new Semaphore(REMINDER_CONCURRENCY);
 
     @Value("${manifest.operator-email:contacto@northernchile.com}")
     private String operatorEmail;
@@ -38,88 +69,143 @@ public class ManifestService {
     @Value("${manifest.emergency-contact:+56 9 5765 5764}")
     private String emergencyContact;
 
-    public ManifestService(BookingRepository bookingRepository, EmailService emailService) {
+    public ManifestService(BookingRepository bookingRepository,
+                           TourScheduleRepository tourScheduleRepository,
+                           EmailService emailService,
+                           PlatformTransactionManager transactionManager) {
         this.bookingRepository = bookingRepository;
+        this.tourScheduleRepository = tourScheduleRepository;
         this.emailService = emailService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     /**
      * Generates and sends the manifest for a closed schedule.
-     * Also sends reminder emails to all participants with email addresses.
+     * Then sends reminder emails to all participants with email addresses (once per address).
      */
-    @Transactional(readOnly = true)
-    public void generateAndSendManifest(TourSchedule schedule) {
-        log.info("Generating manifest for schedule {} - Tour: {}", 
+    public void generateAndSendManifest(UUID scheduleId) {
+        Manifest manifest = readOnlyTransaction.execute(status -> loadManifest(scheduleId));
+        if (manifest == null) {
+            return;
+        }
+
+        // Send manifest to operator
+        emailService.sendManifestEmail(
+                operatorEmail,
+                manifest.header().tourName(),
+                manifest.header().tourDate(),
+                manifest.header().tourTime(),
+                manifest.header().guideName(),
+                manifest.participants().size(),
+                manifest.participants()
+        );
+
+        manifest.reminders().forEach(this::sendReminderToParticipant);
+
+        log.info("Manifest sent to operator and {} participant reminders sent", manifest.reminders().size());
+    }
+
+    /**
+     * Reads the operator manifest and the pickup reminders (one per email address) of a schedule.
+     *
+     * @return The manifest, or null if the schedule does not exist or has no confirmed participants
+     */
+    private Manifest loadManifest(UUID scheduleId) {
+        TourSchedule schedule = tourScheduleRepository.findByIdWithTourAndGuide(scheduleId).orElse(null);
+        if (schedule == null) {
+            log.warn("Schedule {} not found, skipping manifest", scheduleId);
+            return null;
+        }
+        log.info("Generating manifest for schedule {} - Tour: {}",
                 schedule.getId(), schedule.getTour().getDisplayName());
 
-        // Get all CONFIRMED bookings for this schedule
-        List<Booking> confirmedBookings = bookingRepository.findByScheduleId(schedule.getId())
-                .stream()
-                .filter(b -> b.getStatus() == BookingStatus.CONFIRMED)
-                .toList();
+        // The email template renders the whole table, so the operator manifest is the one list kept
+        List<ManifestParticipant> participants = new ArrayList<>();
+        List<PickupReminder> reminders = new ArrayList<>();
+        Set<String> reminderEmails = new HashSet<>(); // To avoid duplicate emails
+        Set<UUID> bookings = new HashSet<>();
+
+        try (Stream<ManifestRow> rows = bookingRepository.streamManifestRows(scheduleId)) {
+            rows.forEach(row -> {
+                participants.add(toManifestParticipant(participants.size() + 1, row));
+                bookings.add(row.bookingId());
+                String email = row.email();
+                if (email != null && !email.isBlank() && reminderEmails.add(email.toLowerCase())) {
+                    reminders.add(toPickupReminder(row, schedule));
+                }
+            });
+        }
 
-        if (confirmedBookings.isEmpty()) {
+        if (participants.isEmpty()) {
             log.info("No confirmed bookings for schedule {}, skipping manifest", schedule.getId());
-            return;
+            return null;
         }
 
-        // Collect all participants
-        List<ParticipantInfo> allParticipants = new ArrayList<>();
-        Set<String> sentEmails = new HashSet<>(); // To avoid duplicate emails
+        log.info("Found {} participants across {} bookings for schedule {}",
+                participants.size(), bookings.size(), schedule.getId());
+        return new Manifest(headerFor(schedule), participants, reminders);
+    }
 
-        for (Booking booking : confirmedBookings) {
-            for (Participant participant : booking.getParticipants()) {
-                allParticipants.add(new ParticipantInfo(participant, booking));
+    /**
+     * Writes the manifest of a schedule (confirmed bookings only) to the output stream.
+     *
+     * Rows are rendered into a temporary file inside a read-only transaction; the file is copied
+     * to the output stream only after it has ended, so the client's download speed doesn't keep a
+     * pooled connection checked out.
+     *
+     * @throws EntityNotFoundException if the schedule does not exist
+     */
+    public void exportManifest(UUID scheduleId, ManifestFormat format, OutputStream out) throws IOException {
+        Path file = Files.createTempFile("manifest-", "." + format.extension());
+        try {
+            try {
+                readOnlyTransaction.executeWithoutResult(status -> renderManifest(scheduleId, format, file));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
             }
+            Files.copy(file, out);
+        } finally {
+            Files.deleteIfExists(file);
         }
+    }
 
-        log.info("Found {} participants across {} bookings for schedule {}", 
-                allParticipants.size(), confirmedBookings.size(), schedule.getId());
-
-        // Send manifest to operator
-        sendManifestToOperator(schedule, allParticipants);
-
-        // Send reminders to participants with email
-        for (ParticipantInfo info : allParticipants) {
-            String email = info.participant.getEmail();
-            if (email != null && !email.isBlank() && !sentEmails.contains(email.toLowerCase())) {
-                sendReminderToParticipant(info, schedule);
-                sentEmails.add(email.toLowerCase());
+    private void renderManifest(UUID scheduleId, ManifestFormat format, Path file) {
+        TourSchedule schedule = tourScheduleRepository.findByIdWithTourAndGuide(scheduleId)
+                .orElseThrow(() -> new EntityNotFoundException("Schedule not found with id: " + scheduleId));
+
+        try (OutputStream fileOut = new BufferedOutputStream(Files.newOutputStream(file));
+             Stream<ManifestRow> rows = bookingRepository.streamManifestRows(scheduleId)) {
+            ManifestRenderer renderer = format.open(fileOut);
+            renderer.start(headerFor(schedule));
+            int number = 0;
+            Iterator<ManifestRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                renderer.row(++number, iterator.next());
             }
+            renderer.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-
-        log.info("Manifest sent to operator and {} participant reminders sent", sentEmails.size());
     }
 
-    private void sendManifestToOperator(TourSchedule schedule, List<ParticipantInfo> participants) {
-        String tourName = schedule.getTour().getNameTranslations().getOrDefault("es", 
+    private ManifestHeader headerFor(TourSchedule schedule) {
+        String tourName = schedule.getTour().getNameTranslations().getOrDefault("es",
                 schedule.getTour().getDisplayName());
 
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy")
-                .withZone(DateTimeUtils.CHILE_ZONE);
-        DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm")
-                .withZone(DateTimeUtils.CHILE_ZONE);
-
-        String tourDate = dateFormatter.format(schedule.getStartDatetime());
-        String tourTime = timeFormatter.format(schedule.getStartDatetime());
-
-        String guideName = schedule.getAssignedGuide() != null 
-                ? schedule.getAssignedGuide().getFullName() 
+        String guideName = schedule.getAssignedGuide() != null
+                ? schedule.getAssignedGuide().getFullName()
                 : "Sin asignar";
 
-        emailService.sendManifestEmail(
-                operatorEmail,
+        return new ManifestHeader(
                 tourName,
-                tourDate,
-                tourTime,
-                guideName,
-                participants.size(),
-                buildParticipantsList(participants)
-        );
+                DATE_FORMATTER.format(schedule.getStartDatetime()),
+                TIME_FORMATTER.format(schedule.getStartDatetime()),
+                guideName);
     }
 
-    private void sendReminderToParticipant(ParticipantInfo info, TourSchedule schedule) {
-        String languageCode = info.booking.getLanguageCode();
+    private PickupReminder toPickupReminder(ManifestRow row, TourSchedule schedule) {
+        String languageCode = row.languageCode();
         if (languageCode == null) languageCode = "es";
 
         String tourName = schedule.getTour().getNameTranslations().getOrDefault(
@@ -127,64 +213,96 @@ public class ManifestService {
                 schedule.getTour().getDisplayName()
         );
 
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy")
-                .withZone(DateTimeUtils.CHILE_ZONE);
-        DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm")
-                .withZone(DateTimeUtils.CHILE_ZONE);
-
-        String tourDate = dateFormatter.format(schedule.getStartDatetime());
-        String tourTime = timeFormatter.format(schedule.getStartDatetime());
-        String pickupLocation = info.participant.getPickupAddress();
+        String tourDate = DATE_FORMATTER.format(schedule.getStartDatetime());
+        String tourTime = TIME_FORMATTER.format(schedule.getStartDatetime());
+        String pickupLocation = row.pickupAddress();
 
         // Get equipment list from tour
         String equipment = "";
         var equipmentTranslations = schedule.getTour().getEquipmentTranslations();
         if (equipmentTranslations != null) {
             Object equipmentObj = equipmentTranslations.getOrDefault(
-                    languageCode.substring(0, 2), 
+                    languageCode.substring(0, 2),
                     equipmentTranslations.getOrDefault("es", "")
             );
             equipment = equipmentObj != null ? equipmentObj.toString() : "";
         }
 
-        emailService.sendPickupReminderToParticipant(
-                info.participant.getEmail(),
-                info.participant.getFullName(),
+        return new PickupReminder(
+                row.email(),
+                row.fullName(),
                 tourName,
                 tourDate,
                 tourTime,
                 pickupLocation != null ? pickupLocation : "",
                 equipment,
-                emergencyContact,
                 languageCode
         );
     }
 
-    private List<ManifestParticipant> buildParticipantsList(List<ParticipantInfo> participants) {
-        List<ManifestParticipant> result = new ArrayList<>();
-        int index = 1;
-        
-        for (ParticipantInfo info : participants) {
-            Participant p = info.participant;
-            result.add(new ManifestParticipant(
-                    index++,
-                    p.getFullName(),
-                    p.getPhoneNumber(),
-                    p.getPickupAddress(),
-                    p.getNationality(),
-                    p.getDocumentId(),
-                    p.getSpecialRequirements(),
-                    info.booking.getSpecialRequests()
-            ));
+    /**
+     * Hands the reminder to the async email sender, waiting while REMINDER_CONCURRENCY are still in flight.
+     */
+    private void sendReminderToParticipant(PickupReminder reminder) {
+        try {
+            reminderPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted before sending pickup reminder to {}", reminder.email());
+            return;
+        }
+        try {
+            CompletableFuture<Void> sent = emailService.sendPickupReminderToParticipant(
+                    reminder.email(),
+                    reminder.fullName(),
+                    reminder.tourName(),
+                    reminder.tourDate(),
+                    reminder.tourTime(),
+                    reminder.pickupLocation(),
+                    reminder.equipment(),
+                    emergencyContact,
+                    reminder.languageCode()
+            );
+            sent.whenComplete((result, error) -> reminderPermits.release());
+        } catch (RuntimeException e) {
+            // e.g. the async executor rejected the task
+            reminderPermits.release();
+            log.error("Could not queue pickup reminder to {}: {}", reminder.email(), e.getMessage());
         }
-        
-        return result;
     }
 
+    private static ManifestParticipant toManifestParticipant(int number, ManifestRow row) {
+        return new ManifestParticipant(
+                number,
+                row.fullName(),
+                row.phoneNumber(),
+                row.pickupAddress(),
+                row.nationality(),
+                row.documentId(),
+                row.specialRequirements(),
+                row.bookingSpecialRequests()
+        );
+    }
+
+    private record Manifest(
+            ManifestHeader header,
+            List<ManifestParticipant> participants,
+            List<PickupReminder> reminders
+    ) {}
+
     /**
-     * Internal record to hold participant with its booking context
+     * Pickup reminder for one email address, resolved while the schedule was loaded
      */
-    private record ParticipantInfo(Participant participant, Booking booking) {}
+    private record PickupReminder(
+            String email,
+            String fullName,
+            String tourName,
+            String tourDate,
+            String tourTime,
+            String pickupLocation,
+            String equipment,
+            String languageCode
+    ) {}
 
     /**
      * DTO for manifest participant data
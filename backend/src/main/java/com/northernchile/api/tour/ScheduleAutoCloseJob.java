@@ -2,83 +2,203 @@ package com.northernchile.api.tour;
 
 import com.northernchile.api.model.TourSchedule;
 import com.northernchile.api.model.TourScheduleStatus;
+import com.northernchile.api.tour.event.ScheduleChangedEvent;
+import com.northernchile.api.tour.event.SchedulesGeneratedEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
 
 /**
- * Scheduled job that automatically closes tour schedules
- * when they are within the booking cutoff window.
- * 
+ * Closes tour schedules at the exact moment they enter the booking cutoff window
+ * (booking.min-hours-before-tour before the start).
+ *
  * This prevents last-minute bookings that could cause operational issues.
  * When closing a schedule, it also:
  * - Sends a manifest email to the operator
  * - Sends pickup reminder emails to all participants
+ *
+ * Every OPEN schedule is kept in an in-memory delay queue ordered by its cutoff instant. The queue is
+ * checked every second without touching the database; a schedule is only loaded when its cutoff is
+ * reached. Idle hours issue no queries, which lets Neon auto-suspend.
+ *
+ * How it stays current:
+ * 1. Rebuilt from the database when the application is ready (overdue schedules close on the first tick)
+ * 2. Updated from ScheduleChangedEvent after each transaction commits (created, moved, cancelled, deleted)
+ * 3. Reloaded from SchedulesGeneratedEvent, since bulk generation doesn't report the new rows
+ *
+ * Stale entries are harmless: the schedule is re-read before closing and skipped unless it is still
+ * OPEN and inside the cutoff window.
  */
 @Component
 public class ScheduleAutoCloseJob {
 
     private static final Logger log = LoggerFactory.getLogger(ScheduleAutoCloseJob.class);
 
+    private static final long TICK_MILLIS = 1000;
+    // Delay before retrying a schedule that could not be closed
+    private static final long RETRY_DELAY_MILLIS = 30_000;
+
     private final TourScheduleRepository tourScheduleRepository;
     private final ManifestService manifestService;
+    private final TransactionTemplate transactionTemplate;
+
+    // Current cutoff per tracked schedule; queue entries that don't match it are stale
+    private final Map<UUID, Instant> cutoffs = new HashMap<>();
+    private final PriorityQueue<Deadline> queue = new PriorityQueue<>(Comparator.comparing(Deadline::cutoff));
 
     @Value("${booking.min-hours-before-tour:2}")
     private int minHoursBeforeTour;
 
-    public ScheduleAutoCloseJob(TourScheduleRepository tourScheduleRepository, 
-                                 ManifestService manifestService) {
+    public ScheduleAutoCloseJob(TourScheduleRepository tourScheduleRepository,
+                                ManifestService manifestService,
+                                PlatformTransactionManager transactionManager) {
         this.tourScheduleRepository = tourScheduleRepository;
         this.manifestService = manifestService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
-     * Runs every hour to close schedules that are within the cutoff window.
-     * For each closed schedule, generates and sends manifest + participant reminders.
-     * Interval increased to 1 hour to reduce database compute costs on Neon.
+     * Tracks new, moved and reopened schedules, and forgets cancelled, closed and deleted ones,
+     * once their transaction has committed.
      */
-    @Scheduled(fixedRate = 3600000) // Every 1 hour
-    @Transactional
-    public void closeSchedulesWithinCutoff() {
-        Instant cutoffTime = Instant.now().plus(minHoursBeforeTour, ChronoUnit.HOURS);
-        
-        List<TourSchedule> schedulesToClose = tourScheduleRepository
-                .findOpenSchedulesBeforeCutoff(cutoffTime);
-
-        if (schedulesToClose.isEmpty()) {
-            return;
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onScheduleChanged(ScheduleChangedEvent event) {
+        if (event.isOpen()) {
+            track(event.scheduleId(), cutoffFor(event.startDatetime()));
+        } else {
+            forget(event.scheduleId());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSchedulesGenerated(SchedulesGeneratedEvent event) {
+        rebuild();
+    }
+
+    /**
+     * Closes the schedules whose cutoff has been reached. Pure in-memory unless one is due.
+     */
+    @Scheduled(fixedDelay = TICK_MILLIS)
+    public void tick() {
+        List<UUID> due = pollDue(Instant.now());
+        for (UUID scheduleId : due) {
+            close(scheduleId);
         }
+    }
 
-        log.info("Auto-closing {} schedules within {} hour cutoff", 
-                schedulesToClose.size(), minHoursBeforeTour);
+    /**
+     * Registers every OPEN schedule. Runs at startup and after schedule generation.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        try {
+            List<Object[]> rows = tourScheduleRepository.findOpenStartTimes();
+            synchronized (queue) {
+                for (Object[] row : rows) {
+                    track((UUID) row[0], cutoffFor((Instant) row[1]));
+                }
+            }
+            log.info("Schedule close queue rebuilt: {} open schedules", rows.size());
+        } catch (Exception e) {
+            // The queue fills up again from new events; the next rebuild picks up the rest
+            log.error("Failed to rebuild schedule close queue: {}", e.getMessage(), e);
+        }
+    }
 
-        for (TourSchedule schedule : schedulesToClose) {
-            try {
-                // Close the schedule
+    private void close(UUID scheduleId) {
+        TourSchedule closed;
+        try {
+            closed = transactionTemplate.execute(status -> {
+                TourSchedule schedule = tourScheduleRepository.findByIdWithTourAndOwner(scheduleId).orElse(null);
+                if (schedule == null || schedule.getStatus() != TourScheduleStatus.OPEN) {
+                    return null;
+                }
+                Instant cutoff = cutoffFor(schedule.getStartDatetime());
+                if (Instant.now().isBefore(cutoff)) {
+                    // Moved later without an event reaching us (e.g. another instance)
+                    track(scheduleId, cutoff);
+                    return null;
+                }
                 schedule.setStatus(TourScheduleStatus.CLOSED);
-                tourScheduleRepository.save(schedule);
-                
-                log.info("Closed schedule {} for tour {} starting at {}", 
-                        schedule.getId(), 
-                        schedule.getTour().getDisplayName(),
-                        schedule.getStartDatetime());
-
-                // Generate and send manifest + participant reminders
-                manifestService.generateAndSendManifest(schedule);
-                
-            } catch (Exception e) {
-                log.error("Error processing schedule {}: {}", schedule.getId(), e.getMessage(), e);
-                // Continue with next schedule even if one fails
+                return tourScheduleRepository.save(schedule);
+            });
+        } catch (Exception e) {
+            log.warn("Failed to close schedule {}, retrying in {}s: {}",
+                    scheduleId, RETRY_DELAY_MILLIS / 1000, e.getMessage());
+            track(scheduleId, Instant.now().plusMillis(RETRY_DELAY_MILLIS));
+            return;
+        }
+        if (closed == null) {
+            return;
+        }
+
+        log.info("Closed schedule {} for tour {} starting at {}",
+                closed.getId(),
+                closed.getTour().getDisplayName(),
+                closed.getStartDatetime());
+        try {
+            // Generate and send manifest + participant reminders
+            manifestService.generateAndSendManifest(closed.getId());
+        } catch (Exception e) {
+            log.error("Error sending manifest for schedule {}: {}", scheduleId, e.getMessage(), e);
+        }
+    }
+
+    private Instant cutoffFor(Instant startDatetime) {
+        return startDatetime.minus(minHoursBeforeTour, ChronoUnit.HOURS);
+    }
+
+    private void track(UUID scheduleId, Instant cutoff) {
+        synchronized (queue) {
+            if (!cutoff.equals(cutoffs.put(scheduleId, cutoff))) {
+                queue.add(new Deadline(scheduleId, cutoff));
+            }
+        }
+    }
+
+    private void forget(UUID scheduleId) {
+        synchronized (queue) {
+            cutoffs.remove(scheduleId);
+        }
+    }
+
+    private List<UUID> pollDue(Instant now) {
+        List<UUID> due = new ArrayList<>();
+        synchronized (queue) {
+            while (!queue.isEmpty() && !queue.peek().cutoff().isAfter(now)) {
+                Deadline deadline = queue.poll();
+                if (deadline.cutoff().equals(cutoffs.get(deadline.scheduleId()))) {
+                    cutoffs.remove(deadline.scheduleId());
+                    due.add(deadline.scheduleId());
+                }
             }
         }
+        return due;
+    }
 
-        log.info("Successfully auto-closed {} schedules", schedulesToClose.size());
+    int pendingSchedules() {
+        synchronized (queue) {
+            return cutoffs.size();
+        }
     }
+
+    private record Deadline(UUID scheduleId, Instant cutoff) {}
 }
@@ -58,7 +58,9 @@ public abstract class TourMapper {
             @Mapping(target = "descriptionBlocksTranslations", source = "tour.descriptionBlocksTranslations"),
             @Mapping(target = "ownerId", source = "tour.owner.id"),
             @Mapping(target = "ownerName", source = "tour.owner.fullName"),
-            @Mapping(target = "ownerEmail", source = "tour.owner.email")
+            @Mapping(target = "ownerEmail", source = "tour.owner.email"),
+            @Mapping(target = "latitude", source = "tour.latitude"),
+            @Mapping(target = "longitude", source = "tour.longitude")
     })
     public abstract TourRes toTourRes(Tour tour, Locale locale);
 
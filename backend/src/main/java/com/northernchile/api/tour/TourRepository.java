@@ -4,10 +4,12 @@ import com.northernchile.api.model.Tour;
 import com.northernchile.api.model.TourStatus;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -18,6 +20,25 @@ public interface TourRepository extends JpaRepository<Tour, UUID> {
     List<Tour> findByRecurringAndStatus(boolean recurring, TourStatus status);
     List<Tour> findByRecurringTrueAndStatus(TourStatus status);
 
+    /**
+     * Moves the schedule generation watermark, only if it still has the value the generator read.
+     * A concurrent reset (TourService.updateTour) wins, so the next run regenerates the full window.
+     *
+     * @return 1 if the watermark was moved, 0 if it changed meanwhile
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE tours
+        SET schedules_generated_through = :through
+        WHERE id = :id
+          AND schedules_generated_through IS NOT DISTINCT FROM CAST(:previous AS DATE)
+        """, nativeQuery = true)
+    int advanceSchedulesGeneratedThrough(
+        @Param("id") UUID id,
+        @Param("previous") LocalDate previous,
+        @Param("through") LocalDate through
+    );
+
     // Queries excluding soft-deleted tours
     @Query("SELECT t FROM Tour t WHERE t.deletedAt IS NULL")
     List<Tour> findAllNotDeleted();
@@ -0,0 +1,85 @@
+package com.northernchile.api.tour;
+
+import com.northernchile.api.model.TourScheduleStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bulk insert path for generated schedules (TourScheduleGeneratorService).
+ *
+ * Rows go out as JDBC batches of a single INSERT ... SELECT that skips a day the tour already has
+ * a schedule on (at any time, e.g. moved by an admin) and, via ON CONFLICT on uk_tour_schedule_datetime,
+ * an exact duplicate inserted concurrently. Deduplication happens in the database, so callers don't need
+ * to load the existing schedules first.
+ *
+ * Bypasses JPA: no entity listeners (audit) run. Nightly generation has no audit user anyway.
+ */
+@Repository
+public class TourScheduleBulkWriter {
+
+    static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_IF_DAY_FREE = """
+        INSERT INTO tour_schedules (id, tour_id, start_datetime, max_participants, status, created_at)
+        SELECT ?, ?, ?, ?, ?, ?
+        WHERE NOT EXISTS (
+            SELECT 1 FROM tour_schedules s
+            WHERE s.tour_id = ? AND s.start_datetime >= ? AND s.start_datetime < ?
+        )
+        ON CONFLICT (tour_id, start_datetime) DO NOTHING
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TourScheduleBulkWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts the schedules whose tour has nothing yet on that day. Joins the caller's transaction.
+     *
+     * @return Number of rows actually inserted
+     */
+    public int insertMissing(List<NewSchedule> schedules) {
+        if (schedules.isEmpty()) {
+            return 0;
+        }
+        OffsetDateTime createdAt = OffsetDateTime.now(ZoneOffset.UTC);
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_IF_DAY_FREE, schedules, BATCH_SIZE, (ps, schedule) -> {
+            ps.setObject(1, UUID.randomUUID());
+            ps.setObject(2, schedule.tourId());
+            ps.setObject(3, utc(schedule.startDatetime()));
+            ps.setInt(4, schedule.maxParticipants());
+            ps.setString(5, TourScheduleStatus.OPEN.name());
+            ps.setObject(6, createdAt);
+            ps.setObject(7, schedule.tourId());
+            ps.setObject(8, utc(schedule.dayStart()));
+            ps.setObject(9, utc(schedule.dayEnd()));
+        });
+        return Arrays.stream(counts).flatMapToInt(Arrays::stream).map(count -> Math.max(count, 0)).sum();
+    }
+
+    private static OffsetDateTime utc(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+
+    /**
+     * A schedule to generate.
+     *
+     * @param dayStart Start of the schedule's local day (inclusive), for the one-per-day check
+     * @param dayEnd Start of the next local day (exclusive)
+     */
+    public record NewSchedule(
+            UUID tourId,
+            Instant startDatetime,
+            int maxParticipants,
+            Instant dayStart,
+            Instant dayEnd) {}
+}
@@ -1,27 +1,37 @@
 package com.northernchile.api.tour;
 
-import com.cronutils.model.Cron;
 import com.cronutils.model.definition.CronDefinitionBuilder;
 import com.cronutils.model.time.ExecutionTime;
 import com.cronutils.parser.CronParser;
-import com.northernchile.api.external.LunarService;
-import com.northernchile.api.external.WeatherService;
 import com.northernchile.api.model.Tour;
-import com.northernchile.api.model.TourSchedule;
-import com.northernchile.api.model.TourScheduleStatus;
 import com.northernchile.api.model.TourStatus;
 import com.northernchile.api.tour.TourRepository;
+import com.northernchile.api.tour.event.ScheduleEventPublisher;
+import com.northernchile.api.tour.schedule.dto.ScheduleGenerationRes;
+import com.northernchile.api.weather.WeatherRisk;
+import com.northernchile.api.weather.WeatherRiskService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.northernchile.api.util.DateTimeUtils;
 
 import java.time.*;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import static com.cronutils.model.CronType.UNIX;
 
@@ -37,23 +47,35 @@ public class TourScheduleGeneratorService {
     // Ventana "cercana" donde sí aplicamos filtros de pronóstico duro
     private static final int HARD_WEATHER_WINDOW_DAYS = 2;
 
-    private static final double WIND_THRESHOLD_KNOTS = 25.0;
+    // Tours evaluados en paralelo (regla de recurrencia y pronóstico, sin base de datos)
+    private static final int GENERATION_CONCURRENCY = 4;
+    // Inserts simultáneos: el pool de Hikari tiene 2 conexiones y una queda libre para las requests
+    private static final int WRITE_CONCURRENCY = 1;
 
     private final TourRepository tourRepository;
-    private final TourScheduleRepository tourScheduleRepository;
-    private final LunarService lunarService;
-    private final WeatherService weatherService;
+    private final TourScheduleBulkWriter scheduleBulkWriter;
+    private final WeatherRiskService weatherRiskService;
+    private final ScheduleEventPublisher scheduleEventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
     private final CronParser cronParser;
+    private final Map<String, Optional<ExecutionTime>> executionTimes = new ConcurrentHashMap<>();
+    // Compartido entre ejecuciones (cron y manual), así el límite de inserts es global
+    private final Semaphore writePermits = new Semaphore(WRITE_CONCURRENCY);
 
     public TourScheduleGeneratorService(
             TourRepository tourRepository,
-            TourScheduleRepository tourScheduleRepository,
-            LunarService lunarService,
-            WeatherService weatherService) {
+            TourScheduleBulkWriter scheduleBulkWriter,
+            WeatherRiskService weatherRiskService,
+            ScheduleEventPublisher scheduleEventPublisher,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
         this.tourRepository = tourRepository;
-        this.tourScheduleRepository = tourScheduleRepository;
-        this.lunarService = lunarService;
-        this.weatherService = weatherService;
+        this.scheduleBulkWriter = scheduleBulkWriter;
+        this.weatherRiskService = weatherRiskService;
+        this.scheduleEventPublisher = scheduleEventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
         this.cronParser = new CronParser(CronDefinitionBuilder.instanceDefinitionFor(UNIX));
     }
 
@@ -65,126 +87,246 @@ public class TourScheduleGeneratorService {
      * - Tours normales: 30 días
      */
     @Scheduled(cron = "0 0 2 * * *", zone = "America/Santiago")
-    @Transactional
     public void generateSchedulesAutomatically() {
         logger.info("Iniciando generación automática de schedules");
+        generate();
+    }
 
+    /**
+     * Método público para trigger manual (útil para testing y admin panel)
+     */
+    public ScheduleGenerationRes generateSchedulesManually() {
+        logger.info("Generación manual de schedules iniciada por administrador");
+        return generate();
+    }
+
+    /**
+     * Genera los schedules de cada tour recurrente como una unidad independiente: los tours corren en
+     * virtual threads (a lo más GENERATION_CONCURRENCY a la vez) y cada uno escribe en su propia transacción
+     * corta, así un tour lento (pronóstico) o con error no retrasa ni revierte a los demás, y la conexión
+     * solo se ocupa durante el insert. Los inserts van de a WRITE_CONCURRENCY para no agotar el pool.
+     */
+    ScheduleGenerationRes generate() {
+        long started = System.nanoTime();
         LocalDate today = LocalDate.now(DateTimeUtils.CHILE_ZONE);
-        LocalDate endDate = today.plusDays(DAYS_AHEAD_ALL);
 
         // Solo tours recurrentes y publicados
         List<Tour> recurringTours = tourRepository.findByRecurringTrueAndStatus(TourStatus.PUBLISHED);
 
         if (recurringTours.isEmpty()) {
             logger.info("No hay tours recurrentes publicados");
-            return;
+            return new ScheduleGenerationRes(0, 0, 0, elapsedMillis(started), List.of());
         }
 
         logger.info("Encontrados {} tours recurrentes publicados", recurringTours.size());
 
-        // Batch load ALL existing schedules for the 90-day window in one query
-        List<UUID> tourIds = recurringTours.stream().map(Tour::getId).toList();
-        Instant startInstant = today.atStartOfDay(DateTimeUtils.CHILE_ZONE).toInstant();
-        Instant endInstant = endDate.atStartOfDay(DateTimeUtils.CHILE_ZONE).toInstant();
-
-        Set<String> existingSchedules = tourScheduleRepository
-            .findExistingScheduleDatesByTourIds(tourIds, startInstant, endInstant)
-            .stream()
-            .map(row -> {
-                UUID tourId = (UUID) row[0];
-                Instant scheduleInstant = (Instant) row[1];
-                LocalDate scheduleDate = scheduleInstant.atZone(DateTimeUtils.CHILE_ZONE).toLocalDate();
-                return tourId + "_" + scheduleDate;
-            })
-            .collect(Collectors.toSet());
-
-        logger.debug("Encontrados {} schedules existentes en la ventana", existingSchedules.size());
+        List<ScheduleGenerationRes.TourResult> results = new ArrayList<>(recurringTours.size());
+        Semaphore permits = new Semaphore(GENERATION_CONCURRENCY);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<ScheduleGenerationRes.TourResult>> futures = recurringTours.stream()
+                    .map(tour -> executor.submit(() -> {
+                        permits.acquire();
+                        try {
+                            return generateForTour(tour, today);
+                        } finally {
+                            permits.release();
+                        }
+                    }))
+                    .toList();
+            for (int i = 0; i < futures.size(); i++) {
+                Tour tour = recurringTours.get(i);
+                try {
+                    results.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    // generateForTour captura sus errores; solo llega aquí un error inesperado, y solo afecta a este tour
+                    logger.error("Error inesperado generando schedules para tour {}: {}",
+                            tour.getId(), e.getCause().getMessage(), e.getCause());
+                    results.add(tourResult(tour, 0, 0, 0, started, String.valueOf(e.getCause().getMessage())));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Generación de schedules interrumpida");
+        }
 
-        // Cache parsed cron rules to avoid repeated parsing
-        Map<UUID, Cron> cronCache = new HashMap<>();
+        int created = results.stream().mapToInt(ScheduleGenerationRes.TourResult::created).sum();
+        int skipped = results.stream().mapToInt(ScheduleGenerationRes.TourResult::skipped).sum();
+        int failed = results.stream().mapToInt(ScheduleGenerationRes.TourResult::failed).sum();
+        logger.info("Generación completada. Creados: {}, Omitidos (ya existentes): {}, Fallidos: {}",
+                created, skipped, failed);
+        scheduleEventPublisher.publishSchedulesGenerated(created);
+        return new ScheduleGenerationRes(created, skipped, failed, elapsedMillis(started), results);
+    }
 
-        int schedulesCreated = 0;
-        int schedulesSkipped = 0;
+    /**
+     * Una unidad de generación: calcula los días del tour en memoria y los inserta en una transacción propia.
+     *
+     * Incremental: solo revisa los días posteriores a schedulesGeneratedThrough (normalmente el único día que
+     * entró a la ventana) más la ventana cercana, donde el pronóstico cambia y un día omitido por viento o
+     * nubes puede pasar a ser válido. Si no hubo errores, el watermark avanza al último día de la ventana.
+     */
+    private ScheduleGenerationRes.TourResult generateForTour(Tour tour, LocalDate today) {
+        long started = System.nanoTime();
+        if (tour.getDefaultMaxParticipants() == null) {
+            logger.warn("Tour {} sin defaultMaxParticipants, se omite", tour.getId());
+            return tourResult(tour, 0, 0, 0, started, "Tour has no defaultMaxParticipants");
+        }
 
-        for (Tour tour : recurringTours) {
-            logger.debug("Tour {}: Generando schedules para {} días", tour.getId(), DAYS_AHEAD_ALL);
+        LocalDate watermark = tour.getSchedulesGeneratedThrough();
+        LocalDate lastDay = today.plusDays(DAYS_AHEAD_ALL - 1);
+        List<TourScheduleBulkWriter.NewSchedule> candidates = new ArrayList<>();
+        int failed = 0;
+        try {
+            // Días a revisar que coinciden con la regla de recurrencia (bit i = today + i)
+            BitSet matchingDays = daysToExamine(tour, today, watermark);
+            logger.debug("Tour {}: {} días a revisar (generado hasta {})", tour.getId(), matchingDays.cardinality(), watermark);
 
-            for (LocalDate date = today; date.isBefore(endDate); date = date.plusDays(1)) {
+            for (int i = matchingDays.nextSetBit(0); i >= 0; i = matchingDays.nextSetBit(i + 1)) {
+                LocalDate date = today.plusDays(i);
                 try {
-                    // Fast in-memory check instead of database query
-                    String scheduleKey = tour.getId() + "_" + date;
-                    if (existingSchedules.contains(scheduleKey)) {
-                        schedulesSkipped++;
-                        continue;
-                    }
-
-                    if (shouldGenerateScheduleForDate(tour, date, cronCache)) {
-                        createScheduleInstance(tour, date);
-                        schedulesCreated++;
+                    if (isDateValid(tour, date)) {
+                        candidates.add(newSchedule(tour, date));
                     }
                 } catch (Exception e) {
+                    failed++;
                     logger.error("Error generando schedule para tour {} en fecha {}: {}",
                             tour.getId(), date, e.getMessage());
                 }
             }
+
+            // Con días fallidos el watermark no avanza, así la próxima ejecución los reintenta
+            boolean advanceWatermark = failed == 0 && (watermark == null || watermark.isBefore(lastDay));
+            if (candidates.isEmpty() && !advanceWatermark) {
+                return tourResult(tour, 0, 0, failed, started, null);
+            }
+            // La base omite los días que ya tienen schedule
+            Integer inserted;
+            writePermits.acquire();
+            try {
+                inserted = transactionTemplate.execute(status -> {
+                    int created = scheduleBulkWriter.insertMissing(candidates);
+                    if (advanceWatermark) {
+                        tourRepository.advanceSchedulesGeneratedThrough(tour.getId(), watermark, lastDay);
+                    }
+                    return created;
+                });
+            } finally {
+                writePermits.release();
+            }
+            int created = inserted != null ? inserted : 0;
+            return tourResult(tour, created, candidates.size() - created, failed, started, null);
+        } catch (Exception e) {
+            logger.error("Error generando schedules para tour {}: {}", tour.getId(), e.getMessage(), e);
+            return tourResult(tour, 0, 0, failed + candidates.size(), started, e.getMessage());
         }
+    }
 
-        logger.info("Generación completada. Creados: {}, Omitidos (ya existentes): {}",
-                schedulesCreated, schedulesSkipped);
+    /**
+     * Días de la ventana [today, today + DAYS_AHEAD_ALL) que coinciden con la regla y aún hay que revisar:
+     * la ventana cercana (HARD_WEATHER_WINDOW_DAYS) siempre, y el resto solo después del watermark.
+     */
+    BitSet daysToExamine(Tour tour, LocalDate today, LocalDate watermark) {
+        int firstNewDay = watermark == null || watermark.isBefore(today)
+                ? 0
+                : (int) Math.min(ChronoUnit.DAYS.between(today, watermark) + 1, DAYS_AHEAD_ALL);
+        int nearDays = Math.min(HARD_WEATHER_WINDOW_DAYS + 1, firstNewDay);
+
+        BitSet days = expandRecurrence(tour, today, nearDays);
+        if (firstNewDay < DAYS_AHEAD_ALL) {
+            BitSet newDays = expandRecurrence(tour, today.plusDays(firstNewDay), DAYS_AHEAD_ALL - firstNewDay);
+            newDays.stream().forEach(i -> days.set(firstNewDay + i));
+        }
+        return days;
     }
 
+    private ScheduleGenerationRes.TourResult tourResult(Tour tour, int created, int skipped, int failed,
+                                                        long startedNanos, String error) {
+        long durationNanos = System.nanoTime() - startedNanos;
+        Timer.builder("schedule.generation.tour.duration")
+                .description("Time to generate one tour's schedules")
+                .tag("outcome", error == null ? "success" : "failure")
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+        countSchedules("created", created);
+        countSchedules("skipped", skipped);
+        countSchedules("failed", failed);
+        return new ScheduleGenerationRes.TourResult(
+                tour.getId(), created, skipped, failed, TimeUnit.NANOSECONDS.toMillis(durationNanos), error);
+    }
+
+    private void countSchedules(String result, int count) {
+        if (count > 0) {
+            Counter.builder("schedule.generation.schedules")
+                    .description("Schedules handled by the generator, by result")
+                    .tag("result", result)
+                    .register(meterRegistry)
+                    .increment(count);
+        }
+    }
+
+    private static long elapsedMillis(long startedNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+    }
 
     /**
-     * Determina si se debe generar un schedule para un tour en una fecha específica
+     * Expande la regla de recurrencia (cron) del tour a los días de la ventana en que tiene al menos una ejecución.
+     *
+     * Recorre nextExecution hacia adelante saltando al día siguiente tras cada coincidencia, así que el costo
+     * es proporcional a los días que coinciden y no a los días de la ventana. Sin regla (o con una regla
+     * inválida) se asume diario.
+     * Package-private for ScheduleGenerationBenchmark.
+     *
+     * @return Bit i encendido si from.plusDays(i) coincide con la regla
      */
-    private boolean shouldGenerateScheduleForDate(Tour tour, LocalDate date, Map<UUID, Cron> cronCache) {
-        // 1. Verificar si coincide con la regla de recurrencia (cron)
-        if (!matchesCronRule(date, tour, cronCache)) {
-            return false;
+    BitSet expandRecurrence(Tour tour, LocalDate from, int days) {
+        BitSet matchingDays = new BitSet(days);
+        Optional<ExecutionTime> executionTime = executionTimeFor(tour);
+        if (executionTime.isEmpty()) {
+            matchingDays.set(0, days);
+            return matchingDays;
         }
 
-        // 2. Aplicar restricciones de negocio
-        return isDateValid(tour, date);
+        LocalDate end = from.plusDays(days);
+        // nextExecution es estrictamente posterior: partir un segundo antes incluye una ejecución a medianoche
+        ZonedDateTime cursor = from.atStartOfDay(DateTimeUtils.CHILE_ZONE).minusSeconds(1);
+        try {
+            while (true) {
+                Optional<ZonedDateTime> next = executionTime.get().nextExecution(cursor);
+                if (next.isEmpty()) {
+                    break;
+                }
+                LocalDate date = next.get().withZoneSameInstant(DateTimeUtils.CHILE_ZONE).toLocalDate();
+                if (!date.isBefore(end)) {
+                    break;
+                }
+                matchingDays.set((int) ChronoUnit.DAYS.between(from, date));
+                // El resto del día ya coincide; seguir desde el fin del día
+                cursor = date.plusDays(1).atStartOfDay(DateTimeUtils.CHILE_ZONE).minusSeconds(1);
+            }
+        } catch (Exception e) {
+            logger.warn("Error evaluating cron rule for tour {}: {}", tour.getId(), e.getMessage());
+            matchingDays.set(0, days);
+        }
+        return matchingDays;
     }
 
     /**
-     * Verifica si una fecha coincide con una regla cron.
-     * Uses a cache to avoid repeated parsing of the same cron expression.
+     * ExecutionTime de la regla del tour, cacheado por expresión entre ejecuciones del generador
+     * (tours con la misma regla lo comparten). Vacío si no hay regla o no se puede parsear.
      */
-    private boolean matchesCronRule(LocalDate date, Tour tour, Map<UUID, Cron> cronCache) {
+    private Optional<ExecutionTime> executionTimeFor(Tour tour) {
         String recurrenceRule = tour.getRecurrenceRule();
         if (recurrenceRule == null || recurrenceRule.isEmpty()) {
-            // Sin regla, asumir diario
-            return true;
+            return Optional.empty();
         }
-
-        // Use cached cron or parse and cache it
-        Cron cron = cronCache.computeIfAbsent(tour.getId(), id -> {
+        return executionTimes.computeIfAbsent(recurrenceRule, rule -> {
             try {
-                return cronParser.parse(recurrenceRule);
+                return Optional.of(ExecutionTime.forCron(cronParser.parse(rule)));
             } catch (Exception e) {
-                logger.warn("Error parseando cron rule '{}' for tour {}: {}", recurrenceRule, id, e.getMessage());
-                return null;
+                logger.warn("Error parseando cron rule '{}' for tour {}: {}", rule, tour.getId(), e.getMessage());
+                return Optional.empty();
             }
         });
-
-        // If parsing failed, default to daily
-        if (cron == null) {
-            return true;
-        }
-
-        try {
-            ExecutionTime executionTime = ExecutionTime.forCron(cron);
-
-            // Verificar si la fecha coincide con la expresión cron
-            ZonedDateTime dateTime = date.atStartOfDay(DateTimeUtils.CHILE_ZONE);
-            Optional<ZonedDateTime> nextExecution = executionTime.nextExecution(dateTime.minusDays(1));
-
-            return nextExecution.isPresent() && nextExecution.get().toLocalDate().equals(date);
-        } catch (Exception e) {
-            logger.warn("Error evaluating cron rule for tour {}: {}", tour.getId(), e.getMessage());
-            return true;
-        }
     }
 
     /**
@@ -195,17 +337,15 @@ public class TourScheduleGeneratorService {
      */
     private boolean isDateValid(Tour tour, LocalDate date) {
         LocalDate today = LocalDate.now(DateTimeUtils.CHILE_ZONE);
-        long daysFromNow = java.time.temporal.ChronoUnit.DAYS.between(today, date);
+        long daysFromNow = ChronoUnit.DAYS.between(today, date);
+        WeatherRisk risk = weatherRiskService.assess(tour, date);
 
         // Restricción por luminosidad lunar para tours sensibles a la luna
-        // En lugar de solo "día exacto de luna llena", usamos umbral por iluminación,
+        // En lugar de solo "día exacto de luna llena", se usa umbral por iluminación,
         // lo que cubre de forma natural los días alrededor de la luna llena.
-        if (tour.isMoonSensitive()) {
-            int illumination = lunarService.getMoonIllumination(date);
-            if (illumination >= 80) { // Umbral configurable si es necesario
-                logger.debug("Fecha {} omitida para tour {} por luna brillante ({}%)", date, tour.getId(), illumination);
-                return false;
-            }
+        if (risk.brightMoon()) {
+            logger.debug("Fecha {} omitida para tour {} por luna brillante ({}%)", date, tour.getId(), risk.moonIllumination());
+            return false;
         }
 
         // Restricciones de clima solo en ventana muy cercana donde el pronóstico es fiable.
@@ -213,13 +353,13 @@ public class TourScheduleGeneratorService {
         // se encargue de marcar riesgos sin bloquear la oferta.
         if (daysFromNow <= HARD_WEATHER_WINDOW_DAYS) {
             // Restricción de viento para tours sensibles al viento
-            if (tour.isWindSensitive() && weatherService.isWindAboveThreshold(date, WIND_THRESHOLD_KNOTS)) {
+            if (risk.wind()) {
                 logger.debug("Fecha {} omitida para tour {} por viento excesivo (ventana cercana)", date, tour.getId());
                 return false;
             }
 
             // Restricción de nubosidad para tours sensibles a las nubes
-            if (tour.isCloudSensitive() && weatherService.isCloudyDay(date)) {
+            if (risk.cloudy()) {
                 logger.debug("Fecha {} omitida para tour {} por nubosidad excesiva (ventana cercana)", date, tour.getId());
                 return false;
             }
@@ -231,33 +371,18 @@ public class TourScheduleGeneratorService {
 
 
     /**
-     * Crea una instancia de schedule para un tour en una fecha específica
+     * Schedule a crear para un tour en una fecha específica, a la hora por defecto del tour
      */
-    private void createScheduleInstance(Tour tour, LocalDate date) {
+    private TourScheduleBulkWriter.NewSchedule newSchedule(Tour tour, LocalDate date) {
         LocalTime startTime = tour.getDefaultStartTime() != null
                 ? tour.getDefaultStartTime()
                 : LocalTime.of(20, 0); // Default a las 20:00 si no está definido
 
-        ZonedDateTime startDateTime = ZonedDateTime.of(date, startTime, DateTimeUtils.CHILE_ZONE);
-        Instant startInstant = startDateTime.toInstant();
-
-        TourSchedule schedule = new TourSchedule();
-        schedule.setTour(tour);
-        schedule.setStartDatetime(startInstant);
-        schedule.setMaxParticipants(tour.getDefaultMaxParticipants());
-        schedule.setStatus(TourScheduleStatus.OPEN);
-
-        tourScheduleRepository.save(schedule);
-
-        logger.debug("Schedule creado para tour {} en {}", tour.getId(), startDateTime);
-    }
-
-    /**
-     * Método público para trigger manual (útil para testing y admin panel)
-     */
-    @Transactional
-    public void generateSchedulesManually() {
-        logger.info("Generación manual de schedules iniciada por administrador");
-        generateSchedulesAutomatically();
+        return new TourScheduleBulkWriter.NewSchedule(
+                tour.getId(),
+                ZonedDateTime.of(date, startTime, DateTimeUtils.CHILE_ZONE).toInstant(),
+                tour.getDefaultMaxParticipants(),
+                date.atStartOfDay(DateTimeUtils.CHILE_ZONE).toInstant(),
+                date.plusDays(1).atStartOfDay(DateTimeUtils.CHILE_ZONE).toInstant());
     }
 }
@@ -1,32 +1,23 @@
 package com.northernchile.api.tour;
 
-import com.northernchile.api.model.TourSchedule;
-import com.northernchile.api.model.TourScheduleStatus;
-import com.northernchile.api.model.TourStatus;
 import com.northernchile.api.tour.dto.TourScheduleRes;
 import com.northernchile.api.util.DateTimeUtils;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/tours")
 public class TourSchedulePublicController {
 
-    private final TourScheduleRepository tourScheduleRepository;
     private final TourScheduleService tourScheduleService;
 
-    public TourSchedulePublicController(
-            TourScheduleRepository tourScheduleRepository,
-            TourScheduleService tourScheduleService) {
-        this.tourScheduleRepository = tourScheduleRepository;
+    public TourSchedulePublicController(TourScheduleService tourScheduleService) {
         this.tourScheduleService = tourScheduleService;
     }
 
@@ -35,7 +26,6 @@ public class TourSchedulePublicController {
      * Public endpoint para obtener schedules de un tour específico
      */
     @GetMapping("/{tourId}/schedules")
-    @Transactional(readOnly = true)
     public ResponseEntity<List<TourScheduleRes>> getTourSchedules(
             @PathVariable UUID tourId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
@@ -44,21 +34,9 @@ public class TourSchedulePublicController {
         Instant startInstant = DateTimeUtils.toInstantStartOfDay(start);
         Instant endInstant = DateTimeUtils.toInstantEndOfDay(end);
 
-        // Use JOIN FETCH to avoid LazyInitializationException
-        List<TourSchedule> schedules = tourScheduleRepository.findByStartDatetimeBetweenWithTour(
-                startInstant,
-                endInstant
-        );
-
-        // Filter by tourId and only include OPEN schedules for PUBLISHED tours
+        // Only OPEN schedules of PUBLISHED tours, filtered in SQL
         // (ScheduleAutoCloseJob handles closing schedules within cutoff window)
-        List<TourScheduleRes> response = schedules.stream()
-                .filter(s -> s.getTour() != null)
-                .filter(s -> s.getTour().getId().equals(tourId))
-                .filter(s -> TourStatus.PUBLISHED.equals(s.getTour().getStatus()))
-                .filter(s -> TourScheduleStatus.OPEN.equals(s.getStatus()))
-                .map(tourScheduleService::toScheduleResWithAvailability)
-                .collect(Collectors.toList());
+        List<TourScheduleRes> response = tourScheduleService.getPublicSchedules(List.of(tourId), startInstant, endInstant);
 
         return ResponseEntity.ok(response);
     }
@@ -69,7 +47,6 @@ public class TourSchedulePublicController {
      * Si no se proveen tourIds, devuelve schedules de todos los tours publicados
      */
     @GetMapping("/schedules/all")
-    @Transactional(readOnly = true)
     public ResponseEntity<List<TourScheduleRes>> getAllTourSchedules(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
@@ -78,21 +55,8 @@ public class TourSchedulePublicController {
         Instant startInstant = DateTimeUtils.toInstantStartOfDay(start);
         Instant endInstant = DateTimeUtils.toInstantEndOfDay(end);
 
-        // Use JOIN FETCH to avoid LazyInitializationException
-        List<TourSchedule> schedules = tourScheduleRepository.findByStartDatetimeBetweenWithTour(
-                startInstant,
-                endInstant
-        );
-
-        // Filter schedules: only OPEN schedules for PUBLISHED tours
-        List<TourScheduleRes> response = schedules.stream()
-                .filter(s -> s.getTour() != null)
-                .filter(s -> TourStatus.PUBLISHED.equals(s.getTour().getStatus()))
-                .filter(s -> TourScheduleStatus.OPEN.equals(s.getStatus()))
-                // If tourIds provided, filter by them; otherwise include all
-                .filter(s -> tourIds == null || tourIds.isEmpty() || tourIds.contains(s.getTour().getId()))
-                .map(tourScheduleService::toScheduleResWithAvailability)
-                .collect(Collectors.toList());
+        // Only OPEN schedules of PUBLISHED tours; all published tours if no tourIds are given
+        List<TourScheduleRes> response = tourScheduleService.getPublicSchedules(tourIds, startInstant, endInstant);
 
         return ResponseEntity.ok(response);
     }
@@ -1,15 +1,15 @@
 package com.northernchile.api.tour;
 
 import com.northernchile.api.model.TourSchedule;
-import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -21,13 +21,52 @@ public interface TourScheduleRepository extends JpaRepository<TourSchedule, UUID
     boolean existsByTourIdAndStartDatetimeBetween(UUID tourId, Instant start, Instant end);
     List<TourSchedule> findByStartDatetimeBetween(Instant start, Instant end);
 
+    @Query("SELECT s.id FROM TourSchedule s WHERE s.startDatetime >= :from")
+    List<UUID> findIdsByStartDatetimeFrom(@Param("from") Instant from);
+
+    /**
+     * Atomically claims confirmed seats if capacity allows.
+     * The capacity check and the increment are one statement, so no row lock has to be held
+     * while counting; concurrent callers are ordered by PostgreSQL and re-check the predicate.
+     *
+     * @return 1 if the seats were claimed, 0 if the schedule is full or does not exist
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+        UPDATE tour_schedules
+        SET reserved_seats = reserved_seats + :seats
+        WHERE id = :id
+          AND reserved_seats + :seats <= max_participants
+        """, nativeQuery = true)
+    int reserveSeats(@Param("id") UUID id, @Param("seats") int seats);
+
+    /**
+     * Returns confirmed seats to a schedule (booking cancelled, refunded or un-confirmed).
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+        UPDATE tour_schedules
+        SET reserved_seats = GREATEST(reserved_seats - :seats, 0)
+        WHERE id = :id
+        """, nativeQuery = true)
+    int releaseSeats(@Param("id") UUID id, @Param("seats") int seats);
+
+    /**
+     * Remaining confirmed-seat capacity read straight from the database (bypasses stale entities).
+     */
+    @Query("SELECT s.maxParticipants - s.reservedSeats FROM TourSchedule s WHERE s.id = :id")
+    Optional<Integer> findRemainingSeats(@Param("id") UUID id);
+
     /**
-     * Find schedule by ID with pessimistic write lock.
-     * Use this when checking availability and creating bookings to prevent race conditions.
+     * Tour and capacity of the given schedules, restricted to the given tours.
+     * Each row is [scheduleId, tourId, maxParticipants]. Used by the availability stream.
      */
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query("SELECT s FROM TourSchedule s WHERE s.id = :id")
-    Optional<TourSchedule> findByIdWithLock(@Param("id") UUID id);
+    @Query("SELECT s.id, s.tour.id, s.maxParticipants FROM TourSchedule s " +
+           "WHERE s.id IN :ids AND s.tour.id IN :tourIds")
+    List<Object[]> findCapacitiesByIdsAndTourIds(
+        @Param("ids") Collection<UUID> ids,
+        @Param("tourIds") Collection<UUID> tourIds
+    );
 
     /**
      * Find schedules with eagerly loaded Tour and Owner to avoid LazyInitializationException
@@ -39,12 +78,59 @@ public interface TourScheduleRepository extends JpaRepository<TourSchedule, UUID
     List<TourSchedule> findByStartDatetimeBetweenWithTour(@Param("start") Instant start, @Param("end") Instant end);
 
     /**
-     * Find OPEN schedules that start before the cutoff time (for auto-close job)
+     * Public calendar query: OPEN schedules of the given PUBLISHED tours in a date range.
+     * Tour and guide are fetched in the same statement, and confirmed participants come from the
+     * reserved_seats counter on the row, so the whole response is a single query.
      */
     @Query("SELECT s FROM TourSchedule s " +
-           "LEFT JOIN FETCH s.tour " +
-           "WHERE s.status = 'OPEN' AND s.startDatetime <= :cutoff")
-    List<TourSchedule> findOpenSchedulesBeforeCutoff(@Param("cutoff") Instant cutoff);
+           "JOIN FETCH s.tour t " +
+           "LEFT JOIN FETCH s.assignedGuide " +
+           "WHERE t.id IN :tourIds AND t.status = 'PUBLISHED' AND s.status = 'OPEN' " +
+           "AND s.startDatetime BETWEEN :start AND :end " +
+           "ORDER BY s.startDatetime")
+    List<TourSchedule> findOpenPublishedByTourIdsAndStartDatetimeBetween(
+        @Param("tourIds") Collection<UUID> tourIds,
+        @Param("start") Instant start,
+        @Param("end") Instant end
+    );
+
+    /**
+     * Same as {@link #findOpenPublishedByTourIdsAndStartDatetimeBetween} for every PUBLISHED tour.
+     */
+    @Query("SELECT s FROM TourSchedule s " +
+           "JOIN FETCH s.tour t " +
+           "LEFT JOIN FETCH s.assignedGuide " +
+           "WHERE t.status = 'PUBLISHED' AND s.status = 'OPEN' " +
+           "AND s.startDatetime BETWEEN :start AND :end " +
+           "ORDER BY s.startDatetime")
+    List<TourSchedule> findOpenPublishedByStartDatetimeBetween(
+        @Param("start") Instant start,
+        @Param("end") Instant end
+    );
+
+    /**
+     * Start time of every OPEN schedule.
+     * Each row is [scheduleId, startDatetime]. Used to rebuild the ScheduleAutoCloseJob deadlines.
+     */
+    @Query("SELECT s.id, s.startDatetime FROM TourSchedule s WHERE s.status = 'OPEN'")
+    List<Object[]> findOpenStartTimes();
+
+    /**
+     * Find schedule by ID with its Tour and assigned guide (manifest header).
+     */
+    @Query("SELECT s FROM TourSchedule s " +
+           "JOIN FETCH s.tour " +
+           "LEFT JOIN FETCH s.assignedGuide " +
+           "WHERE s.id = :id")
+    Optional<TourSchedule> findByIdWithTourAndGuide(@Param("id") UUID id);
+
+    /**
+     * Find many schedules by ID with their Tour in one query (multi-item checkout).
+     */
+    @Query("SELECT s FROM TourSchedule s " +
+           "JOIN FETCH s.tour " +
+           "WHERE s.id IN :ids")
+    List<TourSchedule> findAllByIdWithTour(@Param("ids") Collection<UUID> ids);
 
     /**
      * Find schedule by ID with eagerly loaded Tour and Owner.
@@ -57,15 +143,48 @@ public interface TourScheduleRepository extends JpaRepository<TourSchedule, UUID
     Optional<TourSchedule> findByIdWithTourAndOwner(@Param("id") UUID id);
 
     /**
-     * Batch query to find all existing schedule dates for multiple tours.
-     * Returns tour ID and start datetime pairs for efficient in-memory lookup.
-     * Used by TourScheduleGeneratorService to avoid N+1 queries.
+     * Batch query returning the reserved-seat breakdown for many schedules in one round trip.
+     * Each row is [scheduleId, confirmedParticipants, participantsInCarts, participantsInPaymentSessions].
+     * Used by AvailabilityValidator to avoid three count queries per schedule on calendar pages.
      */
-    @Query("SELECT s.tour.id, s.startDatetime FROM TourSchedule s " +
-           "WHERE s.tour.id IN :tourIds AND s.startDatetime BETWEEN :start AND :end")
-    List<Object[]> findExistingScheduleDatesByTourIds(
-        @Param("tourIds") List<UUID> tourIds,
-        @Param("start") Instant start,
-        @Param("end") Instant end
+    @Query(value = """
+        WITH confirmed AS (
+            SELECT b.schedule_id, COUNT(p.id) AS participants
+            FROM bookings b
+            JOIN participants p ON p.booking_id = b.id
+            WHERE b.schedule_id IN (:scheduleIds)
+              AND b.status = 'CONFIRMED'
+            GROUP BY b.schedule_id
+        ),
+        in_carts AS (
+            SELECT ci.schedule_id, SUM(ci.num_participants) AS participants
+            FROM cart_items ci
+            JOIN carts c ON c.id = ci.cart_id
+            WHERE ci.schedule_id IN (:scheduleIds)
+              AND c.expires_at > :now
+            GROUP BY ci.schedule_id
+        ),
+        in_payment AS (
+            SELECT psi.schedule_id, SUM(psi.num_participants) AS participants
+            FROM payment_session_items psi
+            JOIN payment_sessions ps ON ps.id = psi.session_id
+            WHERE psi.schedule_id IN (:scheduleIds)
+              AND ps.status = 'PENDING'
+              AND ps.expires_at > :now
+            GROUP BY psi.schedule_id
+        )
+        SELECT s.id,
+               COALESCE(confirmed.participants, 0),
+               COALESCE(in_carts.participants, 0),
+               COALESCE(in_payment.participants, 0)
+        FROM tour_schedules s
+        LEFT JOIN confirmed ON confirmed.schedule_id = s.id
+        LEFT JOIN in_carts ON in_carts.schedule_id = s.id
+        LEFT JOIN in_payment ON in_payment.schedule_id = s.id
+        WHERE s.id IN (:scheduleIds)
+        """, nativeQuery = true)
+    List<Object[]> countReservationsByScheduleIds(
+        @Param("scheduleIds") Collection<UUID> scheduleIds,
+        @Param("now") Instant now
     );
 }
@@ -2,13 +2,14 @@ package com.northernchile.api.tour;
 
 import com.northernchile.api.audit.AuditLogService;
 import com.northernchile.api.availability.AvailabilityValidator;
-import com.northernchile.api.booking.BookingRepository;
+import com.northernchile.api.availability.SeatLedger;
 import com.northernchile.api.model.Tour;
 import com.northernchile.api.model.TourSchedule;
 import com.northernchile.api.model.TourScheduleStatus;
 import com.northernchile.api.model.User;
 import com.northernchile.api.tour.dto.TourScheduleCreateReq;
 import com.northernchile.api.tour.dto.TourScheduleRes;
+import com.northernchile.api.tour.event.ScheduleEventPublisher;
 import com.northernchile.api.tour.mapper.TourScheduleMapper;
 import com.northernchile.api.user.UserRepository;
 import com.northernchile.api.security.AuthorizationService;
@@ -16,8 +17,10 @@ import jakarta.persistence.EntityNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.time.YearMonth;
 import java.time.ZoneOffset;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -29,29 +32,32 @@ public class TourScheduleService {
     private final TourScheduleRepository tourScheduleRepository;
     private final TourRepository tourRepository;
     private final UserRepository userRepository;
-    private final BookingRepository bookingRepository;
     private final AvailabilityValidator availabilityValidator;
+    private final SeatLedger seatLedger;
     private final AuditLogService auditLogService;
     private final AuthorizationService authorizationService;
     private final TourScheduleMapper tourScheduleMapper;
+    private final ScheduleEventPublisher scheduleEventPublisher;
 
     public TourScheduleService(
             TourScheduleRepository tourScheduleRepository,
             TourRepository tourRepository,
             UserRepository userRepository,
-            BookingRepository bookingRepository,
             AvailabilityValidator availabilityValidator,
+            SeatLedger seatLedger,
             AuditLogService auditLogService,
             AuthorizationService authorizationService,
-            TourScheduleMapper tourScheduleMapper) {
+            TourScheduleMapper tourScheduleMapper,
+            ScheduleEventPublisher scheduleEventPublisher) {
         this.tourScheduleRepository = tourScheduleRepository;
         this.tourRepository = tourRepository;
         this.userRepository = userRepository;
-        this.bookingRepository = bookingRepository;
         this.availabilityValidator = availabilityValidator;
+        this.seatLedger = seatLedger;
         this.auditLogService = auditLogService;
         this.authorizationService = authorizationService;
         this.tourScheduleMapper = tourScheduleMapper;
+        this.scheduleEventPublisher = scheduleEventPublisher;
     }
 
     @Transactional
@@ -73,6 +79,7 @@ public class TourScheduleService {
         schedule.setStatus(TourScheduleStatus.OPEN);
 
         TourSchedule savedSchedule = tourScheduleRepository.save(schedule);
+        scheduleEventPublisher.publishScheduleChanged(savedSchedule);
 
         // Audit log
         String tourName = tour.getDisplayName();
@@ -118,6 +125,7 @@ public class TourScheduleService {
         }
 
         TourSchedule savedSchedule = tourScheduleRepository.save(schedule);
+        scheduleEventPublisher.publishScheduleChanged(savedSchedule);
 
         // Audit log
         String tourName = tour.getDisplayName();
@@ -147,6 +155,7 @@ public class TourScheduleService {
 
         schedule.setStatus(TourScheduleStatus.CANCELLED);
         TourSchedule savedSchedule = tourScheduleRepository.save(schedule);
+        scheduleEventPublisher.publishScheduleChanged(savedSchedule);
 
         // Audit log
         String tourName = tour.getDisplayName();
@@ -158,13 +167,19 @@ public class TourScheduleService {
         return toTourScheduleRes(savedSchedule);
     }
 
+    @Transactional(readOnly = true)
     public List<TourScheduleRes> getScheduledToursForMonth(UUID tourId, int year, int month) {
         YearMonth yearMonth = YearMonth.of(year, month);
         var startOfMonth = yearMonth.atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC);
         var endOfMonth = yearMonth.atEndOfMonth().plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC);
 
-        return tourScheduleRepository.findByTourIdAndStartDatetimeBetweenOrderByStartDatetimeDesc(tourId, startOfMonth, endOfMonth).stream()
-                .map(this::toTourScheduleRes)
+        List<TourSchedule> schedules = tourScheduleRepository
+                .findByTourIdAndStartDatetimeBetweenOrderByStartDatetimeDesc(tourId, startOfMonth, endOfMonth);
+        Map<UUID, AvailabilityValidator.AvailabilityStatus> statuses =
+                availabilityValidator.getAvailabilityStatuses(schedules);
+
+        return schedules.stream()
+                .map(schedule -> toTourScheduleRes(schedule, statuses.get(schedule.getId())))
                 .collect(Collectors.toList());
     }
 
@@ -196,6 +211,7 @@ public class TourScheduleService {
         auditLogService.logDelete(currentUser, "SCHEDULE", schedule.getId(), description, oldValues);
 
         tourScheduleRepository.deleteById(id);
+        scheduleEventPublisher.publishScheduleDeleted(id);
     }
 
     private TourScheduleRes toTourScheduleRes(TourSchedule schedule) {
@@ -204,6 +220,10 @@ public class TourScheduleService {
                 schedule.getId(),
                 schedule.getMaxParticipants()
         );
+        return toTourScheduleRes(schedule, availabilityStatus);
+    }
+
+    private TourScheduleRes toTourScheduleRes(TourSchedule schedule, AvailabilityValidator.AvailabilityStatus availabilityStatus) {
         int totalReserved = schedule.getMaxParticipants() - availabilityStatus.availableSlots();
 
         return tourScheduleMapper.toRes(schedule, totalReserved, availabilityStatus.availableSlots());
@@ -217,12 +237,53 @@ public class TourScheduleService {
      * @return TourScheduleRes with calculated availability
      */
     public TourScheduleRes toScheduleResWithAvailability(TourSchedule schedule) {
-        Integer bookedParticipants = bookingRepository.countConfirmedParticipantsByScheduleId(schedule.getId());
-        if (bookedParticipants == null) {
-            bookedParticipants = 0;
-        }
-        int availableSpots = Math.max(0, schedule.getMaxParticipants() - bookedParticipants);
+        return toScheduleResWithAvailability(List.of(schedule)).get(0);
+    }
 
-        return tourScheduleMapper.toRes(schedule, bookedParticipants, availableSpots);
+    /**
+     * Public schedules (OPEN, PUBLISHED tour) in a date range, resolved in a single query.
+     * Booked participants are read from the schedule's reserved_seats counter, so no count
+     * query runs per schedule.
+     *
+     * @param tourIds tours to include; null or empty for every published tour
+     * @param start range start (inclusive)
+     * @param end range end (inclusive)
+     * @return TourScheduleRes list ordered by start time
+     */
+    @Transactional(readOnly = true)
+    public List<TourScheduleRes> getPublicSchedules(Collection<UUID> tourIds, Instant start, Instant end) {
+        List<TourSchedule> schedules = tourIds == null || tourIds.isEmpty()
+                ? tourScheduleRepository.findOpenPublishedByStartDatetimeBetween(start, end)
+                : tourScheduleRepository.findOpenPublishedByTourIdsAndStartDatetimeBetween(tourIds, start, end);
+
+        return schedules.stream()
+                .map(schedule -> {
+                    int bookedParticipants = schedule.getReservedSeats();
+                    int availableSpots = Math.max(0, schedule.getMaxParticipants() - bookedParticipants);
+                    return tourScheduleMapper.toRes(schedule, bookedParticipants, availableSpots);
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Converts a list of TourSchedules to TourScheduleRes with availability calculation.
+     * Confirmed participant counts come from the seat ledger (at most one query for unseen schedules).
+     * Uses confirmed bookings only (excludes cart reservations).
+     *
+     * @param schedules the tour schedule entities
+     * @return TourScheduleRes list, in the same order as the input
+     */
+    public List<TourScheduleRes> toScheduleResWithAvailability(List<TourSchedule> schedules) {
+        Map<UUID, AvailabilityValidator.ReservationCounts> counts = seatLedger.getReservationCounts(
+                schedules.stream().map(TourSchedule::getId).collect(Collectors.toSet()));
+
+        return schedules.stream()
+                .map(schedule -> {
+                    var scheduleCounts = counts.get(schedule.getId());
+                    int bookedParticipants = scheduleCounts != null ? scheduleCounts.bookedParticipants() : 0;
+                    int availableSpots = Math.max(0, schedule.getMaxParticipants() - bookedParticipants);
+                    return tourScheduleMapper.toRes(schedule, bookedParticipants, availableSpots);
+                })
+                .collect(Collectors.toList());
     }
 }
@@ -20,6 +20,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.time.LocalTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -60,6 +61,7 @@ public class TourService {
         tour.setDurationHours(tourCreateReq.durationHours());
         tour.setDefaultStartTime(tourCreateReq.defaultStartTime());
         tour.setStatus(tourCreateReq.status());
+        setLocation(tour, tourCreateReq.latitude(), tourCreateReq.longitude());
 
         // Set structured content fields
         tour.setGuideName(tourCreateReq.guideName());
@@ -140,6 +142,7 @@ public class TourService {
             "category", tour.getCategory(),
             "price", tour.getPrice().toString()
         );
+        ScheduleRules oldScheduleRules = ScheduleRules.of(tour);
 
         tour.setNameTranslations(tourUpdateReq.nameTranslations());
         tour.setDescriptionBlocksTranslations(tourUpdateReq.descriptionBlocksTranslations());
@@ -152,6 +155,15 @@ public class TourService {
         tour.setDurationHours(tourUpdateReq.durationHours());
         tour.setDefaultStartTime(tourUpdateReq.defaultStartTime());
         tour.setStatus(tourUpdateReq.status());
+        // The admin form doesn't send coordinates; a missing pair keeps the current location
+        if (tourUpdateReq.latitude() != null || tourUpdateReq.longitude() != null) {
+            setLocation(tour, tourUpdateReq.latitude(), tourUpdateReq.longitude());
+        }
+
+        // Cambió lo que decide qué días se generan: el generador vuelve a revisar la ventana completa
+        if (!oldScheduleRules.equals(ScheduleRules.of(tour))) {
+            tour.setSchedulesGeneratedThrough(null);
+        }
 
         // Update structured content fields
         tour.setGuideName(tourUpdateReq.guideName());
@@ -306,6 +318,33 @@ public class TourService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Tour fields that decide which days TourScheduleGeneratorService generates.
+     */
+    private record ScheduleRules(
+            String recurrenceRule,
+            LocalTime defaultStartTime,
+            boolean windSensitive,
+            boolean moonSensitive,
+            boolean cloudSensitive) {
+
+        static ScheduleRules of(Tour tour) {
+            return new ScheduleRules(tour.getRecurrenceRule(), tour.getDefaultStartTime(),
+                    tour.isWindSensitive(), tour.isMoonSensitive(), tour.isCloudSensitive());
+        }
+    }
+
+    /**
+     * Coordinates come as a pair: both set, or (on create) both null to use the default weather location.
+     */
+    private void setLocation(Tour tour, Double latitude, Double longitude) {
+        if ((latitude == null) != (longitude == null)) {
+            throw new IllegalArgumentException("latitude and longitude must be provided together");
+        }
+        tour.setLatitude(latitude);
+        tour.setLongitude(longitude);
+    }
+
     /**
      * Helper to create a new TourRes with images (records are immutable)
      */
@@ -337,7 +376,9 @@ public class TourService {
                 tourRes.descriptionBlocksTranslations(),
                 tourRes.ownerId(),
                 tourRes.ownerName(),
-                tourRes.ownerEmail()
+                tourRes.ownerEmail(),
+                tourRes.latitude(),
+                tourRes.longitude()
         );
     }
 }
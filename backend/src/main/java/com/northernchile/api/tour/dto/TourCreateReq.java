@@ -5,6 +5,8 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.northernchile.api.model.TourStatus;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 
@@ -68,5 +70,13 @@ public record TourCreateReq(
     Map<String, List<String>> equipmentTranslations,
 
     @Valid
-    Map<String, List<String>> additionalInfoTranslations
+    Map<String, List<String>> additionalInfoTranslations,
+
+    @DecimalMin("-90") @DecimalMax("90")
+    @Schema(description = "Site latitude for weather checks; omit to use the default location", example = "-22.9083")
+    Double latitude,
+
+    @DecimalMin("-180") @DecimalMax("180")
+    @Schema(description = "Site longitude for weather checks; omit to use the default location", example = "-68.1999")
+    Double longitude
 ) {}
@@ -38,5 +38,7 @@ public record TourRes(
     Map<String, List<ContentBlock>> descriptionBlocksTranslations,
     UUID ownerId,
     String ownerName,
-    String ownerEmail
+    String ownerEmail,
+    Double latitude,
+    Double longitude
 ) {}
@@ -5,6 +5,8 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.northernchile.api.model.TourStatus;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 
 import java.math.BigDecimal;
 import java.time.LocalTime;
@@ -29,5 +31,8 @@ public record TourUpdateReq(
     String guideName,
     @Valid Map<String, List<@Valid ItineraryItem>> itineraryTranslations,
     @Valid Map<String, List<String>> equipmentTranslations,
-    @Valid Map<String, List<String>> additionalInfoTranslations
+    @Valid Map<String, List<String>> additionalInfoTranslations,
+    // Both null = keep the current location
+    @DecimalMin("-90") @DecimalMax("90") Double latitude,
+    @DecimalMin("-180") @DecimalMax("180") Double longitude
 ) {}
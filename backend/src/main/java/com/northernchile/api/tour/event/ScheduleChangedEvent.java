@@ -0,0 +1,20 @@
+package com.northernchile.api.tour.event;
+
+import com.northernchile.api.model.TourScheduleStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Event published when a schedule is created, moved, has its status changed or is deleted.
+ *
+ * @param scheduleId The tour schedule ID
+ * @param startDatetime Current start time, or null when the schedule was deleted
+ * @param status Current status, or null when the schedule was deleted
+ */
+public record ScheduleChangedEvent(UUID scheduleId, Instant startDatetime, TourScheduleStatus status) {
+
+    public boolean isOpen() {
+        return status == TourScheduleStatus.OPEN && startDatetime != null;
+    }
+}
@@ -0,0 +1,51 @@
+package com.northernchile.api.tour.event;
+
+import com.northernchile.api.model.TourSchedule;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Publisher for tour schedule lifecycle events.
+ * Listeners such as ScheduleAutoCloseJob receive these after the surrounding transaction commits.
+ */
+@Component
+public class ScheduleEventPublisher {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ScheduleEventPublisher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Publishes the current start time and status of a schedule (created, moved, cancelled, reopened).
+     *
+     * @param schedule The schedule after the change
+     */
+    public void publishScheduleChanged(TourSchedule schedule) {
+        eventPublisher.publishEvent(new ScheduleChangedEvent(
+                schedule.getId(), schedule.getStartDatetime(), schedule.getStatus()));
+    }
+
+    /**
+     * Publishes that a schedule was deleted.
+     *
+     * @param scheduleId The deleted schedule ID
+     */
+    public void publishScheduleDeleted(UUID scheduleId) {
+        eventPublisher.publishEvent(new ScheduleChangedEvent(scheduleId, null, null));
+    }
+
+    /**
+     * Publishes that a generation run inserted schedules (nothing is published when none were created).
+     *
+     * @param created Number of schedules inserted
+     */
+    public void publishSchedulesGenerated(int created) {
+        if (created > 0) {
+            eventPublisher.publishEvent(new SchedulesGeneratedEvent(created));
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.northernchile.api.tour.event;
+
+/**
+ * Event published after a generation run inserted new schedules (TourScheduleGeneratorService).
+ * The bulk insert doesn't return the new rows, so listeners reload what they need.
+ *
+ * @param created Number of schedules inserted
+ */
+public record SchedulesGeneratedEvent(int created) {}
@@ -0,0 +1,85 @@
+package com.northernchile.api.tour.manifest;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
+/**
+ * RFC 4180 CSV, UTF-8 with BOM so Excel shows accents correctly.
+ * Cells starting with = + - @ (other than phone numbers) are prefixed with ' so spreadsheets don't evaluate them as formulas.
+ */
+class CsvManifestRenderer implements ManifestRenderer {
+
+    private static final String[] COLUMNS = {
+            "N°", "Nombre", "Documento", "Nacionalidad", "Teléfono", "Email", "Dirección de recogida",
+            "Requerimientos especiales", "Solicitudes de la reserva", "Reservado por"
+    };
+
+    private static final Pattern PHONE = Pattern.compile("[+-][\\d ()-]*");
+
+    private final Writer writer;
+
+    CsvManifestRenderer(OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void start(ManifestHeader header) throws IOException {
+        writer.write('\uFEFF');
+        writeLine(COLUMNS);
+    }
+
+    @Override
+    public void row(int number, ManifestRow row) throws IOException {
+        writeLine(
+                Integer.toString(number),
+                row.fullName(),
+                row.documentId(),
+                row.nationality(),
+                row.phoneNumber(),
+                row.email(),
+                row.pickupAddress(),
+                row.specialRequirements(),
+                row.bookingSpecialRequests(),
+                row.bookerName());
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    private void writeLine(String... cells) throws IOException {
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escape(cells[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    static String escape(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        String cell = isFormula(value) ? "'" + value : value;
+        if (cell.indexOf(',') >= 0 || cell.indexOf('"') >= 0 || cell.indexOf('\n') >= 0 || cell.indexOf('\r') >= 0) {
+            return '"' + cell.replace("\"", "\"\"") + '"';
+        }
+        return cell;
+    }
+
+    private static boolean isFormula(String value) {
+        char first = value.charAt(0);
+        if (first == '+' || first == '-') {
+            // Phone numbers such as +56 9 1234 5678 are left as they are
+            return !PHONE.matcher(value).matches();
+        }
+        return first == '=' || first == '@';
+    }
+}
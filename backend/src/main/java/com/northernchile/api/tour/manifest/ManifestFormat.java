@@ -0,0 +1,47 @@
+package com.northernchile.api.tour.manifest;
+
+import java.io.OutputStream;
+
+/**
+ * Download formats of a manifest.
+ */
+public enum ManifestFormat {
+    CSV("text/csv; charset=UTF-8", "csv"),
+    PDF("application/pdf", "pdf");
+
+    private final String contentType;
+    private final String extension;
+
+    ManifestFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    /**
+     * @param value Format name, case-insensitive (csv, pdf)
+     * @throws IllegalArgumentException for an unknown format
+     */
+    public static ManifestFormat from(String value) {
+        for (ManifestFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported manifest format: " + value + " (expected csv or pdf)");
+    }
+
+    public ManifestRenderer open(OutputStream out) {
+        return switch (this) {
+            case CSV -> new CsvManifestRenderer(out);
+            case PDF -> new PdfManifestRenderer(out);
+        };
+    }
+}
@@ -0,0 +1,13 @@
+package com.northernchile.api.tour.manifest;
+
+/**
+ * Schedule data printed at the top of a manifest.
+ *
+ * @param tourDate Local date (Chile), dd/MM/yyyy
+ * @param tourTime Local time (Chile), HH:mm
+ */
+public record ManifestHeader(
+        String tourName,
+        String tourDate,
+        String tourTime,
+        String guideName) {}
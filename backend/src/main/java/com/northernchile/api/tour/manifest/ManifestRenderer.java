@@ -0,0 +1,19 @@
+package com.northernchile.api.tour.manifest;
+
+import java.io.IOException;
+
+/**
+ * Writes a manifest row by row to an output stream, without holding the rows in memory.
+ * Calls go start, row (zero or more times, numbered from 1), finish.
+ */
+public interface ManifestRenderer {
+
+    void start(ManifestHeader header) throws IOException;
+
+    void row(int number, ManifestRow row) throws IOException;
+
+    /**
+     * Writes what remains (totals, document trailer) and flushes. Does not close the stream.
+     */
+    void finish() throws IOException;
+}
@@ -0,0 +1,23 @@
+package com.northernchile.api.tour.manifest;
+
+import java.util.UUID;
+
+/**
+ * One participant of a confirmed booking, as read for a manifest
+ * (projection of Participant + Booking + User, see BookingRepository.streamManifestRows).
+ *
+ * @param bookerName Name of the user who made the booking
+ * @param bookingSpecialRequests Special requests written on the booking
+ */
+public record ManifestRow(
+        UUID bookingId,
+        String languageCode,
+        String bookingSpecialRequests,
+        String bookerName,
+        String fullName,
+        String phoneNumber,
+        String pickupAddress,
+        String nationality,
+        String documentId,
+        String specialRequirements,
+        String email) {}
@@ -0,0 +1,227 @@
+package com.northernchile.api.tour.manifest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Landscape A4 table written directly as PDF 1.4 with the standard Helvetica fonts (no embedding).
+ *
+ * Each page is written out as soon as it is full, so only one page of content is in memory; the page
+ * tree and the cross-reference table are written at the end from the object offsets. Text uses
+ * WinAnsiEncoding, which covers Spanish and Portuguese; other characters are printed as '?'.
+ * Cells that don't fit their column are cut with an ellipsis (widths are estimated from the font size).
+ */
+class PdfManifestRenderer implements ManifestRenderer {
+
+    private static final Charset WIN_ANSI = Charset.forName("windows-1252");
+
+    private static final int PAGE_WIDTH = 842;
+    private static final int PAGE_HEIGHT = 595;
+    private static final int MARGIN = 30;
+    private static final float FONT_SIZE = 8;
+    private static final float LINE_HEIGHT = 12;
+    // Average Helvetica glyph width as a fraction of the font size
+    private static final float CHAR_WIDTH = 0.55f;
+
+    private static final int CATALOG = 1;
+    private static final int PAGES = 2;
+    private static final int FONT = 3;
+    private static final int FONT_BOLD = 4;
+
+    private static final String[] TITLES = {
+            "N°", "Nombre", "Documento", "Nacionalidad", "Teléfono", "Recogida", "Requerimientos", "Reservado por"
+    };
+    private static final float[] WIDTHS = {25, 130, 80, 70, 85, 150, 120, 122};
+
+    private final CountingOutputStream out;
+    private final List<Long> offsets = new ArrayList<>();
+    private final List<Integer> pageIds = new ArrayList<>();
+
+    private ManifestHeader header;
+    private ByteArrayOutputStream page;
+    private float y;
+    private int nextObject = FONT_BOLD + 1;
+    private int rows;
+
+    PdfManifestRenderer(OutputStream out) {
+        this.out = new CountingOutputStream(out);
+    }
+
+    @Override
+    public void start(ManifestHeader header) throws IOException {
+        this.header = header;
+        // Binary comment so transfer tools treat the file as binary
+        write("%PDF-1.4\n%âãÏÓ\n".getBytes(StandardCharsets.ISO_8859_1));
+        writeObject(FONT, "<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica /Encoding /WinAnsiEncoding >>");
+        writeObject(FONT_BOLD, "<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica-Bold /Encoding /WinAnsiEncoding >>");
+        writeObject(CATALOG, "<< /Type /Catalog /Pages " + PAGES + " 0 R >>");
+        newPage();
+    }
+
+    @Override
+    public void row(int number, ManifestRow row) throws IOException {
+        // Keep one line free at the bottom for the total
+        if (y - LINE_HEIGHT < MARGIN + LINE_HEIGHT) {
+            flushPage();
+            newPage();
+        }
+        String requirements = join(row.specialRequirements(), row.bookingSpecialRequests());
+        drawRow(false,
+                Integer.toString(number),
+                row.fullName(),
+                row.documentId(),
+                row.nationality(),
+                row.phoneNumber(),
+                row.pickupAddress(),
+                requirements,
+                row.bookerName());
+        rows++;
+    }
+
+    @Override
+    public void finish() throws IOException {
+        y -= LINE_HEIGHT / 2;
+        text(MARGIN, y, true, FONT_SIZE + 1, "Total participantes: " + rows);
+        flushPage();
+
+        StringBuilder kids = new StringBuilder();
+        for (int pageId : pageIds) {
+            kids.append(pageId).append(" 0 R ");
+        }
+        writeObject(PAGES, "<< /Type /Pages /Kids [" + kids + "] /Count " + pageIds.size() + " >>");
+
+        long xref = out.count;
+        StringBuilder table = new StringBuilder();
+        table.append("xref\n0 ").append(nextObject).append('\n');
+        table.append("0000000000 65535 f \n");
+        for (int id = 1; id < nextObject; id++) {
+            table.append(String.format(Locale.ROOT, "%010d 00000 n \n", offsets.get(id)));
+        }
+        table.append("trailer\n<< /Size ").append(nextObject).append(" /Root ").append(CATALOG).append(" 0 R >>\n");
+        table.append("startxref\n").append(xref).append("\n%%EOF\n");
+        write(table.toString().getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    private void newPage() throws IOException {
+        page = new ByteArrayOutputStream(16 * 1024);
+        y = PAGE_HEIGHT - MARGIN - 14;
+        text(MARGIN, y, true, 14, "Manifiesto: " + header.tourName());
+        text(PAGE_WIDTH - MARGIN - 60, y, false, FONT_SIZE, "Página " + (pageIds.size() + 1));
+        y -= 16;
+        text(MARGIN, y, false, 10, "Fecha: " + header.tourDate() + "   Hora: " + header.tourTime()
+                + "   Guía: " + header.guideName());
+        y -= 20;
+        drawRow(true, TITLES);
+        line(y + LINE_HEIGHT - 3);
+    }
+
+    private void drawRow(boolean bold, String... cells) throws IOException {
+        float x = MARGIN;
+        for (int i = 0; i < cells.length; i++) {
+            text(x + 2, y, bold, FONT_SIZE, fit(cells[i], WIDTHS[i]));
+            x += WIDTHS[i];
+        }
+        y -= LINE_HEIGHT;
+    }
+
+    private void text(float x, float y, boolean bold, float size, String value) throws IOException {
+        page.write(String.format(Locale.ROOT, "BT /%s %.1f Tf %.1f %.1f Td (", bold ? "F2" : "F1", size, x, y)
+                .getBytes(StandardCharsets.US_ASCII));
+        for (byte b : (value != null ? value : "").getBytes(WIN_ANSI)) {
+            if (b == '(' || b == ')' || b == '\\') {
+                page.write('\\');
+            }
+            page.write(b >= 0 && b < 0x20 ? ' ' : b);
+        }
+        page.write(") Tj ET\n".getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private void line(float atY) throws IOException {
+        page.write(String.format(Locale.ROOT, "0.5 w %d %.1f m %d %.1f l S\n", MARGIN, atY, PAGE_WIDTH - MARGIN, atY)
+                .getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private void flushPage() throws IOException {
+        int contentId = nextObject++;
+        int pageId = nextObject++;
+        byte[] content = page.toByteArray();
+
+        beginObject(contentId);
+        write(("<< /Length " + content.length + " >>\nstream\n").getBytes(StandardCharsets.US_ASCII));
+        write(content);
+        write("\nendstream\nendobj\n".getBytes(StandardCharsets.US_ASCII));
+
+        writeObject(pageId, "<< /Type /Page /Parent " + PAGES + " 0 R /MediaBox [0 0 " + PAGE_WIDTH + " " + PAGE_HEIGHT + "]"
+                + " /Resources << /Font << /F1 " + FONT + " 0 R /F2 " + FONT_BOLD + " 0 R >> >>"
+                + " /Contents " + contentId + " 0 R >>");
+        pageIds.add(pageId);
+        page = null;
+    }
+
+    private void writeObject(int id, String body) throws IOException {
+        beginObject(id);
+        write((body + "\nendobj\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private void beginObject(int id) throws IOException {
+        while (offsets.size() <= id) {
+            offsets.add(0L);
+        }
+        offsets.set(id, out.count);
+        write((id + " 0 obj\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        out.write(bytes, 0, bytes.length);
+    }
+
+    static String fit(String value, float width) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.replaceAll("\\s+", " ").strip();
+        int maxChars = Math.max(1, (int) ((width - 4) / (FONT_SIZE * CHAR_WIDTH)));
+        return text.length() <= maxChars ? text : text.substring(0, maxChars - 1) + "…";
+    }
+
+    private static String join(String first, String second) {
+        boolean hasFirst = first != null && !first.isBlank();
+        boolean hasSecond = second != null && !second.isBlank();
+        if (hasFirst && hasSecond) {
+            return first + " / " + second;
+        }
+        return hasFirst ? first : hasSecond ? second : "";
+    }
+
+    /**
+     * Tracks the byte offset of each object for the cross-reference table.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
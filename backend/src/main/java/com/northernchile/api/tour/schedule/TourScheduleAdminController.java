@@ -12,17 +12,23 @@ import com.northernchile.api.model.User;
 import com.northernchile.api.security.AuthorizationService;
 import com.northernchile.api.security.Permission;
 import com.northernchile.api.security.annotations.RequiresPermission;
+import com.northernchile.api.tour.ManifestService;
 import com.northernchile.api.tour.TourScheduleGeneratorService;
 import com.northernchile.api.tour.TourScheduleRepository;
 import com.northernchile.api.tour.TourScheduleService;
 import com.northernchile.api.tour.dto.TourScheduleCreateReq;
 import com.northernchile.api.tour.dto.TourScheduleRes;
+import com.northernchile.api.tour.manifest.ManifestFormat;
+import com.northernchile.api.tour.schedule.dto.ScheduleGenerationRes;
 import com.northernchile.api.tour.schedule.dto.ScheduleParticipantsRes;
 import com.northernchile.api.util.DateTimeUtils;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.Instant;
 import java.time.LocalDate;
@@ -42,6 +48,7 @@ public class TourScheduleAdminController {
     private final BookingRepository bookingRepository;
     private final AuthorizationService authorizationService;
     private final ScheduleCancellationService scheduleCancellationService;
+    private final ManifestService manifestService;
 
     public TourScheduleAdminController(
             TourScheduleRepository tourScheduleRepository,
@@ -49,13 +56,15 @@ public class TourScheduleAdminController {
             TourScheduleGeneratorService generatorService,
             BookingRepository bookingRepository,
             AuthorizationService authorizationService,
-            ScheduleCancellationService scheduleCancellationService) {
+            ScheduleCancellationService scheduleCancellationService,
+            ManifestService manifestService) {
         this.tourScheduleRepository = tourScheduleRepository;
         this.tourScheduleService = tourScheduleService;
         this.generatorService = generatorService;
         this.bookingRepository = bookingRepository;
         this.authorizationService = authorizationService;
         this.scheduleCancellationService = scheduleCancellationService;
+        this.manifestService = manifestService;
     }
 
     /**
@@ -104,9 +113,7 @@ public class TourScheduleAdminController {
                     .collect(Collectors.toList());
         }
 
-        List<TourScheduleRes> response = schedules.stream()
-                .map(tourScheduleService::toScheduleResWithAvailability)
-                .collect(Collectors.toList());
+        List<TourScheduleRes> response = tourScheduleService.toScheduleResWithAvailability(schedules);
 
         return ResponseEntity.ok(response);
     }
@@ -177,12 +184,12 @@ public class TourScheduleAdminController {
     /**
      * POST /api/admin/schedules/generate
      * Trigger manual del generador automático (útil para testing)
+     * Devuelve el resultado por tour (creados, omitidos, fallidos y duración)
      */
     @PostMapping("/generate")
     @RequiresPermission(Permission.CREATE_SCHEDULE)
-    public ResponseEntity<String> generateSchedules() {
-        generatorService.generateSchedulesManually();
-        return ResponseEntity.ok("Schedule generation triggered successfully");
+    public ResponseEntity<ScheduleGenerationRes> generateSchedules() {
+        return ResponseEntity.ok(generatorService.generateSchedulesManually());
     }
 
     /**
@@ -229,4 +236,28 @@ public class TourScheduleAdminController {
 
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * GET /api/admin/schedules/{id}/manifest?format=csv|pdf
+     * Descarga el manifiesto (participantes de reservas confirmadas) como CSV o PDF.
+     * Las filas se leen a un archivo temporal y se envían al terminar la lectura, así la descarga
+     * no retiene una conexión del pool.
+     */
+    @GetMapping("/{id}/manifest")
+    @RequiresPermission(value = Permission.VIEW_BOOKING, resourceIdParam = "id", resourceType = RequiresPermission.ResourceType.SCHEDULE)
+    public ResponseEntity<StreamingResponseBody> downloadManifest(
+            @PathVariable String id,
+            @RequestParam(required = false, defaultValue = "csv") String format) {
+        UUID scheduleId = UUID.fromString(id);
+        ManifestFormat manifestFormat = ManifestFormat.from(format);
+        if (!tourScheduleRepository.existsById(scheduleId)) {
+            throw new jakarta.persistence.EntityNotFoundException("Schedule not found with id: " + id);
+        }
+
+        String filename = "manifiesto-" + scheduleId + "." + manifestFormat.extension();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, manifestFormat.contentType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(out -> manifestService.exportManifest(scheduleId, manifestFormat, out));
+    }
 }
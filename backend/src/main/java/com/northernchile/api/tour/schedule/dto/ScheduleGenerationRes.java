@@ -0,0 +1,29 @@
+package com.northernchile.api.tour.schedule.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Response DTO for a schedule generation run, with totals and one entry per recurring tour.
+ */
+public record ScheduleGenerationRes(
+    int created,
+    int skipped,
+    int failed,
+    long durationMs,
+    List<TourResult> tours
+) {
+    /**
+     * @param skipped Matching days that already had a schedule
+     * @param failed Days that could not be evaluated or written
+     * @param error Why the tour's unit failed, or null
+     */
+    public record TourResult(
+        UUID tourId,
+        int created,
+        int skipped,
+        int failed,
+        long durationMs,
+        String error
+    ) {}
+}
@@ -32,6 +32,6 @@ public class WeatherController {
      */
     @GetMapping("/forecast")
     public Object getForecast() {
-        return weatherService.getForecast();
+        return weatherService.getForecast().asMap();
     }
 }
@@ -0,0 +1,39 @@
+package com.northernchile.api.weather;
+
+import java.time.LocalDate;
+
+/**
+ * Weather and moon verdict for one tour on one date, with the metrics it was based on.
+ * Built by WeatherRiskService, which is the only place where the thresholds are applied.
+ *
+ * @param date Local date (Chile) of the tour
+ * @param hasForecast Whether the forecast covers the date; without it wind and cloud verdicts are false
+ * @param maxWindMs Stronger of sustained wind and gusts, m/s
+ * @param clouds Average cloud coverage, 0-100
+ * @param pop Maximum probability of precipitation, 0-1
+ * @param moonIllumination Illuminated fraction of the moon, 0-100
+ * @param moonPhase Moon phase, 0.0 = new moon, 0.5 = full moon
+ * @param wind Wind-sensitive tour and wind above the threshold
+ * @param cloudy Cloud-sensitive tour and coverage above the threshold
+ * @param brightMoon Moon-sensitive tour and illumination at or above the threshold (schedule generation)
+ * @param moonBlocksAvailability ASTRONOMICAL tour on a full moon (availability calendar)
+ * @param moonAlert Moon-sensitive tour on a full moon (weather alerts)
+ */
+public record WeatherRisk(
+        LocalDate date,
+        boolean hasForecast,
+        double maxWindMs,
+        int clouds,
+        double pop,
+        int moonIllumination,
+        double moonPhase,
+        boolean wind,
+        boolean cloudy,
+        boolean brightMoon,
+        boolean moonBlocksAvailability,
+        boolean moonAlert) {
+
+    public double maxWindKnots() {
+        return maxWindMs / WeatherRiskService.KNOTS_TO_MS;
+    }
+}
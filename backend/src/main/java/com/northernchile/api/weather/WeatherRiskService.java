@@ -0,0 +1,164 @@
+package com.northernchile.api.weather;
+
+import com.northernchile.api.external.LunarService;
+import com.northernchile.api.external.WeatherForecast;
+import com.northernchile.api.external.WeatherService;
+import com.northernchile.api.external.event.WeatherForecastUpdatedEvent;
+import com.northernchile.api.model.Tour;
+import com.northernchile.api.model.TourSchedule;
+import com.northernchile.api.model.TourScheduleStatus;
+import com.northernchile.api.tour.TourScheduleRepository;
+import com.northernchile.api.util.DateTimeUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Weather risk per tour schedule, computed once per forecast update.
+ *
+ * Availability, schedule generation and weather alerts all ask this service whether a tour is
+ * affected by wind, clouds or the moon on a date, so the thresholds live in one place. Each consumer
+ * keeps its own moon rule: the generator skips days with a bright moon, availability blocks
+ * ASTRONOMICAL tours on a full moon, and alerts flag moon-sensitive tours on a full moon.
+ * Whenever WeatherService publishes new forecasts, the risk of every non-cancelled schedule in the
+ * forecast horizon (8 days) is recomputed in one pass. Reads are a map lookup.
+ *
+ * Schedules created after the last rebuild, moved to another date, or whose tour changed its
+ * sensitivity flags, category or location since then, and dates without a schedule, are assessed
+ * on the fly with the same rules. Forecast and moon lookups are O(1) either way.
+ */
+@Service
+public class WeatherRiskService {
+
+    private static final Logger log = LoggerFactory.getLogger(WeatherRiskService.class);
+
+    /** 1 knot = 0.514444 m/s (OpenWeather uses m/s) */
+    static final double KNOTS_TO_MS = 0.514444;
+    public static final double WIND_THRESHOLD_KNOTS = 25.0;
+    private static final double WIND_THRESHOLD_MS = WIND_THRESHOLD_KNOTS * KNOTS_TO_MS;
+    public static final int CLOUD_THRESHOLD = 80; // %
+    public static final int MOON_ILLUMINATION_THRESHOLD = 80; // %
+    /** Forecast horizon of the 5 day / 3 hour API, rounded up */
+    static final int DAYS_AHEAD = 8;
+
+    private final TourScheduleRepository scheduleRepository;
+    private final WeatherService weatherService;
+    private final LunarService lunarService;
+
+    // Replaced as a whole on every rebuild
+    private volatile Map<UUID, Entry> risksBySchedule = Map.of();
+
+    public WeatherRiskService(
+            TourScheduleRepository scheduleRepository,
+            WeatherService weatherService,
+            LunarService lunarService) {
+        this.scheduleRepository = scheduleRepository;
+        this.weatherService = weatherService;
+        this.lunarService = lunarService;
+    }
+
+    @Async
+    @EventListener
+    @Transactional(readOnly = true)
+    public void onForecastUpdated(WeatherForecastUpdatedEvent event) {
+        rebuild();
+    }
+
+    /**
+     * Recomputes the risk of every upcoming non-cancelled schedule in the forecast horizon.
+     */
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        LocalDate today = LocalDate.now(DateTimeUtils.CHILE_ZONE);
+        Instant start = today.atStartOfDay(DateTimeUtils.CHILE_ZONE).toInstant();
+        Instant end = today.plusDays(DAYS_AHEAD).atStartOfDay(DateTimeUtils.CHILE_ZONE).toInstant();
+
+        List<TourSchedule> schedules = scheduleRepository.findByStartDatetimeBetweenWithTour(start, end);
+        Map<UUID, Entry> risks = new HashMap<>(schedules.size() * 2);
+        for (TourSchedule schedule : schedules) {
+            if (schedule.getStatus() != TourScheduleStatus.CANCELLED) {
+                Tour tour = schedule.getTour();
+                risks.put(schedule.getId(), new Entry(assess(tour, localDate(schedule)), RiskInputs.of(tour)));
+            }
+        }
+        risksBySchedule = Map.copyOf(risks);
+        log.info("Weather risk table rebuilt for {} schedules", risks.size());
+    }
+
+    /**
+     * @return The precomputed risk of the schedule, or a fresh assessment if it is not in the table
+     *         or was computed for another date or for tour settings that have since been edited
+     */
+    public WeatherRisk riskFor(TourSchedule schedule) {
+        LocalDate date = localDate(schedule);
+        Tour tour = schedule.getTour();
+        Entry entry = risksBySchedule.get(schedule.getId());
+        if (entry != null && entry.risk().date().equals(date) && entry.inputs().equals(RiskInputs.of(tour))) {
+            return entry.risk();
+        }
+        return assess(tour, date);
+    }
+
+    /**
+     * Applies the wind, cloud and moon thresholds to a tour on a date.
+     */
+    public WeatherRisk assess(Tour tour, LocalDate date) {
+        WeatherForecast forecast = weatherService.getForecast(tour);
+        double maxWindMs = forecast.maxWindMs(date);
+        int clouds = forecast.clouds(date);
+        int illumination = lunarService.getMoonIllumination(date);
+        boolean fullMoon = lunarService.isFullMoon(date);
+
+        return new WeatherRisk(
+                date,
+                forecast.hasDay(date),
+                maxWindMs,
+                clouds,
+                forecast.pop(date),
+                illumination,
+                lunarService.getMoonPhase(date),
+                tour.isWindSensitive() && maxWindMs > WIND_THRESHOLD_MS,
+                tour.isCloudSensitive() && clouds > CLOUD_THRESHOLD,
+                tour.isMoonSensitive() && illumination >= MOON_ILLUMINATION_THRESHOLD,
+                "ASTRONOMICAL".equalsIgnoreCase(tour.getCategory()) && fullMoon,
+                tour.isMoonSensitive() && fullMoon);
+    }
+
+    int tableSize() {
+        return risksBySchedule.size();
+    }
+
+    private record Entry(WeatherRisk risk, RiskInputs inputs) {}
+
+    /**
+     * Tour settings an assessment depends on (besides the date); an entry computed for other
+     * values is stale.
+     */
+    private record RiskInputs(
+            boolean windSensitive,
+            boolean cloudSensitive,
+            boolean moonSensitive,
+            String category,
+            Double latitude,
+            Double longitude) {
+
+        static RiskInputs of(Tour tour) {
+            return new RiskInputs(tour.isWindSensitive(), tour.isCloudSensitive(), tour.isMoonSensitive(),
+                    tour.getCategory(), tour.getLatitude(), tour.getLongitude());
+        }
+    }
+
+    private static LocalDate localDate(TourSchedule schedule) {
+        return LocalDate.ofInstant(schedule.getStartDatetime(), DateTimeUtils.CHILE_ZONE);
+    }
+}
@@ -0,0 +1,27 @@
+-- V18: Normalized per-schedule seats for payment sessions
+-- Replaces jsonb_array_elements(payment_sessions.items) scans with index lookups.
+-- Optimizes: countReservedSlotsByScheduleId, findCompletedSessionByUserAndSchedule,
+--            countReservationsByScheduleIds (in_payment)
+-- Status and expiration stay on payment_sessions (joined by primary key), so status
+-- transitions and the bulk expiry UPDATE do not need to touch this table.
+CREATE TABLE payment_session_items (
+    session_id UUID NOT NULL REFERENCES payment_sessions(id) ON DELETE CASCADE,
+    schedule_id UUID NOT NULL,
+    num_participants INT NOT NULL,
+    PRIMARY KEY (session_id, schedule_id)
+);
+
+CREATE INDEX idx_payment_session_items_schedule ON payment_session_items(schedule_id) INCLUDE (num_participants);
+
+-- Pending sessions are filtered by expiration on every availability check
+CREATE INDEX IF NOT EXISTS idx_payment_sessions_pending_expires ON payment_sessions(expires_at) WHERE status = 'PENDING';
+
+-- Backfill from existing item snapshots (one row per session and schedule)
+INSERT INTO payment_session_items (session_id, schedule_id, num_participants)
+SELECT ps.id,
+       (item->>'scheduleId')::uuid,
+       SUM((item->>'numParticipants')::int)
+FROM payment_sessions ps
+CROSS JOIN LATERAL jsonb_array_elements(ps.items) AS item
+WHERE item->>'scheduleId' IS NOT NULL
+GROUP BY ps.id, (item->>'scheduleId')::uuid;
@@ -0,0 +1,17 @@
+-- V19: Denormalized confirmed-seat counter on tour_schedules
+-- Booking creation claims seats with one conditional UPDATE
+-- (reserved_seats + n <= max_participants) instead of a PESSIMISTIC_WRITE lock plus recounts.
+ALTER TABLE tour_schedules ADD COLUMN reserved_seats INT NOT NULL DEFAULT 0;
+ALTER TABLE tour_schedules ADD CONSTRAINT chk_tour_schedules_reserved_seats CHECK (reserved_seats >= 0);
+
+-- Backfill from confirmed bookings (one participant = one seat)
+UPDATE tour_schedules s
+SET reserved_seats = counts.participants
+FROM (
+    SELECT b.schedule_id, COUNT(p.id) AS participants
+    FROM bookings b
+    JOIN participants p ON p.booking_id = b.id
+    WHERE b.status = 'CONFIRMED'
+    GROUP BY b.schedule_id
+) counts
+WHERE counts.schedule_id = s.id;
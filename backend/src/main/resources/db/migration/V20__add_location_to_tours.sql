@@ -0,0 +1,9 @@
+-- V20: Optional site coordinates per tour
+-- Weather checks (wind/clouds) use the tour's own location when set,
+-- falling back to the business default (weather.api.lat/lon) when null.
+ALTER TABLE tours ADD COLUMN latitude DOUBLE PRECISION;
+ALTER TABLE tours ADD COLUMN longitude DOUBLE PRECISION;
+ALTER TABLE tours ADD CONSTRAINT chk_tours_location CHECK (
+    (latitude IS NULL AND longitude IS NULL)
+    OR (latitude BETWEEN -90 AND 90 AND longitude BETWEEN -180 AND 180)
+);
@@ -0,0 +1,5 @@
+-- V21: Per-tour schedule generation watermark
+-- The nightly generator only examines days after schedules_generated_through (plus the near
+-- weather window). NULL = regenerate the full 90-day window, set when the recurrence rule,
+-- start time or sensitivity flags change.
+ALTER TABLE tours ADD COLUMN schedules_generated_through DATE;
@@ -0,0 +1,22 @@
+-- V22: Durable inbox for payment provider webhooks
+-- Verified notifications are appended here and acknowledged at once; WebhookInboxProcessor
+-- confirms the payment session in the background. One entry is processed at a time per
+-- external_id (provider payment ID), oldest first; failures retry with exponential backoff.
+CREATE TABLE webhook_inbox (
+    id UUID PRIMARY KEY,
+    provider VARCHAR(20) NOT NULL,
+    request_id VARCHAR(255),
+    external_id VARCHAR(255) NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    last_error TEXT,
+    received_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    processed_at TIMESTAMP WITH TIME ZONE,
+    -- Provider retries of the same notification (NULL request IDs never conflict)
+    CONSTRAINT uq_webhook_inbox_request UNIQUE (provider, request_id)
+);
+
+-- Pending heads per external_id, in arrival order
+CREATE INDEX idx_webhook_inbox_pending ON webhook_inbox(external_id, received_at) WHERE status = 'PENDING';
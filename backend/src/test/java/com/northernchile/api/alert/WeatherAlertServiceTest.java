@@ -0,0 +1,159 @@
+package com.northernchile.api.alert;
+
+import com.northernchile.api.booking.ScheduleCancellationService;
+import com.northernchile.api.model.Tour;
+import com.northernchile.api.model.TourSchedule;
+import com.northernchile.api.model.TourScheduleStatus;
+import com.northernchile.api.model.WeatherAlert;
+import com.northernchile.api.model.WeatherAlertStatus;
+import com.northernchile.api.tour.TourScheduleRepository;
+import com.northernchile.api.util.DateTimeUtils;
+import com.northernchile.api.weather.WeatherRisk;
+import com.northernchile.api.weather.WeatherRiskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("WeatherAlertService Tests")
+class WeatherAlertServiceTest {
+
+    private static final LocalDate TOMORROW = LocalDate.now(DateTimeUtils.CHILE_ZONE).plusDays(1);
+
+    @Mock
+    private TourScheduleRepository scheduleRepository;
+
+    @Mock
+    private WeatherAlertRepository alertRepository;
+
+    @Mock
+    private WeatherRiskService weatherRiskService;
+
+    @Mock
+    private ScheduleCancellationService scheduleCancellationService;
+
+    @InjectMocks
+    private WeatherAlertService weatherAlertService;
+
+    private Tour tour;
+
+    @BeforeEach
+    void setUp() {
+        tour = new Tour();
+        tour.setId(UUID.randomUUID());
+        tour.setWindSensitive(true);
+        when(alertRepository.findScheduleIdsWithStatus(anyCollection(), eq(WeatherAlertStatus.PENDING)))
+                .thenReturn(List.of());
+    }
+
+    @Nested
+    @DisplayName("Batch Evaluation Tests")
+    class BatchEvaluationTests {
+
+        @Test
+        @DisplayName("Should evaluate risk once per tour and date and save all alerts in one batch")
+        void shouldEvaluateOncePerTourAndDate() {
+            // Given - two schedules of the same tour on the same day, one on the next day
+            TourSchedule early = schedule(TOMORROW, LocalTime.of(19, 0));
+            TourSchedule late = schedule(TOMORROW, LocalTime.of(22, 0));
+            TourSchedule nextDay = schedule(TOMORROW.plusDays(1), LocalTime.of(20, 0));
+            givenSchedules(early, late, nextDay);
+            when(weatherRiskService.riskFor(any())).thenReturn(windy());
+
+            // When
+            weatherAlertService.checkWeatherAlertsAutomatically();
+
+            // Then
+            verify(weatherRiskService, times(2)).riskFor(any());
+            List<WeatherAlert> saved = capturedAlerts();
+            assertThat(saved).extracting(WeatherAlert::getTourSchedule).containsExactly(early, late, nextDay);
+            assertThat(saved).allMatch(alert -> "WIND".equals(alert.getAlertType()));
+            verify(alertRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Should skip schedules with a pending alert and cancelled schedules")
+        void shouldSkipPendingAndCancelled() {
+            // Given
+            TourSchedule pending = schedule(TOMORROW, LocalTime.of(20, 0));
+            TourSchedule cancelled = schedule(TOMORROW.plusDays(1), LocalTime.of(20, 0));
+            cancelled.setStatus(TourScheduleStatus.CANCELLED);
+            TourSchedule fresh = schedule(TOMORROW.plusDays(2), LocalTime.of(20, 0));
+            givenSchedules(pending, cancelled, fresh);
+            when(alertRepository.findScheduleIdsWithStatus(anyCollection(), eq(WeatherAlertStatus.PENDING)))
+                    .thenReturn(List.of(pending.getId()));
+            when(weatherRiskService.riskFor(any())).thenReturn(windy());
+
+            // When
+            weatherAlertService.checkWeatherAlertsAutomatically();
+
+            // Then
+            verify(weatherRiskService, times(1)).riskFor(fresh);
+            assertThat(capturedAlerts()).extracting(WeatherAlert::getTourSchedule).containsExactly(fresh);
+        }
+
+        @Test
+        @DisplayName("Should not write anything when the weather is fine")
+        void shouldNotSaveWithoutRisk() {
+            // Given
+            givenSchedules(schedule(TOMORROW, LocalTime.of(20, 0)));
+            when(weatherRiskService.riskFor(any())).thenReturn(risk(false));
+
+            // When
+            weatherAlertService.checkWeatherAlertsAutomatically();
+
+            // Then
+            verify(alertRepository, never()).saveAll(any());
+        }
+    }
+
+    private TourSchedule schedule(LocalDate date, LocalTime time) {
+        TourSchedule schedule = new TourSchedule();
+        schedule.setId(UUID.randomUUID());
+        schedule.setTour(tour);
+        schedule.setStatus(TourScheduleStatus.OPEN);
+        schedule.setStartDatetime(date.atTime(time).atZone(DateTimeUtils.CHILE_ZONE).toInstant());
+        return schedule;
+    }
+
+    private void givenSchedules(TourSchedule... schedules) {
+        when(scheduleRepository.findByStartDatetimeBetweenWithTour(any(), any())).thenReturn(List.of(schedules));
+    }
+
+    private List<WeatherAlert> capturedAlerts() {
+        ArgumentCaptor<List<WeatherAlert>> captor = ArgumentCaptor.captor();
+        verify(alertRepository).saveAll(captor.capture());
+        return captor.getValue();
+    }
+
+    private static WeatherRisk windy() {
+        return risk(true);
+    }
+
+    private static WeatherRisk risk(boolean wind) {
+        return new WeatherRisk(TOMORROW, true, wind ? 15.0 : 3.0, 10, 0.0, 20, 0.1, wind, false, false, false, false);
+    }
+}
@@ -0,0 +1,150 @@
+package com.northernchile.api.availability;
+
+import com.northernchile.api.availability.event.SeatCountsChangedEvent;
+import com.northernchile.api.tour.TourScheduleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AvailabilityStreamService Tests")
+class AvailabilityStreamServiceTest {
+
+    @Mock
+    private TourScheduleRepository tourScheduleRepository;
+
+    @Mock
+    private SeatLedger seatLedger;
+
+    @InjectMocks
+    private AvailabilityStreamService availabilityStreamService;
+
+    @AfterEach
+    void tearDown() {
+        availabilityStreamService.shutdown();
+    }
+
+    @Nested
+    @DisplayName("Subscribe Tests")
+    class SubscribeTests {
+
+        @Test
+        @DisplayName("Should reject streams without tours or with too many tours")
+        void shouldValidateTourIds() {
+            List<UUID> tooMany = IntStream.rangeClosed(0, AvailabilityStreamService.MAX_TOURS_PER_CONNECTION)
+                    .mapToObj(i -> UUID.randomUUID()).toList();
+
+            assertThatThrownBy(() -> availabilityStreamService.subscribe(List.of()))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> availabilityStreamService.subscribe(tooMany))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("Should refuse new streams once the connection limit is reached")
+        void shouldCapConnections() {
+            // Given
+            for (int i = 0; i < AvailabilityStreamService.MAX_CONNECTIONS; i++) {
+                assertThat(availabilityStreamService.subscribe(List.of(UUID.randomUUID()))).isPresent();
+            }
+
+            // When/Then
+            assertThat(availabilityStreamService.subscribe(List.of(UUID.randomUUID()))).isEmpty();
+            assertThat(availabilityStreamService.openConnections()).isEqualTo(AvailabilityStreamService.MAX_CONNECTIONS);
+        }
+    }
+
+    @Nested
+    @DisplayName("Flush Tests")
+    class FlushTests {
+
+        @Test
+        @DisplayName("Should coalesce repeated changes into one lookup per flush")
+        void shouldCoalesceChanges() {
+            // Given
+            UUID tourId = UUID.randomUUID();
+            UUID scheduleId = UUID.randomUUID();
+            availabilityStreamService.subscribe(List.of(tourId));
+            when(tourScheduleRepository.findCapacitiesByIdsAndTourIds(anyCollection(), anyCollection()))
+                    .thenReturn(List.<Object[]>of(new Object[]{scheduleId, tourId, 10}));
+            when(seatLedger.getReservationCounts(anyCollection()))
+                    .thenReturn(Map.of(scheduleId, new AvailabilityValidator.ReservationCounts(4, 1, 0)));
+
+            // When
+            availabilityStreamService.onSeatCountsChanged(new SeatCountsChangedEvent(Set.of(scheduleId)));
+            availabilityStreamService.onSeatCountsChanged(new SeatCountsChangedEvent(Set.of(scheduleId)));
+            availabilityStreamService.onSeatCountsChanged(new SeatCountsChangedEvent(Set.of(scheduleId)));
+            availabilityStreamService.flush();
+            availabilityStreamService.flush();
+
+            // Then
+            verify(tourScheduleRepository, times(1)).findCapacitiesByIdsAndTourIds(
+                    argThat((Collection<UUID> ids) -> ids.size() == 1 && ids.contains(scheduleId)),
+                    argThat((Collection<UUID> tours) -> tours.equals(Set.of(tourId))));
+            verify(seatLedger, times(1)).getReservationCounts(List.of(scheduleId));
+        }
+
+        @Test
+        @DisplayName("Should keep changes for the next flush while a fan-out is still sending")
+        void shouldDeferChangesWhileSending() {
+            // Given - the sender thread is busy with a slow client
+            UUID tourId = UUID.randomUUID();
+            UUID scheduleId = UUID.randomUUID();
+            availabilityStreamService.subscribe(List.of(tourId));
+            AtomicBoolean sending = (AtomicBoolean) ReflectionTestUtils.getField(availabilityStreamService, "sending");
+            sending.set(true);
+            availabilityStreamService.onSeatCountsChanged(new SeatCountsChangedEvent(Set.of(scheduleId)));
+
+            // When
+            availabilityStreamService.flush();
+
+            // Then - nothing loaded yet
+            verifyNoInteractions(tourScheduleRepository, seatLedger);
+
+            // When - the sender is free again
+            sending.set(false);
+            when(tourScheduleRepository.findCapacitiesByIdsAndTourIds(anyCollection(), anyCollection()))
+                    .thenReturn(List.<Object[]>of(new Object[]{scheduleId, tourId, 10}));
+            when(seatLedger.getReservationCounts(anyCollection()))
+                    .thenReturn(Map.of(scheduleId, new AvailabilityValidator.ReservationCounts(4, 1, 0)));
+            availabilityStreamService.flush();
+
+            // Then
+            verify(seatLedger).getReservationCounts(List.of(scheduleId));
+        }
+
+        @Test
+        @DisplayName("Should not track changes while nobody is subscribed")
+        void shouldIgnoreChangesWithoutSubscribers() {
+            // When
+            availabilityStreamService.onSeatCountsChanged(new SeatCountsChangedEvent(Set.of(UUID.randomUUID())));
+            availabilityStreamService.flush();
+
+            // Then
+            verifyNoInteractions(tourScheduleRepository, seatLedger);
+        }
+    }
+}
@@ -4,7 +4,9 @@ import com.northernchile.api.booking.BookingRepository;
 import com.northernchile.api.cart.CartRepository;
 import com.northernchile.api.model.Tour;
 import com.northernchile.api.model.TourSchedule;
+import com.northernchile.api.payment.model.PaymentSessionItem;
 import com.northernchile.api.payment.repository.PaymentSessionRepository;
+import com.northernchile.api.tour.TourScheduleRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -14,11 +16,19 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,6 +44,9 @@ class AvailabilityValidatorTest {
     @Mock
     private PaymentSessionRepository paymentSessionRepository;
 
+    @Mock
+    private TourScheduleRepository tourScheduleRepository;
+
     @InjectMocks
     private AvailabilityValidator availabilityValidator;
 
@@ -46,7 +59,7 @@ class AvailabilityValidatorTest {
         scheduleId = UUID.randomUUID();
         schedule = createMockSchedule(scheduleId, MAX_PARTICIPANTS);
         // Default: no pending payment sessions
-        when(paymentSessionRepository.countReservedSlotsByScheduleId(eq(scheduleId), any(Instant.class))).thenReturn(0);
+        lenient().when(paymentSessionRepository.countReservedSlotsByScheduleId(eq(scheduleId), any(Instant.class))).thenReturn(0);
     }
 
     @Test
@@ -306,6 +319,91 @@ class AvailabilityValidatorTest {
         assertThat(result.errorMessage()).isNull();
     }
 
+    @Test
+    @DisplayName("Should resolve availability for many schedules with one grouped query")
+    void shouldResolveAvailabilityForManySchedulesInOneQuery() {
+        // Given
+        UUID otherScheduleId = UUID.randomUUID();
+        TourSchedule otherSchedule = createMockSchedule(otherScheduleId, 8);
+        when(tourScheduleRepository.countReservationsByScheduleIds(anyCollection(), any(Instant.class)))
+                .thenReturn(List.<Object[]>of(
+                        new Object[]{scheduleId, 4L, 2L, 1L},
+                        new Object[]{otherScheduleId, 8L, 0L, 0L}
+                ));
+
+        // When
+        Map<UUID, AvailabilityValidator.AvailabilityStatus> statuses =
+                availabilityValidator.getAvailabilityStatuses(List.of(schedule, otherSchedule));
+
+        // Then
+        assertThat(statuses).hasSize(2);
+        assertThat(statuses.get(scheduleId).bookedParticipants()).isEqualTo(4);
+        assertThat(statuses.get(scheduleId).participantsInCarts()).isEqualTo(2);
+        assertThat(statuses.get(scheduleId).participantsInPaymentSessions()).isEqualTo(1);
+        assertThat(statuses.get(scheduleId).availableSlots()).isEqualTo(3); // 10 - 4 - 2 - 1 = 3
+        assertThat(statuses.get(otherScheduleId).availableSlots()).isEqualTo(0);
+        verify(tourScheduleRepository).countReservationsByScheduleIds(eq(Set.of(scheduleId, otherScheduleId)), any(Instant.class));
+        verify(bookingRepository, never()).countConfirmedParticipantsByScheduleId(any());
+    }
+
+    @Test
+    @DisplayName("Should report full capacity for schedules missing from batch result")
+    void shouldReportFullCapacityWhenScheduleHasNoReservations() {
+        // Given
+        when(tourScheduleRepository.countReservationsByScheduleIds(anyCollection(), any(Instant.class)))
+                .thenReturn(List.of());
+
+        // When
+        var statuses = availabilityValidator.getAvailabilityStatuses(List.of(schedule));
+
+        // Then
+        assertThat(statuses.get(scheduleId).bookedParticipants()).isEqualTo(0);
+        assertThat(statuses.get(scheduleId).availableSlots()).isEqualTo(MAX_PARTICIPANTS);
+    }
+
+    @Test
+    @DisplayName("Should skip the batch query when no schedules are given")
+    void shouldSkipBatchQueryForEmptyInput() {
+        // When
+        var statuses = availabilityValidator.getAvailabilityStatuses(List.of());
+
+        // Then
+        assertThat(statuses).isEmpty();
+        verifyNoInteractions(tourScheduleRepository);
+    }
+
+    @Test
+    @DisplayName("Should validate all checkout items with one grouped query, summing items per schedule")
+    void shouldValidateCheckoutItemsInOneQuery() {
+        // Given - two items for the same schedule (3 + 4) and one for another schedule
+        UUID otherScheduleId = UUID.randomUUID();
+        TourSchedule otherSchedule = createMockSchedule(otherScheduleId, 8);
+        when(tourScheduleRepository.countReservationsByScheduleIds(anyCollection(), any(Instant.class)))
+                .thenReturn(List.<Object[]>of(
+                        new Object[]{scheduleId, 2L, 5L, 1L},
+                        new Object[]{otherScheduleId, 6L, 0L, 0L}
+                ));
+
+        // When
+        var results = availabilityValidator.validateItems(
+                Map.of(scheduleId, schedule, otherScheduleId, otherSchedule),
+                List.of(createItem(scheduleId, 3), createItem(otherScheduleId, 3), createItem(scheduleId, 4)));
+
+        // Then - cart holds don't count: 10 - 2 booked - 1 in payment = 7 available for 7 requested
+        assertThat(results.get(scheduleId).available()).isTrue();
+        assertThat(results.get(scheduleId).requestedSlots()).isEqualTo(7);
+        assertThat(results.get(scheduleId).availableSlots()).isEqualTo(7);
+        assertThat(results.get(otherScheduleId).available()).isFalse();
+        assertThat(results.get(otherScheduleId).availableSlots()).isEqualTo(2);
+        assertThat(new java.util.ArrayList<>(results.keySet())).isSorted();
+        verify(tourScheduleRepository).countReservationsByScheduleIds(eq(Set.of(scheduleId, otherScheduleId)), any(Instant.class));
+        verifyNoInteractions(bookingRepository, paymentSessionRepository);
+    }
+
+    private PaymentSessionItem createItem(UUID scheduleId, int numParticipants) {
+        return new PaymentSessionItem(scheduleId, "Tour", null, numParticipants, null, null, null, List.of());
+    }
+
     // Helper method to create mock TourSchedule
     private TourSchedule createMockSchedule(UUID id, int maxParticipants) {
         TourSchedule schedule = new TourSchedule();
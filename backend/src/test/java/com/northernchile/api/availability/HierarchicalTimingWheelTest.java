@@ -0,0 +1,85 @@
+package com.northernchile.api.availability;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("HierarchicalTimingWheel Tests")
+class HierarchicalTimingWheelTest {
+
+    private static final long TICK = 1000;
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    @DisplayName("Should expire a key at its deadline and not before")
+    void shouldExpireAtDeadline() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, START);
+        wheel.schedule("cart", START + 5_000);
+
+        assertThat(wheel.advance(START + 4_999)).isEmpty();
+        assertThat(wheel.advance(START + 5_000)).containsExactly("cart");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should cascade long deadlines down through the levels")
+    void shouldCascadeLongDeadlines() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, START);
+        // 30 minutes (payment session), 1 hour (cart) and 3 days
+        wheel.schedule("session", START + 30 * 60_000L);
+        wheel.schedule("cart", START + 60 * 60_000L);
+        wheel.schedule("far", START + 3 * 24 * 3_600_000L);
+
+        List<String> expired = new ArrayList<>();
+        for (long now = START; now <= START + 3 * 24 * 3_600_000L; now += TICK) {
+            List<String> batch = wheel.advance(now);
+            if (!batch.isEmpty()) {
+                assertThat(now).isEqualTo(switch (batch.get(0)) {
+                    case "session" -> START + 30 * 60_000L;
+                    case "cart" -> START + 60 * 60_000L;
+                    default -> START + 3 * 24 * 3_600_000L;
+                });
+                expired.addAll(batch);
+            }
+        }
+
+        assertThat(expired).containsExactly("session", "cart", "far");
+    }
+
+    @Test
+    @DisplayName("Should expire overdue keys on the next advance")
+    void shouldExpireOverdueKeys() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, START);
+        wheel.schedule("stale", START - 60_000);
+
+        assertThat(wheel.advance(START)).containsExactly("stale");
+    }
+
+    @Test
+    @DisplayName("Should honour cancel and reschedule")
+    void shouldCancelAndReschedule() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, START);
+        wheel.schedule("released", START + 10_000);
+        wheel.schedule("extended", START + 10_000);
+
+        wheel.cancel("released");
+        wheel.schedule("extended", START + 20_000);
+
+        assertThat(wheel.advance(START + 10_000)).isEmpty();
+        assertThat(wheel.advance(START + 20_000)).containsExactly("extended");
+    }
+
+    @Test
+    @DisplayName("Should catch up after a long pause in one advance")
+    void shouldCatchUpAfterPause() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, START);
+        wheel.schedule("a", START + 90_000);
+        wheel.schedule("b", START + 2 * 3_600_000L);
+
+        assertThat(wheel.advance(START + 3 * 3_600_000L)).containsExactlyInAnyOrder("a", "b");
+    }
+}
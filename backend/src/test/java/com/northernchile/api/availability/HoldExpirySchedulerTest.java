@@ -0,0 +1,87 @@
+package com.northernchile.api.availability;
+
+import com.northernchile.api.availability.event.SeatHoldChangedEvent;
+import com.northernchile.api.cart.CartRepository;
+import com.northernchile.api.cart.CartService;
+import com.northernchile.api.payment.PaymentSessionService;
+import com.northernchile.api.payment.repository.PaymentSessionRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("HoldExpiryScheduler Tests")
+class HoldExpirySchedulerTest {
+
+    @Mock
+    private CartRepository cartRepository;
+
+    @Mock
+    private PaymentSessionRepository paymentSessionRepository;
+
+    @Mock
+    private CartService cartService;
+
+    @Mock
+    private PaymentSessionService paymentSessionService;
+
+    @InjectMocks
+    private HoldExpiryScheduler holdExpiryScheduler;
+
+    @Test
+    @DisplayName("Should expire overdue holds in one batch per source")
+    void shouldExpireOverdueHoldsInBatches() {
+        // Given
+        UUID cartId = UUID.randomUUID();
+        UUID sessionId = UUID.randomUUID();
+        Instant past = Instant.now().minusSeconds(5);
+        when(cartRepository.findHoldExpirations()).thenReturn(List.<Object[]>of(new Object[]{cartId, past}));
+        when(paymentSessionRepository.findPendingExpirations()).thenReturn(List.<Object[]>of(new Object[]{sessionId, past}));
+        when(cartService.expireCarts(anyCollection())).thenReturn(1);
+        when(paymentSessionService.expireSessions(anyCollection())).thenReturn(1);
+
+        // When
+        holdExpiryScheduler.rebuild();
+        holdExpiryScheduler.tick();
+
+        // Then
+        verify(cartService).expireCarts(List.of(cartId));
+        verify(paymentSessionService).expireSessions(List.of(sessionId));
+        assertThat(holdExpiryScheduler.pendingHolds()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not touch the database for holds that are still active or released")
+    void shouldIgnoreActiveAndReleasedHolds() {
+        // Given
+        UUID activeCart = UUID.randomUUID();
+        UUID releasedCart = UUID.randomUUID();
+        holdExpiryScheduler.onSeatHoldChanged(new SeatHoldChangedEvent(
+                activeCart, SeatHoldChangedEvent.Source.CART, Map.of(UUID.randomUUID(), 2), Instant.now().plusSeconds(3600)));
+        holdExpiryScheduler.onSeatHoldChanged(new SeatHoldChangedEvent(
+                releasedCart, SeatHoldChangedEvent.Source.CART, Map.of(UUID.randomUUID(), 2), Instant.now().minusSeconds(1)));
+        holdExpiryScheduler.onSeatHoldChanged(new SeatHoldChangedEvent(
+                releasedCart, SeatHoldChangedEvent.Source.CART, Map.of(), null));
+
+        // When
+        holdExpiryScheduler.tick();
+
+        // Then
+        verifyNoInteractions(cartService, paymentSessionService);
+        assertThat(holdExpiryScheduler.pendingHolds()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,143 @@
+package com.northernchile.api.availability;
+
+import com.northernchile.api.availability.event.SeatEventPublisher;
+import com.northernchile.api.exception.ScheduleFullException;
+import com.northernchile.api.model.Booking;
+import com.northernchile.api.model.BookingStatus;
+import com.northernchile.api.model.Participant;
+import com.northernchile.api.model.TourSchedule;
+import com.northernchile.api.tour.TourScheduleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ScheduleCapacityService Tests")
+class ScheduleCapacityServiceTest {
+
+    @Mock
+    private TourScheduleRepository tourScheduleRepository;
+
+    @Mock
+    private SeatEventPublisher seatEventPublisher;
+
+    @InjectMocks
+    private ScheduleCapacityService scheduleCapacityService;
+
+    private UUID scheduleId;
+
+    @BeforeEach
+    void setUp() {
+        scheduleId = UUID.randomUUID();
+    }
+
+    @Nested
+    @DisplayName("Reserve Seats Tests")
+    class ReserveSeatsTests {
+
+        @Test
+        @DisplayName("Should claim seats and publish the change when capacity allows")
+        void shouldClaimSeats() {
+            // Given
+            when(tourScheduleRepository.reserveSeats(scheduleId, 3)).thenReturn(1);
+
+            // When
+            boolean reserved = scheduleCapacityService.tryReserveSeats(scheduleId, 3);
+
+            // Then
+            assertThat(reserved).isTrue();
+            verify(seatEventPublisher).publishConfirmedSeatsChanged(scheduleId, 3);
+        }
+
+        @Test
+        @DisplayName("Should report full schedule when the conditional update matches no row")
+        void shouldReportFullSchedule() {
+            // Given
+            when(tourScheduleRepository.reserveSeats(scheduleId, 3)).thenReturn(0);
+
+            // When
+            boolean reserved = scheduleCapacityService.tryReserveSeats(scheduleId, 3);
+
+            // Then
+            assertThat(reserved).isFalse();
+            verify(seatEventPublisher, never()).publishConfirmedSeatsChanged(any(), anyInt());
+        }
+    }
+
+    @Nested
+    @DisplayName("Booking Status Change Tests")
+    class BookingStatusChangeTests {
+
+        @Test
+        @DisplayName("Should release seats when a confirmed booking is cancelled")
+        void shouldReleaseSeatsOnCancellation() {
+            // Given
+            Booking booking = createBooking(BookingStatus.CANCELLED, 2);
+
+            // When
+            scheduleCapacityService.onBookingStatusChanged(booking, BookingStatus.CONFIRMED);
+
+            // Then
+            verify(tourScheduleRepository).releaseSeats(scheduleId, 2);
+            verify(seatEventPublisher).publishConfirmedSeatsChanged(scheduleId, -2);
+        }
+
+        @Test
+        @DisplayName("Should reject confirming a booking that exceeds capacity")
+        void shouldRejectConfirmationWhenFull() {
+            // Given
+            Booking booking = createBooking(BookingStatus.CONFIRMED, 4);
+            when(tourScheduleRepository.reserveSeats(scheduleId, 4)).thenReturn(0);
+            when(tourScheduleRepository.findRemainingSeats(scheduleId)).thenReturn(Optional.of(1));
+
+            // When/Then
+            assertThatThrownBy(() -> scheduleCapacityService.onBookingStatusChanged(booking, BookingStatus.PENDING))
+                    .isInstanceOf(ScheduleFullException.class);
+        }
+
+        @Test
+        @DisplayName("Should not touch the counter for transitions that keep seats unconfirmed")
+        void shouldIgnoreNonConfirmedTransitions() {
+            // Given
+            Booking booking = createBooking(BookingStatus.CANCELLED, 2);
+
+            // When
+            scheduleCapacityService.onBookingStatusChanged(booking, BookingStatus.PENDING);
+
+            // Then
+            verifyNoInteractions(tourScheduleRepository, seatEventPublisher);
+        }
+    }
+
+    private Booking createBooking(BookingStatus status, int participants) {
+        TourSchedule schedule = new TourSchedule();
+        schedule.setId(scheduleId);
+
+        Booking booking = new Booking();
+        booking.setId(UUID.randomUUID());
+        booking.setSchedule(schedule);
+        booking.setStatus(status);
+        booking.setParticipants(new ArrayList<>(
+                IntStream.range(0, participants).mapToObj(i -> new Participant()).toList()));
+        return booking;
+    }
+}
@@ -0,0 +1,315 @@
+package com.northernchile.api.availability;
+
+import com.northernchile.api.availability.event.ConfirmedSeatsChangedEvent;
+import com.northernchile.api.availability.event.SeatEventPublisher;
+import com.northernchile.api.availability.event.SeatHoldChangedEvent;
+import com.northernchile.api.booking.BookingRepository;
+import com.northernchile.api.cart.CartRepository;
+import com.northernchile.api.model.TourSchedule;
+import com.northernchile.api.payment.repository.PaymentSessionRepository;
+import com.northernchile.api.tour.TourScheduleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SeatLedger Tests")
+class SeatLedgerTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private CartRepository cartRepository;
+
+    @Mock
+    private PaymentSessionRepository paymentSessionRepository;
+
+    @Mock
+    private TourScheduleRepository tourScheduleRepository;
+
+    @Mock
+    private SeatEventPublisher seatEventPublisher;
+
+    @InjectMocks
+    private SeatLedger seatLedger;
+
+    private TourSchedule schedule;
+    private UUID scheduleId;
+
+    @BeforeEach
+    void setUp() {
+        scheduleId = UUID.randomUUID();
+        schedule = new TourSchedule();
+        schedule.setId(scheduleId);
+        schedule.setMaxParticipants(10);
+    }
+
+    @Nested
+    @DisplayName("Confirmed Seat Tests")
+    class ConfirmedSeatTests {
+
+        @Test
+        @DisplayName("Should load confirmed seats once and then serve from memory")
+        void shouldLoadConfirmedSeatsOnce() {
+            // Given
+            when(bookingRepository.countConfirmedParticipantsByScheduleIds(anyCollection()))
+                    .thenReturn(List.<Object[]>of(new Object[]{scheduleId, 4L}));
+
+            // When
+            seatLedger.getReservationCounts(List.of(scheduleId));
+            var counts = seatLedger.getReservationCounts(List.of(scheduleId)).get(scheduleId);
+
+            // Then
+            assertThat(counts.bookedParticipants()).isEqualTo(4);
+            verify(bookingRepository, times(1)).countConfirmedParticipantsByScheduleIds(anyCollection());
+        }
+
+        @Test
+        @DisplayName("Should apply confirmed seat deltas to loaded schedules")
+        void shouldApplyConfirmedSeatDeltas() {
+            // Given
+            when(bookingRepository.countConfirmedParticipantsByScheduleIds(anyCollection()))
+                    .thenReturn(List.<Object[]>of(new Object[]{scheduleId, 4L}));
+            seatLedger.getReservationCounts(List.of(scheduleId));
+
+            // When
+            seatLedger.onConfirmedSeatsChanged(new ConfirmedSeatsChangedEvent(scheduleId, 3));
+            seatLedger.onConfirmedSeatsChanged(new ConfirmedSeatsChangedEvent(scheduleId, -2));
+
+            // Then
+            assertThat(seatLedger.getReservationCounts(List.of(scheduleId)).get(scheduleId).bookedParticipants())
+                    .isEqualTo(5);
+        }
+
+        @Test
+        @DisplayName("Should ignore deltas for schedules not loaded yet")
+        void shouldIgnoreDeltasForUnloadedSchedules() {
+            // Given - delta arrives before the schedule was ever read
+            seatLedger.onConfirmedSeatsChanged(new ConfirmedSeatsChangedEvent(scheduleId, 3));
+            when(bookingRepository.countConfirmedParticipantsByScheduleIds(anyCollection()))
+                    .thenReturn(List.<Object[]>of(new Object[]{scheduleId, 6L}));
+
+            // When
+            var counts = seatLedger.getReservationCounts(List.of(scheduleId)).get(scheduleId);
+
+            // Then - database value already includes the committed booking
+            assertThat(counts.bookedParticipants()).isEqualTo(6);
+        }
+
+        @Test
+        @DisplayName("Should not cache a lazy load that raced with a confirmed delta")
+        void shouldNotCacheLoadRacingWithDelta() {
+            // Given - a booking commits while the count query runs
+            when(bookingRepository.countConfirmedParticipantsByScheduleIds(anyCollection()))
+                    .thenAnswer(inv -> {
+                        seatLedger.onConfirmedSeatsChanged(new ConfirmedSeatsChangedEvent(scheduleId, 2));
+                        return List.<Object[]>of(new Object[]{scheduleId, 4L});
+                    })
+                    .thenReturn(List.<Object[]>of(new Object[]{scheduleId, 6L}));
+
+            // When
+            seatLedger.getReservationCounts(List.of(scheduleId));
+            var counts = seatLedger.getReservationCounts(List.of(scheduleId)).get(scheduleId);
+
+            // Then - the second read loads again and sees the committed booking
+            assertThat(counts.bookedParticipants()).isEqualTo(6);
+            verify(bookingRepository, times(2)).countConfirmedParticipantsByScheduleIds(anyCollection());
+        }
+    }
+
+    @Nested
+    @DisplayName("Hold Tests")
+    class HoldTests {
+
+        @BeforeEach
+        void setUp() {
+            when(bookingRepository.countConfirmedParticipantsByScheduleIds(anyCollection()))
+                    .thenReturn(List.<Object[]>of(new Object[]{scheduleId, 2L}));
+        }
+
+        @Test
+        @DisplayName("Should replace cart hold instead of adding to it")
+        void shouldReplaceCartHold() {
+            // Given
+            UUID cartId = UUID.randomUUID();
+            Instant expiresAt = Instant.now().plus(1, ChronoUnit.HOURS);
+
+            // When - same cart published twice with different quantities
+            seatLedger.onSeatHoldChanged(cartHold(cartId, 3, expiresAt));
+            seatLedger.onSeatHoldChanged(cartHold(cartId, 5, expiresAt));
+
+            // Then
+            var counts = seatLedger.getReservationCounts(List.of(scheduleId)).get(scheduleId);
+            assertThat(counts.participantsInCarts()).isEqualTo(5);
+            assertThat(counts.totalReserved()).isEqualTo(7);
+        }
+
+        @Test
+        @DisplayName("Should free seats when a payment session is released")
+        void shouldReleasePaymentSessionHold() {
+            // Given
+            UUID sessionId = UUID.randomUUID();
+            seatLedger.onSeatHoldChanged(new SeatHoldChangedEvent(
+                    sessionId, SeatHoldChangedEvent.Source.PAYMENT_SESSION,
+                    Map.of(scheduleId, 4), Instant.now().plus(30, ChronoUnit.MINUTES)));
+
+            // When
+            seatLedger.onSeatHoldChanged(new SeatHoldChangedEvent(
+                    sessionId, SeatHoldChangedEvent.Source.PAYMENT_SESSION, Map.of(), null));
+
+            // Then
+            assertThat(seatLedger.getReservationCounts(List.of(scheduleId)).get(scheduleId).participantsInPaymentSessions())
+                    .isZero();
+            verify(seatEventPublisher, times(2)).publishSeatCountsChanged(Set.of(scheduleId));
+        }
+
+        @Test
+        @DisplayName("Should exclude own cart hold when validating")
+        void shouldExcludeOwnCartHold() {
+            // Given - own cart holds 3, another cart holds 4, 2 confirmed
+            UUID ownCartId = UUID.randomUUID();
+            Instant expiresAt = Instant.now().plus(1, ChronoUnit.HOURS);
+            seatLedger.onSeatHoldChanged(cartHold(ownCartId, 3, expiresAt));
+            seatLedger.onSeatHoldChanged(cartHold(UUID.randomUUID(), 4, expiresAt));
+
+            // When - own cart wants 4 in total
+            var result = seatLedger.validateAvailability(schedule, 4, ownCartId);
+
+            // Then
+            assertThat(result.available()).isTrue();
+            assertThat(result.participantsInCarts()).isEqualTo(4);
+            assertThat(result.availableSlots()).isEqualTo(4);
+        }
+
+        @Test
+        @DisplayName("Should drop expired holds on purge")
+        void shouldPurgeExpiredHolds() {
+            // Given
+            seatLedger.onSeatHoldChanged(cartHold(UUID.randomUUID(), 3, Instant.now().minusSeconds(1)));
+            seatLedger.onSeatHoldChanged(cartHold(UUID.randomUUID(), 2, Instant.now().plus(1, ChronoUnit.HOURS)));
+
+            // When
+            seatLedger.purgeExpiredHolds();
+
+            // Then
+            assertThat(seatLedger.getReservationCounts(List.of(scheduleId)).get(scheduleId).participantsInCarts())
+                    .isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Should forget schedules once their last hold is released")
+        void shouldEvictEmptyHeldSeats() {
+            // Given
+            UUID cartId = UUID.randomUUID();
+            seatLedger.onSeatHoldChanged(cartHold(cartId, 2, Instant.now().plus(1, ChronoUnit.HOURS)));
+
+            // When
+            seatLedger.onSeatHoldChanged(new SeatHoldChangedEvent(cartId, SeatHoldChangedEvent.Source.CART, Map.of(), null));
+
+            // Then
+            @SuppressWarnings("unchecked")
+            Map<UUID, ?> heldSeats = (Map<UUID, ?>) ReflectionTestUtils.getField(seatLedger, "heldSeats");
+            assertThat(heldSeats).isEmpty();
+            assertThat(seatLedger.getReservationCounts(List.of(scheduleId)).get(scheduleId).participantsInCarts())
+                    .isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Reconciliation Tests")
+    class ReconciliationTests {
+
+        @Test
+        @DisplayName("Should repair drifted counts from the database")
+        void shouldRepairDrift() {
+            // Given - ledger believes 4 confirmed and a stale cart hold
+            when(bookingRepository.countConfirmedParticipantsByScheduleIds(anyCollection()))
+                    .thenReturn(List.<Object[]>of(new Object[]{scheduleId, 4L}))
+                    .thenReturn(List.<Object[]>of(new Object[]{scheduleId, 7L}));
+            seatLedger.getReservationCounts(List.of(scheduleId));
+            seatLedger.onSeatHoldChanged(cartHold(UUID.randomUUID(), 3, Instant.now().plus(1, ChronoUnit.HOURS)));
+
+            when(tourScheduleRepository.findIdsByStartDatetimeFrom(any())).thenReturn(List.of(scheduleId));
+            when(cartRepository.findActiveHolds(any())).thenReturn(List.of());
+            when(paymentSessionRepository.findActivePendingSessions(any())).thenReturn(List.of());
+
+            // When
+            seatLedger.reconcile();
+
+            // Then
+            var counts = seatLedger.getReservationCounts(List.of(scheduleId)).get(scheduleId);
+            assertThat(counts.bookedParticipants()).isEqualTo(7);
+            assertThat(counts.participantsInCarts()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should keep a delta applied while reconciliation was reading")
+        void shouldKeepDeltaDuringReconciliation() {
+            // Given - 4 confirmed; a booking of 3 commits while reconciliation reads the old 4
+            when(bookingRepository.countConfirmedParticipantsByScheduleIds(anyCollection()))
+                    .thenReturn(List.<Object[]>of(new Object[]{scheduleId, 4L}))
+                    .thenAnswer(inv -> {
+                        seatLedger.onConfirmedSeatsChanged(new ConfirmedSeatsChangedEvent(scheduleId, 3));
+                        return List.<Object[]>of(new Object[]{scheduleId, 4L});
+                    });
+            seatLedger.getReservationCounts(List.of(scheduleId));
+            when(tourScheduleRepository.findIdsByStartDatetimeFrom(any())).thenReturn(List.of(scheduleId));
+            when(cartRepository.findActiveHolds(any())).thenReturn(List.of());
+            when(paymentSessionRepository.findActivePendingSessions(any())).thenReturn(List.of());
+
+            // When
+            seatLedger.reconcile();
+
+            // Then
+            assertThat(seatLedger.getReservationCounts(List.of(scheduleId)).get(scheduleId).bookedParticipants())
+                    .isEqualTo(7);
+        }
+
+        @Test
+        @DisplayName("Should restore active holds on rebuild")
+        void shouldRestoreActiveHoldsOnRebuild() {
+            // Given
+            UUID cartId = UUID.randomUUID();
+            Instant expiresAt = Instant.now().plus(1, ChronoUnit.HOURS);
+            when(tourScheduleRepository.findIdsByStartDatetimeFrom(any())).thenReturn(List.of(scheduleId));
+            when(bookingRepository.countConfirmedParticipantsByScheduleIds(anyCollection())).thenReturn(List.of());
+            when(cartRepository.findActiveHolds(any()))
+                    .thenReturn(List.<Object[]>of(new Object[]{cartId, scheduleId, 2L, expiresAt}));
+            when(paymentSessionRepository.findActivePendingSessions(any())).thenReturn(List.of());
+
+            // When
+            seatLedger.rebuild();
+
+            // Then
+            var result = seatLedger.validateAvailability(schedule, 10, cartId);
+            assertThat(result.available()).isTrue();
+            assertThat(seatLedger.getReservationCounts(List.of(scheduleId)).get(scheduleId).participantsInCarts())
+                    .isEqualTo(2);
+        }
+    }
+
+    private SeatHoldChangedEvent cartHold(UUID cartId, int seats, Instant expiresAt) {
+        return new SeatHoldChangedEvent(cartId, SeatHoldChangedEvent.Source.CART, Map.of(scheduleId, seats), expiresAt);
+    }
+}
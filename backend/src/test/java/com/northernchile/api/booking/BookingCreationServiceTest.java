@@ -1,6 +1,6 @@
 package com.northernchile.api.booking;
 
-import com.northernchile.api.availability.AvailabilityValidator;
+import com.northernchile.api.availability.ScheduleCapacityService;
 import com.northernchile.api.booking.event.BookingEventPublisher;
 import com.northernchile.api.exception.ScheduleFullException;
 import com.northernchile.api.model.Booking;
@@ -17,6 +17,7 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
@@ -25,12 +26,12 @@ import org.mockito.quality.Strictness;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -46,7 +47,7 @@ class BookingCreationServiceTest {
     private BookingRepository bookingRepository;
 
     @Mock
-    private AvailabilityValidator availabilityValidator;
+    private ScheduleCapacityService scheduleCapacityService;
 
     @Mock
     private PricingService pricingService;
@@ -67,7 +68,7 @@ class BookingCreationServiceTest {
         bookingCreationService = new BookingCreationServiceImpl(
                 scheduleRepository,
                 bookingRepository,
-                availabilityValidator,
+                scheduleCapacityService,
                 pricingService,
                 savedParticipantService,
                 eventPublisher
@@ -147,22 +148,6 @@ class BookingCreationServiceTest {
         return session;
     }
 
-    /**
-     * Helper method to create a mock AvailabilityResult
-     */
-    private AvailabilityValidator.AvailabilityResult createAvailabilityResult(
-            boolean available, int availableSlots) {
-        return new AvailabilityValidator.AvailabilityResult(
-                available,
-                10,              // maxParticipants
-                5,               // bookedParticipants
-                2,               // participantsInCarts
-                0,               // participantsInPaymentSessions
-                availableSlots,  // availableSlots
-                1                // requestedSlots
-        );
-    }
-
     @Nested
     @DisplayName("Happy Path Tests")
     class HappyPathTests {
@@ -175,11 +160,10 @@ class BookingCreationServiceTest {
             PaymentSessionItem item = createSessionItem(scheduleId, 1);
             PaymentSession session = createTestSession(List.of(item));
 
-            when(scheduleRepository.findByIdWithLock(scheduleId))
-                    .thenReturn(Optional.of(testSchedule));
+            when(scheduleRepository.findAllById(any()))
+                    .thenReturn(List.of(testSchedule));
 
-            when(availabilityValidator.validateAvailability(any(), eq(1), any(), any()))
-                    .thenReturn(createAvailabilityResult(true, 3));
+            when(scheduleCapacityService.tryReserveSeats(any(), eq(1))).thenReturn(true);
 
             when(pricingService.calculateFromTaxInclusiveAmount(any()))
                     .thenReturn(new PricingService.PricingResult(
@@ -200,6 +184,7 @@ class BookingCreationServiceTest {
             assertThat(bookingIds).hasSize(1);
             verify(bookingRepository).saveAndFlush(any(Booking.class));
             verify(eventPublisher).publishBookingCreated(savedBooking.getId());
+            verify(scheduleCapacityService).tryReserveSeats(scheduleId, 1);
         }
 
         @Test
@@ -221,11 +206,9 @@ class BookingCreationServiceTest {
             PaymentSessionItem item2 = createSessionItem(scheduleId2, 1);
             PaymentSession session = createTestSession(List.of(item1, item2));
 
-            when(scheduleRepository.findByIdWithLock(scheduleId1)).thenReturn(Optional.of(schedule1));
-            when(scheduleRepository.findByIdWithLock(scheduleId2)).thenReturn(Optional.of(schedule2));
+            when(scheduleRepository.findAllById(any())).thenReturn(List.of(schedule1, schedule2));
 
-            when(availabilityValidator.validateAvailability(any(), eq(1), any(), any()))
-                    .thenReturn(createAvailabilityResult(true, 3));
+            when(scheduleCapacityService.tryReserveSeats(any(), eq(1))).thenReturn(true);
 
             when(pricingService.calculateFromTaxInclusiveAmount(any()))
                     .thenReturn(new PricingService.PricingResult(
@@ -266,12 +249,12 @@ class BookingCreationServiceTest {
             PaymentSessionItem item = createSessionItem(scheduleId, 5);
             PaymentSession session = createTestSession(List.of(item));
 
-            when(scheduleRepository.findByIdWithLock(scheduleId))
-                    .thenReturn(Optional.of(testSchedule));
+            when(scheduleRepository.findAllById(any()))
+                    .thenReturn(List.of(testSchedule));
 
             // Only 3 slots available, but 5 requested
-            when(availabilityValidator.validateAvailability(any(), eq(5), any(), any()))
-                    .thenReturn(createAvailabilityResult(false, 3));
+            when(scheduleCapacityService.tryReserveSeats(scheduleId, 5)).thenReturn(false);
+            when(scheduleCapacityService.getRemainingSeats(scheduleId)).thenReturn(3);
 
             // When/Then
             assertThatThrownBy(() ->
@@ -291,8 +274,8 @@ class BookingCreationServiceTest {
             PaymentSessionItem item = createSessionItem(nonExistentScheduleId, 1);
             PaymentSession session = createTestSession(List.of(item));
 
-            when(scheduleRepository.findByIdWithLock(nonExistentScheduleId))
-                    .thenReturn(Optional.empty());
+            when(scheduleRepository.findAllById(any()))
+                    .thenReturn(List.of());
 
             // When/Then
             assertThatThrownBy(() ->
@@ -302,6 +285,105 @@ class BookingCreationServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Seat Claim Ordering Tests")
+    class SeatClaimOrderingTests {
+
+        @Test
+        @DisplayName("Should claim seats in ascending schedule ID order regardless of item order")
+        void shouldClaimSeatsInScheduleIdOrder() {
+            // Given - items listed in descending schedule ID order
+            UUID lowId = new UUID(0, 1);
+            UUID highId = new UUID(0, 2);
+            TourSchedule low = new TourSchedule();
+            low.setId(lowId);
+            TourSchedule high = new TourSchedule();
+            high.setId(highId);
+
+            PaymentSession session = createTestSession(List.of(
+                    createSessionItem(highId, 2),
+                    createSessionItem(lowId, 1)));
+
+            when(scheduleRepository.findAllById(any())).thenReturn(List.of(high, low));
+            when(scheduleCapacityService.tryReserveSeats(any(), anyInt())).thenReturn(true);
+            when(pricingService.calculateFromTaxInclusiveAmount(any()))
+                    .thenReturn(new PricingService.PricingResult(
+                            new BigDecimal("42016.81"),
+                            new BigDecimal("7983.19"),
+                            new BigDecimal("50000"),
+                            new BigDecimal("0.19")
+                    ));
+            when(bookingRepository.saveAndFlush(any())).thenAnswer(inv -> {
+                Booking booking = inv.getArgument(0);
+                booking.setId(UUID.randomUUID());
+                return booking;
+            });
+
+            // When
+            bookingCreationService.createBookingsFromPaymentSession(session, testUser);
+
+            // Then - locks in ID order, bookings in item order
+            InOrder inOrder = inOrder(scheduleCapacityService, bookingRepository);
+            inOrder.verify(scheduleCapacityService).tryReserveSeats(lowId, 1);
+            inOrder.verify(scheduleCapacityService).tryReserveSeats(highId, 2);
+            ArgumentCaptor<Booking> bookings = ArgumentCaptor.forClass(Booking.class);
+            inOrder.verify(bookingRepository, times(2)).saveAndFlush(bookings.capture());
+            assertThat(bookings.getAllValues()).extracting(b -> b.getSchedule().getId())
+                    .containsExactly(highId, lowId);
+        }
+
+        @Test
+        @DisplayName("Should claim seats once per schedule when items share a schedule")
+        void shouldClaimSummedSeatsPerSchedule() {
+            // Given
+            UUID scheduleId = testSchedule.getId();
+            PaymentSession session = createTestSession(List.of(
+                    createSessionItem(scheduleId, 2),
+                    createSessionItem(scheduleId, 3)));
+
+            when(scheduleRepository.findAllById(any())).thenReturn(List.of(testSchedule));
+            when(scheduleCapacityService.tryReserveSeats(scheduleId, 5)).thenReturn(false);
+            when(scheduleCapacityService.getRemainingSeats(scheduleId)).thenReturn(4);
+
+            // When/Then
+            assertThatThrownBy(() ->
+                    bookingCreationService.createBookingsFromPaymentSession(session, testUser))
+                    .isInstanceOf(ScheduleFullException.class)
+                    .hasMessageContaining("Solicitados: 5");
+
+            verify(scheduleCapacityService, times(1)).tryReserveSeats(any(), anyInt());
+            verify(bookingRepository, never()).saveAndFlush(any());
+        }
+
+        @Test
+        @DisplayName("Should write no booking when a later schedule is full")
+        void shouldWriteNoBookingWhenLaterScheduleFull() {
+            // Given
+            UUID lowId = new UUID(0, 1);
+            UUID highId = new UUID(0, 2);
+            TourSchedule low = new TourSchedule();
+            low.setId(lowId);
+            TourSchedule high = new TourSchedule();
+            high.setId(highId);
+
+            PaymentSession session = createTestSession(List.of(
+                    createSessionItem(lowId, 1),
+                    createSessionItem(highId, 1)));
+
+            when(scheduleRepository.findAllById(any())).thenReturn(List.of(low, high));
+            when(scheduleCapacityService.tryReserveSeats(lowId, 1)).thenReturn(true);
+            when(scheduleCapacityService.tryReserveSeats(highId, 1)).thenReturn(false);
+
+            // When/Then - the transaction rolls back the first claim
+            assertThatThrownBy(() ->
+                    bookingCreationService.createBookingsFromPaymentSession(session, testUser))
+                    .isInstanceOf(ScheduleFullException.class);
+
+            verify(bookingRepository, never()).saveAndFlush(any());
+            verify(eventPublisher, never()).publishBookingCreated(any());
+        }
+    }
+
     @Nested
     @DisplayName("Event Publishing Tests")
     class EventPublishingTests {
@@ -316,11 +398,10 @@ class BookingCreationServiceTest {
             PaymentSessionItem item = createSessionItem(scheduleId, 1);
             PaymentSession session = createTestSession(List.of(item));
 
-            when(scheduleRepository.findByIdWithLock(scheduleId))
-                    .thenReturn(Optional.of(testSchedule));
+            when(scheduleRepository.findAllById(any()))
+                    .thenReturn(List.of(testSchedule));
 
-            when(availabilityValidator.validateAvailability(any(), eq(1), any(), any()))
-                    .thenReturn(createAvailabilityResult(true, 3));
+            when(scheduleCapacityService.tryReserveSeats(any(), eq(1))).thenReturn(true);
 
             when(pricingService.calculateFromTaxInclusiveAmount(any()))
                     .thenReturn(new PricingService.PricingResult(
@@ -1,6 +1,7 @@
 package com.northernchile.api.booking;
 
 import com.northernchile.api.audit.AuditLogService;
+import com.northernchile.api.availability.ScheduleCapacityService;
 import com.northernchile.api.booking.dto.BookingRes;
 import com.northernchile.api.config.NotificationConfig;
 import com.northernchile.api.exception.InvalidBookingStateException;
@@ -60,6 +61,9 @@ class BookingServiceTest {
     @Mock
     private NotificationConfig notificationConfig;
 
+    @Mock
+    private ScheduleCapacityService scheduleCapacityService;
+
     private BookingService bookingService;
 
     private User testUser;
@@ -77,7 +81,8 @@ class BookingServiceTest {
                 emailService,
                 auditLogService,
                 bookingMapper,
-                notificationConfig
+                notificationConfig,
+                scheduleCapacityService
         );
 
         // Set up test user using constructor
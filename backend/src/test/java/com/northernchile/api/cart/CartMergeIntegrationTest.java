@@ -0,0 +1,183 @@
+package com.northernchile.api.cart;
+
+import com.northernchile.api.cart.dto.CartItemRes;
+import com.northernchile.api.cart.dto.CartRes;
+import com.northernchile.api.model.Cart;
+import com.northernchile.api.model.CartItem;
+import com.northernchile.api.model.CartStatus;
+import com.northernchile.api.model.Tour;
+import com.northernchile.api.model.TourSchedule;
+import com.northernchile.api.model.TourScheduleStatus;
+import com.northernchile.api.model.TourStatus;
+import com.northernchile.api.model.User;
+import com.northernchile.api.notification.EmailService;
+import com.northernchile.api.security.Role;
+import com.northernchile.api.tour.TourRepository;
+import com.northernchile.api.tour.TourScheduleRepository;
+import com.northernchile.api.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Cart merge at login against a real PostgreSQL, with open-in-view disabled as in production:
+ * the merged cart must be convertible to a CartRes after CartService.getCart's transaction has ended,
+ * the way CartController uses it.
+ *
+ * Not part of the regular test run; like CheckoutContentionHarness it only runs when
+ * contention.datasource.url is set. Flyway migrates the database, and the tours, schedules, users
+ * and carts the test creates are deleted afterwards.
+ *
+ *   ./mvnw test -Dtest=CartMergeIntegrationTest \
+ *       -Dcontention.datasource.url=jdbc:postgresql://localhost:5432/northernchile_contention \
+ *       -Dcontention.datasource.username=postgres -Dcontention.datasource.password=postgres
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "contention.datasource.url", matches = ".+")
+@DisplayName("Cart Merge Integration Tests")
+class CartMergeIntegrationTest {
+
+    @DynamicPropertySource
+    static void integrationDatabase(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getProperty("contention.datasource.url"));
+        registry.add("spring.datasource.username", () -> System.getProperty("contention.datasource.username", "postgres"));
+        registry.add("spring.datasource.password", () -> System.getProperty("contention.datasource.password", "postgres"));
+        registry.add("aws.accessKeyId", () -> "integration");
+        registry.add("aws.secretAccessKey", () -> "integration");
+    }
+
+    @MockitoBean
+    private EmailService emailService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TourRepository tourRepository;
+
+    @Autowired
+    private TourScheduleRepository tourScheduleRepository;
+
+    // Rows created by the test, deleted in reverse dependency order
+    private final List<UUID> cartIds = new ArrayList<>();
+    private final List<UUID> scheduleIds = new ArrayList<>();
+    private final List<UUID> tourIds = new ArrayList<>();
+    private final List<UUID> userIds = new ArrayList<>();
+
+    @AfterEach
+    void deleteCreatedRows() {
+        cartRepository.deleteAllById(cartIds); // the merged guest cart is already gone; missing ids are skipped
+        tourScheduleRepository.deleteAllById(scheduleIds);
+        tourRepository.deleteAllById(tourIds);
+        userRepository.deleteAllById(userIds);
+    }
+
+    @Test
+    @DisplayName("Should build the response of a merged cart outside the loading transaction")
+    void shouldRenderMergedCartAfterTransaction() {
+        // Given - the user's cart holds schedule A; the guest cart holds A (merged) and B (moved)
+        TourSchedule scheduleA = createSchedule("A");
+        TourSchedule scheduleB = createSchedule("B");
+        User user = saveUser(newUser("buyer", Role.CLIENT));
+        saveCart(cart(user, Map.of(scheduleA, 1)));
+        Cart guestCart = saveCart(cart(null, Map.of(scheduleA, 2, scheduleB, 3)));
+
+        // When - login with the guest cookie, then render as CartController does
+        Cart merged = cartService.getCart(Optional.of(user), Optional.of(guestCart.getId()));
+        CartRes response = cartService.toCartRes(merged);
+
+        // Then
+        assertThat(response.items())
+                .extracting(CartItemRes::scheduleId, CartItemRes::numParticipants, CartItemRes::tourName)
+                .containsExactlyInAnyOrder(
+                        tuple(scheduleA.getId(), 3, "Merge A"),
+                        tuple(scheduleB.getId(), 3, "Merge B"));
+        assertThat(cartRepository.findById(guestCart.getId())).isEmpty();
+    }
+
+    private Cart saveCart(Cart cart) {
+        Cart saved = cartRepository.save(cart);
+        cartIds.add(saved.getId());
+        return saved;
+    }
+
+    private User saveUser(User user) {
+        User saved = userRepository.save(user);
+        userIds.add(saved.getId());
+        return saved;
+    }
+
+    private Cart cart(User user, Map<TourSchedule, Integer> participants) {
+        Cart cart = new Cart();
+        cart.setUser(user);
+        cart.setStatus(CartStatus.ACTIVE);
+        cart.setExpiresAt(Instant.now().plus(1, ChronoUnit.HOURS));
+        cart.setItems(new ArrayList<>());
+        participants.forEach((schedule, count) -> {
+            CartItem item = new CartItem();
+            item.setCart(cart);
+            item.setSchedule(schedule);
+            item.setNumParticipants(count);
+            cart.getItems().add(item);
+        });
+        return cart;
+    }
+
+    private TourSchedule createSchedule(String name) {
+        User owner = saveUser(newUser("owner", Role.SUPER_ADMIN));
+
+        Tour tour = new Tour();
+        tour.setOwner(owner);
+        tour.setNameTranslations(Map.of("es", "Merge " + name));
+        tour.setSlug("merge-" + UUID.randomUUID());
+        tour.setCategory("REGULAR");
+        tour.setPrice(new BigDecimal("25000"));
+        tour.setDefaultMaxParticipants(10);
+        tour.setDurationHours(3);
+        tour.setStatus(TourStatus.PUBLISHED);
+        tour = tourRepository.save(tour);
+        tourIds.add(tour.getId());
+
+        TourSchedule schedule = new TourSchedule();
+        schedule.setTour(tour);
+        schedule.setStartDatetime(Instant.now().plus(7, ChronoUnit.DAYS).truncatedTo(ChronoUnit.HOURS));
+        schedule.setMaxParticipants(10);
+        schedule.setStatus(TourScheduleStatus.OPEN);
+        schedule = tourScheduleRepository.save(schedule);
+        scheduleIds.add(schedule.getId());
+        return schedule;
+    }
+
+    private User newUser(String prefix, Role role) {
+        User user = new User();
+        user.setEmail(prefix + "-" + UUID.randomUUID() + "@merge.test");
+        user.setFullName(prefix);
+        user.setRole(role.getRoleName());
+        user.setEmailVerified(true);
+        return user;
+    }
+}
@@ -1,7 +1,8 @@
 package com.northernchile.api.cart;
 
-import com.northernchile.api.availability.AvailabilityValidator;
 import com.northernchile.api.availability.AvailabilityValidator.AvailabilityResult;
+import com.northernchile.api.availability.SeatLedger;
+import com.northernchile.api.availability.event.SeatEventPublisher;
 import com.northernchile.api.booking.BookingRepository;
 import com.northernchile.api.cart.dto.CartItemReq;
 import com.northernchile.api.cart.dto.CartRes;
@@ -23,6 +24,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
@@ -57,11 +59,17 @@ class CartServiceTest {
     private BookingRepository bookingRepository;
 
     @Mock
-    private AvailabilityValidator availabilityValidator;
+    private SeatLedger seatLedger;
+
+    @Mock
+    private SeatEventPublisher seatEventPublisher;
 
     @Mock
     private PricingService pricingService;
 
+    @Spy
+    private GuestCartStore guestCartStore = new GuestCartStore();
+
     @InjectMocks
     private CartService cartService;
 
@@ -109,23 +117,53 @@ class CartServiceTest {
     }
 
     @Nested
-    @DisplayName("Get or Create Cart Tests")
-    class GetOrCreateCartTests {
+    @DisplayName("Get Cart Tests")
+    class GetCartTests {
 
         @Test
-        @DisplayName("Should create new cart for guest user without cart ID")
-        void shouldCreateNewCartForGuest() {
+        @DisplayName("Should return a transient draft for guest user without cart ID, without registering it")
+        void shouldReturnDraftForGuestWithoutCartId() {
+            // When
+            Cart result = cartService.getCart(Optional.empty(), Optional.empty());
+
+            // Then - the generated ID is never sent as a cookie, so it is not kept
+            assertThat(result.getId()).isNotNull();
+            assertThat(result.getItems()).isEmpty();
+            assertThat(guestCartStore.isDraft(result.getId())).isFalse();
+            assertThat(guestCartStore.size()).isZero();
+            verifyNoInteractions(cartRepository);
+        }
+
+        @Test
+        @DisplayName("Should not register a draft for logged-in user without a cart")
+        void shouldNotRegisterDraftForUserWithoutCart() {
             // Given
-            Cart newCart = new Cart();
-            newCart.setId(UUID.randomUUID());
-            when(cartRepository.save(any(Cart.class))).thenReturn(newCart);
+            when(cartRepository.findByUserIdWithDetails(testUser.getId())).thenReturn(Optional.empty());
 
             // When
-            Cart result = cartService.getOrCreateCart(Optional.empty(), Optional.empty());
+            Cart result = cartService.getCart(Optional.of(testUser), Optional.empty());
 
             // Then
-            assertThat(result).isNotNull();
-            verify(cartRepository).save(any(Cart.class));
+            assertThat(result.getUser()).isEqualTo(testUser);
+            assertThat(guestCartStore.size()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should remember a client cart ID without a row so later reads skip the database")
+        void shouldRegisterDraftForUnknownCartId() {
+            // Given
+            UUID staleCartId = UUID.randomUUID();
+            when(cartRepository.findByIdWithDetails(staleCartId)).thenReturn(Optional.empty());
+
+            // When
+            Cart first = cartService.getCart(Optional.empty(), Optional.of(staleCartId));
+            Cart second = cartService.getCart(Optional.empty(), Optional.of(staleCartId));
+
+            // Then
+            assertThat(first.getId()).isEqualTo(staleCartId);
+            assertThat(second.getId()).isEqualTo(staleCartId);
+            assertThat(guestCartStore.isDraft(staleCartId)).isTrue();
+            verify(cartRepository, times(1)).findByIdWithDetails(staleCartId);
         }
 
         @Test
@@ -136,7 +174,7 @@ class CartServiceTest {
                     .thenReturn(Optional.of(testCart));
 
             // When
-            Cart result = cartService.getOrCreateCart(Optional.empty(), Optional.of(testCart.getId()));
+            Cart result = cartService.getCart(Optional.empty(), Optional.of(testCart.getId()));
 
             // Then
             assertThat(result).isEqualTo(testCart);
@@ -147,36 +185,81 @@ class CartServiceTest {
         void shouldReturnUserCartForLoggedInUser() {
             // Given
             testCart.setUser(testUser);
-            when(cartRepository.findByUserId(testUser.getId()))
-                    .thenReturn(Optional.of(testCart));
-            when(cartRepository.findByIdWithDetails(testCart.getId()))
+            when(cartRepository.findByUserIdWithDetails(testUser.getId()))
                     .thenReturn(Optional.of(testCart));
 
             // When
-            Cart result = cartService.getOrCreateCart(Optional.of(testUser), Optional.empty());
+            Cart result = cartService.getCart(Optional.of(testUser), Optional.empty());
 
             // Then
             assertThat(result).isEqualTo(testCart);
         }
 
         @Test
-        @DisplayName("Should create new cart if guest cart ID not found")
-        void shouldCreateNewCartIfGuestCartNotFound() {
+        @DisplayName("Should remember unknown guest cart ID as a draft without inserting")
+        void shouldRememberUnknownGuestCartIdAsDraft() {
             // Given
             UUID nonExistentCartId = UUID.randomUUID();
             when(cartRepository.findByIdWithDetails(nonExistentCartId))
                     .thenReturn(Optional.empty());
 
-            Cart newCart = new Cart();
-            newCart.setId(UUID.randomUUID());
-            when(cartRepository.save(any(Cart.class))).thenReturn(newCart);
+            // When
+            Cart first = cartService.getCart(Optional.empty(), Optional.of(nonExistentCartId));
+            Cart second = cartService.getCart(Optional.empty(), Optional.of(nonExistentCartId));
+
+            // Then - the second read is answered from memory
+            assertThat(first.getId()).isEqualTo(nonExistentCartId);
+            assertThat(second.getId()).isEqualTo(nonExistentCartId);
+            verify(cartRepository, times(1)).findByIdWithDetails(nonExistentCartId);
+            verify(cartRepository, never()).save(any(Cart.class));
+        }
+
+        @Test
+        @DisplayName("Should adopt guest cart when logged-in user has no cart")
+        void shouldAdoptGuestCartOnLogin() {
+            // Given
+            when(cartRepository.findByUserIdWithDetails(testUser.getId())).thenReturn(Optional.empty());
+            when(cartRepository.findByIdWithDetails(testCart.getId())).thenReturn(Optional.of(testCart));
+            when(cartRepository.save(testCart)).thenReturn(testCart);
 
             // When
-            Cart result = cartService.getOrCreateCart(Optional.empty(), Optional.of(nonExistentCartId));
+            Cart result = cartService.getCart(Optional.of(testUser), Optional.of(testCart.getId()));
 
             // Then
-            assertThat(result).isNotNull();
-            verify(cartRepository).save(any(Cart.class));
+            assertThat(result.getUser()).isEqualTo(testUser);
+            verify(seatEventPublisher).publishCartHeld(testCart);
+        }
+
+        @Test
+        @DisplayName("Should merge the guest cart into the user's cart with its items fully loaded")
+        void shouldMergeGuestCartWithDetails() {
+            // Given
+            Cart userCart = new Cart();
+            userCart.setId(UUID.randomUUID());
+            userCart.setUser(testUser);
+            userCart.setItems(new ArrayList<>());
+            CartItem guestItem = new CartItem();
+            guestItem.setCart(testCart);
+            guestItem.setSchedule(testSchedule);
+            guestItem.setNumParticipants(2);
+            testCart.getItems().add(guestItem);
+
+            when(cartRepository.findByUserIdWithDetails(testUser.getId())).thenReturn(Optional.of(userCart));
+            when(cartRepository.findByIdWithDetails(testCart.getId())).thenReturn(Optional.of(testCart));
+
+            // When
+            Cart result = cartService.getCart(Optional.of(testUser), Optional.of(testCart.getId()));
+
+            // Then
+            assertThat(result).isSameAs(userCart);
+            assertThat(result.getItems()).singleElement().satisfies(item -> {
+                assertThat(item.getCart()).isSameAs(userCart);
+                assertThat(item.getSchedule().getTour()).isSameAs(testTour);
+            });
+            verify(cartRepository, never()).findById(any());
+            verify(cartRepository).delete(testCart);
+            verify(seatEventPublisher).publishCartReleased(testCart.getId());
+            verify(seatEventPublisher).publishCartHeld(userCart);
         }
     }
 
@@ -190,20 +273,48 @@ class CartServiceTest {
             // Given
             CartItemReq itemReq = new CartItemReq(testSchedule.getId(), 2);
 
-            when(tourScheduleRepository.findById(testSchedule.getId()))
+            when(tourScheduleRepository.findByIdWithTourAndOwner(testSchedule.getId()))
                     .thenReturn(Optional.of(testSchedule));
-            when(availabilityValidator.validateAvailability(any(), anyInt(), any(), any()))
-                    .thenReturn(new AvailabilityResult(true, 10, 2, 0, 0, 8, 2));
-            when(cartRepository.save(any(Cart.class))).thenReturn(testCart);
             when(cartRepository.findByIdWithDetails(testCart.getId()))
                     .thenReturn(Optional.of(testCart));
+            when(seatLedger.validateAvailability(any(), anyInt(), any()))
+                    .thenReturn(new AvailabilityResult(true, 10, 2, 0, 0, 8, 2));
+            when(cartItemRepository.save(any(CartItem.class))).thenAnswer(inv -> inv.getArgument(0));
+            when(cartRepository.save(any(Cart.class))).thenReturn(testCart);
 
             // When
-            Cart result = cartService.addItemToCart(testCart, itemReq);
+            Cart result = cartService.addItemToCart(Optional.empty(), Optional.of(testCart.getId()), itemReq);
 
-            // Then
-            assertThat(result).isNotNull();
+            // Then - the loaded cart is returned without reading it again
+            assertThat(result.getItems()).hasSize(1);
             verify(cartRepository).save(any(Cart.class));
+            verify(cartRepository, times(1)).findByIdWithDetails(testCart.getId());
+        }
+
+        @Test
+        @DisplayName("Should create the cart row when the first item is added to a draft")
+        void shouldMaterializeDraftOnFirstItem() {
+            // Given - a cookie whose cart has no row
+            UUID staleCartId = UUID.randomUUID();
+            when(cartRepository.findByIdWithDetails(staleCartId)).thenReturn(Optional.empty());
+            Cart draft = cartService.getCart(Optional.empty(), Optional.of(staleCartId));
+            CartItemReq itemReq = new CartItemReq(testSchedule.getId(), 2);
+
+            when(tourScheduleRepository.findByIdWithTourAndOwner(testSchedule.getId()))
+                    .thenReturn(Optional.of(testSchedule));
+            when(seatLedger.validateAvailability(testSchedule, 2, null))
+                    .thenReturn(new AvailabilityResult(true, 10, 0, 0, 0, 10, 2));
+            when(cartItemRepository.save(any(CartItem.class))).thenAnswer(inv -> inv.getArgument(0));
+            when(cartRepository.save(any(Cart.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            // When
+            Cart result = cartService.addItemToCart(Optional.empty(), Optional.of(draft.getId()), itemReq);
+
+            // Then
+            assertThat(result.getItems()).hasSize(1);
+            assertThat(guestCartStore.isDraft(draft.getId())).isFalse();
+            verify(cartRepository, times(1)).findByIdWithDetails(staleCartId);
+            verify(seatEventPublisher).publishCartHeld(result);
         }
 
         @Test
@@ -212,10 +323,10 @@ class CartServiceTest {
             // Given
             CartItemReq itemReq = new CartItemReq(UUID.randomUUID(), 2);
 
-            when(tourScheduleRepository.findById(any())).thenReturn(Optional.empty());
+            when(tourScheduleRepository.findByIdWithTourAndOwner(any())).thenReturn(Optional.empty());
 
             // When/Then
-            assertThatThrownBy(() -> cartService.addItemToCart(testCart, itemReq))
+            assertThatThrownBy(() -> cartService.addItemToCart(Optional.empty(), Optional.of(testCart.getId()), itemReq))
                     .isInstanceOf(ResourceNotFoundException.class)
                     .hasMessageContaining("TourSchedule not found");
         }
@@ -226,15 +337,18 @@ class CartServiceTest {
             // Given
             CartItemReq itemReq = new CartItemReq(testSchedule.getId(), 15); // More than max participants
 
-            when(tourScheduleRepository.findById(testSchedule.getId()))
+            when(tourScheduleRepository.findByIdWithTourAndOwner(testSchedule.getId()))
                     .thenReturn(Optional.of(testSchedule));
-            when(availabilityValidator.validateAvailability(any(), anyInt(), any(), any()))
+            when(cartRepository.findByIdWithDetails(testCart.getId()))
+                    .thenReturn(Optional.of(testCart));
+            when(seatLedger.validateAvailability(any(), anyInt(), any()))
                     .thenReturn(new AvailabilityResult(false, 10, 10, 0, 0, 0, 15));
 
             // When/Then
-            assertThatThrownBy(() -> cartService.addItemToCart(testCart, itemReq))
+            assertThatThrownBy(() -> cartService.addItemToCart(Optional.empty(), Optional.of(testCart.getId()), itemReq))
                     .isInstanceOf(ScheduleFullException.class)
                     .hasMessageContaining("No hay suficientes cupos disponibles");
+            verify(cartRepository, never()).save(any(Cart.class));
         }
 
         @Test
@@ -250,21 +364,23 @@ class CartServiceTest {
 
             CartItemReq itemReq = new CartItemReq(testSchedule.getId(), 2); // Adding 2 more
 
-            when(tourScheduleRepository.findById(testSchedule.getId()))
+            when(tourScheduleRepository.findByIdWithTourAndOwner(testSchedule.getId()))
                     .thenReturn(Optional.of(testSchedule));
-            // Validator should receive total: 3 existing + 2 new = 5
-            when(availabilityValidator.validateAvailability(eq(testSchedule), eq(5), eq(testCart.getId()), any()))
-                    .thenReturn(new AvailabilityResult(true, 10, 0, 5, 0, 5, 5));
-            when(cartRepository.save(any(Cart.class))).thenReturn(testCart);
             when(cartRepository.findByIdWithDetails(testCart.getId()))
                     .thenReturn(Optional.of(testCart));
+            // Ledger should receive total: 3 existing + 2 new = 5
+            when(seatLedger.validateAvailability(eq(testSchedule), eq(5), eq(testCart.getId())))
+                    .thenReturn(new AvailabilityResult(true, 10, 0, 5, 0, 5, 5));
+            when(cartRepository.save(any(Cart.class))).thenReturn(testCart);
 
             // When
-            Cart result = cartService.addItemToCart(testCart, itemReq);
+            Cart result = cartService.addItemToCart(Optional.empty(), Optional.of(testCart.getId()), itemReq);
 
             // Then
-            assertThat(result).isNotNull();
-            verify(availabilityValidator).validateAvailability(eq(testSchedule), eq(5), any(), any());
+            assertThat(result.getItems()).hasSize(1);
+            assertThat(existingItem.getNumParticipants()).isEqualTo(5);
+            verify(seatLedger).validateAvailability(eq(testSchedule), eq(5), any());
+            verify(seatEventPublisher).publishCartHeld(testCart);
         }
     }
 
@@ -276,16 +392,39 @@ class CartServiceTest {
         @DisplayName("Should remove item from cart")
         void shouldRemoveItemFromCart() {
             // Given
-            UUID itemId = UUID.randomUUID();
+            CartItem item = new CartItem();
+            item.setId(UUID.randomUUID());
+            item.setSchedule(testSchedule);
+            item.setNumParticipants(2);
+            item.setCart(testCart);
+            testCart.getItems().add(item);
+
             when(cartRepository.findByIdWithDetails(testCart.getId()))
                     .thenReturn(Optional.of(testCart));
+            when(cartRepository.save(testCart)).thenReturn(testCart);
 
             // When
-            Cart result = cartService.removeItemFromCart(testCart, itemId);
+            Cart result = cartService.removeItemFromCart(Optional.empty(), Optional.of(testCart.getId()), item.getId());
 
             // Then
-            assertThat(result).isNotNull();
-            verify(cartItemRepository).deleteById(itemId);
+            assertThat(result.getItems()).isEmpty();
+            verify(seatEventPublisher).publishCartHeld(testCart);
+        }
+
+        @Test
+        @DisplayName("Should ignore items that are not in the cart")
+        void shouldIgnoreForeignItem() {
+            // Given
+            when(cartRepository.findByIdWithDetails(testCart.getId()))
+                    .thenReturn(Optional.of(testCart));
+
+            // When
+            Cart result = cartService.removeItemFromCart(Optional.empty(), Optional.of(testCart.getId()), UUID.randomUUID());
+
+            // Then
+            assertThat(result).isEqualTo(testCart);
+            verify(cartRepository, never()).save(any(Cart.class));
+            verifyNoInteractions(cartItemRepository);
         }
     }
 
@@ -0,0 +1,344 @@
+package com.northernchile.api.checkout;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.northernchile.api.booking.dto.ParticipantReq;
+import com.northernchile.api.checkout.dto.CheckoutRequest;
+import com.northernchile.api.exception.ScheduleFullException;
+import com.northernchile.api.model.Tour;
+import com.northernchile.api.model.TourSchedule;
+import com.northernchile.api.model.TourScheduleStatus;
+import com.northernchile.api.model.TourStatus;
+import com.northernchile.api.model.User;
+import com.northernchile.api.notification.EmailService;
+import com.northernchile.api.payment.PaymentSessionPaymentAdapter;
+import com.northernchile.api.payment.dto.PaymentSessionRes;
+import com.northernchile.api.payment.model.PaymentMethod;
+import com.northernchile.api.payment.model.PaymentProvider;
+import com.northernchile.api.payment.model.PaymentSession;
+import com.northernchile.api.payment.model.PaymentSessionStatus;
+import com.northernchile.api.security.Role;
+import com.northernchile.api.tour.TourRepository;
+import com.northernchile.api.tour.TourScheduleRepository;
+import com.northernchile.api.user.UserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checkout contention harness: many buyers racing for the few seats of one schedule
+ * ("50 buyers, 10 seats") against a real PostgreSQL.
+ *
+ * Each buyer runs on its own virtual thread and goes through the production path:
+ * CheckoutService.initiateCheckout (mock payment) -> PaymentSessionService.createSession ->
+ * PaymentSessionService.confirmSession -> BookingCreationServiceImpl. Only the payment provider
+ * adapter and outgoing email are stubbed.
+ *
+ * Reports throughput, p50/p99 latency, sampled lock wait time (pg_stat_activity) and whether the
+ * schedule was overbooked; the run also fails on overbooking. Every run appends one JSON line to
+ * target/contention/results.jsonl, tagged with contention.label, so capacity strategies can be
+ * compared by running the harness on different commits or configurations.
+ *
+ * Not part of the regular test run; it only runs when contention.datasource.url is set. Use a
+ * throwaway database: Flyway migrates it and the generated tour, users and bookings are kept.
+ *
+ *   ./mvnw test -Dtest=CheckoutContentionHarness \
+ *       -Dcontention.datasource.url=jdbc:postgresql://localhost:5432/northernchile_contention \
+ *       -Dcontention.datasource.username=postgres -Dcontention.datasource.password=postgres \
+ *       -Dcontention.buyers=200 -Dcontention.seats=10 -Dcontention.pool-size=20 -Dcontention.label=counter
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "contention.datasource.url", matches = ".+")
+@DisplayName("Checkout Contention Harness")
+class CheckoutContentionHarness {
+
+    private static final Logger log = LoggerFactory.getLogger(CheckoutContentionHarness.class);
+
+    private static final int BUYERS = Integer.getInteger("contention.buyers", 50);
+    private static final int SEATS = Integer.getInteger("contention.seats", 10);
+    private static final int PARTICIPANTS_PER_BUYER = Integer.getInteger("contention.participants", 1);
+    private static final String LABEL = System.getProperty("contention.label", "default");
+    private static final long LOCK_SAMPLE_MILLIS = 10;
+
+    @DynamicPropertySource
+    static void contentionDatabase(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getProperty("contention.datasource.url"));
+        registry.add("spring.datasource.username", () -> System.getProperty("contention.datasource.username", "postgres"));
+        registry.add("spring.datasource.password", () -> System.getProperty("contention.datasource.password", "postgres"));
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> Integer.getInteger("contention.pool-size", 20));
+        registry.add("aws.accessKeyId", () -> "contention");
+        registry.add("aws.secretAccessKey", () -> "contention");
+    }
+
+    @MockitoBean
+    private PaymentSessionPaymentAdapter paymentAdapter;
+
+    @MockitoBean
+    private EmailService emailService;
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TourRepository tourRepository;
+
+    @Autowired
+    private TourScheduleRepository tourScheduleRepository;
+
+    @Test
+    @DisplayName("Should never sell more seats than the schedule has")
+    void shouldNotOverbookUnderContention() throws Exception {
+        // Given
+        stubPaymentProvider();
+        TourSchedule schedule = createSchedule();
+        List<User> buyers = userRepository.saveAll(IntStream.range(0, BUYERS)
+                .mapToObj(i -> newUser("buyer-" + i, Role.CLIENT))
+                .toList());
+
+        long[] latencies = new long[BUYERS];
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger soldOut = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicBoolean failureLogged = new AtomicBoolean();
+        CountDownLatch start = new CountDownLatch(1);
+
+        // When
+        LockWaitSampler sampler = new LockWaitSampler();
+        Thread samplerThread = Thread.ofPlatform().daemon().start(sampler);
+        long begin;
+        long elapsed;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < BUYERS; i++) {
+                int buyer = i;
+                executor.submit(() -> {
+                    start.await();
+                    long t0 = System.nanoTime();
+                    try {
+                        checkoutService.initiateCheckout(checkoutRequest(schedule), buyers.get(buyer));
+                        succeeded.incrementAndGet();
+                    } catch (ScheduleFullException e) {
+                        soldOut.incrementAndGet();
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                        if (failureLogged.compareAndSet(false, true)) {
+                            log.warn("Buyer {} failed with an unexpected exception (further failures only counted)",
+                                    buyer, e);
+                        }
+                    } finally {
+                        latencies[buyer] = System.nanoTime() - t0;
+                    }
+                    return null;
+                });
+            }
+            begin = System.nanoTime();
+            start.countDown();
+        }
+        elapsed = System.nanoTime() - begin;
+        sampler.stop();
+        samplerThread.join();
+
+        // Then
+        int confirmedSeats = countConfirmedSeats(schedule.getId());
+        int counter = tourScheduleRepository.findById(schedule.getId()).orElseThrow().getReservedSeats();
+
+        Arrays.sort(latencies);
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("label", LABEL);
+        report.put("timestamp", Instant.now().toString());
+        report.put("buyers", BUYERS);
+        report.put("seats", SEATS);
+        report.put("participantsPerBuyer", PARTICIPANTS_PER_BUYER);
+        report.put("succeeded", succeeded.get());
+        report.put("soldOut", soldOut.get());
+        report.put("failed", failed.get());
+        report.put("elapsedMillis", elapsed / 1_000_000);
+        report.put("throughputPerSecond", BUYERS / (elapsed / 1e9));
+        report.put("p50Millis", percentile(latencies, 0.50) / 1e6);
+        report.put("p99Millis", percentile(latencies, 0.99) / 1e6);
+        report.put("lockWaitMillis", sampler.lockWaitMillis());
+        report.put("maxWaitingBackends", sampler.maxWaiting());
+        report.put("confirmedSeats", confirmedSeats);
+        report.put("reservedSeatsCounter", counter);
+        report.put("overbooked", confirmedSeats > SEATS);
+        writeReport(report);
+
+        assertThat(confirmedSeats).as("confirmed seats").isLessThanOrEqualTo(SEATS);
+        assertThat(counter).as("reserved_seats counter").isEqualTo(confirmedSeats);
+    }
+
+    private void stubPaymentProvider() {
+        when(paymentAdapter.initializePayment(any(), any())).thenAnswer(inv -> {
+            PaymentSession session = inv.getArgument(0);
+            return new PaymentSessionRes(session.getId(), PaymentSessionStatus.PENDING, null,
+                    "contention-" + session.getId(), null, null, session.getExpiresAt(), true, null);
+        });
+        when(paymentAdapter.confirmPayment(any())).thenAnswer(inv -> {
+            PaymentSession session = inv.getArgument(0);
+            return new PaymentSessionRes(session.getId(), PaymentSessionStatus.COMPLETED, null,
+                    session.getToken(), null, null, session.getExpiresAt(), true, null);
+        });
+    }
+
+    private TourSchedule createSchedule() {
+        User owner = userRepository.save(newUser("owner", Role.SUPER_ADMIN));
+
+        Tour tour = new Tour();
+        tour.setOwner(owner);
+        tour.setNameTranslations(Map.of("es", "Contention " + LABEL));
+        tour.setSlug("contention-" + UUID.randomUUID());
+        tour.setCategory("REGULAR");
+        tour.setPrice(new BigDecimal("25000"));
+        tour.setDefaultMaxParticipants(SEATS);
+        tour.setDurationHours(3);
+        tour.setStatus(TourStatus.PUBLISHED);
+        tour = tourRepository.save(tour);
+
+        TourSchedule schedule = new TourSchedule();
+        schedule.setTour(tour);
+        schedule.setStartDatetime(Instant.now().plus(7, ChronoUnit.DAYS).truncatedTo(ChronoUnit.HOURS));
+        schedule.setMaxParticipants(SEATS);
+        schedule.setStatus(TourScheduleStatus.OPEN);
+        return tourScheduleRepository.save(schedule);
+    }
+
+    private User newUser(String prefix, Role role) {
+        User user = new User();
+        user.setEmail(prefix + "-" + UUID.randomUUID() + "@contention.test");
+        user.setFullName(prefix);
+        user.setRole(role.getRoleName());
+        user.setEmailVerified(true);
+        return user;
+    }
+
+    private CheckoutRequest checkoutRequest(TourSchedule schedule) {
+        List<ParticipantReq> participants = IntStream.range(0, PARTICIPANTS_PER_BUYER)
+                .mapToObj(i -> new ParticipantReq("Participant " + i, "DOC-" + UUID.randomUUID().toString().substring(0, 8),
+                        "CL", null, 30, null, null, null, null, null, null, null))
+                .toList();
+        BigDecimal total = new BigDecimal("25000").multiply(BigDecimal.valueOf(PARTICIPANTS_PER_BUYER));
+        return new CheckoutRequest(
+                PaymentProvider.TRANSBANK,
+                PaymentMethod.WEBPAY,
+                total,
+                "CLP",
+                List.of(new CheckoutRequest.CheckoutItemRequest(
+                        schedule.getId(), null, null, PARTICIPANTS_PER_BUYER, null, null, null, participants)),
+                null,
+                null,
+                null,
+                "Contention harness",
+                "es",
+                true,
+                false);
+    }
+
+    private int countConfirmedSeats(UUID scheduleId) throws Exception {
+        try (Connection connection = openConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("""
+                     SELECT COUNT(p.id) FROM bookings b
+                     JOIN participants p ON p.booking_id = b.id
+                     WHERE b.status = 'CONFIRMED' AND b.schedule_id = '%s'
+                     """.formatted(scheduleId))) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private static void writeReport(Map<String, Object> report) throws Exception {
+        String json = new ObjectMapper().writeValueAsString(report);
+        log.info("Contention result: {}", json);
+        Path file = Path.of("target", "contention", "results.jsonl");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, json + System.lineSeparator(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private static Connection openConnection() throws Exception {
+        return DriverManager.getConnection(
+                System.getProperty("contention.datasource.url"),
+                System.getProperty("contention.datasource.username", "postgres"),
+                System.getProperty("contention.datasource.password", "postgres"));
+    }
+
+    /**
+     * Samples backends waiting on a lock on a dedicated connection (outside the application pool).
+     * Lock wait time is approximated as waiting backends x sample interval.
+     */
+    private static class LockWaitSampler implements Runnable {
+
+        private final AtomicBoolean running = new AtomicBoolean(true);
+        private final AtomicLong waitingSamples = new AtomicLong();
+        private final AtomicInteger maxWaiting = new AtomicInteger();
+
+        @Override
+        public void run() {
+            try (Connection connection = openConnection();
+                 Statement statement = connection.createStatement()) {
+                while (running.get()) {
+                    try (ResultSet rs = statement.executeQuery(
+                            "SELECT COUNT(*) FROM pg_stat_activity WHERE wait_event_type = 'Lock' AND datname = current_database()")) {
+                        rs.next();
+                        int waiting = rs.getInt(1);
+                        waitingSamples.addAndGet(waiting);
+                        maxWaiting.accumulateAndGet(waiting, Math::max);
+                    }
+                    Thread.sleep(LOCK_SAMPLE_MILLIS);
+                }
+            } catch (Exception e) {
+                throw new IllegalStateException("Lock wait sampling failed", e);
+            }
+        }
+
+        void stop() {
+            running.set(false);
+        }
+
+        long lockWaitMillis() {
+            return waitingSamples.get() * LOCK_SAMPLE_MILLIS;
+        }
+
+        int maxWaiting() {
+            return maxWaiting.get();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.northernchile.api.external;
+
+import com.northernchile.api.config.properties.AppProperties;
+import com.northernchile.api.lunar.dto.MoonPhaseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("LunarService Tests")
+class LunarServiceTest {
+
+    private LunarService lunarService;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties appProperties = new AppProperties();
+        appProperties.getLunar().setPastDays(30);
+        appProperties.getLunar().setFutureDays(60);
+        lunarService = new LunarService(appProperties);
+    }
+
+    @Nested
+    @DisplayName("Ephemeris Accuracy Tests")
+    class EphemerisAccuracyTests {
+
+        @Test
+        @DisplayName("Should report full moon on the evening of 2024-04-23 (23:49 UTC, 19:49 in Chile)")
+        void shouldMatchKnownFullMoon() {
+            LocalDate date = LocalDate.of(2024, 4, 23); // 21:00 Chile, 71 minutes after full moon
+
+            assertThat(lunarService.getMoonPhase(date)).isCloseTo(0.5, within(0.01));
+            assertThat(lunarService.isFullMoon(date)).isTrue();
+            assertThat(lunarService.getMoonIllumination(date)).isEqualTo(100);
+            assertThat(lunarService.getMoonPhaseName(date)).isEqualTo("Full Moon");
+        }
+
+        @Test
+        @DisplayName("Should report new moon after the 2024-04-08 eclipse (18:21 UTC)")
+        void shouldMatchKnownNewMoon() {
+            LocalDate date = LocalDate.of(2024, 4, 8);
+
+            assertThat(lunarService.getMoonPhase(date)).isCloseTo(0.0, within(0.02));
+            assertThat(lunarService.getMoonIllumination(date)).isLessThanOrEqualTo(1);
+            assertThat(lunarService.getMoonPhaseName(date)).isEqualTo("New Moon");
+        }
+
+        @Test
+        @DisplayName("Should report half-lit disc at first quarter (2024-04-15 19:13 UTC)")
+        void shouldMatchKnownFirstQuarter() {
+            LocalDate date = LocalDate.of(2024, 4, 15);
+
+            assertThat(lunarService.getMoonPhase(date)).isCloseTo(0.25, within(0.02));
+            assertThat(lunarService.getMoonIllumination(date)).isBetween(48, 58);
+            assertThat(lunarService.isFullMoon(date)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should place the 2025-12-04 full moon (23:14 UTC, 20:14 in Chile) on the Chilean night of Dec 4")
+        void shouldPlaceFullMoonOnChileanNight() {
+            LocalDate fullMoonNight = LocalDate.of(2025, 12, 4);
+
+            // Evaluated at 21:00 Chile on Dec 4, not at 21:00 on Dec 3 (00:00 UTC of Dec 4)
+            assertThat(lunarService.getMoonPhase(fullMoonNight)).isCloseTo(0.5, within(0.005));
+            assertThat(lunarService.getMoonIllumination(fullMoonNight)).isEqualTo(100);
+            assertThat(lunarService.getMoonPhaseName(fullMoonNight)).isEqualTo("Full Moon");
+
+            // The full-moon window is centred on that night: Dec 3-5, not Dec 4-6
+            assertThat(lunarService.isFullMoon(fullMoonNight.minusDays(2))).isFalse();
+            assertThat(lunarService.isFullMoon(fullMoonNight.minusDays(1))).isTrue();
+            assertThat(lunarService.isFullMoon(fullMoonNight)).isTrue();
+            assertThat(lunarService.isFullMoon(fullMoonNight.plusDays(1))).isTrue();
+            assertThat(lunarService.isFullMoon(fullMoonNight.plusDays(2))).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should answer the same inside and outside the precomputed window")
+        void shouldMatchTableAndOnDemandComputation() {
+            LocalDate today = LocalDate.now();
+
+            for (int d = 0; d < 30; d++) {
+                LocalDate date = today.plusDays(d);
+                assertThat(lunarService.getMoonPhase(date))
+                        .isCloseTo(LunarEphemeris.computePhase(date.toEpochDay()), within(1e-6));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Range Tests")
+    class RangeTests {
+
+        @Test
+        @DisplayName("Should return one entry per day and reuse precomputed data")
+        void shouldReturnOneEntryPerDay() {
+            LocalDate start = LocalDate.now();
+
+            List<MoonPhaseDTO> phases = lunarService.getMoonPhasesForRange(start, start.plusDays(29));
+
+            assertThat(phases).hasSize(30);
+            assertThat(phases.get(0).date()).isEqualTo(start);
+            assertThat(phases.get(29).date()).isEqualTo(start.plusDays(29));
+            assertThat(phases.get(5)).isSameAs(lunarService.getMoonPhaseData(start.plusDays(5)));
+        }
+
+        @Test
+        @DisplayName("Should compute ranges outside the window on demand")
+        void shouldComputeRangesOutsideWindow() {
+            List<MoonPhaseDTO> phases = lunarService.getMoonPhasesForRange(
+                    LocalDate.of(2024, 4, 20), LocalDate.of(2024, 4, 27));
+
+            assertThat(phases).hasSize(8);
+            assertThat(phases).filteredOn(MoonPhaseDTO::isFullMoon).extracting(MoonPhaseDTO::date)
+                    .contains(LocalDate.of(2024, 4, 23));
+        }
+
+        @Test
+        @DisplayName("Should reject ranges longer than the maximum")
+        void shouldRejectUnboundedRanges() {
+            LocalDate start = LocalDate.of(2025, 1, 1);
+
+            assertThatThrownBy(() -> lunarService.getMoonPhasesForRange(start, start.plusYears(5)))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
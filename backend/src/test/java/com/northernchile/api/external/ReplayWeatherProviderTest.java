@@ -0,0 +1,141 @@
+package com.northernchile.api.external;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.northernchile.api.config.properties.WeatherProperties;
+import com.northernchile.api.external.dto.FiveDayForecastResponse;
+import com.northernchile.api.util.DateTimeUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("ReplayWeatherProvider Tests")
+class ReplayWeatherProviderTest {
+
+    private static final LocalDate RECORDED_DAY = LocalDate.of(2025, 3, 10);
+
+    @TempDir
+    Path directory;
+
+    private WeatherProperties weatherProperties;
+
+    @BeforeEach
+    void setUp() {
+        weatherProperties = new WeatherProperties();
+        weatherProperties.getReplay().setDirectory(directory.toString());
+        weatherProperties.getReplay().setShiftToToday(false);
+    }
+
+    @Nested
+    @DisplayName("Recording Selection Tests")
+    class RecordingSelectionTests {
+
+        @Test
+        @DisplayName("Should cycle through shared recordings in file name order")
+        void shouldCycleSharedRecordings() throws IOException {
+            // Given
+            record("a-calm.json", 20);
+            record("b-cloudy.json", 90);
+            ReplayWeatherProvider provider = provider();
+
+            // When / Then
+            assertThat(clouds(provider.fetchFiveDayForecast(-22.9, -68.2))).isEqualTo(20);
+            assertThat(clouds(provider.fetchFiveDayForecast(-22.9, -68.2))).isEqualTo(90);
+            assertThat(clouds(provider.fetchFiveDayForecast(-22.9, -68.2))).isEqualTo(20);
+        }
+
+        @Test
+        @DisplayName("Should prefer recordings named after the location")
+        void shouldPreferLocationRecordings() throws IOException {
+            // Given
+            record("shared.json", 20);
+            record("-23.1_-67.3.json", 75);
+            ReplayWeatherProvider provider = provider();
+
+            // When / Then
+            assertThat(clouds(provider.fetchFiveDayForecast(-23.1, -67.3))).isEqualTo(75);
+            assertThat(clouds(provider.fetchFiveDayForecast(-22.9, -68.2))).isEqualTo(20);
+        }
+
+        @Test
+        @DisplayName("Should fail fast when the directory has no recordings")
+        void shouldFailWithoutRecordings() {
+            // When / Then
+            assertThatThrownBy(ReplayWeatherProviderTest.this::provider)
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("No *.json recordings");
+        }
+    }
+
+    @Nested
+    @DisplayName("Time Shift Tests")
+    class TimeShiftTests {
+
+        @Test
+        @DisplayName("Should keep recorded timestamps when shift-to-today is off")
+        void shouldKeepRecordedTimestamps() throws IOException {
+            // Given
+            record("shared.json", 20);
+
+            // When
+            FiveDayForecastResponse response = provider().fetchFiveDayForecast(-22.9, -68.2);
+
+            // Then
+            assertThat(chileDate(response.list().get(0).dt())).isEqualTo(RECORDED_DAY);
+        }
+
+        @Test
+        @DisplayName("Should shift the recording so its first day is today")
+        void shouldShiftToToday() throws IOException {
+            // Given
+            record("shared.json", 20);
+            weatherProperties.getReplay().setShiftToToday(true);
+
+            // When
+            FiveDayForecastResponse response = provider().fetchFiveDayForecast(-22.9, -68.2);
+
+            // Then
+            LocalDate today = LocalDate.now(DateTimeUtils.CHILE_ZONE);
+            assertThat(chileDate(response.list().get(0).dt())).isEqualTo(today);
+            assertThat(chileDate(response.list().get(1).dt())).isEqualTo(today.plusDays(1));
+            assertThat(response.list().get(0).dtTxt()).startsWith(
+                    Instant.ofEpochSecond(response.list().get(0).dt()).toString().substring(0, 10));
+        }
+    }
+
+    private ReplayWeatherProvider provider() {
+        return new ReplayWeatherProvider(new ObjectMapper(), weatherProperties);
+    }
+
+    /**
+     * Writes a two-day recording (noon Chile time on each day) with the given cloud cover.
+     */
+    private void record(String fileName, int clouds) throws IOException {
+        long first = RECORDED_DAY.atTime(12, 0).atZone(DateTimeUtils.CHILE_ZONE).toEpochSecond();
+        String json = """
+                {"cod": "200", "message": 0, "cnt": 2, "list": [
+                  {"dt": %d, "clouds": {"all": %d}, "wind": {"speed": 4.0, "deg": 0, "gust": 6.0}, "pop": 0.1},
+                  {"dt": %d, "clouds": {"all": %d}, "wind": {"speed": 4.0, "deg": 0, "gust": 6.0}, "pop": 0.1}
+                ]}
+                """.formatted(first, clouds, first + 86_400, clouds);
+        Files.writeString(directory.resolve(fileName), json);
+    }
+
+    private static int clouds(FiveDayForecastResponse response) {
+        return response.list().get(0).clouds().all();
+    }
+
+    private static LocalDate chileDate(long epochSecond) {
+        return Instant.ofEpochSecond(epochSecond).atZone(DateTimeUtils.CHILE_ZONE).toLocalDate();
+    }
+}
@@ -0,0 +1,360 @@
+package com.northernchile.api.external;
+
+import com.northernchile.api.config.properties.WeatherProperties;
+import com.northernchile.api.external.dto.DailyForecast;
+import com.northernchile.api.external.dto.FiveDayForecastResponse;
+import com.northernchile.api.external.event.WeatherForecastUpdatedEvent;
+import com.northernchile.api.model.Tour;
+import com.northernchile.api.util.DateTimeUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WeatherService Tests")
+class WeatherServiceTest {
+
+    private static final LocalDate DAY_ONE = LocalDate.of(2025, 3, 10);
+    private static final LocalDate DAY_TWO = DAY_ONE.plusDays(1);
+
+    @Mock
+    private WeatherProvider weatherProvider;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final Tour defaultTour = new Tour();
+    private SimpleMeterRegistry meterRegistry;
+    private WeatherService weatherService;
+
+    @BeforeEach
+    void setUp() {
+        WeatherProperties weatherProperties = new WeatherProperties();
+        weatherProperties.getApi().setKey("test-key");
+        meterRegistry = new SimpleMeterRegistry();
+        weatherService = new WeatherService(weatherProvider, weatherProperties, eventPublisher, meterRegistry);
+        lenient().when(weatherProvider.isAvailable()).thenReturn(true);
+        // No Spring proxy in unit tests: internal calls go straight to the instance
+        ReflectionTestUtils.setField(weatherService, "self", weatherService);
+    }
+
+    @Nested
+    @DisplayName("Forecast Parsing Tests")
+    class ForecastParsingTests {
+
+        @Test
+        @DisplayName("Should aggregate 3-hour items into one entry per Chile local day")
+        void shouldAggregateItemsPerDay() {
+            // Given
+            givenResponse(
+                    item(DAY_ONE, 9, 3.0, 5.0, 40, 0.1),
+                    item(DAY_ONE, 12, 6.0, 8.0, 80, 0.6),
+                    item(DAY_TWO, 12, 2.0, 2.5, 100, 0.0));
+
+            // When
+            WeatherForecast forecast = weatherService.getForecast();
+
+            // Then
+            assertThat(forecast.maxWindMs(DAY_ONE)).isEqualTo(8.0);
+            assertThat(forecast.clouds(DAY_ONE)).isEqualTo(60);
+            assertThat(forecast.pop(DAY_ONE)).isEqualTo(0.6);
+            assertThat(forecast.clouds(DAY_TWO)).isEqualTo(100);
+            assertThat(forecast.hasDay(DAY_TWO.plusDays(1))).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should keep the JSON view the frontend expects")
+        void shouldExposeJsonView() {
+            // Given
+            givenResponse(item(DAY_ONE, 12, 6.0, 8.0, 80, 0.6));
+
+            // When
+            Map<String, Object> view = weatherService.getForecast().asMap();
+
+            // Then
+            @SuppressWarnings("unchecked")
+            List<Map<String, Object>> daily = (List<Map<String, Object>>) view.get("daily");
+            assertThat(daily).hasSize(1);
+            assertThat(daily.get(0))
+                    .containsEntry("dt", epochSecond(DAY_ONE, 12))
+                    .containsEntry("windSpeed", 6.0)
+                    .containsEntry("windGust", 8.0)
+                    .containsEntry("clouds", 80)
+                    .containsKeys("temp", "weather", "pop");
+        }
+
+        @Test
+        @DisplayName("Should return an empty forecast when the provider is not available")
+        void shouldSkipFetchWhenProviderUnavailable() {
+            // Given
+            when(weatherProvider.isAvailable()).thenReturn(false);
+
+            // When
+            WeatherForecast forecast = weatherService.getForecast();
+
+            // Then
+            assertThat(forecast.isEmpty()).isTrue();
+            assertThat(forecast.asMap()).containsEntry("daily", List.of());
+            verify(weatherProvider, never()).fetchFiveDayForecast(anyDouble(), anyDouble());
+        }
+    }
+
+    @Nested
+    @DisplayName("Lookup Tests")
+    class LookupTests {
+
+        @Test
+        @DisplayName("Should treat days outside the forecast as calm and clear")
+        void shouldDefaultOutsideForecast() {
+            // Given
+            givenResponse(item(DAY_ONE, 12, 20.0, 25.0, 100, 1.0));
+
+            // When
+            WeatherForecast forecast = weatherService.getForecast(defaultTour);
+
+            // Then
+            assertThat(forecast.hasDay(DAY_TWO)).isFalse();
+            assertThat(forecast.maxWindMs(DAY_TWO)).isZero();
+            assertThat(forecast.clouds(DAY_TWO)).isZero();
+            assertThat(forecast.daily(DAY_TWO)).isNull();
+        }
+
+        @Test
+        @DisplayName("Should return the daily forecast for a forecast day")
+        void shouldReturnDailyForecast() {
+            // Given
+            givenResponse(item(DAY_ONE, 12, 6.0, 8.0, 90, 0.6));
+
+            // When
+            DailyForecast daily = weatherService.getForecast(defaultTour).daily(DAY_ONE);
+
+            // Then
+            assertThat(daily.dt()).isEqualTo(epochSecond(DAY_ONE, 12));
+            assertThat(daily.windSpeed()).isEqualTo(6.0);
+            assertThat(daily.windGust()).isEqualTo(8.0);
+            assertThat(daily.clouds()).isEqualTo(90);
+            assertThat(daily.pop()).isEqualTo(0.6);
+        }
+    }
+
+    @Nested
+    @DisplayName("Refresh Tests")
+    class RefreshTests {
+
+        @Test
+        @DisplayName("Should fetch once and serve later calls from memory")
+        void shouldServeFromMemory() {
+            // Given
+            givenResponse(item(DAY_ONE, 12, 6.0, 8.0, 80, 0.6));
+
+            // When
+            weatherService.getForecast();
+            weatherService.getForecast(defaultTour);
+            weatherService.refreshIfStale();
+
+            // Then
+            verify(weatherProvider, times(1)).fetchFiveDayForecast(anyDouble(), anyDouble());
+            assertThat(meterRegistry.get("weather.forecast.age").gauge().value()).isLessThan(60);
+        }
+
+        @Test
+        @DisplayName("Should publish one update event per refresh batch")
+        void shouldPublishUpdateEvent() {
+            // Given
+            givenResponse(item(DAY_ONE, 12, 6.0, 8.0, 80, 0.6));
+            weatherService.getForecast(defaultTour);
+            weatherService.getForecast(tourAt(-23.09, -67.28));
+
+            // When
+            weatherService.refreshAll();
+
+            // Then
+            verify(eventPublisher).publishEvent(new WeatherForecastUpdatedEvent(2));
+        }
+
+        @Test
+        @DisplayName("Should keep serving the last good forecast when a refresh fails")
+        void shouldServeStaleForecastOnFailure() {
+            // Given
+            givenResponse(item(DAY_ONE, 12, 6.0, 8.0, 90, 0.6));
+            weatherService.getForecast();
+            when(weatherProvider.fetchFiveDayForecast(anyDouble(), anyDouble()))
+                    .thenThrow(new ResourceAccessException("Read timed out"));
+
+            // When
+            weatherService.refreshAll();
+
+            // Then
+            assertThat(weatherService.getForecast(defaultTour).clouds(DAY_ONE)).isEqualTo(90);
+            assertThat(meterRegistry.get("weather.forecast.refresh.failures").counter().count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should not call the API again while a failed fetch is negatively cached")
+        void shouldNegativelyCacheFailures() {
+            // Given
+            when(weatherProvider.fetchFiveDayForecast(anyDouble(), anyDouble()))
+                    .thenThrow(new ResourceAccessException("Read timed out"));
+
+            // When
+            WeatherForecast first = weatherService.getForecast();
+            WeatherForecast second = weatherService.getForecast();
+
+            // Then
+            assertThat(first.isEmpty()).isTrue();
+            assertThat(second.isEmpty()).isTrue();
+            verify(weatherProvider, times(1)).fetchFiveDayForecast(anyDouble(), anyDouble());
+            assertThat(meterRegistry.get("weather.forecast.refresh.failures").counter().count()).isEqualTo(1);
+            assertThat(meterRegistry.get("weather.forecast.age").gauge().value()).isNaN();
+        }
+
+        @Test
+        @DisplayName("Should refresh in the background when no forecast is loaded")
+        void shouldRefreshWhenMissing() {
+            // Given
+            givenResponse(item(DAY_ONE, 12, 6.0, 8.0, 90, 0.6));
+
+            // When
+            weatherService.refreshIfStale();
+
+            // Then
+            assertThat(weatherService.getForecast().hasDay(DAY_ONE)).isTrue();
+            verify(weatherProvider, times(1)).fetchFiveDayForecast(anyDouble(), anyDouble());
+        }
+    }
+
+    @Nested
+    @DisplayName("Location Tests")
+    class LocationTests {
+
+        @Test
+        @DisplayName("Should fetch each tour's own location and share fetches within a grid cell")
+        void shouldFetchPerGridCell() {
+            // Given
+            givenResponse(item(DAY_ONE, 12, 6.0, 8.0, 80, 0.6));
+            Tour valleDeLaLuna = tourAt(-22.9200, -68.2800);
+            Tour sameSite = tourAt(-22.9400, -68.2900);
+            Tour salarDeTara = tourAt(-23.0900, -67.2800);
+
+            // When
+            weatherService.getForecast(valleDeLaLuna);
+            weatherService.getForecast(sameSite);
+            weatherService.getForecast(salarDeTara);
+
+            // Then
+            ArgumentCaptor<Double> lats = ArgumentCaptor.forClass(Double.class);
+            ArgumentCaptor<Double> lons = ArgumentCaptor.forClass(Double.class);
+            verify(weatherProvider, times(2)).fetchFiveDayForecast(lats.capture(), lons.capture());
+            assertThat(lats.getAllValues()).containsExactly(-22.9, -23.1);
+            assertThat(lons.getAllValues()).containsExactly(-68.3, -67.3);
+        }
+
+        @Test
+        @DisplayName("Should use the default location for tours without coordinates")
+        void shouldFallBackToDefaultLocation() {
+            // Given
+            givenResponse(item(DAY_ONE, 12, 6.0, 8.0, 80, 0.6));
+
+            // When
+            weatherService.getForecast(defaultTour);
+            weatherService.getForecast();
+
+            // Then
+            verify(weatherProvider, times(1)).fetchFiveDayForecast(anyDouble(), anyDouble());
+        }
+
+        @Test
+        @DisplayName("Should collapse concurrent misses for the same cell into one upstream call")
+        void shouldSingleFlightConcurrentMisses() throws Exception {
+            // Given
+            CountDownLatch fetchStarted = new CountDownLatch(1);
+            CountDownLatch releaseFetch = new CountDownLatch(1);
+            FiveDayForecastResponse response = response(item(DAY_ONE, 12, 6.0, 8.0, 90, 0.6));
+            when(weatherProvider.fetchFiveDayForecast(anyDouble(), anyDouble())).thenAnswer(inv -> {
+                fetchStarted.countDown();
+                releaseFetch.await(5, TimeUnit.SECONDS);
+                return response;
+            });
+
+            // When
+            try (ExecutorService pool = Executors.newFixedThreadPool(4)) {
+                List<Future<Integer>> results = new ArrayList<>();
+                results.add(pool.submit(() -> weatherService.getForecast(defaultTour).clouds(DAY_ONE)));
+                assertThat(fetchStarted.await(5, TimeUnit.SECONDS)).isTrue();
+                for (int i = 0; i < 3; i++) {
+                    results.add(pool.submit(() -> weatherService.getForecast(defaultTour).clouds(DAY_ONE)));
+                }
+                releaseFetch.countDown();
+
+                // Then
+                for (Future<Integer> result : results) {
+                    assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(90);
+                }
+            }
+            verify(weatherProvider, times(1)).fetchFiveDayForecast(anyDouble(), anyDouble());
+        }
+    }
+
+    private static Tour tourAt(double latitude, double longitude) {
+        Tour tour = new Tour();
+        tour.setLatitude(latitude);
+        tour.setLongitude(longitude);
+        return tour;
+    }
+
+    private static FiveDayForecastResponse response(FiveDayForecastResponse.ForecastItem... items) {
+        return new FiveDayForecastResponse("200", 0, items.length, List.of(items), null);
+    }
+
+    private void givenResponse(FiveDayForecastResponse.ForecastItem... items) {
+        when(weatherProvider.fetchFiveDayForecast(anyDouble(), anyDouble()))
+                .thenReturn(response(items));
+    }
+
+    private static FiveDayForecastResponse.ForecastItem item(LocalDate date, int hour,
+            double windSpeed, double windGust, int clouds, double pop) {
+        return new FiveDayForecastResponse.ForecastItem(
+                epochSecond(date, hour),
+                new FiveDayForecastResponse.Main(10, 9, 5, 15, 1013, 0, 0, 20, 0),
+                List.of(new FiveDayForecastResponse.Weather(800, "Clear", "clear sky", "01n")),
+                new FiveDayForecastResponse.Clouds(clouds),
+                new FiveDayForecastResponse.Wind(windSpeed, 0, windGust),
+                10000,
+                pop,
+                null,
+                null,
+                null,
+                null);
+    }
+
+    private static long epochSecond(LocalDate date, int hour) {
+        return date.atTime(hour, 0).atZone(DateTimeUtils.CHILE_ZONE).toEpochSecond();
+    }
+}
@@ -0,0 +1,166 @@
+package com.northernchile.api.payment;
+
+import com.northernchile.api.payment.dto.PaymentSessionRes;
+import com.northernchile.api.payment.event.WebhookReceivedEvent;
+import com.northernchile.api.payment.model.PaymentProvider;
+import com.northernchile.api.payment.model.PaymentSessionStatus;
+import com.northernchile.api.payment.model.WebhookInboxEntry;
+import com.northernchile.api.payment.repository.WebhookInboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WebhookInboxProcessor Tests")
+class WebhookInboxProcessorTest {
+
+    @Mock
+    private WebhookInboxRepository repository;
+
+    @Mock
+    private PaymentSessionService paymentSessionService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private WebhookInboxProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        processor = new WebhookInboxProcessor(repository, paymentSessionService, transactionManager, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        processor.shutdown();
+    }
+
+    @Nested
+    @DisplayName("Processing Tests")
+    class ProcessingTests {
+
+        @Test
+        @DisplayName("Should confirm the session and mark the entry processed")
+        void shouldConfirmAndMarkProcessed() {
+            // Given
+            WebhookInboxEntry entry = entry("12345", 0);
+            processor.onWebhookReceived(new WebhookReceivedEvent(entry.getId()));
+            when(paymentSessionService.confirmMercadoPagoSession("12345", "12345")).thenReturn(completed());
+            when(repository.markProcessed(eq(entry.getId()), any(Instant.class))).thenReturn(1);
+
+            // When
+            processor.process(entry);
+
+            // Then
+            assertThat(processor.pendingEntries()).isZero();
+            assertThat(meterRegistry.get("webhook.inbox.lag").timer().count()).isEqualTo(1);
+            assertThat(meterRegistry.get("webhook.inbox.attempts").tag("outcome", "processed").counter().count())
+                    .isEqualTo(1);
+            verify(repository, never()).markRetry(any(), any(), anyString());
+        }
+
+        @Test
+        @DisplayName("Should schedule a retry with backoff when confirmation fails")
+        void shouldRetryWithBackoff() {
+            // Given - second attempt
+            WebhookInboxEntry entry = entry("12345", 1);
+            processor.onWebhookReceived(new WebhookReceivedEvent(entry.getId()));
+            when(paymentSessionService.confirmMercadoPagoSession("12345", "12345"))
+                    .thenThrow(new IllegalArgumentException("Payment session not found for MercadoPago: 12345"));
+            Instant before = Instant.now();
+
+            // When
+            processor.process(entry);
+
+            // Then - 5s doubled once
+            ArgumentCaptor<Instant> nextAttempt = ArgumentCaptor.forClass(Instant.class);
+            verify(repository).markRetry(eq(entry.getId()), nextAttempt.capture(), anyString());
+            assertThat(nextAttempt.getValue()).isAfterOrEqualTo(before.plusSeconds(10));
+            assertThat(processor.pendingEntries()).isEqualTo(1);
+            verify(repository, never()).markProcessed(any(), any());
+        }
+
+        @Test
+        @DisplayName("Should give up after the last attempt")
+        void shouldMarkFailedAfterMaxAttempts() {
+            // Given
+            WebhookInboxEntry entry = entry("12345", WebhookInboxProcessor.MAX_ATTEMPTS - 1);
+            processor.onWebhookReceived(new WebhookReceivedEvent(entry.getId()));
+            when(paymentSessionService.confirmMercadoPagoSession("12345", "12345"))
+                    .thenThrow(new IllegalStateException("MercadoPago API unavailable"));
+            when(repository.markFailed(eq(entry.getId()), any(Instant.class), anyString())).thenReturn(1);
+
+            // When
+            processor.process(entry);
+
+            // Then
+            assertThat(processor.pendingEntries()).isZero();
+            assertThat(meterRegistry.get("webhook.inbox.attempts").tag("outcome", "failed").counter().count())
+                    .isEqualTo(1);
+            verify(repository, never()).markRetry(any(), any(), anyString());
+        }
+    }
+
+    @Nested
+    @DisplayName("Scheduling Tests")
+    class SchedulingTests {
+
+        @Test
+        @DisplayName("Should not query the inbox while there is nothing to do")
+        void shouldStayIdleWithoutWork() {
+            // When
+            processor.tick();
+
+            // Then
+            verifyNoInteractions(repository, paymentSessionService);
+        }
+
+        @Test
+        @DisplayName("Should double the backoff per attempt up to the cap")
+        void shouldCapBackoff() {
+            assertThat(WebhookInboxProcessor.backoff(1)).isEqualTo(Duration.ofSeconds(5));
+            assertThat(WebhookInboxProcessor.backoff(3)).isEqualTo(Duration.ofSeconds(20));
+            assertThat(WebhookInboxProcessor.backoff(30)).isEqualTo(WebhookInboxProcessor.MAX_BACKOFF);
+        }
+    }
+
+    private WebhookInboxEntry entry(String externalId, int attempts) {
+        WebhookInboxEntry entry = new WebhookInboxEntry();
+        entry.setId(UUID.randomUUID());
+        entry.setProvider(PaymentProvider.MERCADOPAGO);
+        entry.setExternalId(externalId);
+        entry.setPayload("{\"data\":{\"id\":\"" + externalId + "\"}}");
+        entry.setAttempts(attempts);
+        entry.setReceivedAt(Instant.now().minusSeconds(2));
+        entry.setNextAttemptAt(Instant.now());
+        return entry;
+    }
+
+    private PaymentSessionRes completed() {
+        return new PaymentSessionRes(UUID.randomUUID(), PaymentSessionStatus.COMPLETED,
+                null, null, null, null, null, false, null);
+    }
+}
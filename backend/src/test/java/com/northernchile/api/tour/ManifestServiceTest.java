@@ -0,0 +1,249 @@
+package com.northernchile.api.tour;
+
+import com.northernchile.api.booking.BookingRepository;
+import com.northernchile.api.model.Tour;
+import com.northernchile.api.model.TourSchedule;
+import com.northernchile.api.model.TourScheduleStatus;
+import com.northernchile.api.model.User;
+import com.northernchile.api.notification.EmailService;
+import com.northernchile.api.tour.manifest.ManifestFormat;
+import com.northernchile.api.tour.manifest.ManifestRow;
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("ManifestService Tests")
+class ManifestServiceTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private TourScheduleRepository tourScheduleRepository;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private ManifestService manifestService;
+
+    private TourSchedule schedule;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(manifestService, "operatorEmail", "operador@example.com");
+        ReflectionTestUtils.setField(manifestService, "emergencyContact", "+56 9 0000 0000");
+
+        Tour tour = new Tour();
+        tour.setId(UUID.randomUUID());
+        tour.setNameTranslations(Map.of("es", "Tour Astronómico", "en", "Astronomy Tour"));
+
+        User guide = new User();
+        guide.setFullName("Ana Guía");
+
+        schedule = new TourSchedule();
+        schedule.setId(UUID.randomUUID());
+        schedule.setTour(tour);
+        schedule.setAssignedGuide(guide);
+        schedule.setStatus(TourScheduleStatus.CLOSED);
+        schedule.setStartDatetime(Instant.parse("2026-03-10T00:30:00Z"));
+
+        when(tourScheduleRepository.findByIdWithTourAndGuide(schedule.getId())).thenReturn(Optional.of(schedule));
+        when(emailService.sendPickupReminderToParticipant(anyString(), anyString(), anyString(), anyString(),
+                anyString(), anyString(), anyString(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @Nested
+    @DisplayName("Send Manifest Tests")
+    class SendManifestTests {
+
+        @Test
+        @DisplayName("Should send the operator manifest and one reminder per email address")
+        void shouldSendManifestAndDistinctReminders() {
+            // Given - two participants share an email, one has none
+            UUID bookingId = UUID.randomUUID();
+            givenRows(
+                    row(bookingId, "María Pérez", "maria@example.com"),
+                    row(bookingId, "Juan Pérez", "MARIA@example.com"),
+                    row(UUID.randomUUID(), "John Smith", null));
+
+            // When
+            manifestService.generateAndSendManifest(schedule.getId());
+
+            // Then
+            ArgumentCaptor<List<ManifestService.ManifestParticipant>> participants = ArgumentCaptor.captor();
+            verify(emailService).sendManifestEmail(eq("operador@example.com"), eq("Tour Astronómico"), eq("09/03/2026"),
+                    eq("21:30"), eq("Ana Guía"), eq(3), participants.capture());
+            assertThat(participants.getValue())
+                    .extracting(ManifestService.ManifestParticipant::number, ManifestService.ManifestParticipant::fullName)
+                    .containsExactly(
+                            Tuple.tuple(1, "María Pérez"),
+                            Tuple.tuple(2, "Juan Pérez"),
+                            Tuple.tuple(3, "John Smith"));
+            verify(emailService).sendPickupReminderToParticipant(eq("maria@example.com"), eq("María Pérez"),
+                    anyString(), anyString(), anyString(), anyString(), anyString(), anyString(), anyString());
+            verify(emailService, never()).sendPickupReminderToParticipant(eq("MARIA@example.com"), anyString(),
+                    anyString(), anyString(), anyString(), anyString(), anyString(), anyString(), anyString());
+        }
+
+        @Test
+        @DisplayName("Should send reminders only after the rows were read and the operator manifest sent")
+        void shouldSendRemindersAfterManifest() {
+            // Given
+            givenRows(row(UUID.randomUUID(), "María Pérez", "maria@example.com"));
+
+            // When
+            manifestService.generateAndSendManifest(schedule.getId());
+
+            // Then
+            InOrder order = inOrder(transactionManager, emailService);
+            order.verify(transactionManager).commit(any());
+            order.verify(emailService).sendManifestEmail(anyString(), anyString(), anyString(), anyString(),
+                    anyString(), anyInt(), any());
+            order.verify(emailService).sendPickupReminderToParticipant(eq("maria@example.com"), anyString(),
+                    anyString(), anyString(), anyString(), anyString(), anyString(), anyString(), anyString());
+        }
+
+        @Test
+        @DisplayName("Should skip the manifest when there are no confirmed participants")
+        void shouldSkipWithoutParticipants() {
+            // Given
+            givenRows();
+
+            // When
+            manifestService.generateAndSendManifest(schedule.getId());
+
+            // Then
+            verify(emailService, never()).sendManifestEmail(anyString(), anyString(), anyString(), anyString(),
+                    anyString(), anyInt(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Export Tests")
+    class ExportTests {
+
+        @Test
+        @DisplayName("Should export CSV with a header row and escaped cells")
+        void shouldExportCsv() throws Exception {
+            // Given
+            givenRows(
+                    row(UUID.randomUUID(), "Pérez, María", "maria@example.com"),
+                    row(UUID.randomUUID(), "=HYPERLINK(\"x\")", null));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            // When
+            manifestService.exportManifest(schedule.getId(), ManifestFormat.CSV, out);
+
+            // Then
+            String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+            assertThat(lines).hasSize(3);
+            assertThat(lines[0]).startsWith("﻿N°,Nombre,");
+            assertThat(lines[1]).startsWith("1,\"Pérez, María\",12345678-9,CL,+56 9 1234 5678,maria@example.com,");
+            assertThat(lines[2]).startsWith("2,\"'=HYPERLINK(\"\"x\"\")\",");
+        }
+
+        @Test
+        @DisplayName("Should export a PDF with one page per 38 rows and a valid cross-reference table")
+        void shouldExportPdf() throws Exception {
+            // Given
+            givenRows(IntStream.rangeClosed(1, 100)
+                    .mapToObj(i -> row(UUID.randomUUID(), "Participante " + i, null))
+                    .toArray(ManifestRow[]::new));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            // When
+            manifestService.exportManifest(schedule.getId(), ManifestFormat.PDF, out);
+
+            // Then
+            String pdf = out.toString(StandardCharsets.ISO_8859_1);
+            assertThat(pdf).startsWith("%PDF-1.4").endsWith("%%EOF\n");
+            assertThat(pdf).contains("/Count 3 ").contains("(Participante 100)").contains("(Total participantes: 100)");
+            int startxref = Integer.parseInt(pdf.substring(pdf.lastIndexOf("startxref\n") + 10, pdf.lastIndexOf("\n%%EOF")));
+            assertThat(pdf.substring(startxref)).startsWith("xref");
+            int catalog = pdf.indexOf("1 0 obj");
+            assertThat(pdf).contains(String.format("%010d 00000 n ", catalog));
+        }
+
+        @Test
+        @DisplayName("Should write to the client only after the read transaction has ended")
+        void shouldWriteAfterTransactionEnds() throws Exception {
+            // Given
+            givenRows(row(UUID.randomUUID(), "María", "maria@example.com"));
+            AtomicBoolean committed = new AtomicBoolean();
+            doAnswer(invocation -> {
+                committed.set(true);
+                return null;
+            }).when(transactionManager).commit(any());
+            ByteArrayOutputStream out = new ByteArrayOutputStream() {
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    assertThat(committed).isTrue();
+                    super.write(b, off, len);
+                }
+
+                @Override
+                public void write(int b) {
+                    assertThat(committed).isTrue();
+                    super.write(b);
+                }
+            };
+
+            // When
+            manifestService.exportManifest(schedule.getId(), ManifestFormat.CSV, out);
+
+            // Then
+            assertThat(out.toString(StandardCharsets.UTF_8)).contains("María");
+        }
+    }
+
+    private void givenRows(ManifestRow... rows) {
+        when(bookingRepository.streamManifestRows(schedule.getId())).thenReturn(Stream.of(rows));
+    }
+
+    private static ManifestRow row(UUID bookingId, String fullName, String email) {
+        return new ManifestRow(bookingId, "es-CL", null, "Cliente", fullName, "+56 9 1234 5678",
+                "Hotel Centro", "CL", "12345678-9", null, email);
+    }
+}
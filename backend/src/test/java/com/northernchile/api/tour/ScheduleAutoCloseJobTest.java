@@ -0,0 +1,139 @@
+package com.northernchile.api.tour;
+
+import com.northernchile.api.model.Tour;
+import com.northernchile.api.model.TourSchedule;
+import com.northernchile.api.model.TourScheduleStatus;
+import com.northernchile.api.tour.event.ScheduleChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ScheduleAutoCloseJob Tests")
+class ScheduleAutoCloseJobTest {
+
+    @Mock
+    private TourScheduleRepository tourScheduleRepository;
+
+    @Mock
+    private ManifestService manifestService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ScheduleAutoCloseJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = new ScheduleAutoCloseJob(tourScheduleRepository, manifestService, transactionManager);
+        ReflectionTestUtils.setField(job, "minHoursBeforeTour", 2);
+    }
+
+    @Nested
+    @DisplayName("Deadline Tests")
+    class DeadlineTests {
+
+        @Test
+        @DisplayName("Should close an OPEN schedule whose cutoff has passed and send its manifest")
+        void shouldCloseScheduleAtCutoff() {
+            // Given - starts in 90 minutes, cutoff was 30 minutes ago
+            TourSchedule schedule = schedule(Instant.now().plus(90, ChronoUnit.MINUTES));
+            when(tourScheduleRepository.findOpenStartTimes())
+                    .thenReturn(List.<Object[]>of(new Object[]{schedule.getId(), schedule.getStartDatetime()}));
+            when(tourScheduleRepository.findByIdWithTourAndOwner(schedule.getId())).thenReturn(Optional.of(schedule));
+            when(tourScheduleRepository.save(schedule)).thenReturn(schedule);
+
+            // When
+            job.rebuild();
+            job.tick();
+
+            // Then
+            assertThat(schedule.getStatus()).isEqualTo(TourScheduleStatus.CLOSED);
+            verify(manifestService).generateAndSendManifest(schedule.getId());
+            assertThat(job.pendingSchedules()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should not touch the database before any cutoff is reached")
+        void shouldStayIdleBeforeCutoff() {
+            // Given
+            job.onScheduleChanged(new ScheduleChangedEvent(
+                    UUID.randomUUID(), Instant.now().plus(3, ChronoUnit.HOURS), TourScheduleStatus.OPEN));
+
+            // When
+            job.tick();
+
+            // Then
+            verifyNoInteractions(tourScheduleRepository, manifestService);
+            assertThat(job.pendingSchedules()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should use the latest start time of a moved schedule and forget cancelled ones")
+        void shouldFollowMovedAndCancelledSchedules() {
+            // Given - moved from inside the cutoff to tomorrow, and a cancelled schedule
+            UUID moved = UUID.randomUUID();
+            UUID cancelled = UUID.randomUUID();
+            Instant soon = Instant.now().plus(1, ChronoUnit.HOURS);
+            job.onScheduleChanged(new ScheduleChangedEvent(moved, soon, TourScheduleStatus.OPEN));
+            job.onScheduleChanged(new ScheduleChangedEvent(moved, soon.plus(1, ChronoUnit.DAYS), TourScheduleStatus.OPEN));
+            job.onScheduleChanged(new ScheduleChangedEvent(cancelled, soon, TourScheduleStatus.OPEN));
+            job.onScheduleChanged(new ScheduleChangedEvent(cancelled, soon, TourScheduleStatus.CANCELLED));
+
+            // When
+            job.tick();
+
+            // Then
+            verifyNoInteractions(tourScheduleRepository, manifestService);
+            assertThat(job.pendingSchedules()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should skip a schedule that is no longer OPEN when its cutoff fires")
+        void shouldSkipScheduleNoLongerOpen() {
+            // Given
+            TourSchedule schedule = schedule(Instant.now().plus(1, ChronoUnit.HOURS));
+            job.onScheduleChanged(new ScheduleChangedEvent(
+                    schedule.getId(), schedule.getStartDatetime(), TourScheduleStatus.OPEN));
+            schedule.setStatus(TourScheduleStatus.FULL);
+            when(tourScheduleRepository.findByIdWithTourAndOwner(schedule.getId())).thenReturn(Optional.of(schedule));
+
+            // When
+            job.tick();
+
+            // Then
+            verify(tourScheduleRepository, never()).save(any());
+            verifyNoInteractions(manifestService);
+        }
+    }
+
+    private static TourSchedule schedule(Instant start) {
+        Tour tour = new Tour();
+        tour.setId(UUID.randomUUID());
+        TourSchedule schedule = new TourSchedule();
+        schedule.setId(UUID.randomUUID());
+        schedule.setTour(tour);
+        schedule.setStatus(TourScheduleStatus.OPEN);
+        schedule.setStartDatetime(start);
+        return schedule;
+    }
+}
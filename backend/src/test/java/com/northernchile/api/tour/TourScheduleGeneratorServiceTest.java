@@ -0,0 +1,312 @@
+package com.northernchile.api.tour;
+
+import com.northernchile.api.model.Tour;
+import com.northernchile.api.model.TourStatus;
+import com.northernchile.api.tour.event.ScheduleEventPublisher;
+import com.northernchile.api.tour.schedule.dto.ScheduleGenerationRes;
+import com.northernchile.api.util.DateTimeUtils;
+import com.northernchile.api.weather.WeatherRisk;
+import com.northernchile.api.weather.WeatherRiskService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.util.BitSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TourScheduleGeneratorService Tests")
+class TourScheduleGeneratorServiceTest {
+
+    // Monday
+    private static final LocalDate FROM = LocalDate.of(2025, 3, 10);
+    private static final LocalDate TODAY = LocalDate.now(DateTimeUtils.CHILE_ZONE);
+
+    @Mock
+    private TourRepository tourRepository;
+
+    @Mock
+    private TourScheduleBulkWriter scheduleBulkWriter;
+
+    @Mock
+    private WeatherRiskService weatherRiskService;
+
+    @Mock
+    private ScheduleEventPublisher scheduleEventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TourScheduleGeneratorService generatorService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        generatorService = new TourScheduleGeneratorService(
+                tourRepository, scheduleBulkWriter, weatherRiskService, scheduleEventPublisher, transactionManager, meterRegistry);
+    }
+
+    @Nested
+    @DisplayName("Recurrence Expansion Tests")
+    class RecurrenceExpansionTests {
+
+        @Test
+        @DisplayName("Should match every day for a daily rule")
+        void shouldExpandDailyRule() {
+            // When
+            BitSet days = generatorService.expandRecurrence(tourWithRule("0 20 * * *"), FROM, 30);
+
+            // Then
+            assertThat(days.cardinality()).isEqualTo(30);
+        }
+
+        @Test
+        @DisplayName("Should match only the rule's days of week, including consecutive ones")
+        void shouldExpandDaysOfWeek() {
+            // When
+            BitSet days = generatorService.expandRecurrence(tourWithRule("0 19 * * 6,0"), FROM, 14);
+
+            // Then
+            assertThat(days.stream().mapToObj(FROM::plusDays).map(LocalDate::getDayOfWeek))
+                    .containsExactly(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY, DayOfWeek.SATURDAY, DayOfWeek.SUNDAY);
+        }
+
+        @Test
+        @DisplayName("Should count a day once when the rule fires several times on it")
+        void shouldCollapseSeveralExecutionsPerDay() {
+            // When
+            BitSet days = generatorService.expandRecurrence(tourWithRule("*/30 * 1-2 * *"), LocalDate.of(2025, 3, 1), 31);
+
+            // Then
+            assertThat(days.stream().boxed()).containsExactly(0, 1);
+        }
+
+        @Test
+        @DisplayName("Should include an execution at midnight on the first day")
+        void shouldIncludeMidnightOnFirstDay() {
+            // When
+            BitSet days = generatorService.expandRecurrence(tourWithRule("0 0 * * 1"), FROM, 7);
+
+            // Then
+            assertThat(days.stream().boxed()).containsExactly(0);
+        }
+
+        @Test
+        @DisplayName("Should assume daily when the rule is missing or invalid")
+        void shouldDefaultToDaily() {
+            // When
+            BitSet noRule = generatorService.expandRecurrence(tourWithRule(null), FROM, 10);
+            BitSet invalidRule = generatorService.expandRecurrence(tourWithRule("not a cron"), FROM, 10);
+
+            // Then
+            assertThat(noRule.cardinality()).isEqualTo(10);
+            assertThat(invalidRule.cardinality()).isEqualTo(10);
+        }
+    }
+
+    @Nested
+    @DisplayName("Generation Tests")
+    class GenerationTests {
+
+        @Test
+        @DisplayName("Should insert a schedule per matching, valid day in the tour's own transaction")
+        void shouldBulkInsertCandidates() {
+            // Given
+            Tour tour = tourWithRule("0 21 * * 1,3,5");
+            tour.setDefaultStartTime(LocalTime.of(21, 30));
+            when(tourRepository.findByRecurringTrueAndStatus(TourStatus.PUBLISHED)).thenReturn(List.of(tour));
+            when(weatherRiskService.assess(any(), any())).thenReturn(calm());
+            when(scheduleBulkWriter.insertMissing(any())).thenAnswer(inv -> inv.<List<?>>getArgument(0).size() - 2);
+
+            // When
+            ScheduleGenerationRes result = generatorService.generateSchedulesManually();
+
+            // Then
+            ArgumentCaptor<List<TourScheduleBulkWriter.NewSchedule>> captor = ArgumentCaptor.captor();
+            verify(scheduleBulkWriter).insertMissing(captor.capture());
+            List<TourScheduleBulkWriter.NewSchedule> schedules = captor.getValue();
+            assertThat(schedules).hasSizeBetween(36, 39);
+            assertThat(schedules).allSatisfy(schedule -> {
+                ZonedDateTime start = schedule.startDatetime().atZone(DateTimeUtils.CHILE_ZONE);
+                assertThat(start.getDayOfWeek()).isIn(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY, DayOfWeek.FRIDAY);
+                assertThat(start.toLocalTime()).isEqualTo(LocalTime.of(21, 30));
+                assertThat(schedule.maxParticipants()).isEqualTo(10);
+                assertThat(schedule.dayStart()).isEqualTo(start.toLocalDate().atStartOfDay(DateTimeUtils.CHILE_ZONE).toInstant());
+            });
+            verify(transactionManager).commit(any());
+            verify(tourRepository).advanceSchedulesGeneratedThrough(tour.getId(), null, TODAY.plusDays(89));
+
+            assertThat(result.created()).isEqualTo(schedules.size() - 2);
+            assertThat(result.skipped()).isEqualTo(2);
+            assertThat(result.tours()).singleElement().satisfies(tourResult -> {
+                assertThat(tourResult.tourId()).isEqualTo(tour.getId());
+                assertThat(tourResult.error()).isNull();
+            });
+            assertThat(meterRegistry.get("schedule.generation.schedules").tag("result", "created").counter().count())
+                    .isEqualTo(schedules.size() - 2);
+        }
+
+        @Test
+        @DisplayName("Should leave out days with a bright moon and still advance the watermark")
+        void shouldSkipInvalidDays() {
+            // Given
+            Tour tour = tourWithRule(null);
+            when(tourRepository.findByRecurringTrueAndStatus(TourStatus.PUBLISHED)).thenReturn(List.of(tour));
+            WeatherRisk brightMoon = new WeatherRisk(LocalDate.now(), false, 0, 0, 0, 95, 0.5, false, false, true, false, true);
+            when(weatherRiskService.assess(any(), any())).thenReturn(brightMoon);
+
+            // When
+            ScheduleGenerationRes result = generatorService.generateSchedulesManually();
+
+            // Then
+            verify(scheduleBulkWriter).insertMissing(List.of());
+            verify(tourRepository).advanceSchedulesGeneratedThrough(tour.getId(), null, TODAY.plusDays(89));
+            assertThat(result.created()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should keep generating other tours when one tour's insert fails")
+        void shouldIsolateFailingTour() {
+            // Given
+            Tour failing = tourWithRule(null);
+            Tour healthy = tourWithRule(null);
+            when(tourRepository.findByRecurringTrueAndStatus(TourStatus.PUBLISHED)).thenReturn(List.of(failing, healthy));
+            when(weatherRiskService.assess(any(), any())).thenReturn(calm());
+            when(scheduleBulkWriter.insertMissing(any())).thenAnswer(inv -> {
+                List<TourScheduleBulkWriter.NewSchedule> schedules = inv.getArgument(0);
+                if (schedules.get(0).tourId().equals(failing.getId())) {
+                    throw new DataIntegrityViolationException("boom");
+                }
+                return schedules.size();
+            });
+
+            // When
+            ScheduleGenerationRes result = generatorService.generateSchedulesManually();
+
+            // Then
+            assertThat(result.created()).isEqualTo(90);
+            assertThat(result.failed()).isEqualTo(90);
+            assertThat(result.tours()).extracting(ScheduleGenerationRes.TourResult::tourId, ScheduleGenerationRes.TourResult::error)
+                    .containsExactly(tuple(failing.getId(), "boom"), tuple(healthy.getId(), null));
+            verify(transactionManager).rollback(any());
+            assertThat(meterRegistry.get("schedule.generation.tour.duration").tag("outcome", "failure").timer().count())
+                    .isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should report every tour when one tour fails unexpectedly")
+        void shouldKeepResultsAfterUnexpectedError() {
+            // Given - an Error escapes generateForTour's own handling
+            Tour broken = tourWithRule(null);
+            Tour healthy = tourWithRule(null);
+            when(tourRepository.findByRecurringTrueAndStatus(TourStatus.PUBLISHED)).thenReturn(List.of(broken, healthy));
+            when(weatherRiskService.assess(any(), any())).thenReturn(calm());
+            when(weatherRiskService.assess(eq(broken), any())).thenThrow(new LinkageError("lunar table"));
+            when(scheduleBulkWriter.insertMissing(any())).thenAnswer(inv -> ((List<?>) inv.getArgument(0)).size());
+
+            // When
+            ScheduleGenerationRes result = generatorService.generateSchedulesManually();
+
+            // Then
+            assertThat(result.tours()).extracting(ScheduleGenerationRes.TourResult::tourId, ScheduleGenerationRes.TourResult::error)
+                    .containsExactly(tuple(broken.getId(), "lunar table"), tuple(healthy.getId(), null));
+            assertThat(result.created()).isEqualTo(90);
+        }
+    }
+
+    @Nested
+    @DisplayName("Watermark Tests")
+    class WatermarkTests {
+
+        @Test
+        @DisplayName("Should examine only the near weather window and the days after the watermark")
+        void shouldGenerateIncrementally() {
+            // Given
+            Tour tour = tourWithRule(null);
+            tour.setSchedulesGeneratedThrough(TODAY.plusDays(88));
+            when(tourRepository.findByRecurringTrueAndStatus(TourStatus.PUBLISHED)).thenReturn(List.of(tour));
+            when(weatherRiskService.assess(any(), any())).thenReturn(calm());
+
+            // When
+            generatorService.generateSchedulesManually();
+
+            // Then
+            ArgumentCaptor<List<TourScheduleBulkWriter.NewSchedule>> captor = ArgumentCaptor.captor();
+            verify(scheduleBulkWriter).insertMissing(captor.capture());
+            assertThat(captor.getValue())
+                    .extracting(schedule -> schedule.startDatetime().atZone(DateTimeUtils.CHILE_ZONE).toLocalDate())
+                    .containsExactly(TODAY, TODAY.plusDays(1), TODAY.plusDays(2), TODAY.plusDays(89));
+            verify(tourRepository).advanceSchedulesGeneratedThrough(tour.getId(), TODAY.plusDays(88), TODAY.plusDays(89));
+        }
+
+        @Test
+        @DisplayName("Should not move the watermark when it already covers the window")
+        void shouldKeepWatermarkWhenUpToDate() {
+            // Given
+            Tour tour = tourWithRule(null);
+            tour.setSchedulesGeneratedThrough(TODAY.plusDays(89));
+            when(tourRepository.findByRecurringTrueAndStatus(TourStatus.PUBLISHED)).thenReturn(List.of(tour));
+            when(weatherRiskService.assess(any(), any())).thenReturn(calm());
+
+            // When
+            generatorService.generateSchedulesManually();
+
+            // Then
+            verify(weatherRiskService, times(3)).assess(any(), any());
+            verify(tourRepository, never()).advanceSchedulesGeneratedThrough(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should not move the watermark past days that failed")
+        void shouldKeepWatermarkOnFailedDays() {
+            // Given
+            Tour tour = tourWithRule(null);
+            when(tourRepository.findByRecurringTrueAndStatus(TourStatus.PUBLISHED)).thenReturn(List.of(tour));
+            when(weatherRiskService.assess(any(), any())).thenReturn(calm());
+            when(weatherRiskService.assess(any(), eq(TODAY.plusDays(40)))).thenThrow(new IllegalStateException("lunar table"));
+
+            // When
+            ScheduleGenerationRes result = generatorService.generateSchedulesManually();
+
+            // Then
+            assertThat(result.failed()).isEqualTo(1);
+            verify(scheduleBulkWriter).insertMissing(any());
+            verify(tourRepository, never()).advanceSchedulesGeneratedThrough(any(), any(), any());
+        }
+    }
+
+    private static WeatherRisk calm() {
+        return new WeatherRisk(LocalDate.now(), false, 0, 0, 0, 10, 0.1, false, false, false, false, false);
+    }
+
+    private static Tour tourWithRule(String recurrenceRule) {
+        Tour tour = new Tour();
+        tour.setId(UUID.randomUUID());
+        tour.setRecurrenceRule(recurrenceRule);
+        tour.setDefaultMaxParticipants(10);
+        return tour;
+    }
+}
@@ -23,6 +23,8 @@ import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -209,7 +211,9 @@ class TourServiceTest {
                 null,      // guideName
                 null,      // itineraryTranslations
                 null,      // equipmentTranslations
-                null       // additionalInfoTranslations
+                null,      // additionalInfoTranslations
+                null,      // latitude
+                null       // longitude
             );
 
             when(slugGenerator.generateSlug("Nuevo Tour")).thenReturn("nuevo-tour");
@@ -238,7 +242,7 @@ class TourServiceTest {
                 Map.of("es", "Tour Astronómico"), // nameTranslations
                 Map.of(),  // descriptionBlocksTranslations
                 false, false, false, // sensitivity flags
-                "astronomy", new BigDecimal("60000"), 8, 4, null, TourStatus.DRAFT, "content-key", null, null, null, null
+                "astronomy", new BigDecimal("60000"), 8, 4, null, TourStatus.DRAFT, "content-key", null, null, null, null, null, null
             );
 
             when(slugGenerator.generateSlug("Tour Astronómico")).thenReturn("tour-astronomico");
@@ -269,7 +273,7 @@ class TourServiceTest {
             // Given - using record constructor
             TourCreateReq createReq = new TourCreateReq(
                 Map.of("es", "Mi Tour"), Map.of(), false, false, false,
-                "nature", new BigDecimal("50000"), 10, 2, null, TourStatus.DRAFT, "content-key", null, null, null, null
+                "nature", new BigDecimal("50000"), 10, 2, null, TourStatus.DRAFT, "content-key", null, null, null, null, null, null
             );
 
             when(slugGenerator.generateSlug("Mi Tour")).thenReturn("mi-tour");
@@ -290,6 +294,22 @@ class TourServiceTest {
             Tour savedTour = tourCaptor.getValue();
             assertThat(savedTour.getOwner()).isEqualTo(partnerAdmin);
         }
+
+        @Test
+        @DisplayName("Should reject a latitude without longitude")
+        void shouldRejectPartialLocation() {
+            // Given
+            TourCreateReq createReq = new TourCreateReq(
+                Map.of("es", "Mi Tour"), Map.of(), true, false, false,
+                "nature", new BigDecimal("50000"), 10, 2, null, TourStatus.DRAFT, "content-key", null, null, null, null, -22.92, null
+            );
+
+            // When & Then
+            assertThatThrownBy(() -> tourService.createTour(createReq, partnerAdmin))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("latitude and longitude");
+            verify(tourRepository, never()).save(any());
+        }
     }
 
     @Nested
@@ -303,7 +323,7 @@ class TourServiceTest {
             TourUpdateReq updateReq = new TourUpdateReq(
                 Map.of("es", "Tour Astronómico Premium", "en", "Premium Astronomy Tour"),
                 Map.of(), false, false, false, "astronomy",
-                new BigDecimal("90000"), 10, 4, null, TourStatus.PUBLISHED, null, null, null, null, null
+                new BigDecimal("90000"), 10, 4, null, TourStatus.PUBLISHED, null, null, null, null, null, null, null
             );
 
             when(tourRepository.findByIdNotDeleted(testTour.getId()))
@@ -321,6 +341,69 @@ class TourServiceTest {
             verify(auditLogService).logUpdate(eq(adminUser), eq("TOUR"), any(), any(), any(), any());
         }
 
+        @Test
+        @DisplayName("Should reset the schedule generation watermark when the start time changes")
+        void shouldResetWatermarkWhenScheduleRulesChange() {
+            // Given
+            testTour.setSchedulesGeneratedThrough(LocalDate.now().plusDays(89));
+            TourUpdateReq updateReq = updateReqWith(LocalTime.of(21, 0));
+            givenUpdatableTour();
+
+            // When
+            tourService.updateTour(testTour.getId(), updateReq, adminUser);
+
+            // Then
+            assertThat(testTour.getSchedulesGeneratedThrough()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should keep the schedule generation watermark when only content changes")
+        void shouldKeepWatermarkWhenScheduleRulesUnchanged() {
+            // Given
+            LocalDate generatedThrough = LocalDate.now().plusDays(89);
+            testTour.setSchedulesGeneratedThrough(generatedThrough);
+            TourUpdateReq updateReq = updateReqWith(null);
+            givenUpdatableTour();
+
+            // When
+            tourService.updateTour(testTour.getId(), updateReq, adminUser);
+
+            // Then
+            assertThat(testTour.getSchedulesGeneratedThrough()).isEqualTo(generatedThrough);
+        }
+
+        @Test
+        @DisplayName("Should keep the tour location when the update carries no coordinates")
+        void shouldKeepLocationWhenCoordinatesMissing() {
+            // Given - edit from the admin form, which doesn't send coordinates
+            testTour.setLatitude(-22.92);
+            testTour.setLongitude(-68.2);
+            TourUpdateReq updateReq = updateReqWith(null);
+            givenUpdatableTour();
+
+            // When
+            tourService.updateTour(testTour.getId(), updateReq, adminUser);
+
+            // Then
+            assertThat(testTour.getLatitude()).isEqualTo(-22.92);
+            assertThat(testTour.getLongitude()).isEqualTo(-68.2);
+        }
+
+        private TourUpdateReq updateReqWith(LocalTime defaultStartTime) {
+            return new TourUpdateReq(
+                Map.of("es", "Tour Astronómico", "en", "Astronomy Tour"),
+                Map.of(), false, false, false, "astronomy",
+                new BigDecimal("75000"), 12, 3, defaultStartTime, TourStatus.PUBLISHED, null, null, null, null, null, null, null
+            );
+        }
+
+        private void givenUpdatableTour() {
+            when(tourRepository.findByIdNotDeleted(testTour.getId())).thenReturn(Optional.of(testTour));
+            when(slugGenerator.generateSlug("Tour Astronómico")).thenReturn("tour-astronomico");
+            when(tourRepository.save(any(Tour.class))).thenReturn(testTour);
+            when(tourMapper.toTourRes(any(Tour.class))).thenReturn(testTourRes);
+        }
+
         @Test
         @DisplayName("Should throw exception when tour not found")
         void shouldThrowExceptionWhenTourNotFound() {
@@ -328,7 +411,7 @@ class TourServiceTest {
             UUID nonExistentId = UUID.randomUUID();
             TourUpdateReq updateReq = new TourUpdateReq(
                 Map.of("es", "Test"), null, null, null, null, null,
-                null, null, null, null, null, null, null, null, null, null
+                null, null, null, null, null, null, null, null, null, null, null, null
             );
 
             when(tourRepository.findByIdNotDeleted(nonExistentId))
@@ -481,7 +564,9 @@ class TourServiceTest {
             Map.of(),           // descriptionBlocksTranslations
             null,               // ownerId
             null,               // ownerName
-            null                // ownerEmail
+            null,               // ownerEmail
+            null,               // latitude
+            null                // longitude
         );
     }
 }
@@ -0,0 +1,248 @@
+package com.northernchile.api.weather;
+
+import com.northernchile.api.external.LunarService;
+import com.northernchile.api.external.WeatherForecast;
+import com.northernchile.api.external.WeatherService;
+import com.northernchile.api.model.Tour;
+import com.northernchile.api.model.TourSchedule;
+import com.northernchile.api.model.TourScheduleStatus;
+import com.northernchile.api.tour.TourScheduleRepository;
+import com.northernchile.api.util.DateTimeUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("WeatherRiskService Tests")
+class WeatherRiskServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.now(DateTimeUtils.CHILE_ZONE);
+
+    @Mock
+    private TourScheduleRepository scheduleRepository;
+
+    @Mock
+    private WeatherService weatherService;
+
+    @Mock
+    private LunarService lunarService;
+
+    @InjectMocks
+    private WeatherRiskService weatherRiskService;
+
+    private Tour tour;
+
+    @BeforeEach
+    void setUp() {
+        tour = new Tour();
+        tour.setId(UUID.randomUUID());
+        tour.setWindSensitive(true);
+        tour.setCloudSensitive(true);
+        tour.setMoonSensitive(true);
+        when(lunarService.getMoonIllumination(any())).thenReturn(30);
+    }
+
+    @Nested
+    @DisplayName("Threshold Tests")
+    class ThresholdTests {
+
+        @Test
+        @DisplayName("Should flag wind above 25 knots using the stronger of wind and gust")
+        void shouldFlagWindAboveThreshold() {
+            // Given - 13 m/s ≈ 25.3 knots, 12.8 m/s ≈ 24.9 knots
+            givenForecast(day(TODAY, 8.0, 13.0, 10), day(TODAY.plusDays(1), 12.8, 5.0, 10));
+
+            // When
+            WeatherRisk windy = weatherRiskService.assess(tour, TODAY);
+            WeatherRisk calm = weatherRiskService.assess(tour, TODAY.plusDays(1));
+
+            // Then
+            assertThat(windy.wind()).isTrue();
+            assertThat(windy.maxWindKnots()).isGreaterThan(25);
+            assertThat(calm.wind()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should flag clouds above 80% and moon illumination from 80%")
+        void shouldFlagCloudsAndMoon() {
+            // Given
+            givenForecast(day(TODAY, 2.0, 3.0, 81));
+            when(lunarService.getMoonIllumination(TODAY)).thenReturn(80);
+
+            // When
+            WeatherRisk risk = weatherRiskService.assess(tour, TODAY);
+
+            // Then
+            assertThat(risk.cloudy()).isTrue();
+            assertThat(risk.brightMoon()).isTrue();
+            assertThat(risk.moonIllumination()).isEqualTo(80);
+        }
+
+        @Test
+        @DisplayName("Should only flag risks the tour is sensitive to")
+        void shouldRespectSensitivityFlags() {
+            // Given
+            givenForecast(day(TODAY, 20.0, 25.0, 100));
+            when(lunarService.getMoonIllumination(TODAY)).thenReturn(100);
+            tour.setWindSensitive(false);
+            tour.setCloudSensitive(false);
+            tour.setMoonSensitive(false);
+
+            // When
+            WeatherRisk risk = weatherRiskService.assess(tour, TODAY);
+
+            // Then
+            assertThat(risk.wind()).isFalse();
+            assertThat(risk.cloudy()).isFalse();
+            assertThat(risk.brightMoon()).isFalse();
+            assertThat(risk.hasForecast()).isTrue();
+        }
+    }
+
+    @Nested
+    @DisplayName("Moon Rule Tests")
+    class MoonRuleTests {
+
+        @Test
+        @DisplayName("Should block availability only for astronomical tours on a full moon")
+        void shouldBlockAvailabilityOnFullMoonForAstronomicalTours() {
+            // Given - bright but not full
+            givenForecast(day(TODAY, 2.0, 3.0, 10));
+            when(lunarService.getMoonIllumination(TODAY)).thenReturn(85);
+            tour.setCategory("ASTRONOMICAL");
+
+            // When
+            WeatherRisk waxing = weatherRiskService.assess(tour, TODAY);
+            when(lunarService.isFullMoon(TODAY)).thenReturn(true);
+            WeatherRisk full = weatherRiskService.assess(tour, TODAY);
+
+            // Then - the generator's rule already skips the bright day; availability waits for full moon
+            assertThat(waxing.brightMoon()).isTrue();
+            assertThat(waxing.moonBlocksAvailability()).isFalse();
+            assertThat(waxing.moonAlert()).isFalse();
+            assertThat(full.moonBlocksAvailability()).isTrue();
+            assertThat(full.moonAlert()).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should alert moon-sensitive tours on a full moon regardless of category")
+        void shouldAlertMoonSensitiveToursOnFullMoon() {
+            // Given
+            givenForecast(day(TODAY, 2.0, 3.0, 10));
+            when(lunarService.isFullMoon(TODAY)).thenReturn(true);
+            tour.setCategory("nature");
+
+            // When
+            WeatherRisk risk = weatherRiskService.assess(tour, TODAY);
+
+            // Then
+            assertThat(risk.moonAlert()).isTrue();
+            assertThat(risk.moonBlocksAvailability()).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("Risk Table Tests")
+    class RiskTableTests {
+
+        @Test
+        @DisplayName("Should precompute upcoming non-cancelled schedules and serve them from the table")
+        void shouldServePrecomputedRisk() {
+            // Given
+            givenForecast(day(TODAY.plusDays(1), 20.0, 25.0, 10));
+            TourSchedule open = schedule(TODAY.plusDays(1), TourScheduleStatus.OPEN);
+            TourSchedule cancelled = schedule(TODAY.plusDays(1), TourScheduleStatus.CANCELLED);
+            when(scheduleRepository.findByStartDatetimeBetweenWithTour(any(), any())).thenReturn(List.of(open, cancelled));
+
+            // When
+            weatherRiskService.rebuild();
+            WeatherRisk first = weatherRiskService.riskFor(open);
+            WeatherRisk second = weatherRiskService.riskFor(open);
+
+            // Then
+            assertThat(weatherRiskService.tableSize()).isEqualTo(1);
+            assertThat(first.wind()).isTrue();
+            assertThat(second).isSameAs(first);
+            verify(weatherService, times(1)).getForecast(tour);
+        }
+
+        @Test
+        @DisplayName("Should assess schedules moved to another date instead of using the stale entry")
+        void shouldReassessMovedSchedule() {
+            // Given
+            givenForecast(day(TODAY.plusDays(1), 20.0, 25.0, 10), day(TODAY.plusDays(2), 2.0, 3.0, 10));
+            TourSchedule schedule = schedule(TODAY.plusDays(1), TourScheduleStatus.OPEN);
+            when(scheduleRepository.findByStartDatetimeBetweenWithTour(any(), any())).thenReturn(List.of(schedule));
+            weatherRiskService.rebuild();
+
+            // When
+            schedule.setStartDatetime(TODAY.plusDays(2).atTime(21, 0).atZone(DateTimeUtils.CHILE_ZONE).toInstant());
+            WeatherRisk risk = weatherRiskService.riskFor(schedule);
+
+            // Then
+            assertThat(risk.date()).isEqualTo(TODAY.plusDays(2));
+            assertThat(risk.wind()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should assess schedules whose tour settings were edited instead of using the stale entry")
+        void shouldReassessAfterTourEdit() {
+            // Given
+            givenForecast(day(TODAY.plusDays(1), 20.0, 25.0, 10));
+            TourSchedule schedule = schedule(TODAY.plusDays(1), TourScheduleStatus.OPEN);
+            when(scheduleRepository.findByStartDatetimeBetweenWithTour(any(), any())).thenReturn(List.of(schedule));
+            weatherRiskService.rebuild();
+            assertThat(weatherRiskService.riskFor(schedule).wind()).isTrue();
+
+            // When
+            tour.setWindSensitive(false);
+            WeatherRisk afterFlagChange = weatherRiskService.riskFor(schedule);
+            tour.setWindSensitive(true);
+            tour.setLatitude(-23.65);
+            tour.setLongitude(-70.40);
+            WeatherRisk afterMove = weatherRiskService.riskFor(schedule);
+
+            // Then
+            assertThat(afterFlagChange.wind()).isFalse();
+            assertThat(afterMove.wind()).isTrue();
+            verify(weatherService, times(3)).getForecast(tour);
+        }
+    }
+
+    private void givenForecast(WeatherForecast.Day... days) {
+        when(weatherService.getForecast(any(Tour.class))).thenReturn(WeatherForecast.of(List.of(days)));
+    }
+
+    private static WeatherForecast.Day day(LocalDate date, double windSpeed, double windGust, int clouds) {
+        long dt = date.atTime(12, 0).atZone(DateTimeUtils.CHILE_ZONE).toEpochSecond();
+        return new WeatherForecast.Day(date, dt, windSpeed, windGust, clouds, 0.0, Map.of());
+    }
+
+    private TourSchedule schedule(LocalDate date, TourScheduleStatus status) {
+        TourSchedule schedule = new TourSchedule();
+        schedule.setId(UUID.randomUUID());
+        schedule.setTour(tour);
+        schedule.setStatus(status);
+        schedule.setStartDatetime(date.atTime(21, 0).atZone(DateTimeUtils.CHILE_ZONE).toInstant());
+        return schedule;
+    }
+}